@@ -0,0 +1,162 @@
+package com.tlcsdm.insightpc.benchmark;
+
+import atlantafx.base.theme.PrimerLight;
+import com.tlcsdm.insightpc.InsightApplication;
+import com.tlcsdm.insightpc.controller.chart.TimeSeriesChart;
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.chart.AreaChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * One chart update per operation: new data, CSS, layout and a software
+ * rendered snapshot, for {@link TimeSeriesChart} and the
+ * {@code AreaChart<String, Number>} with a {@code CategoryAxis} that the CPU
+ * tab used before. Runs without a display through the Monocle headless
+ * platform, so the rendering cost is that of the software pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Dglass.platform=Monocle", "-Dmonocle.platform=Headless", "-Dprism.order=sw"})
+public class ChartRenderBenchmark {
+
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 300;
+    private static final long STEP_MILLIS = 1_000;
+    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+
+    /**
+     * Points per update: the old 30 point limit, 10 minutes and 1 hour at 1s.
+     */
+    @Param({"30", "600", "3600"})
+    public int points;
+
+    @Param({"canvas", "areaChart"})
+    public String chart;
+
+    private double[] values;
+    private long now;
+    private Parent root;
+    private WritableImage image;
+    private Runnable update;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        startToolkit();
+        values = new double[points * 2];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 0.5 + 0.4 * Math.sin(i / 20.0) * Math.cos(i / 7.0);
+        }
+        now = System.currentTimeMillis();
+        onFxThread(() -> {
+            Application.setUserAgentStylesheet(new PrimerLight().getUserAgentStylesheet());
+            update = "canvas".equals(chart) ? createCanvasChart() : createAreaChart();
+            Scene scene = new Scene(root, WIDTH, HEIGHT);
+            scene.getStylesheets().add(InsightApplication.class.getResource("style.css").toExternalForm());
+            image = new WritableImage(WIDTH, HEIGHT);
+            return null;
+        });
+    }
+
+    @Benchmark
+    public WritableImage render() throws Exception {
+        return onFxThread(() -> {
+            now += STEP_MILLIS;
+            update.run();
+            return root.snapshot(null, image);
+        });
+    }
+
+    private Runnable createCanvasChart() {
+        TimeSeriesChart canvasChart = new TimeSeriesChart();
+        canvasChart.addSeries();
+        canvasChart.setUpperBound(1);
+        canvasChart.setValueFormatter(value -> Math.round(value * 100) + "%");
+        root = new StackPane(canvasChart);
+        return () -> {
+            // A new window per update, as read from the metrics history
+            int offset = (int) (now / STEP_MILLIS % points);
+            double[] copy = new double[points];
+            System.arraycopy(values, offset, copy, 0, points);
+            long from = now - (points - 1) * STEP_MILLIS;
+            canvasChart.setTimeRange(from, now);
+            canvasChart.setData(0, new TimeSeriesWindow(from, STEP_MILLIS, copy));
+        };
+    }
+
+    private Runnable createAreaChart() {
+        CategoryAxis xAxis = new CategoryAxis();
+        xAxis.setAnimated(false);
+        NumberAxis yAxis = new NumberAxis(0, 100, 10);
+        yAxis.setAnimated(false);
+        AreaChart<String, Number> areaChart = new AreaChart<>(xAxis, yAxis);
+        areaChart.setAnimated(false);
+        areaChart.setCreateSymbols(false);
+        areaChart.setLegendVisible(false);
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        areaChart.setData(FXCollections.observableArrayList(series));
+        root = new StackPane(areaChart);
+        ZoneId zone = ZoneId.systemDefault();
+        return () -> {
+            int offset = (int) (now / STEP_MILLIS % points);
+            long from = now - (points - 1) * STEP_MILLIS;
+            List<XYChart.Data<String, Number>> data = new ArrayList<>(points);
+            for (int i = 0; i < points; i++) {
+                String timeLabel = LocalTime.ofInstant(Instant.ofEpochMilli(from + i * STEP_MILLIS), zone)
+                    .format(TIME_FMT);
+                data.add(new XYChart.Data<>(timeLabel, values[offset + i] * 100));
+            }
+            series.getData().setAll(data);
+        };
+    }
+
+    private static void startToolkit() throws InterruptedException {
+        if (STARTED.compareAndSet(false, true)) {
+            CountDownLatch started = new CountDownLatch(1);
+            Platform.startup(started::countDown);
+            started.await();
+        }
+    }
+
+    private static <T> T onFxThread(Supplier<T> action) throws Exception {
+        FutureTask<T> task = new FutureTask<>(action::get);
+        Platform.runLater(task);
+        return task.get();
+    }
+}
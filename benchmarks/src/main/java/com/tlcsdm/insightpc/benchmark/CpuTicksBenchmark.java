@@ -0,0 +1,71 @@
+package com.tlcsdm.insightpc.benchmark;
+
+import com.tlcsdm.insightpc.service.SystemInfoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import oshi.hardware.CentralProcessor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the CPU tick reads and load deltas done in every sampling cycle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CpuTicksBenchmark {
+
+    private CentralProcessor processor;
+    private long[] prevTicks;
+    private long[][] prevCoreTicks;
+
+    @Setup
+    public void setUp() {
+        processor = new SystemInfoService().getProcessor();
+        prevTicks = processor.getSystemCpuLoadTicks();
+        prevCoreTicks = processor.getProcessorCpuLoadTicks();
+    }
+
+    @Benchmark
+    public long[] systemTicks() {
+        return processor.getSystemCpuLoadTicks();
+    }
+
+    @Benchmark
+    public long[][] coreTicks() {
+        return processor.getProcessorCpuLoadTicks();
+    }
+
+    @Benchmark
+    public double systemLoadBetweenTicks() {
+        return processor.getSystemCpuLoadBetweenTicks(prevTicks);
+    }
+
+    @Benchmark
+    public double[] coreLoadBetweenTicks() {
+        return processor.getProcessorCpuLoadBetweenTicks(prevCoreTicks);
+    }
+
+    /**
+     * The full CPU part of a sampling cycle, as done by the sampling engine.
+     */
+    @Benchmark
+    public void samplingCycle(Blackhole blackhole) {
+        blackhole.consume(processor.getSystemCpuLoadBetweenTicks(prevTicks));
+        blackhole.consume(processor.getProcessorCpuLoadBetweenTicks(prevCoreTicks));
+        prevTicks = processor.getSystemCpuLoadTicks();
+        prevCoreTicks = processor.getProcessorCpuLoadTicks();
+    }
+}
@@ -0,0 +1,61 @@
+package com.tlcsdm.insightpc.benchmark;
+
+import com.tlcsdm.insightpc.service.SystemInfoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the static formatting helpers used on every view refresh.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+
+    @State(Scope.Thread)
+    public static class Bytes {
+
+        /**
+         * Bytes, kilobytes and a multi-gigabyte value.
+         */
+        @Param({"512", "1536", "17179869184"})
+        public long value;
+    }
+
+    @State(Scope.Thread)
+    public static class Uptime {
+
+        /**
+         * Under a minute, and several days.
+         */
+        @Param({"42", "450000"})
+        public long seconds;
+    }
+
+    @Benchmark
+    public String formatBytes(Bytes bytes) {
+        return SystemInfoService.formatBytes(bytes.value);
+    }
+
+    @Benchmark
+    public String formatRate(Bytes bytes) {
+        return SystemInfoService.formatRate(bytes.value);
+    }
+
+    @Benchmark
+    public String formatUptime(Uptime uptime) {
+        return SystemInfoService.formatUptime(uptime.seconds);
+    }
+}
@@ -0,0 +1,54 @@
+package com.tlcsdm.insightpc.benchmark;
+
+import com.tlcsdm.insightpc.service.SystemInfoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OperatingSystem;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of listing processes the way the process tab does, at several limits.
+ * A limit of 0 lists every process.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessBenchmark {
+
+    @Param({"10", "50", "200", "0"})
+    public int limit;
+
+    private OperatingSystem os;
+
+    @Setup
+    public void setUp() {
+        os = new SystemInfoService().getOperatingSystem();
+    }
+
+    @Benchmark
+    public List<OSProcess> byMemory() {
+        return os.getProcesses(OperatingSystem.ProcessFiltering.ALL_PROCESSES,
+            OperatingSystem.ProcessSorting.RSS_DESC, limit);
+    }
+
+    @Benchmark
+    public List<OSProcess> byCpu() {
+        return os.getProcesses(OperatingSystem.ProcessFiltering.ALL_PROCESSES,
+            OperatingSystem.ProcessSorting.CPU_DESC, limit);
+    }
+}
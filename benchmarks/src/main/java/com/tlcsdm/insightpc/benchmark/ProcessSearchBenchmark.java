@@ -0,0 +1,87 @@
+package com.tlcsdm.insightpc.benchmark;
+
+import com.tlcsdm.insightpc.model.ProcessSample;
+import com.tlcsdm.insightpc.model.ProcessSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering 10,000 synthetic processes with the process search index, compared
+ * to a substring scan over the same text, and the cost of building the index
+ * on a refresh where 1% of the processes are new.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessSearchBenchmark {
+
+    private static final int PROCESSES = 10_000;
+
+    /**
+     * A rare command line argument, a common name and a very short query.
+     */
+    @Param({"shard=4711", "worker", "ja"})
+    public String query;
+
+    private ProcessSearchIndex index;
+    private List<ProcessSample> refreshed;
+    private String[] texts;
+
+    @Setup
+    public void setUp() {
+        List<ProcessSample> processes = new ArrayList<>(PROCESSES);
+        texts = new String[PROCESSES];
+        for (int pid = 1; pid <= PROCESSES; pid++) {
+            String name = pid % 10 == 0 ? "java" : "worker";
+            String commandLine = "/opt/app/bin/" + name + " --config=/etc/app/app.yaml --shard=" + pid;
+            processes.add(new ProcessSample(pid, 1, name, "/opt/app/bin/" + name, commandLine, "svc",
+                "RUNNING", 0, 0, 0, 1, 1000, 0, 0, 0, 0, 0, 0));
+            texts[pid - 1] = (pid + "\n" + name + "\nsvc\n" + commandLine).toLowerCase(Locale.ROOT);
+        }
+        index = ProcessSearchIndex.build(processes, null);
+        refreshed = new ArrayList<>(processes.subList(PROCESSES / 100, PROCESSES));
+        for (int pid = PROCESSES + 1; pid <= PROCESSES + PROCESSES / 100; pid++) {
+            refreshed.add(new ProcessSample(pid, 1, "worker", "/opt/app/bin/worker", "/opt/app/bin/worker",
+                "svc", "RUNNING", 0, 0, 0, 1, 1000, 0, 0, 0, 0, 0, 0));
+        }
+    }
+
+    @Benchmark
+    public int[] indexed() {
+        return index.find(query);
+    }
+
+    @Benchmark
+    public int scan() {
+        String lower = query.toLowerCase(Locale.ROOT);
+        int count = 0;
+        for (String text : texts) {
+            if (text.contains(lower)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public ProcessSearchIndex rebuild() {
+        return ProcessSearchIndex.build(refreshed, index);
+    }
+}
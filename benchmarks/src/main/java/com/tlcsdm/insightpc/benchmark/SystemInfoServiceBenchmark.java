@@ -0,0 +1,151 @@
+package com.tlcsdm.insightpc.benchmark;
+
+import com.tlcsdm.insightpc.service.CachedProbe;
+import com.tlcsdm.insightpc.service.SystemInfoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of every {@link SystemInfoService} getter.
+ * <p>
+ * With {@code probes=uncached} all memoized probes are invalidated before each
+ * call, so the memoized getters measure the underlying OSHI query; with
+ * {@code cached} they measure the steady state the views see.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SystemInfoServiceBenchmark {
+
+    @Param({"cached", "uncached"})
+    public String probes;
+
+    private SystemInfoService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new SystemInfoService();
+    }
+
+    @Setup(Level.Invocation)
+    public void invalidateProbes() {
+        if ("uncached".equals(probes)) {
+            service.getCachedProbes().forEach(CachedProbe::invalidate);
+        }
+    }
+
+    @Benchmark
+    public Object operatingSystem() {
+        return service.getOperatingSystem();
+    }
+
+    @Benchmark
+    public Object hardware() {
+        return service.getHardware();
+    }
+
+    @Benchmark
+    public Object processor() {
+        return service.getProcessor();
+    }
+
+    @Benchmark
+    public Object memory() {
+        return service.getMemory();
+    }
+
+    @Benchmark
+    public Object diskStores() {
+        return service.getDiskStores();
+    }
+
+    @Benchmark
+    public Object fileStores() {
+        return service.getFileStores();
+    }
+
+    @Benchmark
+    public Object networkInterfaces() {
+        return service.getNetworkInterfaces();
+    }
+
+    @Benchmark
+    public Object powerSources() {
+        return service.getPowerSources();
+    }
+
+    @Benchmark
+    public Object usbDevices() {
+        return service.getUsbDevices();
+    }
+
+    @Benchmark
+    public Object computerSystem() {
+        return service.getComputerSystem();
+    }
+
+    @Benchmark
+    public Object sensors() {
+        return service.getSensors();
+    }
+
+    @Benchmark
+    public Object displays() {
+        return service.getDisplays();
+    }
+
+    @Benchmark
+    public Object graphicsCards() {
+        return service.getGraphicsCards();
+    }
+
+    @Benchmark
+    public Object soundCards() {
+        return service.getSoundCards();
+    }
+
+    @Benchmark
+    public String osFamily() {
+        return service.getOsFamily();
+    }
+
+    @Benchmark
+    public String osVersionInfo() {
+        return service.getOsVersionInfo();
+    }
+
+    @Benchmark
+    public String osManufacturer() {
+        return service.getOsManufacturer();
+    }
+
+    @Benchmark
+    public long systemUptime() {
+        return service.getSystemUptime();
+    }
+
+    @Benchmark
+    public int processCount() {
+        return service.getProcessCount();
+    }
+
+    @Benchmark
+    public int threadCount() {
+        return service.getThreadCount();
+    }
+}
@@ -0,0 +1,69 @@
+package com.tlcsdm.insightpc.benchmark;
+
+import com.tlcsdm.insightpc.service.SystemInfoService;
+import com.tlcsdm.insightpc.service.ValueFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick label formatting with {@link ValueFormatter} compared to
+ * {@code String.format}. The {@code ValueFormatter} benchmarks are expected to
+ * report a {@code gc.alloc.rate.norm} of 0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueFormatterBenchmark {
+
+    /**
+     * Bytes, kilobytes and a multi-gigabyte value.
+     */
+    @Param({"512", "1536", "17179869184"})
+    public long bytes;
+
+    private final ValueFormatter formatter = new ValueFormatter(Locale.US);
+    private final double load = 0.4273;
+    private final long total = 34_359_738_368L;
+
+    @Benchmark
+    public CharSequence formatBytes() {
+        return formatter.clear().bytes(bytes).text();
+    }
+
+    @Benchmark
+    public CharSequence formatCoreLoad() {
+        return formatter.clear().percent(load, 0).text();
+    }
+
+    @Benchmark
+    public CharSequence formatMemoryLabel() {
+        return formatter.clear()
+            .percent(load, 1).append(" (").bytes(bytes).append(" / ").bytes(total).append(')')
+            .text();
+    }
+
+    @Benchmark
+    public String stringFormatCoreLoad() {
+        return String.format("%.0f%%", load * 100);
+    }
+
+    @Benchmark
+    public String stringFormatMemoryLabel() {
+        return String.format("%.1f%% (%s / %s)", load * 100,
+            SystemInfoService.formatBytes(bytes), SystemInfoService.formatBytes(total));
+    }
+}
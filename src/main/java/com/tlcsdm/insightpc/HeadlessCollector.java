@@ -0,0 +1,207 @@
+package com.tlcsdm.insightpc;
+
+import com.tlcsdm.insightpc.service.MetricsExporter;
+import com.tlcsdm.insightpc.service.MetricsRecorder;
+import com.tlcsdm.insightpc.service.SamplingEngine;
+import com.tlcsdm.insightpc.service.SnapshotJsonWriter;
+import com.tlcsdm.insightpc.service.SystemInfoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collector that runs the sampling engine without JavaFX, for servers.
+ * <p>
+ * Samples are written to stdout as JSON lines, or to a recording directory
+ * that the desktop application can play back, and can be served to
+ * Prometheus from a local endpoint. Only the service and model
+ * packages are used, so the JavaFX toolkit is never initialized. Logging goes
+ * to stderr to keep stdout clean.
+ */
+public final class HeadlessCollector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HeadlessCollector.class);
+
+    static final String OPTION_INTERVAL = "--interval=";
+    static final String OPTION_RECORD = "--record";
+    static final String OPTION_METRICS_PORT = "--metrics-port=";
+    static final String USAGE = """
+        Usage: insightpc --headless [--interval=<millis>] [--record[=<directory>]] [--metrics-port=<port>]
+          --interval      sampling interval in milliseconds (default %d)
+          --record        write a recording instead of JSON lines to stdout
+                          (default directory %s)
+          --metrics-port  serve Prometheus metrics on localhost instead of JSON lines to stdout
+                          (default port %d)
+        """.formatted(SamplingEngine.DEFAULT_INTERVAL_MILLIS, MetricsRecorder.getDefaultDirectory(),
+        MetricsExporter.DEFAULT_PORT);
+
+    private final long intervalMillis;
+    private final Path recordDirectory;
+    private final int metricsPort;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * @param metricsPort the metrics endpoint port, or -1 for no endpoint
+     */
+    HeadlessCollector(long intervalMillis, Path recordDirectory, int metricsPort) {
+        this.intervalMillis = intervalMillis;
+        this.recordDirectory = recordDirectory;
+        this.metricsPort = metricsPort;
+    }
+
+    public static void main(String[] args) {
+        HeadlessCollector collector;
+        try {
+            collector = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+        collector.run();
+    }
+
+    /**
+     * Create a collector from the command line; unknown options are rejected.
+     */
+    static HeadlessCollector parse(String[] args) {
+        long interval = SamplingEngine.DEFAULT_INTERVAL_MILLIS;
+        Path record = null;
+        int port = -1;
+        for (String arg : args) {
+            if (arg.equals(Launcher.HEADLESS_OPTION)) {
+                continue;
+            }
+            if (arg.startsWith(OPTION_INTERVAL)) {
+                try {
+                    interval = Long.parseLong(arg.substring(OPTION_INTERVAL.length()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid interval: " + arg);
+                }
+                if (interval <= 0) {
+                    throw new IllegalArgumentException("Interval must be positive: " + arg);
+                }
+            } else if (arg.equals(OPTION_RECORD)) {
+                record = MetricsRecorder.getDefaultDirectory();
+            } else if (arg.startsWith(OPTION_RECORD + "=")) {
+                record = Path.of(arg.substring(OPTION_RECORD.length() + 1));
+            } else if (arg.startsWith(OPTION_METRICS_PORT)) {
+                try {
+                    port = Integer.parseInt(arg.substring(OPTION_METRICS_PORT.length()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid port: " + arg);
+                }
+                if (port < 0 || port > 65535) {
+                    throw new IllegalArgumentException("Port out of range: " + arg);
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return new HeadlessCollector(interval, record, port);
+    }
+
+    long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    Path getRecordDirectory() {
+        return recordDirectory;
+    }
+
+    int getMetricsPort() {
+        return metricsPort;
+    }
+
+    /**
+     * Sample until the JVM is asked to shut down or stdout is closed.
+     */
+    void run() {
+        SystemInfoService systemInfoService = new SystemInfoService();
+        // One thread is enough: nothing else is scheduled and every cycle is short
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "insightpc-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        // Nothing reads the in-memory history here; the recorder writes its own
+        SamplingEngine engine = new SamplingEngine(systemInfoService, scheduler, intervalMillis, intervalMillis,
+            false);
+
+        MetricsExporter exporter = null;
+        if (metricsPort >= 0) {
+            exporter = new MetricsExporter(engine, metricsPort);
+            try {
+                exporter.start();
+            } catch (IOException e) {
+                LOG.error("Could not serve metrics on port {}", metricsPort, e);
+                scheduler.shutdown();
+                return;
+            }
+        }
+        MetricsRecorder recorder = null;
+        if (recordDirectory != null) {
+            recorder = new MetricsRecorder(recordDirectory);
+            recorder.start();
+            engine.addListener(recorder);
+            LOG.info("Recording metrics to {} every {} ms", recordDirectory, intervalMillis);
+        } else if (exporter == null) {
+            // Not System.out: a PrintStream hides write errors, so a closed pipe would go unnoticed
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8));
+            engine.addListener(new SnapshotJsonWriter(out, stopped::countDown));
+        }
+
+        MetricsRecorder activeRecorder = recorder;
+        MetricsExporter activeExporter = exporter;
+        Thread shutdownHook = new Thread(() -> {
+            stopped.countDown();
+            shutdown(engine, scheduler, activeRecorder, activeExporter);
+        }, "insightpc-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        engine.start();
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            // Stopped because stdout was closed; clean up here instead of in the hook
+            if (Runtime.getRuntime().removeShutdownHook(shutdownHook)) {
+                shutdown(engine, scheduler, activeRecorder, activeExporter);
+            }
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down and the hook cleans up
+        }
+    }
+
+    private static void shutdown(SamplingEngine engine, ScheduledExecutorService scheduler,
+                                 MetricsRecorder recorder, MetricsExporter exporter) {
+        if (exporter != null) {
+            exporter.stop();
+        }
+        engine.stop();
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (recorder != null) {
+            recorder.stop();
+        }
+    }
+}
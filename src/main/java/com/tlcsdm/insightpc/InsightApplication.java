@@ -3,6 +3,7 @@ package com.tlcsdm.insightpc;
 import com.tlcsdm.insightpc.config.AppSettings;
 import com.tlcsdm.insightpc.config.I18N;
 import com.tlcsdm.insightpc.controller.MainController;
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
@@ -14,6 +15,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 
 /**
  * Main JavaFX Application for InsightPC - OSHI system information visualizer.
@@ -57,6 +60,7 @@ public class InsightApplication extends Application {
         });
 
         primaryStage.show();
+        logTimeToFirstFrame();
         LOG.info("InsightPC application started");
     }
 
@@ -71,6 +75,20 @@ public class InsightApplication extends Application {
         launch(args);
     }
 
+    /**
+     * Log the time from process start to the first rendered pulse.
+     */
+    private void logTimeToFirstFrame() {
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                ProcessHandle.current().info().startInstant().ifPresent(start ->
+                    LOG.info("Time to first frame: {} ms", Duration.between(start, Instant.now()).toMillis()));
+            }
+        }.start();
+    }
+
     private void setStageIcon(Stage stage) {
         try {
             Image icon = new Image(getClass().getResourceAsStream("logo.png"));
@@ -1,14 +1,28 @@
 package com.tlcsdm.insightpc;
 
+import java.util.Arrays;
+
 /**
  * Launcher class for the application.
  * This class serves as the entry point when running from a shaded/fat JAR.
  * It allows the JavaFX runtime to be properly initialized without requiring
  * the main class to extend Application.
+ * <p>
+ * With {@value #HEADLESS_OPTION} the {@link HeadlessCollector} runs instead and
+ * no JavaFX class is loaded.
  */
 public class Launcher {
 
+    static final String HEADLESS_OPTION = "--headless";
+    private static final String LOG_TARGET_PROPERTY = "insightpc.log.target";
+
     public static void main(String[] args) {
-        InsightApplication.main(args);
+        if (Arrays.asList(args).contains(HEADLESS_OPTION)) {
+            // Must be set before the first logger is created so stdout only carries samples
+            System.setProperty(LOG_TARGET_PROPERTY, "System.err");
+            HeadlessCollector.main(args);
+        } else {
+            InsightApplication.main(args);
+        }
     }
 }
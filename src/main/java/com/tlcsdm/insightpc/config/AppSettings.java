@@ -4,23 +4,51 @@ import com.dlsc.preferencesfx.PreferencesFx;
 import com.dlsc.preferencesfx.model.Category;
 import com.dlsc.preferencesfx.model.Group;
 import com.dlsc.preferencesfx.model.Setting;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.tlcsdm.insightpc.model.DisplayLocale;
+import com.tlcsdm.insightpc.model.ProcessFilter;
+import com.tlcsdm.insightpc.service.MetricsExporter;
+import com.tlcsdm.insightpc.service.ProcessMonitor;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.prefs.Preferences;
 
 /**
  * Application settings management using PreferencesFX.
  */
 public class AppSettings {
 
+    private static final Logger LOG = LoggerFactory.getLogger(AppSettings.class);
+    private static final Preferences PREFS = Preferences.userNodeForPackage(AppSettings.class);
+    private static final String PREF_KEY_RECORDING = "recordingEnabled";
+    private static final String PREF_KEY_METRICS_ENDPOINT = "metricsEndpointEnabled";
+    private static final String PREF_KEY_METRICS_PORT = "metricsEndpointPort";
+    private static final String PREF_KEY_PROCESS_REFRESH = "processRefreshSeconds";
+    private static final String PREF_KEY_PROCESS_FILTERS = "savedProcessFilters";
+    private static final Gson GSON = new Gson();
+
     private static AppSettings instance;
 
     private final ObjectProperty<DisplayLocale> languageProperty;
     private final ObjectProperty<AppTheme> themeProperty;
+    private final BooleanProperty recordingProperty;
+    private final BooleanProperty metricsEndpointProperty;
+    private final IntegerProperty metricsPortProperty;
+    private final IntegerProperty processRefreshSecondsProperty;
+    private final ObservableList<ProcessFilter> savedProcessFilters;
 
     private PreferencesFx preferencesFx;
     private boolean suppressRebuild;
@@ -28,6 +56,13 @@ public class AppSettings {
     private AppSettings() {
         languageProperty = new SimpleObjectProperty<>(new DisplayLocale(I18N.getCurrentLocale()));
         themeProperty = new SimpleObjectProperty<>(AppTheme.getSavedTheme());
+        recordingProperty = new SimpleBooleanProperty(PREFS.getBoolean(PREF_KEY_RECORDING, false));
+        metricsEndpointProperty = new SimpleBooleanProperty(PREFS.getBoolean(PREF_KEY_METRICS_ENDPOINT, false));
+        metricsPortProperty = new SimpleIntegerProperty(
+            PREFS.getInt(PREF_KEY_METRICS_PORT, MetricsExporter.DEFAULT_PORT));
+        processRefreshSecondsProperty = new SimpleIntegerProperty(
+            PREFS.getInt(PREF_KEY_PROCESS_REFRESH, (int) (ProcessMonitor.DEFAULT_INTERVAL_MILLIS / 1000)));
+        savedProcessFilters = FXCollections.observableArrayList(loadProcessFilters());
 
         languageProperty.addListener((obs, oldVal, newVal) -> {
             if (newVal != null && !newVal.equals(oldVal) && !suppressRebuild) {
@@ -42,6 +77,15 @@ public class AppSettings {
                 AppTheme.saveTheme(newVal);
             }
         });
+
+        recordingProperty.addListener((obs, oldVal, newVal) -> PREFS.putBoolean(PREF_KEY_RECORDING, newVal));
+        metricsEndpointProperty.addListener((obs, oldVal, newVal) ->
+            PREFS.putBoolean(PREF_KEY_METRICS_ENDPOINT, newVal));
+        metricsPortProperty.addListener((obs, oldVal, newVal) -> PREFS.putInt(PREF_KEY_METRICS_PORT, newVal.intValue()));
+        processRefreshSecondsProperty.addListener((obs, oldVal, newVal) ->
+            PREFS.putInt(PREF_KEY_PROCESS_REFRESH, newVal.intValue()));
+        savedProcessFilters.addListener((ListChangeListener<ProcessFilter>) change ->
+            PREFS.put(PREF_KEY_PROCESS_FILTERS, GSON.toJson(List.copyOf(savedProcessFilters))));
     }
 
     /**
@@ -68,6 +112,41 @@ public class AppSettings {
         return themeProperty;
     }
 
+    /**
+     * Get the property controlling whether metric history is recorded to disk.
+     */
+    public BooleanProperty recordingProperty() {
+        return recordingProperty;
+    }
+
+    /**
+     * Get the property controlling whether the local metrics endpoint is served.
+     */
+    public BooleanProperty metricsEndpointProperty() {
+        return metricsEndpointProperty;
+    }
+
+    /**
+     * Get the port of the local metrics endpoint.
+     */
+    public IntegerProperty metricsPortProperty() {
+        return metricsPortProperty;
+    }
+
+    /**
+     * Get the refresh interval of the process list in seconds.
+     */
+    public IntegerProperty processRefreshSecondsProperty() {
+        return processRefreshSecondsProperty;
+    }
+
+    /**
+     * Get the filters of the process list saved by the user, in the order they were saved.
+     */
+    public ObservableList<ProcessFilter> getSavedProcessFilters() {
+        return savedProcessFilters;
+    }
+
     /**
      * Create and get the PreferencesFx instance.
      */
@@ -96,6 +175,16 @@ public class AppSettings {
                         Setting.of(I18N.get("settings.theme"),
                             FXCollections.observableArrayList(themes),
                             themeProperty)
+                    ),
+                    Group.of(I18N.get("settings.recording"),
+                        Setting.of(I18N.get("settings.recordMetrics"), recordingProperty)
+                    ),
+                    Group.of(I18N.get("settings.metricsEndpoint"),
+                        Setting.of(I18N.get("settings.serveMetrics"), metricsEndpointProperty),
+                        Setting.of(I18N.get("settings.metricsPort"), metricsPortProperty)
+                    ),
+                    Group.of(I18N.get("settings.processes"),
+                        Setting.of(I18N.get("settings.processRefresh"), processRefreshSecondsProperty)
                     )
                 )
             ).persistWindowState(false)
@@ -122,4 +211,18 @@ public class AppSettings {
     public void applyInitialSettings() {
         AppTheme.applySavedTheme();
     }
+
+    private static List<ProcessFilter> loadProcessFilters() {
+        String json = PREFS.get(PREF_KEY_PROCESS_FILTERS, null);
+        if (json == null) {
+            return List.of();
+        }
+        try {
+            ProcessFilter[] filters = GSON.fromJson(json, ProcessFilter[].class);
+            return filters == null ? List.of() : Arrays.asList(filters);
+        } catch (JsonParseException e) {
+            LOG.warn("Ignoring unreadable saved process filters", e);
+            return List.of();
+        }
+    }
 }
@@ -3,17 +3,37 @@ package com.tlcsdm.insightpc.controller;
 import com.tlcsdm.insightpc.config.AppSettings;
 import com.tlcsdm.insightpc.config.I18N;
 import com.tlcsdm.insightpc.controller.tab.*;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import com.tlcsdm.insightpc.service.MetricsExporter;
+import com.tlcsdm.insightpc.service.MetricsRecorder;
+import com.tlcsdm.insightpc.service.ProcessMonitor;
+import com.tlcsdm.insightpc.service.RecordingPlayer;
+import com.tlcsdm.insightpc.service.SamplingEngine;
+import com.tlcsdm.insightpc.service.SwitchableMetricsSource;
 import com.tlcsdm.insightpc.service.SystemInfoService;
+import javafx.beans.property.BooleanProperty;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
 
 /**
  * Main controller for the InsightPC application.
@@ -22,13 +42,38 @@ import java.util.concurrent.ScheduledExecutorService;
 public class MainController {
 
     private static final Logger LOG = LoggerFactory.getLogger(MainController.class);
+    private static final DateTimeFormatter PLAYBACK_TIME_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     @FXML
     private TabPane tabPane;
+    @FXML
+    private CheckMenuItem recordMenuItem;
+    @FXML
+    private MenuItem liveMenuItem;
+    @FXML
+    private HBox playbackBar;
+    @FXML
+    private Button playButton;
+    @FXML
+    private Slider timelineSlider;
+    @FXML
+    private Label playbackTimeLabel;
+    @FXML
+    private ToggleGroup speedGroup;
 
     private Stage primaryStage;
     private SystemInfoService systemInfoService;
+    private SamplingEngine samplingEngine;
     private ScheduledExecutorService scheduler;
+    private SwitchableMetricsSource metricsSource;
+    private ProcessMonitor processMonitor;
+    private MetricsRecorder recorder;
+    private MetricsExporter exporter;
+    private RecordingPlayer player;
+    private boolean updatingTimeline;
+    private final UiUpdatePump updatePump = new UiUpdatePump();
+    private final Consumer<SystemSnapshot> playbackListener = updatePump.conflate(this::onPlaybackSnapshot);
+    private final Map<Tab, AbstractTabBuilder> tabBuilders = new HashMap<>();
 
     @FXML
     public void initialize() {
@@ -38,20 +83,60 @@ public class MainController {
             t.setDaemon(true);
             return t;
         });
+        samplingEngine = new SamplingEngine(systemInfoService, scheduler);
+        // Tabs subscribe through the switchable source so they can follow a recording playback
+        metricsSource = new SwitchableMetricsSource(samplingEngine);
+        processMonitor = new ProcessMonitor(systemInfoService, scheduler);
+        // Live views post through the pump, which applies only the latest update per view each pulse
+        tabPane.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null) {
+                updatePump.uninstall(oldScene);
+            }
+            if (newScene != null) {
+                updatePump.install(newScene);
+            }
+        });
 
-        tabPane.getTabs().addAll(
-            new OverviewTabBuilder(systemInfoService, scheduler).build(),
-            new DetailTabBuilder(systemInfoService, scheduler).build(),
-            new MemoryTabBuilder(systemInfoService, scheduler).build(),
-            new CpuTabBuilder(systemInfoService, scheduler).build(),
-            new StorageTabBuilder(systemInfoService, scheduler).build(),
-            new NetworkTabBuilder(systemInfoService, scheduler).build(),
-            new VariablesTabBuilder(systemInfoService, scheduler).build(),
-            new ProcessTabBuilder(systemInfoService, scheduler).build(),
-            new UsbDevicesTabBuilder(systemInfoService, scheduler).build(),
-            new PowerTabBuilder(systemInfoService, scheduler).build()
+        List<AbstractTabBuilder> builders = List.of(
+            new OverviewTabBuilder(systemInfoService, metricsSource, scheduler, updatePump),
+            new DetailTabBuilder(systemInfoService, metricsSource, scheduler, updatePump),
+            new MemoryTabBuilder(systemInfoService, metricsSource, scheduler, updatePump),
+            new CpuTabBuilder(systemInfoService, metricsSource, scheduler, updatePump),
+            new StorageTabBuilder(systemInfoService, metricsSource, scheduler, updatePump, processMonitor),
+            new NetworkTabBuilder(systemInfoService, metricsSource, scheduler, updatePump),
+            new VariablesTabBuilder(systemInfoService, metricsSource, scheduler, updatePump),
+            new ProcessTabBuilder(systemInfoService, metricsSource, scheduler, updatePump, processMonitor),
+            new UsbDevicesTabBuilder(systemInfoService, metricsSource, scheduler, updatePump),
+            new PowerTabBuilder(systemInfoService, metricsSource, scheduler, updatePump)
         );
+        for (AbstractTabBuilder builder : builders) {
+            Tab tab = builder.build();
+            tabBuilders.put(tab, builder);
+            tabPane.getTabs().add(tab);
+        }
+
+        // Only the selected tab of a visible window receives live updates
+        tabPane.getSelectionModel().selectedItemProperty().addListener((obs, oldTab, newTab) -> {
+            deactivateTab(oldTab);
+            if (primaryStage == null || !primaryStage.isIconified()) {
+                activateTab(newTab);
+            }
+        });
+        activateTab(tabPane.getSelectionModel().getSelectedItem());
+
+        BooleanProperty recording = AppSettings.getInstance().recordingProperty();
+        recording.addListener((obs, wasRecording, isRecording) -> setRecording(isRecording));
+        setRecording(recording.get());
+        recordMenuItem.selectedProperty().bindBidirectional(recording);
+        AppSettings settings = AppSettings.getInstance();
+        settings.metricsEndpointProperty().addListener((obs, oldVal, newVal) -> updateMetricsEndpoint());
+        settings.metricsPortProperty().addListener((obs, oldVal, newVal) -> updateMetricsEndpoint());
+        updateMetricsEndpoint();
+        settings.processRefreshSecondsProperty().addListener((obs, oldVal, newVal) -> updateProcessRefresh());
+        updateProcessRefresh();
+        initPlaybackBar();
 
+        samplingEngine.start();
         LOG.info("All tabs initialized");
     }
 
@@ -60,6 +145,96 @@ public class MainController {
      */
     public void setPrimaryStage(Stage stage) {
         this.primaryStage = stage;
+        stage.iconifiedProperty().addListener((obs, wasIconified, iconified) -> {
+            Tab selected = tabPane.getSelectionModel().getSelectedItem();
+            if (iconified) {
+                deactivateTab(selected);
+            } else {
+                activateTab(selected);
+            }
+        });
+    }
+
+    private void setRecording(boolean enabled) {
+        if (enabled && recorder == null) {
+            recorder = new MetricsRecorder(MetricsRecorder.getDefaultDirectory());
+            recorder.start();
+            samplingEngine.addListener(recorder);
+            LOG.info("Recording metrics to {}", recorder.getDirectory());
+        } else if (!enabled && recorder != null) {
+            samplingEngine.removeListener(recorder);
+            recorder.stop();
+            LOG.info("Stopped recording metrics: {} written, {} dropped",
+                recorder.getWrittenCount(), recorder.getDroppedCount());
+            recorder = null;
+        }
+    }
+
+    /**
+     * Start, restart or stop the metrics endpoint to match the settings.
+     * The endpoint always serves the live engine, even during playback.
+     */
+    private void updateMetricsEndpoint() {
+        if (exporter != null) {
+            exporter.stop();
+            exporter = null;
+        }
+        AppSettings settings = AppSettings.getInstance();
+        if (!settings.metricsEndpointProperty().get()) {
+            return;
+        }
+        MetricsExporter started = new MetricsExporter(samplingEngine, settings.metricsPortProperty().get());
+        try {
+            started.start();
+            exporter = started;
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.warn("Could not serve metrics on port {}", settings.metricsPortProperty().get(), e);
+        }
+    }
+
+    private void updateProcessRefresh() {
+        int seconds = AppSettings.getInstance().processRefreshSecondsProperty().get();
+        if (seconds > 0) {
+            processMonitor.setIntervalMillis(seconds * 1000L);
+        } else {
+            LOG.warn("Ignoring process refresh interval of {} seconds", seconds);
+        }
+    }
+
+    private void initPlaybackBar() {
+        timelineSlider.valueChangingProperty().addListener((obs, wasChanging, changing) -> {
+            if (!changing) {
+                seekToTimeline();
+            }
+        });
+        timelineSlider.valueProperty().addListener((obs, oldValue, newValue) -> {
+            playbackTimeLabel.setText(formatPlaybackTime(newValue.longValue()));
+            if (!updatingTimeline && !timelineSlider.isValueChanging()) {
+                seekToTimeline();
+            }
+        });
+        speedGroup.selectedToggleProperty().addListener((obs, oldToggle, newToggle) -> {
+            if (newToggle == null) {
+                // Keep one speed selected when the active toggle is clicked again
+                speedGroup.selectToggle(oldToggle);
+            } else if (player != null) {
+                player.setSpeed(getSelectedSpeed());
+            }
+        });
+    }
+
+    private void activateTab(Tab tab) {
+        AbstractTabBuilder builder = tabBuilders.get(tab);
+        if (builder != null) {
+            builder.activate();
+        }
+    }
+
+    private void deactivateTab(Tab tab) {
+        AbstractTabBuilder builder = tabBuilders.get(tab);
+        if (builder != null) {
+            builder.deactivate();
+        }
     }
 
     /**
@@ -70,6 +245,122 @@ public class MainController {
         AppSettings.getInstance().getPreferencesFx().show(true);
     }
 
+    /**
+     * Choose a recording directory and play it back in the tabs.
+     */
+    @FXML
+    public void openRecording() {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle(I18N.get("menu.openRecording"));
+        File defaultDirectory = MetricsRecorder.getDefaultDirectory().toFile();
+        if (defaultDirectory.isDirectory()) {
+            chooser.setInitialDirectory(defaultDirectory);
+        }
+        File directory = chooser.showDialog(primaryStage);
+        if (directory == null) {
+            return;
+        }
+        RecordingPlayer opened;
+        try {
+            opened = RecordingPlayer.open(directory.toPath(), scheduler);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not open recording {}", directory, e);
+            Alert alert = new Alert(Alert.AlertType.ERROR, I18N.get("playback.openFailed", directory));
+            alert.setHeaderText(null);
+            if (primaryStage != null) {
+                alert.initOwner(primaryStage);
+            }
+            alert.showAndWait();
+            return;
+        }
+        closePlayer();
+        player = opened;
+        player.setSpeed(getSelectedSpeed());
+        player.addListener(playbackListener);
+        metricsSource.setDelegate(player);
+
+        updatingTimeline = true;
+        timelineSlider.setMin(player.getStartMillis());
+        timelineSlider.setMax(player.getEndMillis());
+        timelineSlider.setValue(player.getPositionMillis());
+        updatingTimeline = false;
+        playbackTimeLabel.setText(formatPlaybackTime(player.getPositionMillis()));
+        playButton.setText(I18N.get("playback.play"));
+        setPlaybackBarVisible(true);
+        LOG.info("Playing back recording {}", directory);
+    }
+
+    /**
+     * Leave playback and show live data again.
+     */
+    @FXML
+    public void returnToLive() {
+        closePlayer();
+        metricsSource.setDelegate(samplingEngine);
+        setPlaybackBarVisible(false);
+    }
+
+    /**
+     * Start or pause the playback.
+     */
+    @FXML
+    public void togglePlayback() {
+        if (player == null) {
+            return;
+        }
+        if (player.isPlaying()) {
+            player.pause();
+            playButton.setText(I18N.get("playback.play"));
+        } else {
+            player.play();
+            playButton.setText(I18N.get("playback.pause"));
+        }
+    }
+
+    private void onPlaybackSnapshot(SystemSnapshot snapshot) {
+        if (player == null) {
+            return;
+        }
+        if (!timelineSlider.isValueChanging()) {
+            updatingTimeline = true;
+            timelineSlider.setValue(snapshot.timestamp());
+            updatingTimeline = false;
+        }
+        if (!player.isPlaying()) {
+            playButton.setText(I18N.get("playback.play"));
+        }
+    }
+
+    private void seekToTimeline() {
+        if (player != null) {
+            player.seek((long) timelineSlider.getValue());
+        }
+    }
+
+    private double getSelectedSpeed() {
+        Toggle selected = speedGroup.getSelectedToggle();
+        return selected != null ? Double.parseDouble((String) selected.getUserData()) : 1;
+    }
+
+    private void closePlayer() {
+        if (player != null) {
+            player.removeListener(playbackListener);
+            player.close();
+            player = null;
+        }
+    }
+
+    private void setPlaybackBarVisible(boolean visible) {
+        playbackBar.setVisible(visible);
+        playbackBar.setManaged(visible);
+        liveMenuItem.setDisable(!visible);
+    }
+
+    private static String formatPlaybackTime(long timestampMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault())
+            .format(PLAYBACK_TIME_FMT);
+    }
+
     /**
      * Exit the application.
      */
@@ -109,8 +400,27 @@ public class MainController {
      */
     public void shutdown() {
         LOG.info("Application shutting down");
+        if (samplingEngine != null) {
+            samplingEngine.stop();
+        }
+        if (processMonitor != null) {
+            processMonitor.stop();
+        }
+        if (recorder != null) {
+            recorder.stop();
+        }
+        if (exporter != null) {
+            exporter.stop();
+        }
+        closePlayer();
         if (scheduler != null && !scheduler.isShutdown()) {
             scheduler.shutdownNow();
         }
+        if (systemInfoService != null) {
+            systemInfoService.getCachedProbes().forEach(probe ->
+                LOG.debug("Probe cache {}: {} hits, {} misses", probe.getName(), probe.getHits(), probe.getMisses()));
+        }
+        LOG.debug("UI updates: {} applied, {} dropped, {} pending", updatePump.getAppliedCount(),
+            updatePump.getDroppedCount(), updatePump.getQueueDepth());
     }
 }
@@ -0,0 +1,143 @@
+package com.tlcsdm.insightpc.controller;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Delivers background updates to the JavaFX application thread once per pulse.
+ * <p>
+ * Every view registers a slot that holds only the latest value posted to it.
+ * Posting from any thread replaces a value that was not applied yet and
+ * requests a pulse; the pump then applies each pending slot once, before the
+ * scene's layout pass. If the FX thread stalls, updates are dropped instead of
+ * queued, so the work per frame is bounded by the number of slots and stale
+ * frames are never replayed.
+ */
+public class UiUpdatePump {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UiUpdatePump.class);
+
+    private final List<Slot<?>> slots = new CopyOnWriteArrayList<>();
+    private final Runnable pulseRequest;
+    private final AtomicBoolean pulseRequested = new AtomicBoolean();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAdder appliedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final Runnable pulseListener = this::drain;
+
+    public UiUpdatePump() {
+        this(Platform::requestNextPulse);
+    }
+
+    /**
+     * @param pulseRequest asks for a pulse; called from any thread when an idle slot receives a value
+     */
+    UiUpdatePump(Runnable pulseRequest) {
+        this.pulseRequest = pulseRequest;
+    }
+
+    /**
+     * Drive the pump from the pulses of a scene. Values posted before this are
+     * kept and applied on the first pulse.
+     */
+    public void install(Scene scene) {
+        scene.addPreLayoutPulseListener(pulseListener);
+        pulseRequest.run();
+    }
+
+    /**
+     * Stop driving the pump from a scene.
+     */
+    public void uninstall(Scene scene) {
+        scene.removePreLayoutPulseListener(pulseListener);
+    }
+
+    /**
+     * Register a view update. The returned consumer can be called from any
+     * thread; the latest value it received is passed to {@code applier} on the
+     * FX application thread and earlier unapplied values are dropped.
+     */
+    public <T> Consumer<T> conflate(Consumer<T> applier) {
+        Slot<T> slot = new Slot<>(applier);
+        slots.add(slot);
+        return slot::post;
+    }
+
+    /**
+     * Get the number of slots holding a value that was not applied yet.
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Get the number of values applied since the pump was created.
+     */
+    public long getAppliedCount() {
+        return appliedCount.sum();
+    }
+
+    /**
+     * Get the number of values replaced by a newer one before they were applied.
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Apply every pending slot once. Runs on the FX application thread.
+     */
+    void drain() {
+        // Cleared first: a value posted while draining requests another pulse
+        pulseRequested.set(false);
+        for (Slot<?> slot : slots) {
+            slot.apply();
+        }
+    }
+
+    private final class Slot<T> {
+
+        private final Consumer<T> applier;
+        private final AtomicReference<T> latest = new AtomicReference<>();
+
+        Slot(Consumer<T> applier) {
+            this.applier = applier;
+        }
+
+        void post(T value) {
+            if (latest.getAndSet(value) != null) {
+                droppedCount.increment();
+                return;
+            }
+            queueDepth.incrementAndGet();
+            if (pulseRequested.compareAndSet(false, true)) {
+                pulseRequest.run();
+            }
+        }
+
+        void apply() {
+            T value = latest.getAndSet(null);
+            if (value == null) {
+                return;
+            }
+            queueDepth.decrementAndGet();
+            appliedCount.increment();
+            try {
+                applier.accept(value);
+            } catch (RuntimeException e) {
+                // One failing view must not stop the others from updating
+                LOG.error("UI update failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.tlcsdm.insightpc.controller.chart;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+
+/**
+ * Heatmap of per-core load over time: one row per logical processor, one
+ * column per time bucket, drawn on a single {@link Canvas}.
+ * <p>
+ * The cells live in a {@link WritableImage} with one pixel per cell that is
+ * used as a ring of columns. A new sample writes only its own column; drawing
+ * scales the image onto the canvas in two blits, oldest columns first, so the
+ * cost of a tick does not grow with the number of columns kept. The loads are
+ * also kept so the image can be repainted when the theme changes.
+ * <p>
+ * The color ramp runs from the fill of the {@code .heat-low} style class at
+ * zero load to {@code .heat-high} at full load; labels use {@code .axis}.
+ */
+public class CoreHeatmap extends Region {
+
+    private static final double LABEL_WIDTH = 36;
+    private static final double MIN_LABEL_SPACING = 14;
+    private static final int PALETTE_SIZE = 256;
+    private static final Font FONT = Font.font(10);
+
+    private final int rows;
+    private final int columns;
+    private final float[] loads;
+    private final WritableImage image;
+    private final int[] palette = new int[PALETTE_SIZE];
+    private final Canvas canvas = new Canvas();
+    private final Rectangle lowStyle = createStyleNode("heat-low");
+    private final Rectangle highStyle = createStyleNode("heat-high");
+    private final Rectangle axisStyle = createStyleNode("axis");
+
+    private long bucketMillis = 1_000;
+    // Bucket number of the newest column, or Long.MIN_VALUE when empty
+    private long headBucket = Long.MIN_VALUE;
+    // Set when the palette or all loads changed; the image is then repainted from the loads in one pass
+    private boolean imageStale = true;
+    private boolean dirty = true;
+
+    /**
+     * @param rows    number of logical processors
+     * @param columns number of time buckets kept
+     */
+    public CoreHeatmap(int rows, int columns) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("rows and columns must be positive");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.loads = new float[rows * columns];
+        this.image = new WritableImage(columns, rows);
+        Arrays.fill(loads, Float.NaN);
+        getStyleClass().add("core-heatmap");
+        getChildren().addAll(canvas, lowStyle, highStyle, axisStyle);
+        canvas.setManaged(false);
+        setMinSize(120, 60);
+        setPrefSize(400, Math.min(Math.max(rows * 6, 120), 400));
+    }
+
+    /**
+     * Get the number of logical processors shown.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the width of a time bucket in milliseconds.
+     */
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    /**
+     * Get the time of the newest bucket in epoch milliseconds, or
+     * {@link Long#MIN_VALUE} if nothing was added since the last reset.
+     */
+    public long getLatestMillis() {
+        return headBucket == Long.MIN_VALUE ? Long.MIN_VALUE : headBucket * bucketMillis;
+    }
+
+    /**
+     * Get the time span covered by all columns in milliseconds.
+     */
+    public long getSpanMillis() {
+        return columns * bucketMillis;
+    }
+
+    /**
+     * Remove all cells and set the width of a time bucket.
+     */
+    public void reset(long bucketMillis) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("bucketMillis must be positive: " + bucketMillis);
+        }
+        this.bucketMillis = bucketMillis;
+        headBucket = Long.MIN_VALUE;
+        Arrays.fill(loads, Float.NaN);
+        imageStale = true;
+        markDirty();
+    }
+
+    /**
+     * Add the loads of all cores for one sample.
+     *
+     * @param loads load per core between 0 and 1; extra values are ignored
+     */
+    public void put(long timestampMillis, double[] loads) {
+        int count = Math.min(loads.length, rows);
+        for (int row = 0; row < count; row++) {
+            put(timestampMillis, row, loads[row]);
+        }
+    }
+
+    /**
+     * Add the load of one core. Samples newer than the newest column move the
+     * ring forward and clear the buckets skipped in between; samples older
+     * than the oldest column are ignored.
+     */
+    public void put(long timestampMillis, int row, double load) {
+        long bucket = Math.floorDiv(timestampMillis, bucketMillis);
+        if (headBucket == Long.MIN_VALUE) {
+            headBucket = bucket;
+        } else if (bucket > headBucket) {
+            long skipped = Math.min(bucket - headBucket, columns);
+            for (long b = bucket - skipped + 1; b < bucket; b++) {
+                clearColumn(Math.floorMod(b, columns));
+            }
+            clearColumn(Math.floorMod(bucket, columns));
+            headBucket = bucket;
+        } else if (bucket <= headBucket - columns) {
+            return;
+        }
+        int column = Math.floorMod(bucket, columns);
+        float value = (float) Math.max(0, Math.min(1, load));
+        loads[row * columns + column] = Double.isNaN(load) ? Float.NaN : value;
+        if (!imageStale) {
+            image.getPixelWriter().setArgb(column, row, argb(loads[row * columns + column]));
+        }
+        markDirty();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = snapSizeX(getWidth());
+        double height = snapSizeY(getHeight());
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            dirty = true;
+        }
+        if (imageStale) {
+            imageStale = false;
+            updatePalette();
+            repaintImage();
+            dirty = true;
+        }
+        if (dirty) {
+            dirty = false;
+            draw();
+        }
+    }
+
+    private void clearColumn(int column) {
+        for (int row = 0; row < rows; row++) {
+            loads[row * columns + column] = Float.NaN;
+        }
+        if (!imageStale) {
+            PixelWriter writer = image.getPixelWriter();
+            for (int row = 0; row < rows; row++) {
+                writer.setArgb(column, row, 0);
+            }
+        }
+    }
+
+    private void markDirty() {
+        dirty = true;
+        requestLayout();
+    }
+
+    private Rectangle createStyleNode(String styleClass) {
+        // Never shown: only carries the fill resolved from the style sheet
+        Rectangle node = new Rectangle();
+        node.getStyleClass().add(styleClass);
+        node.setManaged(false);
+        node.setVisible(false);
+        node.fillProperty().addListener((obs, oldFill, newFill) -> {
+            imageStale = true;
+            markDirty();
+        });
+        return node;
+    }
+
+    private void updatePalette() {
+        Color low = toColor(lowStyle.getFill());
+        Color high = toColor(highStyle.getFill());
+        for (int i = 0; i < PALETTE_SIZE; i++) {
+            Color c = low.interpolate(high, (double) i / (PALETTE_SIZE - 1));
+            palette[i] = (int) Math.round(c.getOpacity() * 255) << 24
+                | (int) Math.round(c.getRed() * 255) << 16
+                | (int) Math.round(c.getGreen() * 255) << 8
+                | (int) Math.round(c.getBlue() * 255);
+        }
+    }
+
+    private void repaintImage() {
+        PixelWriter writer = image.getPixelWriter();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                writer.setArgb(column, row, argb(loads[row * columns + column]));
+            }
+        }
+    }
+
+    private int argb(float load) {
+        return Float.isNaN(load) ? 0 : palette[Math.round(load * (PALETTE_SIZE - 1))];
+    }
+
+    private void draw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        gc.clearRect(0, 0, width, height);
+        double plotWidth = width - LABEL_WIDTH;
+        if (plotWidth <= 0 || height <= 0) {
+            return;
+        }
+
+        // Core numbers, thinned out so they never overlap
+        double rowHeight = height / rows;
+        int labelStep = (int) Math.ceil(MIN_LABEL_SPACING / rowHeight);
+        gc.setFont(FONT);
+        gc.setFill(axisStyle.getFill());
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setTextBaseline(VPos.CENTER);
+        for (int row = 0; row < rows; row += labelStep) {
+            gc.fillText(String.valueOf(row), LABEL_WIDTH - 6, (row + 0.5) * rowHeight);
+        }
+
+        if (headBucket == Long.MIN_VALUE) {
+            return;
+        }
+        // The column after the head is the oldest: draw it and the rest of the ring first
+        gc.setImageSmoothing(false);
+        double columnWidth = plotWidth / columns;
+        int oldest = Math.floorMod(headBucket + 1, columns);
+        int olderColumns = columns - oldest;
+        gc.drawImage(image, oldest, 0, olderColumns, rows,
+            LABEL_WIDTH, 0, olderColumns * columnWidth, height);
+        if (oldest > 0) {
+            gc.drawImage(image, 0, 0, oldest, rows,
+                LABEL_WIDTH + olderColumns * columnWidth, 0, oldest * columnWidth, height);
+        }
+    }
+
+    private static Color toColor(Paint paint) {
+        return paint instanceof Color color ? color : Color.TRANSPARENT;
+    }
+}
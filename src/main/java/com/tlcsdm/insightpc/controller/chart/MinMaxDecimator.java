@@ -0,0 +1,114 @@
+package com.tlcsdm.insightpc.controller.chart;
+
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+
+import java.util.Arrays;
+
+/**
+ * Reduces a time series window to one minimum and maximum per pixel column.
+ * <p>
+ * Drawing a vertical segment from the minimum to the maximum of every column
+ * looks the same as drawing every point, but the cost depends on the chart
+ * width instead of the number of points, and short spikes are never lost as
+ * they would be by picking every n-th point. Columns that only received
+ * {@link Double#NaN} are marked as gaps so missing samples break the line;
+ * columns that received nothing are empty and are bridged.
+ * <p>
+ * The column arrays are reused between calls. Instances are not thread-safe.
+ */
+public final class MinMaxDecimator {
+
+    private double[] min = new double[0];
+    private double[] max = new double[0];
+    private boolean[] gap = new boolean[0];
+    private int columns;
+
+    /**
+     * Decimate the values of a window that fall between two timestamps.
+     *
+     * @param window     the values to decimate
+     * @param fromMillis timestamp at the left edge of the first column
+     * @param toMillis   timestamp at the right edge of the last column
+     * @param columns    number of pixel columns
+     */
+    public void decimate(TimeSeriesWindow window, long fromMillis, long toMillis, int columns) {
+        if (columns < 0) {
+            throw new IllegalArgumentException("columns must not be negative: " + columns);
+        }
+        if (min.length < columns) {
+            min = new double[columns];
+            max = new double[columns];
+            gap = new boolean[columns];
+        }
+        this.columns = columns;
+        Arrays.fill(min, 0, columns, Double.NaN);
+        Arrays.fill(max, 0, columns, Double.NaN);
+        Arrays.fill(gap, 0, columns, false);
+        long span = toMillis - fromMillis;
+        if (columns == 0 || span <= 0) {
+            return;
+        }
+
+        double columnsPerMilli = (double) columns / span;
+        double[] values = window.values();
+        for (int i = 0; i < values.length; i++) {
+            long ts = window.timestampAt(i);
+            if (ts < fromMillis || ts > toMillis) {
+                continue;
+            }
+            int column = Math.min((int) ((ts - fromMillis) * columnsPerMilli), columns - 1);
+            double value = values[i];
+            if (Double.isNaN(value)) {
+                gap[column] = Double.isNaN(max[column]);
+            } else if (Double.isNaN(max[column])) {
+                min[column] = value;
+                max[column] = value;
+                gap[column] = false;
+            } else {
+                min[column] = Math.min(min[column], value);
+                max[column] = Math.max(max[column], value);
+            }
+        }
+    }
+
+    /**
+     * Get the number of columns of the last decimation.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Get the smallest value of a column, or {@link Double#NaN} if it has none.
+     */
+    public double getMin(int column) {
+        return min[column];
+    }
+
+    /**
+     * Get the largest value of a column, or {@link Double#NaN} if it has none.
+     */
+    public double getMax(int column) {
+        return max[column];
+    }
+
+    /**
+     * Check whether a column only received missing samples.
+     */
+    public boolean isGap(int column) {
+        return gap[column];
+    }
+
+    /**
+     * Get the largest value of all columns, or {@link Double#NaN} if there is none.
+     */
+    public double getMaxValue() {
+        double result = Double.NaN;
+        for (int c = 0; c < columns; c++) {
+            if (Double.isNaN(result) || max[c] > result) {
+                result = max[c];
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,324 @@
+package com.tlcsdm.insightpc.controller.chart;
+
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleFunction;
+
+/**
+ * Time series chart drawn on a single {@link Canvas}.
+ * <p>
+ * Unlike {@code AreaChart} no node is created per point, so a series can hold
+ * thousands of values: every series is reduced to one min/max pair per pixel
+ * column by a {@link MinMaxDecimator} before drawing. The time axis is numeric
+ * and its ticks fall on whole seconds or minutes. Setting data only marks the
+ * chart dirty; it is drawn once per pulse during layout.
+ * <p>
+ * Colors come from the style sheet through the {@code time-series-chart}
+ * style class: {@code .axis} and {@code .grid} for the axes and
+ * {@code .series-N} for the N-th series.
+ */
+public class TimeSeriesChart extends Region {
+
+    /**
+     * Default time span shown by the views.
+     */
+    public static final long DEFAULT_SPAN_MILLIS = 10 * 60_000L;
+
+    private static final double AXIS_WIDTH = 64;
+    private static final double AXIS_HEIGHT = 18;
+    private static final double PADDING = 6;
+    private static final int Y_TICKS = 4;
+    private static final double MIN_TICK_SPACING = 90;
+    private static final double[] NICE_STEPS = {1, 2, 5, 10};
+    private static final long[] TIME_TICKS_MILLIS = {
+        1_000, 2_000, 5_000, 10_000, 15_000, 30_000,
+        60_000, 120_000, 300_000, 600_000, 900_000, 1_800_000,
+        3_600_000, 7_200_000, 10_800_000, 21_600_000, 43_200_000
+    };
+    private static final DateTimeFormatter SECONDS_FMT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final DateTimeFormatter MINUTES_FMT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final Font FONT = Font.font(10);
+
+    private final Canvas canvas = new Canvas();
+    private final MinMaxDecimator decimator = new MinMaxDecimator();
+    private final List<TimeSeriesWindow> series = new ArrayList<>();
+    private final List<Rectangle> seriesStyles = new ArrayList<>();
+    private final Rectangle axisStyle = createStyleNode("axis");
+    private final Rectangle gridStyle = createStyleNode("grid");
+
+    private long fromMillis;
+    private long toMillis = DEFAULT_SPAN_MILLIS;
+    private double upperBound = Double.NaN;
+    private DoubleFunction<String> valueFormatter = value -> String.valueOf(Math.round(value));
+    private boolean dirty = true;
+
+    public TimeSeriesChart() {
+        getStyleClass().add("time-series-chart");
+        getChildren().addAll(canvas, axisStyle, gridStyle);
+        canvas.setManaged(false);
+        setMinSize(120, 60);
+        setPrefSize(400, 200);
+    }
+
+    /**
+     * Add a series drawn in the color of the {@code .series-N} style class.
+     *
+     * @return the index of the series
+     */
+    public int addSeries() {
+        int index = series.size();
+        series.add(TimeSeriesWindow.empty(1_000));
+        Rectangle style = createStyleNode("series-" + index);
+        seriesStyles.add(style);
+        getChildren().add(style);
+        markDirty();
+        return index;
+    }
+
+    /**
+     * Set the values of a series. The window is kept until it is replaced.
+     */
+    public void setData(int index, TimeSeriesWindow window) {
+        series.set(index, window);
+        markDirty();
+    }
+
+    /**
+     * Set the time range shown on the x axis.
+     */
+    public void setTimeRange(long fromMillis, long toMillis) {
+        if (fromMillis != this.fromMillis || toMillis != this.toMillis) {
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+            markDirty();
+        }
+    }
+
+    /**
+     * Set the value at the top of the y axis, or {@link Double#NaN} to fit the data.
+     */
+    public void setUpperBound(double upperBound) {
+        if (Double.compare(upperBound, this.upperBound) != 0) {
+            this.upperBound = upperBound;
+            markDirty();
+        }
+    }
+
+    /**
+     * Set how the y axis labels are formatted.
+     */
+    public void setValueFormatter(DoubleFunction<String> valueFormatter) {
+        this.valueFormatter = valueFormatter;
+        markDirty();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = snapSizeX(getWidth());
+        double height = snapSizeY(getHeight());
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            dirty = true;
+        }
+        if (dirty) {
+            dirty = false;
+            draw();
+        }
+    }
+
+    private void markDirty() {
+        dirty = true;
+        requestLayout();
+    }
+
+    private Rectangle createStyleNode(String styleClass) {
+        // Never shown: only carries the fill resolved from the style sheet
+        Rectangle node = new Rectangle();
+        node.getStyleClass().add(styleClass);
+        node.setManaged(false);
+        node.setVisible(false);
+        node.fillProperty().addListener((obs, oldFill, newFill) -> markDirty());
+        return node;
+    }
+
+    private void draw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        gc.clearRect(0, 0, width, height);
+
+        double left = AXIS_WIDTH;
+        double top = PADDING;
+        int plotWidth = (int) (width - left - PADDING);
+        double plotHeight = height - top - AXIS_HEIGHT;
+        if (plotWidth <= 0 || plotHeight <= 0 || toMillis <= fromMillis) {
+            return;
+        }
+
+        double upper = upperBound;
+        if (Double.isNaN(upper)) {
+            upper = 0;
+            for (TimeSeriesWindow window : series) {
+                decimator.decimate(window, fromMillis, toMillis, plotWidth);
+                double max = decimator.getMaxValue();
+                if (max > upper) {
+                    upper = max;
+                }
+            }
+            upper = niceUpperBound(upper);
+        }
+
+        drawAxes(gc, left, top, plotWidth, plotHeight, upper);
+        for (int i = 0; i < series.size(); i++) {
+            decimator.decimate(series.get(i), fromMillis, toMillis, plotWidth);
+            drawSeries(gc, seriesStyles.get(i).getFill(), left, top, plotHeight, upper);
+        }
+    }
+
+    private void drawAxes(GraphicsContext gc, double left, double top, int plotWidth,
+                          double plotHeight, double upper) {
+        double bottom = top + plotHeight;
+        gc.setFont(FONT);
+        gc.setLineWidth(1);
+        gc.setStroke(gridStyle.getFill());
+        gc.setFill(axisStyle.getFill());
+
+        // Value axis: evenly divided from zero to the upper bound
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setTextBaseline(VPos.CENTER);
+        for (int i = 0; i <= Y_TICKS; i++) {
+            double y = snap(bottom - plotHeight * i / Y_TICKS);
+            gc.strokeLine(left, y, left + plotWidth, y);
+            gc.fillText(valueFormatter.apply(upper * i / Y_TICKS), left - 4, y);
+        }
+
+        // Time axis: ticks on whole multiples of the tick interval in local time
+        long span = toMillis - fromMillis;
+        long tick = TIME_TICKS_MILLIS[TIME_TICKS_MILLIS.length - 1];
+        for (long candidate : TIME_TICKS_MILLIS) {
+            if (plotWidth * (double) candidate / span >= MIN_TICK_SPACING) {
+                tick = candidate;
+                break;
+            }
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        long offset = zone.getRules().getOffset(Instant.ofEpochMilli(fromMillis)).getTotalSeconds() * 1000L;
+        DateTimeFormatter format = tick % 60_000 == 0 ? MINUTES_FMT : SECONDS_FMT;
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.TOP);
+        long first = Math.floorDiv(fromMillis + offset + tick - 1, tick) * tick - offset;
+        for (long ts = first; ts <= toMillis; ts += tick) {
+            double x = snap(left + (double) (ts - fromMillis) * plotWidth / span);
+            gc.strokeLine(x, top, x, bottom + 3);
+            gc.fillText(format.format(Instant.ofEpochMilli(ts).atZone(zone)), x, bottom + 4);
+        }
+    }
+
+    private void drawSeries(GraphicsContext gc, Paint paint, double left, double top,
+                            double plotHeight, double upper) {
+        int columns = decimator.getColumns();
+        double bottom = top + plotHeight;
+        double scale = upper > 0 ? plotHeight / upper : 0;
+
+        // Area under the maxima, one polygon per run of columns without a gap
+        gc.setFill(paint instanceof Color color ? color.deriveColor(0, 1, 1, 0.25) : paint);
+        gc.beginPath();
+        boolean inRun = false;
+        double lastX = 0;
+        for (int c = 0; c < columns; c++) {
+            if (decimator.isGap(c)) {
+                if (inRun) {
+                    gc.lineTo(lastX, bottom);
+                    gc.closePath();
+                    inRun = false;
+                }
+                continue;
+            }
+            double max = decimator.getMax(c);
+            if (Double.isNaN(max)) {
+                continue;
+            }
+            double x = left + c + 0.5;
+            double y = clamp(bottom - max * scale, top, bottom);
+            if (!inRun) {
+                gc.moveTo(x, bottom);
+                inRun = true;
+            }
+            gc.lineTo(x, y);
+            lastX = x;
+        }
+        if (inRun) {
+            gc.lineTo(lastX, bottom);
+            gc.closePath();
+        }
+        gc.fill();
+
+        // Line through the minimum and maximum of every column so spikes stay visible
+        gc.setStroke(paint);
+        gc.setLineWidth(1.5);
+        gc.beginPath();
+        boolean connected = false;
+        for (int c = 0; c < columns; c++) {
+            if (decimator.isGap(c)) {
+                connected = false;
+                continue;
+            }
+            double max = decimator.getMax(c);
+            if (Double.isNaN(max)) {
+                continue;
+            }
+            double x = left + c + 0.5;
+            double yMin = clamp(bottom - decimator.getMin(c) * scale, top, bottom);
+            double yMax = clamp(bottom - max * scale, top, bottom);
+            if (connected) {
+                gc.lineTo(x, yMin);
+            } else {
+                gc.moveTo(x, yMin);
+                connected = true;
+            }
+            gc.lineTo(x, yMax);
+        }
+        gc.stroke();
+    }
+
+    /**
+     * Round the largest value up to 1, 2 or 5 times a power of ten so the
+     * evenly divided axis labels are readable.
+     */
+    static double niceUpperBound(double max) {
+        if (!(max > 0) || Double.isInfinite(max)) {
+            return 1;
+        }
+        double magnitude = Math.pow(10, Math.floor(Math.log10(max)));
+        for (double step : NICE_STEPS) {
+            if (max <= step * magnitude) {
+                return step * magnitude;
+            }
+        }
+        return 10 * magnitude;
+    }
+
+    private static double snap(double value) {
+        // Centre one pixel wide lines on a pixel so they are not blurred
+        return Math.floor(value) + 0.5;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -1,37 +1,217 @@
 package com.tlcsdm.insightpc.controller.tab;
 
+import com.tlcsdm.insightpc.config.I18N;
+import com.tlcsdm.insightpc.controller.UiUpdatePump;
+import com.tlcsdm.insightpc.controller.chart.TimeSeriesChart;
+import com.tlcsdm.insightpc.model.HardwareInventory;
+import com.tlcsdm.insightpc.service.InventoryCache;
+import com.tlcsdm.insightpc.service.MetricsSource;
 import com.tlcsdm.insightpc.service.SystemInfoService;
+import javafx.application.Platform;
+import javafx.beans.value.ObservableValue;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Tab;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
 import javafx.scene.layout.Priority;
+import javafx.scene.layout.StackPane;
 import org.kordamp.ikonli.Ikon;
 import org.kordamp.ikonli.javafx.FontIcon;
 import org.kordamp.ikonli.material.Material;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Base class for tab builders providing shared UI helper methods.
+ * <p>
+ * The tab content is built lazily on first activation. Tabs with live content
+ * override {@link #onActivate()} and {@link #onDeactivate()} to subscribe to
+ * updates only while the tab is visible, and apply them through
+ * {@link UiUpdatePump#conflate(Consumer)} so a stalled FX thread never queues
+ * stale frames. Slow hardware probes should go
+ * through {@link #loadAsync(Supplier, Consumer)} so they never block the
+ * JavaFX application thread.
  */
 public abstract class AbstractTabBuilder {
 
     protected final SystemInfoService systemInfoService;
+    protected final MetricsSource metricsSource;
     protected final ScheduledExecutorService scheduler;
+    protected final UiUpdatePump updatePump;
 
-    protected AbstractTabBuilder(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractTabBuilder.class);
+    private static final ExecutorService PROBE_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    // The chart decimates to its width, so the finest tier is read for the whole span
+    private static final int MAX_CHART_POINTS = 3_600;
+
+    private Tab tab;
+    private boolean contentBuilt;
+    private boolean active;
+
+    protected AbstractTabBuilder(SystemInfoService systemInfoService, MetricsSource metricsSource,
+                                 ScheduledExecutorService scheduler, UiUpdatePump updatePump) {
         this.systemInfoService = systemInfoService;
+        this.metricsSource = metricsSource;
         this.scheduler = scheduler;
+        this.updatePump = updatePump;
+    }
+
+    /**
+     * Build and return the tab. Only the title and icon are created here;
+     * the content is built on first activation.
+     */
+    public Tab build() {
+        if (tab == null) {
+            tab = new Tab(I18N.get(getTitleKey()));
+            tab.setClosable(false);
+            tab.setGraphic(createTabIcon(getIcon()));
+            tab.setContent(createLoadingPlaceholder());
+        }
+        return tab;
+    }
+
+    /**
+     * Get the i18n key of the tab title.
+     */
+    protected abstract String getTitleKey();
+
+    /**
+     * Get the tab icon.
+     */
+    protected abstract Ikon getIcon();
+
+    /**
+     * Build the tab content. Called once, on the JavaFX application thread,
+     * when the tab is first shown.
+     */
+    protected abstract Node buildContent();
+
+    /**
+     * Mark the tab as visible. Must be called on the JavaFX application thread.
+     */
+    public final void activate() {
+        if (!active) {
+            if (!contentBuilt) {
+                contentBuilt = true;
+                build().setContent(buildContent());
+            }
+            active = true;
+            onActivate();
+        }
+    }
+
+    /**
+     * Mark the tab as hidden. Must be called on the JavaFX application thread.
+     */
+    public final void deactivate() {
+        if (active) {
+            active = false;
+            onDeactivate();
+        }
+    }
+
+    /**
+     * Check whether the tab is currently visible.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Called when the tab becomes visible. Live tabs start their updates here.
+     */
+    protected void onActivate() {
+    }
+
+    /**
+     * Called when the tab is hidden or the window is minimized. Live tabs stop their updates here.
+     */
+    protected void onDeactivate() {
     }
 
     /**
-     * Build and return the tab.
+     * Run a potentially slow probe on a virtual thread and deliver the result
+     * on the JavaFX application thread.
+     *
+     * @param probe    the probe to run in the background
+     * @param onResult receives the probe result on the JavaFX application thread
      */
-    public abstract Tab build();
+    protected <T> void loadAsync(Supplier<T> probe, Consumer<T> onResult) {
+        CompletableFuture.supplyAsync(probe, PROBE_EXECUTOR).whenComplete((result, error) -> {
+            if (error != null) {
+                LOG.warn("Hardware probe failed", error);
+                return;
+            }
+            Platform.runLater(() -> onResult.accept(result));
+        });
+    }
+
+    /**
+     * Render the hardware inventory from the on-disk cache right away, then
+     * render again if background revalidation produced a newer inventory.
+     *
+     * @param render renders the inventory on the JavaFX application thread
+     */
+    protected void loadInventory(Consumer<HardwareInventory> render) {
+        InventoryCache cache = systemInfoService.getInventoryCache();
+        HardwareInventory cached = cache.getCached();
+        if (cached != null) {
+            render.accept(cached);
+        }
+        cache.revalidate().whenComplete((inventory, error) -> {
+            if (error != null) {
+                LOG.warn("Hardware inventory probe failed", error);
+            } else if (inventory != cached) {
+                Platform.runLater(() -> render.accept(inventory));
+            }
+        });
+    }
+
+    /**
+     * Add a loading placeholder to the parent and replace it with the rendered
+     * probe result once the probe completes in the background.
+     *
+     * @param parent the container to add to
+     * @param probe  the probe to run in the background
+     * @param render builds the node for the result on the JavaFX application thread
+     */
+    protected <T> void addAsync(Pane parent, Supplier<T> probe, Function<T, Node> render) {
+        Label placeholder = createLoadingLabel();
+        parent.getChildren().add(placeholder);
+        loadAsync(probe, result -> {
+            int index = parent.getChildren().indexOf(placeholder);
+            if (index >= 0) {
+                parent.getChildren().set(index, render.apply(result));
+            }
+        });
+    }
+
+    protected Label createLoadingLabel() {
+        return new Label(I18N.get("common.loading"));
+    }
+
+    private Node createLoadingPlaceholder() {
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setMaxSize(40, 40);
+        return new StackPane(indicator);
+    }
 
     protected FontIcon createTabIcon(Ikon icon) {
         FontIcon fontIcon = new FontIcon(icon);
@@ -59,16 +239,73 @@ public abstract class AbstractTabBuilder {
         return grid;
     }
 
-    protected void addGridRow(GridPane grid, int row, String key, String value) {
+    /**
+     * Set the text of a label only if it changed, so a value that stays the
+     * same between cycles neither allocates a String nor triggers a layout pass.
+     */
+    protected static void setTextIfChanged(Label label, CharSequence text) {
+        String current = label.getText();
+        if (current == null || !current.contentEquals(text)) {
+            label.setText(text.toString());
+        }
+    }
+
+    /**
+     * Show the last {@link TimeSeriesChart#DEFAULT_SPAN_MILLIS} of history
+     * series in a chart, one history series per chart series in order.
+     *
+     * @param now the timestamp of the latest snapshot
+     */
+    protected void updateChart(TimeSeriesChart chart, long now, String... seriesNames) {
+        long from = now - TimeSeriesChart.DEFAULT_SPAN_MILLIS;
+        chart.setTimeRange(from, now);
+        for (int i = 0; i < seriesNames.length; i++) {
+            chart.setData(i, metricsSource.getHistory().read(seriesNames[i], from, now, MAX_CHART_POINTS));
+        }
+    }
+
+    /**
+     * Create a right-aligned table column showing a number property as formatted text.
+     */
+    protected static <S> TableColumn<S, Number> createNumberColumn(
+        String title, Function<S, ObservableValue<Number>> value, Function<Number, String> format) {
+        TableColumn<S, Number> column = new TableColumn<>(title);
+        column.setCellValueFactory(p -> value.apply(p.getValue()));
+        column.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(Number item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : format.apply(item));
+            }
+        });
+        column.setStyle("-fx-alignment: CENTER-RIGHT;");
+        return column;
+    }
+
+    /**
+     * Sort a table again by its current sort order, if any, after its rows were updated in place.
+     */
+    protected static void sortIfOrdered(TableView<?> table) {
+        if (!table.getSortOrder().isEmpty()) {
+            table.sort();
+        }
+    }
+
+    protected Label addGridRow(GridPane grid, int row, String key, String value) {
         Label keyLabel = new Label(key + ":");
         keyLabel.getStyleClass().add("key-label");
         Label valLabel = new Label(value != null ? value : "N/A");
         valLabel.setWrapText(true);
         grid.add(keyLabel, 0, row);
         grid.add(valLabel, 1, row);
+        return valLabel;
     }
 
     protected HBox createOverviewRow(Ikon icon, String label, String value) {
+        return createOverviewRow(icon, label, new Label(value != null ? value : "N/A"));
+    }
+
+    protected HBox createOverviewRow(Ikon icon, String label, Label valueLabel) {
         FontIcon fontIcon = new FontIcon(icon);
         fontIcon.setIconSize(18);
 
@@ -77,7 +314,6 @@ public abstract class AbstractTabBuilder {
         nameLabel.setMinWidth(120);
         nameLabel.setPrefWidth(120);
 
-        Label valueLabel = new Label(value != null ? value : "N/A");
         valueLabel.setWrapText(true);
 
         HBox row = new HBox(10, fontIcon, nameLabel, valueLabel);
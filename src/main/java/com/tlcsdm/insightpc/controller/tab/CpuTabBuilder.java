@@ -1,51 +1,70 @@
 package com.tlcsdm.insightpc.controller.tab;
 
 import com.tlcsdm.insightpc.config.I18N;
+import com.tlcsdm.insightpc.controller.UiUpdatePump;
+import com.tlcsdm.insightpc.controller.chart.CoreHeatmap;
+import com.tlcsdm.insightpc.controller.chart.TimeSeriesChart;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+import com.tlcsdm.insightpc.service.MetricsHistory;
+import com.tlcsdm.insightpc.service.MetricsSource;
 import com.tlcsdm.insightpc.service.SystemInfoService;
-import javafx.application.Platform;
-import javafx.collections.FXCollections;
+import com.tlcsdm.insightpc.service.ValueFormatter;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.chart.AreaChart;
-import javafx.scene.chart.CategoryAxis;
-import javafx.scene.chart.NumberAxis;
-import javafx.scene.chart.XYChart;
+import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ScrollPane;
-import javafx.scene.control.Tab;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
+import org.kordamp.ikonli.Ikon;
 import org.kordamp.ikonli.materialdesign2.MaterialDesignC;
 import oshi.hardware.CentralProcessor;
 
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Builds the CPU tab showing processor information, live usage bar,
- * per-core usage bars, and usage area chart.
+ * per-core usage bars, per-core load heatmap and usage history chart.
  */
 public class CpuTabBuilder extends AbstractTabBuilder {
 
-    private static final int MAX_DATA_POINTS = 30;
-    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final int MAX_CORE_BARS = 32;
+    private static final int HEATMAP_COLUMNS = 600;
 
-    public CpuTabBuilder(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
-        super(systemInfoService, scheduler);
+    private final Consumer<SystemSnapshot> snapshotListener = updatePump.conflate(this::applySnapshot);
+    private final ValueFormatter formatter = new ValueFormatter();
+
+    private ProgressBar cpuBar;
+    private Label cpuUsageLabel;
+    private ProgressBar[] coreBars;
+    private Label[] coreLabels;
+    private CoreHeatmap coreHeatmap;
+    private boolean heatmapStale;
+    private TimeSeriesChart cpuChart;
+
+    public CpuTabBuilder(SystemInfoService systemInfoService, MetricsSource metricsSource,
+                         ScheduledExecutorService scheduler, UiUpdatePump updatePump) {
+        super(systemInfoService, metricsSource, scheduler, updatePump);
     }
 
     @Override
-    public Tab build() {
-        Tab tab = new Tab(I18N.get("tab.cpu"));
-        tab.setClosable(false);
-        tab.setGraphic(createTabIcon(MaterialDesignC.CPU_64_BIT));
+    protected String getTitleKey() {
+        return "tab.cpu";
+    }
 
+    @Override
+    protected Ikon getIcon() {
+        return MaterialDesignC.CPU_64_BIT;
+    }
+
+    @Override
+    protected Node buildContent() {
         VBox content = new VBox(10);
         content.setPadding(new Insets(15));
 
@@ -72,10 +91,10 @@ public class CpuTabBuilder extends AbstractTabBuilder {
 
         // Overall CPU usage progress bar
         content.getChildren().add(createSectionLabel(I18N.get("cpu.usage")));
-        ProgressBar cpuBar = new ProgressBar(0);
+        cpuBar = new ProgressBar(0);
         cpuBar.setMaxWidth(Double.MAX_VALUE);
         cpuBar.setPrefHeight(25);
-        Label cpuUsageLabel = new Label("0%");
+        cpuUsageLabel = new Label("0%");
         cpuUsageLabel.setAlignment(Pos.CENTER);
 
         HBox usageBox = new HBox(10, cpuBar, cpuUsageLabel);
@@ -83,93 +102,112 @@ public class CpuTabBuilder extends AbstractTabBuilder {
         HBox.setHgrow(cpuBar, Priority.ALWAYS);
         content.getChildren().add(usageBox);
 
-        // Per-core CPU usage bars
+        // Per-core CPU usage bars; with many cores only the heatmap stays readable
         int logicalCores = cpu.getLogicalProcessorCount();
-        content.getChildren().add(createSectionLabel(I18N.get("cpu.perCoreUsage")));
-        int columns = Math.min(logicalCores, 4);
-        GridPane coreGrid = new GridPane();
-        coreGrid.setHgap(15);
-        coreGrid.setVgap(8);
-        coreGrid.setPadding(new Insets(5, 0, 5, 10));
-        for (int c = 0; c < columns; c++) {
-            ColumnConstraints cc = new ColumnConstraints();
-            cc.setPercentWidth(100.0 / columns);
-            cc.setHgrow(Priority.ALWAYS);
-            coreGrid.getColumnConstraints().add(cc);
+        coreBars = new ProgressBar[0];
+        coreLabels = new Label[0];
+        if (logicalCores <= MAX_CORE_BARS) {
+            content.getChildren().add(createSectionLabel(I18N.get("cpu.perCoreUsage")));
+            int columns = Math.min(logicalCores, 4);
+            GridPane coreGrid = new GridPane();
+            coreGrid.setHgap(15);
+            coreGrid.setVgap(8);
+            coreGrid.setPadding(new Insets(5, 0, 5, 10));
+            for (int c = 0; c < columns; c++) {
+                ColumnConstraints cc = new ColumnConstraints();
+                cc.setPercentWidth(100.0 / columns);
+                cc.setHgrow(Priority.ALWAYS);
+                coreGrid.getColumnConstraints().add(cc);
+            }
+
+            coreBars = new ProgressBar[logicalCores];
+            coreLabels = new Label[logicalCores];
+            for (int i = 0; i < logicalCores; i++) {
+                VBox coreBox = new VBox(2);
+                Label coreName = new Label(I18N.get("cpu.core") + " " + i);
+                coreName.getStyleClass().add("key-label");
+                ProgressBar coreBar = new ProgressBar(0);
+                coreBar.setMaxWidth(Double.MAX_VALUE);
+                coreBar.setPrefHeight(18);
+                Label corePercent = new Label("0%");
+                HBox coreRow = new HBox(5, coreBar, corePercent);
+                coreRow.setAlignment(Pos.CENTER_LEFT);
+                HBox.setHgrow(coreBar, Priority.ALWAYS);
+                coreBox.getChildren().addAll(coreName, coreRow);
+                coreBars[i] = coreBar;
+                coreLabels[i] = corePercent;
+                coreGrid.add(coreBox, i % columns, i / columns);
+            }
+            content.getChildren().add(coreGrid);
         }
 
-        ProgressBar[] coreBars = new ProgressBar[logicalCores];
-        Label[] coreLabels = new Label[logicalCores];
-        for (int i = 0; i < logicalCores; i++) {
-            VBox coreBox = new VBox(2);
-            Label coreName = new Label(I18N.get("cpu.core") + " " + i);
-            coreName.getStyleClass().add("key-label");
-            ProgressBar coreBar = new ProgressBar(0);
-            coreBar.setMaxWidth(Double.MAX_VALUE);
-            coreBar.setPrefHeight(18);
-            Label corePercent = new Label("0%");
-            HBox coreRow = new HBox(5, coreBar, corePercent);
-            coreRow.setAlignment(Pos.CENTER_LEFT);
-            HBox.setHgrow(coreBar, Priority.ALWAYS);
-            coreBox.getChildren().addAll(coreName, coreRow);
-            coreBars[i] = coreBar;
-            coreLabels[i] = corePercent;
-            coreGrid.add(coreBox, i % columns, i / columns);
-        }
-        content.getChildren().add(coreGrid);
-
-        // CPU usage area chart
-        CategoryAxis xAxis = new CategoryAxis();
-        xAxis.setLabel("");
-        xAxis.setAnimated(false);
-
-        NumberAxis yAxis = new NumberAxis(0, 100, 10);
-        yAxis.setLabel("%");
-        yAxis.setAnimated(false);
-
-        AreaChart<String, Number> cpuChart = new AreaChart<>(xAxis, yAxis);
-        cpuChart.setTitle(I18N.get("cpu.usage"));
-        cpuChart.setAnimated(false);
-        cpuChart.setCreateSymbols(false);
-        cpuChart.setLegendVisible(false);
+        // Per-core load over time, one row per logical processor
+        content.getChildren().add(createSectionLabel(I18N.get("cpu.perCoreHistory")));
+        coreHeatmap = new CoreHeatmap(Math.max(logicalCores, 1), HEATMAP_COLUMNS);
+        content.getChildren().add(coreHeatmap);
+
+        // CPU usage history, read from the metrics history on every update
+        content.getChildren().add(createSectionLabel(I18N.get("cpu.usageHistory")));
+        cpuChart = new TimeSeriesChart();
+        cpuChart.addSeries();
+        cpuChart.setUpperBound(1);
+        cpuChart.setValueFormatter(value -> Math.round(value * 100) + "%");
         cpuChart.setPrefHeight(300);
         VBox.setVgrow(cpuChart, Priority.ALWAYS);
+        content.getChildren().add(cpuChart);
 
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        series.setName(I18N.get("cpu.usage"));
-        cpuChart.setData(FXCollections.observableArrayList(series));
+        ScrollPane scrollPane = new ScrollPane(content);
+        scrollPane.setFitToWidth(true);
+        return scrollPane;
+    }
 
-        content.getChildren().add(cpuChart);
+    @Override
+    protected void onActivate() {
+        // The latest snapshot is delivered on subscription and the chart is read from history
+        heatmapStale = true;
+        metricsSource.addListener(snapshotListener);
+    }
 
-        // Schedule CPU usage updates
-        final long[][] prevTicksHolder = {cpu.getSystemCpuLoadTicks()};
-        final long[][][] prevCoreTicks = {cpu.getProcessorCpuLoadTicks()};
-        scheduler.scheduleAtFixedRate(() -> {
-            double cpuLoad = cpu.getSystemCpuLoadBetweenTicks(prevTicksHolder[0]);
-            prevTicksHolder[0] = cpu.getSystemCpuLoadTicks();
-            double[] coreLoads = cpu.getProcessorCpuLoadBetweenTicks(prevCoreTicks[0]);
-            prevCoreTicks[0] = cpu.getProcessorCpuLoadTicks();
-            Platform.runLater(() -> {
-                cpuBar.setProgress(cpuLoad);
-                cpuUsageLabel.setText(String.format("%.1f%%", cpuLoad * 100));
-
-                int updateCount = Math.min(coreLoads.length, coreBars.length);
-                for (int i = 0; i < updateCount; i++) {
-                    coreBars[i].setProgress(coreLoads[i]);
-                    coreLabels[i].setText(String.format("%.0f%%", coreLoads[i] * 100));
-                }
+    @Override
+    protected void onDeactivate() {
+        metricsSource.removeListener(snapshotListener);
+    }
 
-                String timeLabel = LocalTime.now().format(TIME_FMT);
-                series.getData().add(new XYChart.Data<>(timeLabel, cpuLoad * 100));
-                if (series.getData().size() > MAX_DATA_POINTS) {
-                    series.getData().remove(0);
-                }
-            });
-        }, 1, 2, TimeUnit.SECONDS);
+    private void applySnapshot(SystemSnapshot snapshot) {
+        double cpuLoad = snapshot.cpuLoad();
+        double[] coreLoads = snapshot.coreLoads();
 
-        ScrollPane scrollPane = new ScrollPane(content);
-        scrollPane.setFitToWidth(true);
-        tab.setContent(scrollPane);
-        return tab;
+        cpuBar.setProgress(cpuLoad);
+        setTextIfChanged(cpuUsageLabel, formatter.clear().percent(cpuLoad, 1).text());
+
+        int updateCount = Math.min(coreLoads.length, coreBars.length);
+        for (int i = 0; i < updateCount; i++) {
+            coreBars[i].setProgress(coreLoads[i]);
+            setTextIfChanged(coreLabels[i], formatter.clear().percent(coreLoads[i], 0).text());
+        }
+
+        updateChart(cpuChart, snapshot.timestamp(), MetricsHistory.CPU);
+        updateHeatmap(snapshot);
+    }
+
+    private void updateHeatmap(SystemSnapshot snapshot) {
+        long now = snapshot.timestamp();
+        long interval = metricsSource.getIntervalMillis();
+        // Refill from history after being hidden, after seeking back and when the interval changed
+        if (heatmapStale || now < coreHeatmap.getLatestMillis() || interval != coreHeatmap.getBucketMillis()) {
+            heatmapStale = false;
+            coreHeatmap.reset(interval);
+            long from = now - coreHeatmap.getSpanMillis();
+            int cores = Math.min(snapshot.coreLoads().length, coreHeatmap.getRows());
+            for (int core = 0; core < cores; core++) {
+                TimeSeriesWindow window = metricsSource.getHistory()
+                    .read(MetricsHistory.coreSeries(core), from, now, HEATMAP_COLUMNS + 1);
+                double[] values = window.values();
+                for (int i = 0; i < values.length; i++) {
+                    coreHeatmap.put(window.timestampAt(i), core, values[i]);
+                }
+            }
+        }
+        coreHeatmap.put(now, snapshot.coreLoads());
     }
 }
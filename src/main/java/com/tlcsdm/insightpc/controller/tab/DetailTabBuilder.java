@@ -1,16 +1,19 @@
 package com.tlcsdm.insightpc.controller.tab;
 
 import com.tlcsdm.insightpc.config.I18N;
+import com.tlcsdm.insightpc.controller.UiUpdatePump;
+import com.tlcsdm.insightpc.model.HardwareInventory.BaseboardInfo;
+import com.tlcsdm.insightpc.model.HardwareInventory.ComputerInfo;
+import com.tlcsdm.insightpc.model.HardwareInventory.FirmwareInfo;
+import com.tlcsdm.insightpc.service.MetricsSource;
 import com.tlcsdm.insightpc.service.SystemInfoService;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.control.ScrollPane;
-import javafx.scene.control.Tab;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
+import org.kordamp.ikonli.Ikon;
 import org.kordamp.ikonli.materialdesign2.MaterialDesignI;
-import oshi.hardware.Baseboard;
-import oshi.hardware.ComputerSystem;
-import oshi.hardware.Firmware;
 
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -19,57 +22,70 @@ import java.util.concurrent.ScheduledExecutorService;
  */
 public class DetailTabBuilder extends AbstractTabBuilder {
 
-    public DetailTabBuilder(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
-        super(systemInfoService, scheduler);
+    public DetailTabBuilder(SystemInfoService systemInfoService, MetricsSource metricsSource,
+                            ScheduledExecutorService scheduler, UiUpdatePump updatePump) {
+        super(systemInfoService, metricsSource, scheduler, updatePump);
     }
 
     @Override
-    public Tab build() {
-        Tab tab = new Tab(I18N.get("tab.detail"));
-        tab.setClosable(false);
-        tab.setGraphic(createTabIcon(MaterialDesignI.INFORMATION_OUTLINE));
+    protected String getTitleKey() {
+        return "tab.detail";
+    }
+
+    @Override
+    protected Ikon getIcon() {
+        return MaterialDesignI.INFORMATION_OUTLINE;
+    }
 
+    @Override
+    protected Node buildContent() {
         VBox content = new VBox(10);
         content.setPadding(new Insets(15));
 
-        ComputerSystem cs = systemInfoService.getComputerSystem();
-
-        // Computer System section
+        // Sections are rendered from the inventory cache and refreshed after revalidation
         content.getChildren().add(createSectionLabel(I18N.get("detail.computerSystem")));
-        GridPane csGrid = createInfoGrid();
-        int row = 0;
-        addGridRow(csGrid, row++, I18N.get("detail.manufacturer"), cs.getManufacturer());
-        addGridRow(csGrid, row++, I18N.get("detail.model"), cs.getModel());
-        addGridRow(csGrid, row++, I18N.get("detail.serialNumber"), cs.getSerialNumber());
-        addGridRow(csGrid, row++, I18N.get("detail.hardwareUUID"), cs.getHardwareUUID());
-        content.getChildren().add(csGrid);
+        VBox csBox = new VBox(createLoadingLabel());
+        content.getChildren().add(csBox);
 
-        // Baseboard section
-        Baseboard baseboard = cs.getBaseboard();
         content.getChildren().add(createSectionLabel(I18N.get("detail.baseboard")));
-        GridPane bbGrid = createInfoGrid();
-        row = 0;
-        addGridRow(bbGrid, row++, I18N.get("detail.baseboardManufacturer"), baseboard.getManufacturer());
-        addGridRow(bbGrid, row++, I18N.get("detail.baseboardModel"), baseboard.getModel());
-        addGridRow(bbGrid, row++, I18N.get("detail.baseboardVersion"), baseboard.getVersion());
-        addGridRow(bbGrid, row++, I18N.get("detail.baseboardSerialNumber"), baseboard.getSerialNumber());
-        content.getChildren().add(bbGrid);
+        VBox bbBox = new VBox(createLoadingLabel());
+        content.getChildren().add(bbBox);
 
-        // Firmware section
-        Firmware firmware = cs.getFirmware();
         content.getChildren().add(createSectionLabel(I18N.get("detail.firmware")));
-        GridPane fwGrid = createInfoGrid();
-        row = 0;
-        addGridRow(fwGrid, row++, I18N.get("detail.firmwareManufacturer"), firmware.getManufacturer());
-        addGridRow(fwGrid, row++, I18N.get("detail.firmwareName"), firmware.getName());
-        addGridRow(fwGrid, row++, I18N.get("detail.firmwareVersion"), firmware.getVersion());
-        addGridRow(fwGrid, row++, I18N.get("detail.firmwareReleaseDate"), firmware.getReleaseDate());
-        addGridRow(fwGrid, row++, I18N.get("detail.firmwareDescription"), firmware.getDescription());
-        content.getChildren().add(fwGrid);
+        VBox fwBox = new VBox(createLoadingLabel());
+        content.getChildren().add(fwBox);
+
+        loadInventory(inventory -> {
+            ComputerInfo cs = inventory.computer();
+            csBox.getChildren().setAll(createGrid(
+                new String[]{cs.manufacturer(), cs.model(), cs.serialNumber(), cs.hardwareUuid()},
+                "detail.manufacturer", "detail.model", "detail.serialNumber", "detail.hardwareUUID"));
+
+            BaseboardInfo baseboard = inventory.baseboard();
+            bbBox.getChildren().setAll(createGrid(
+                new String[]{baseboard.manufacturer(), baseboard.model(),
+                    baseboard.version(), baseboard.serialNumber()},
+                "detail.baseboardManufacturer", "detail.baseboardModel",
+                "detail.baseboardVersion", "detail.baseboardSerialNumber"));
+
+            FirmwareInfo firmware = inventory.firmware();
+            fwBox.getChildren().setAll(createGrid(
+                new String[]{firmware.manufacturer(), firmware.name(), firmware.version(),
+                    firmware.releaseDate(), firmware.description()},
+                "detail.firmwareManufacturer", "detail.firmwareName", "detail.firmwareVersion",
+                "detail.firmwareReleaseDate", "detail.firmwareDescription"));
+        });
 
         ScrollPane scrollPane = new ScrollPane(content);
         scrollPane.setFitToWidth(true);
-        tab.setContent(scrollPane);
-        return tab;
+        return scrollPane;
+    }
+
+    private GridPane createGrid(String[] values, String... keys) {
+        GridPane grid = createInfoGrid();
+        for (int row = 0; row < keys.length; row++) {
+            addGridRow(grid, row, I18N.get(keys[row]), values[row]);
+        }
+        return grid;
     }
 }
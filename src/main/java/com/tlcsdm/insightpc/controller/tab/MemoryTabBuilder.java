@@ -1,42 +1,61 @@
 package com.tlcsdm.insightpc.controller.tab;
 
 import com.tlcsdm.insightpc.config.I18N;
+import com.tlcsdm.insightpc.controller.UiUpdatePump;
+import com.tlcsdm.insightpc.controller.chart.TimeSeriesChart;
+import com.tlcsdm.insightpc.model.HardwareInventory.MemoryModule;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import com.tlcsdm.insightpc.service.MetricsHistory;
+import com.tlcsdm.insightpc.service.MetricsSource;
 import com.tlcsdm.insightpc.service.SystemInfoService;
-import javafx.application.Platform;
+import com.tlcsdm.insightpc.service.ValueFormatter;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ScrollPane;
-import javafx.scene.control.Tab;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
+import org.kordamp.ikonli.Ikon;
 import org.kordamp.ikonli.materialdesign2.MaterialDesignM;
 import oshi.hardware.GlobalMemory;
-import oshi.hardware.PhysicalMemory;
 import oshi.hardware.VirtualMemory;
 
-import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
- * Builds the Memory tab showing physical and virtual memory info.
+ * Builds the Memory tab showing physical and virtual memory info and usage history.
  */
 public class MemoryTabBuilder extends AbstractTabBuilder {
 
-    public MemoryTabBuilder(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
-        super(systemInfoService, scheduler);
+    private final Consumer<SystemSnapshot> snapshotListener = updatePump.conflate(this::applySnapshot);
+    private final ValueFormatter formatter = new ValueFormatter();
+
+    private ProgressBar memBar;
+    private Label memUsageLabel;
+    private TimeSeriesChart memChart;
+
+    public MemoryTabBuilder(SystemInfoService systemInfoService, MetricsSource metricsSource,
+                            ScheduledExecutorService scheduler, UiUpdatePump updatePump) {
+        super(systemInfoService, metricsSource, scheduler, updatePump);
     }
 
     @Override
-    public Tab build() {
-        Tab tab = new Tab(I18N.get("tab.memory"));
-        tab.setClosable(false);
-        tab.setGraphic(createTabIcon(MaterialDesignM.MEMORY));
+    protected String getTitleKey() {
+        return "tab.memory";
+    }
 
+    @Override
+    protected Ikon getIcon() {
+        return MaterialDesignM.MEMORY;
+    }
+
+    @Override
+    protected Node buildContent() {
         VBox content = new VBox(10);
         content.setPadding(new Insets(15));
 
@@ -57,15 +76,24 @@ public class MemoryTabBuilder extends AbstractTabBuilder {
         content.getChildren().add(grid);
 
         // Memory usage bar
-        ProgressBar memBar = new ProgressBar(0);
+        memBar = new ProgressBar(0);
         memBar.setMaxWidth(Double.MAX_VALUE);
         memBar.setPrefHeight(25);
-        Label memUsageLabel = new Label();
+        memUsageLabel = new Label();
         HBox usageBox = new HBox(10, memBar, memUsageLabel);
         usageBox.setAlignment(Pos.CENTER_LEFT);
         HBox.setHgrow(memBar, Priority.ALWAYS);
         content.getChildren().add(usageBox);
 
+        // Used memory history, scaled to the installed memory
+        content.getChildren().add(createSectionLabel(I18N.get("memory.usageHistory")));
+        memChart = new TimeSeriesChart();
+        memChart.addSeries();
+        memChart.setUpperBound(memory.getTotal());
+        memChart.setValueFormatter(value -> SystemInfoService.formatBytes((long) value));
+        memChart.setPrefHeight(220);
+        content.getChildren().add(memChart);
+
         // Virtual memory section
         content.getChildren().add(createSectionLabel(I18N.get("memory.virtual")));
         VirtualMemory vm = memory.getVirtualMemory();
@@ -81,41 +109,52 @@ public class MemoryTabBuilder extends AbstractTabBuilder {
             SystemInfoService.formatBytes(vm.getVirtualInUse()));
         content.getChildren().add(vmGrid);
 
-        // Physical memory sticks
-        List<PhysicalMemory> physMems = memory.getPhysicalMemory();
-        if (!physMems.isEmpty()) {
-            content.getChildren().add(createSectionLabel(I18N.get("memory.sticks")));
-            for (PhysicalMemory pm : physMems) {
+        // Physical memory sticks from the inventory cache (slow to enumerate on some platforms)
+        VBox sticksBox = new VBox(10, createLoadingLabel());
+        content.getChildren().add(sticksBox);
+        loadInventory(inventory -> {
+            sticksBox.getChildren().clear();
+            if (inventory.memoryModules().isEmpty()) {
+                return;
+            }
+            sticksBox.getChildren().add(createSectionLabel(I18N.get("memory.sticks")));
+            for (MemoryModule pm : inventory.memoryModules()) {
                 GridPane pmGrid = createInfoGrid();
-                row = 0;
-                addGridRow(pmGrid, row++, I18N.get("memory.bankLabel"), pm.getBankLabel());
-                addGridRow(pmGrid, row++, I18N.get("memory.capacity"),
-                    SystemInfoService.formatBytes(pm.getCapacity()));
-                addGridRow(pmGrid, row++, I18N.get("memory.clockSpeed"),
-                    String.format("%.0f MHz", pm.getClockSpeed() / 1_000_000.0));
-                addGridRow(pmGrid, row++, I18N.get("memory.memoryType"), pm.getMemoryType());
-                content.getChildren().add(pmGrid);
+                int pmRow = 0;
+                addGridRow(pmGrid, pmRow++, I18N.get("memory.bankLabel"), pm.bankLabel());
+                addGridRow(pmGrid, pmRow++, I18N.get("memory.capacity"),
+                    SystemInfoService.formatBytes(pm.capacity()));
+                addGridRow(pmGrid, pmRow++, I18N.get("memory.clockSpeed"),
+                    String.format("%.0f MHz", pm.clockSpeed() / 1_000_000.0));
+                addGridRow(pmGrid, pmRow++, I18N.get("memory.memoryType"), pm.memoryType());
+                sticksBox.getChildren().add(pmGrid);
             }
-        }
-
-        // Schedule memory usage updates
-        scheduler.scheduleAtFixedRate(() -> {
-            GlobalMemory mem = systemInfoService.getMemory();
-            long total = mem.getTotal();
-            long available = mem.getAvailable();
-            double usage = total > 0 ? (double) (total - available) / total : 0;
-            Platform.runLater(() -> {
-                memBar.setProgress(usage);
-                memUsageLabel.setText(String.format("%.1f%% (%s / %s)",
-                    usage * 100,
-                    SystemInfoService.formatBytes(total - available),
-                    SystemInfoService.formatBytes(total)));
-            });
-        }, 0, 3, TimeUnit.SECONDS);
+        });
 
         ScrollPane scrollPane = new ScrollPane(content);
         scrollPane.setFitToWidth(true);
-        tab.setContent(scrollPane);
-        return tab;
+        return scrollPane;
+    }
+
+    @Override
+    protected void onActivate() {
+        metricsSource.addListener(snapshotListener);
+    }
+
+    @Override
+    protected void onDeactivate() {
+        metricsSource.removeListener(snapshotListener);
+    }
+
+    private void applySnapshot(SystemSnapshot snapshot) {
+        long total = snapshot.memoryTotal();
+        long used = snapshot.memoryUsed();
+        double usage = snapshot.memoryUsage();
+        memBar.setProgress(usage);
+        setTextIfChanged(memUsageLabel, formatter.clear()
+            .percent(usage, 1).append(" (").bytes(used).append(" / ").bytes(total).append(')')
+            .text());
+        memChart.setUpperBound(total);
+        updateChart(memChart, snapshot.timestamp(), MetricsHistory.MEMORY_USED);
     }
 }
@@ -0,0 +1,149 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Network interfaces grouped by name prefix, such as all {@code veth*} or
+ * {@code cali*} interfaces of a container host, with their totals.
+ * <p>
+ * Like {@link ProcessGroupModel}, the model follows the diff of a
+ * {@link NetworkTableModel} and applies only what each changed row added to
+ * or took from its group since the last refresh. The prefix is the name up
+ * to its first character that is not a letter, or the whole name if it does
+ * not start with a letter. New and emptied groups are added and removed in
+ * one change each. Must be used on the JavaFX application thread once the
+ * groups are shown.
+ */
+public class NetworkGroupModel implements NetworkTableModel.RowListener {
+
+    private final ObservableList<NetworkGroupRow> groups = FXCollections.observableArrayList();
+    private final Map<String, NetworkGroupRow> groupsByPrefix = new HashMap<>();
+    private final Map<NetworkRow, Member> members = new IdentityHashMap<>();
+
+    /**
+     * Create a model that follows the rows of a network interface table.
+     */
+    public NetworkGroupModel(NetworkTableModel tableModel) {
+        tableModel.addRowListener(this);
+        rowsChanged(tableModel.getRows(), List.of(), List.of());
+    }
+
+    /**
+     * Get the groups, in the order they were first seen.
+     */
+    public ObservableList<NetworkGroupRow> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Get the group of a name prefix, or {@code null} if no interface has it.
+     */
+    public NetworkGroupRow getGroup(String prefix) {
+        return groupsByPrefix.get(prefix);
+    }
+
+    @Override
+    public void rowsChanged(List<NetworkRow> added, List<NetworkRow> updated, Collection<NetworkRow> removed) {
+        List<NetworkGroupRow> emptied = new ArrayList<>();
+        List<NetworkGroupRow> created = new ArrayList<>();
+        for (NetworkRow row : removed) {
+            Member member = members.remove(row);
+            if (member != null) {
+                member.leave();
+                if (member.group.interfaceCountProperty().get() == 0) {
+                    groupsByPrefix.remove(member.group.getPrefix(), member.group);
+                    emptied.add(member.group);
+                }
+            }
+        }
+        for (NetworkRow row : updated) {
+            // The name, and so the group, of a row never changes
+            Member member = members.get(row);
+            if (member != null) {
+                member.update(row);
+            }
+        }
+        for (NetworkRow row : added) {
+            String prefix = prefixOf(row.getName());
+            NetworkGroupRow group = groupsByPrefix.get(prefix);
+            if (group == null) {
+                group = new NetworkGroupRow(prefix);
+                groupsByPrefix.put(prefix, group);
+                created.add(group);
+            }
+            Member member = new Member(group);
+            group.add(1, 0, 0, 0, 0, 0, 0, 0);
+            member.update(row);
+            members.put(row, member);
+        }
+
+        if (!emptied.isEmpty()) {
+            groups.removeAll(emptied);
+        }
+        if (!created.isEmpty()) {
+            groups.addAll(created);
+        }
+    }
+
+    /**
+     * Get the group prefix of an interface name: {@code veth} for
+     * {@code veth3a1f}, {@code br} for {@code br-5c0e}.
+     */
+    static String prefixOf(String name) {
+        int end = 0;
+        while (end < name.length() && Character.isLetter(name.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? name : name.substring(0, end);
+    }
+
+    /**
+     * What one row currently adds to its group.
+     */
+    private static final class Member {
+
+        final NetworkGroupRow group;
+        int up;
+        double recvRate;
+        double sentRate;
+        long bytesRecv;
+        long bytesSent;
+        long errors;
+        long drops;
+
+        Member(NetworkGroupRow group) {
+            this.group = group;
+        }
+
+        void update(NetworkRow row) {
+            int newUp = row.upProperty().get() ? 1 : 0;
+            double newRecvRate = row.recvRateProperty().get();
+            double newSentRate = row.sentRateProperty().get();
+            long newBytesRecv = row.bytesRecvProperty().get();
+            long newBytesSent = row.bytesSentProperty().get();
+            long newErrors = row.errorsProperty().get();
+            long newDrops = row.dropsProperty().get();
+            group.add(0, newUp - up, newRecvRate - recvRate, newSentRate - sentRate,
+                newBytesRecv - bytesRecv, newBytesSent - bytesSent, newErrors - errors, newDrops - drops);
+            up = newUp;
+            recvRate = newRecvRate;
+            sentRate = newSentRate;
+            bytesRecv = newBytesRecv;
+            bytesSent = newBytesSent;
+            errors = newErrors;
+            drops = newDrops;
+        }
+
+        void leave() {
+            group.add(-1, -up, -recvRate, -sentRate, -bytesRecv, -bytesSent, -errors, -drops);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+
+/**
+ * One row of the grouped network view: all interfaces whose name starts with
+ * the same prefix, with their totals. The totals are changed by the
+ * difference each member made since the last refresh.
+ */
+public final class NetworkGroupRow {
+
+    private final String prefix;
+    private final IntegerProperty interfaceCount = new SimpleIntegerProperty(this, "interfaceCount");
+    private final IntegerProperty upCount = new SimpleIntegerProperty(this, "upCount");
+    private final DoubleProperty recvRate = new SimpleDoubleProperty(this, "recvRate");
+    private final DoubleProperty sentRate = new SimpleDoubleProperty(this, "sentRate");
+    private final LongProperty bytesRecv = new SimpleLongProperty(this, "bytesRecv");
+    private final LongProperty bytesSent = new SimpleLongProperty(this, "bytesSent");
+    private final LongProperty errors = new SimpleLongProperty(this, "errors");
+    private final LongProperty drops = new SimpleLongProperty(this, "drops");
+
+    // Running sums; they can drift slightly below zero from rounding and are clamped when shown
+    private double recvSum;
+    private double sentSum;
+
+    NetworkGroupRow(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Change the totals by the difference of one member.
+     */
+    void add(int interfaces, int up, double recv, double sent, long received, long transmitted,
+             long newErrors, long newDrops) {
+        if (interfaces != 0) {
+            interfaceCount.set(interfaceCount.get() + interfaces);
+        }
+        if (up != 0) {
+            upCount.set(upCount.get() + up);
+        }
+        if (received != 0) {
+            bytesRecv.set(bytesRecv.get() + received);
+        }
+        if (transmitted != 0) {
+            bytesSent.set(bytesSent.get() + transmitted);
+        }
+        if (newErrors != 0) {
+            errors.set(errors.get() + newErrors);
+        }
+        if (newDrops != 0) {
+            drops.set(drops.get() + newDrops);
+        }
+        recvSum += recv;
+        sentSum += sent;
+        boolean empty = interfaceCount.get() == 0;
+        double shownRecv = empty ? 0 : Math.max(0, recvSum);
+        if (Double.compare(recvRate.get(), shownRecv) != 0) {
+            recvRate.set(shownRecv);
+        }
+        double shownSent = empty ? 0 : Math.max(0, sentSum);
+        if (Double.compare(sentRate.get(), shownSent) != 0) {
+            sentRate.set(shownSent);
+        }
+    }
+
+    /**
+     * Get the name prefix that all members share.
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public ReadOnlyIntegerProperty interfaceCountProperty() {
+        return interfaceCount;
+    }
+
+    public ReadOnlyIntegerProperty upCountProperty() {
+        return upCount;
+    }
+
+    public ReadOnlyDoubleProperty recvRateProperty() {
+        return recvRate;
+    }
+
+    public ReadOnlyDoubleProperty sentRateProperty() {
+        return sentRate;
+    }
+
+    public ReadOnlyLongProperty bytesRecvProperty() {
+        return bytesRecv;
+    }
+
+    public ReadOnlyLongProperty bytesSentProperty() {
+        return bytesSent;
+    }
+
+    public ReadOnlyLongProperty errorsProperty() {
+        return errors;
+    }
+
+    public ReadOnlyLongProperty dropsProperty() {
+        return drops;
+    }
+}
@@ -0,0 +1,123 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import com.tlcsdm.insightpc.model.NetworkSample;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleLongProperty;
+
+/**
+ * One row of the network interface table. Like a {@link ProcessRow}, it lives
+ * as long as its interface and its properties are updated in place, so only
+ * the cells whose value changed are redrawn.
+ */
+public final class NetworkRow {
+
+    private final String name;
+    private final BooleanProperty up = new SimpleBooleanProperty(this, "up");
+    private final BooleanProperty virtual = new SimpleBooleanProperty(this, "virtual");
+    private final DoubleProperty recvRate = new SimpleDoubleProperty(this, "recvRate");
+    private final DoubleProperty sentRate = new SimpleDoubleProperty(this, "sentRate");
+    private final DoubleProperty packetRecvRate = new SimpleDoubleProperty(this, "packetRecvRate");
+    private final DoubleProperty packetSentRate = new SimpleDoubleProperty(this, "packetSentRate");
+    private final LongProperty bytesRecv = new SimpleLongProperty(this, "bytesRecv");
+    private final LongProperty bytesSent = new SimpleLongProperty(this, "bytesSent");
+    private final LongProperty errors = new SimpleLongProperty(this, "errors");
+    private final LongProperty drops = new SimpleLongProperty(this, "drops");
+
+    public NetworkRow(NetworkSample sample) {
+        this.name = sample.name();
+        update(sample);
+    }
+
+    /**
+     * Copy the values of a newer sample of the same interface.
+     *
+     * @return whether any value changed
+     */
+    public boolean update(NetworkSample sample) {
+        boolean changed = false;
+        if (up.get() != sample.up()) {
+            up.set(sample.up());
+            changed = true;
+        }
+        if (virtual.get() != sample.virtual()) {
+            virtual.set(sample.virtual());
+            changed = true;
+        }
+        changed |= set(recvRate, sample.recvRate());
+        changed |= set(sentRate, sample.sentRate());
+        changed |= set(packetRecvRate, sample.packetRecvRate());
+        changed |= set(packetSentRate, sample.packetSentRate());
+        changed |= set(bytesRecv, sample.bytesRecv());
+        changed |= set(bytesSent, sample.bytesSent());
+        changed |= set(errors, sample.errors());
+        changed |= set(drops, sample.drops());
+        return changed;
+    }
+
+    private static boolean set(DoubleProperty property, double value) {
+        if (Double.compare(property.get(), value) == 0) {
+            return false;
+        }
+        property.set(value);
+        return true;
+    }
+
+    private static boolean set(LongProperty property, long value) {
+        if (property.get() == value) {
+            return false;
+        }
+        property.set(value);
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ReadOnlyBooleanProperty upProperty() {
+        return up;
+    }
+
+    public ReadOnlyBooleanProperty virtualProperty() {
+        return virtual;
+    }
+
+    public ReadOnlyDoubleProperty recvRateProperty() {
+        return recvRate;
+    }
+
+    public ReadOnlyDoubleProperty sentRateProperty() {
+        return sentRate;
+    }
+
+    public ReadOnlyDoubleProperty packetRecvRateProperty() {
+        return packetRecvRate;
+    }
+
+    public ReadOnlyDoubleProperty packetSentRateProperty() {
+        return packetSentRate;
+    }
+
+    public ReadOnlyLongProperty bytesRecvProperty() {
+        return bytesRecv;
+    }
+
+    public ReadOnlyLongProperty bytesSentProperty() {
+        return bytesSent;
+    }
+
+    public ReadOnlyLongProperty errorsProperty() {
+        return errors;
+    }
+
+    public ReadOnlyLongProperty dropsProperty() {
+        return drops;
+    }
+}
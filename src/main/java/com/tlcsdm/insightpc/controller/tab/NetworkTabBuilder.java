@@ -1,66 +1,420 @@
 package com.tlcsdm.insightpc.controller.tab;
 
 import com.tlcsdm.insightpc.config.I18N;
+import com.tlcsdm.insightpc.controller.UiUpdatePump;
+import com.tlcsdm.insightpc.controller.chart.TimeSeriesChart;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import com.tlcsdm.insightpc.service.MetricsHistory;
+import com.tlcsdm.insightpc.service.MetricsSource;
 import com.tlcsdm.insightpc.service.SystemInfoService;
+import com.tlcsdm.insightpc.service.ValueFormatter;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Insets;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.control.Separator;
-import javafx.scene.control.Tab;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
+import org.kordamp.ikonli.Ikon;
 import org.kordamp.ikonli.materialdesign2.MaterialDesignW;
 import oshi.hardware.NetworkIF;
 
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
- * Builds the Network tab showing network interface info.
+ * Builds the Network tab showing network activity and interface info.
+ * <p>
+ * The interfaces are listed in a table, which only creates cells for the
+ * visible rows, so hosts with hundreds of container interfaces stay smooth.
+ * The list can be filtered by name, hide interfaces that are down or
+ * virtual, and be grouped by name prefix. The selected interface gets charts
+ * of the last ten minutes of bytes and packets per second, and its addresses.
  */
 public class NetworkTabBuilder extends AbstractTabBuilder {
 
-    public NetworkTabBuilder(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
-        super(systemInfoService, scheduler);
+    private final Consumer<SystemSnapshot> snapshotListener = updatePump.conflate(this::applySnapshot);
+    private final ValueFormatter formatter = new ValueFormatter();
+    private final NetworkTableModel tableModel = new NetworkTableModel();
+    private final NetworkGroupModel groupModel = new NetworkGroupModel(tableModel);
+    private final FilteredList<NetworkRow> filteredRows = new FilteredList<>(tableModel.getRows());
+
+    private TableView<NetworkRow> interfaceTable;
+    private TableView<NetworkGroupRow> groupTable;
+    private TextField filterField;
+    private ToggleButton hideDownToggle;
+    private ToggleButton hideVirtualToggle;
+    private ToggleButton groupsToggle;
+    private Label countLabel;
+    private VBox detailPane;
+    private Label detailTitle;
+    private Label detailRates;
+    private Label detailTotals;
+    private TimeSeriesChart rateChart;
+    private TimeSeriesChart packetChart;
+    private Label displayNameLabel;
+    private Label macLabel;
+    private Label speedLabel;
+    private Label ipv4Label;
+    private Label ipv6Label;
+    private long lastTimestamp;
+
+    public NetworkTabBuilder(SystemInfoService systemInfoService, MetricsSource metricsSource,
+                             ScheduledExecutorService scheduler, UiUpdatePump updatePump) {
+        super(systemInfoService, metricsSource, scheduler, updatePump);
     }
 
     @Override
-    public Tab build() {
-        Tab tab = new Tab(I18N.get("tab.network"));
-        tab.setClosable(false);
-        tab.setGraphic(createTabIcon(MaterialDesignW.WEB));
+    protected String getTitleKey() {
+        return "tab.network";
+    }
 
+    @Override
+    protected Ikon getIcon() {
+        return MaterialDesignW.WEB;
+    }
+
+    @Override
+    protected Node buildContent() {
         VBox content = new VBox(10);
         content.setPadding(new Insets(15));
 
-        List<NetworkIF> networkIFs = systemInfoService.getNetworkInterfaces();
-
         content.getChildren().add(createSectionLabel(I18N.get("network.info")));
 
-        for (NetworkIF net : networkIFs) {
-            GridPane grid = createInfoGrid();
-            int row = 0;
-            addGridRow(grid, row++, I18N.get("network.name"), net.getName());
-            addGridRow(grid, row++, I18N.get("network.displayName"), net.getDisplayName());
-            addGridRow(grid, row++, I18N.get("network.mac"), net.getMacaddr());
-            addGridRow(grid, row++, I18N.get("network.speed"),
-                net.getSpeed() > 0
-                    ? SystemInfoService.formatBytes(net.getSpeed() / 8) + "/s"
-                    : "N/A");
-            addGridRow(grid, row++, I18N.get("network.ipv4"),
-                String.join(", ", net.getIPv4addr()));
-            addGridRow(grid, row++, I18N.get("network.ipv6"),
-                String.join(", ", net.getIPv6addr()));
-            addGridRow(grid, row++, I18N.get("network.bytesRecv"),
-                SystemInfoService.formatBytes(net.getBytesRecv()));
-            addGridRow(grid, row++, I18N.get("network.bytesSent"),
-                SystemInfoService.formatBytes(net.getBytesSent()));
-            content.getChildren().add(grid);
-            content.getChildren().add(new Separator());
+        interfaceTable = createInterfaceTable();
+        groupTable = createGroupTable();
+        detailPane = createDetailPane();
+        VBox listView = new VBox(10, interfaceTable, detailPane);
+        VBox.setVgrow(listView, Priority.ALWAYS);
+
+        filterField = new TextField();
+        filterField.setPromptText(I18N.get("network.filterPrompt"));
+        filterField.setPrefColumnCount(20);
+        filterField.textProperty().addListener((obs, oldText, newText) -> applyFilter());
+        hideDownToggle = new ToggleButton(I18N.get("network.hideDown"));
+        hideDownToggle.selectedProperty().addListener((obs, wasSelected, selected) -> applyFilter());
+        hideVirtualToggle = new ToggleButton(I18N.get("network.hideVirtual"));
+        hideVirtualToggle.selectedProperty().addListener((obs, wasSelected, selected) -> applyFilter());
+        HBox filterBox = new HBox(10, filterField, hideDownToggle, hideVirtualToggle);
+        filterBox.setAlignment(Pos.CENTER_LEFT);
+
+        groupsToggle = new ToggleButton(I18N.get("network.groupByPrefix"));
+        groupsToggle.selectedProperty().addListener((obs, wasSelected, selected) -> {
+            content.getChildren().set(content.getChildren().size() - 1, selected ? groupTable : listView);
+            if (selected) {
+                sortIfOrdered(groupTable);
+            }
+        });
+        // The groups add up every interface
+        filterBox.disableProperty().bind(groupsToggle.selectedProperty());
+
+        countLabel = new Label();
+        HBox toolbar = new HBox(10, filterBox, groupsToggle, countLabel);
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+        filteredRows.addListener((ListChangeListener<NetworkRow>) c -> updateCount());
+
+        content.getChildren().addAll(toolbar, listView);
+        return content;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TableView<NetworkRow> createInterfaceTable() {
+        TableView<NetworkRow> table = new TableView<>(filteredRows);
+        table.setPrefHeight(300);
+        VBox.setVgrow(table, Priority.ALWAYS);
+        // The filtered view cannot be sorted itself: sort the rows beneath it, which it follows
+        table.setSortPolicy(t -> {
+            if (t.getComparator() != null) {
+                FXCollections.sort(tableModel.getRows(), t.getComparator());
+            }
+            return true;
+        });
+
+        TableColumn<NetworkRow, String> nameCol = new TableColumn<>(I18N.get("network.name"));
+        nameCol.setCellValueFactory(p -> new ReadOnlyStringWrapper(p.getValue().getName()));
+        nameCol.setPrefWidth(160);
+
+        TableColumn<NetworkRow, Boolean> statusCol = createFlagColumn(I18N.get("network.status"),
+            NetworkRow::upProperty, I18N.get("network.up"), I18N.get("network.down"));
+        statusCol.setPrefWidth(70);
+
+        TableColumn<NetworkRow, Boolean> typeCol = createFlagColumn(I18N.get("network.type"),
+            NetworkRow::virtualProperty, I18N.get("network.virtual"), I18N.get("network.physical"));
+        typeCol.setPrefWidth(80);
+
+        TableColumn<NetworkRow, Number> recvCol = createNumberColumn(I18N.get("network.recvRate"),
+            NetworkRow::recvRateProperty, value -> SystemInfoService.formatRate(value.doubleValue()));
+        recvCol.setPrefWidth(100);
+
+        TableColumn<NetworkRow, Number> sentCol = createNumberColumn(I18N.get("network.sentRate"),
+            NetworkRow::sentRateProperty, value -> SystemInfoService.formatRate(value.doubleValue()));
+        sentCol.setPrefWidth(100);
+
+        TableColumn<NetworkRow, Number> packetRecvCol = createNumberColumn(I18N.get("network.packetRecvRate"),
+            NetworkRow::packetRecvRateProperty, NetworkTabBuilder::formatPacketRate);
+        packetRecvCol.setPrefWidth(100);
+
+        TableColumn<NetworkRow, Number> packetSentCol = createNumberColumn(I18N.get("network.packetSentRate"),
+            NetworkRow::packetSentRateProperty, NetworkTabBuilder::formatPacketRate);
+        packetSentCol.setPrefWidth(100);
+
+        TableColumn<NetworkRow, Number> bytesRecvCol = createNumberColumn(I18N.get("network.bytesRecv"),
+            NetworkRow::bytesRecvProperty, value -> SystemInfoService.formatBytes(value.longValue()));
+        bytesRecvCol.setPrefWidth(110);
+
+        TableColumn<NetworkRow, Number> bytesSentCol = createNumberColumn(I18N.get("network.bytesSent"),
+            NetworkRow::bytesSentProperty, value -> SystemInfoService.formatBytes(value.longValue()));
+        bytesSentCol.setPrefWidth(110);
+
+        TableColumn<NetworkRow, Number> errorsCol = createNumberColumn(I18N.get("network.errors"),
+            NetworkRow::errorsProperty, String::valueOf);
+        errorsCol.setPrefWidth(70);
+
+        TableColumn<NetworkRow, Number> dropsCol = createNumberColumn(I18N.get("network.drops"),
+            NetworkRow::dropsProperty, String::valueOf);
+        dropsCol.setPrefWidth(70);
+
+        table.getColumns().addAll(nameCol, statusCol, typeCol, recvCol, sentCol, packetRecvCol, packetSentCol,
+            bytesRecvCol, bytesSentCol, errorsCol, dropsCol);
+        // Busiest first; sorting by another column keeps working across refreshes
+        recvCol.setSortType(TableColumn.SortType.DESCENDING);
+        sentCol.setSortType(TableColumn.SortType.DESCENDING);
+        packetRecvCol.setSortType(TableColumn.SortType.DESCENDING);
+        packetSentCol.setSortType(TableColumn.SortType.DESCENDING);
+        errorsCol.setSortType(TableColumn.SortType.DESCENDING);
+        dropsCol.setSortType(TableColumn.SortType.DESCENDING);
+        table.getSortOrder().add(recvCol);
+        table.getSelectionModel().selectedItemProperty().addListener((obs, oldRow, row) -> showDetails(row));
+        return table;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TableView<NetworkGroupRow> createGroupTable() {
+        TableView<NetworkGroupRow> table = new TableView<>(groupModel.getGroups());
+        table.setPrefHeight(300);
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        TableColumn<NetworkGroupRow, String> prefixCol = new TableColumn<>(I18N.get("network.prefix"));
+        prefixCol.setCellValueFactory(p -> new ReadOnlyStringWrapper(p.getValue().getPrefix()));
+        prefixCol.setPrefWidth(160);
+
+        TableColumn<NetworkGroupRow, Number> countCol = createNumberColumn(I18N.get("network.interfaces"),
+            NetworkGroupRow::interfaceCountProperty, String::valueOf);
+        countCol.setPrefWidth(90);
+
+        TableColumn<NetworkGroupRow, Number> upCol = createNumberColumn(I18N.get("network.up"),
+            NetworkGroupRow::upCountProperty, String::valueOf);
+        upCol.setPrefWidth(70);
+
+        TableColumn<NetworkGroupRow, Number> recvCol = createNumberColumn(I18N.get("network.recvRate"),
+            NetworkGroupRow::recvRateProperty, value -> SystemInfoService.formatRate(value.doubleValue()));
+        recvCol.setPrefWidth(100);
+
+        TableColumn<NetworkGroupRow, Number> sentCol = createNumberColumn(I18N.get("network.sentRate"),
+            NetworkGroupRow::sentRateProperty, value -> SystemInfoService.formatRate(value.doubleValue()));
+        sentCol.setPrefWidth(100);
+
+        TableColumn<NetworkGroupRow, Number> bytesRecvCol = createNumberColumn(I18N.get("network.bytesRecv"),
+            NetworkGroupRow::bytesRecvProperty, value -> SystemInfoService.formatBytes(value.longValue()));
+        bytesRecvCol.setPrefWidth(110);
+
+        TableColumn<NetworkGroupRow, Number> bytesSentCol = createNumberColumn(I18N.get("network.bytesSent"),
+            NetworkGroupRow::bytesSentProperty, value -> SystemInfoService.formatBytes(value.longValue()));
+        bytesSentCol.setPrefWidth(110);
+
+        TableColumn<NetworkGroupRow, Number> errorsCol = createNumberColumn(I18N.get("network.errors"),
+            NetworkGroupRow::errorsProperty, String::valueOf);
+        errorsCol.setPrefWidth(70);
+
+        TableColumn<NetworkGroupRow, Number> dropsCol = createNumberColumn(I18N.get("network.drops"),
+            NetworkGroupRow::dropsProperty, String::valueOf);
+        dropsCol.setPrefWidth(70);
+
+        table.getColumns().addAll(prefixCol, countCol, upCol, recvCol, sentCol, bytesRecvCol, bytesSentCol,
+            errorsCol, dropsCol);
+        countCol.setSortType(TableColumn.SortType.DESCENDING);
+        recvCol.setSortType(TableColumn.SortType.DESCENDING);
+        sentCol.setSortType(TableColumn.SortType.DESCENDING);
+        table.getSortOrder().add(recvCol);
+        return table;
+    }
+
+    private VBox createDetailPane() {
+        detailTitle = createSectionLabel("");
+        detailRates = new Label();
+        detailTotals = new Label();
+
+        rateChart = new TimeSeriesChart();
+        rateChart.addSeries();
+        rateChart.addSeries();
+        rateChart.setValueFormatter(SystemInfoService::formatRate);
+        rateChart.setPrefHeight(140);
+
+        packetChart = new TimeSeriesChart();
+        packetChart.addSeries();
+        packetChart.addSeries();
+        packetChart.setValueFormatter(NetworkTabBuilder::formatPacketRate);
+        packetChart.setPrefHeight(100);
+
+        GridPane infoGrid = createInfoGrid();
+        int row = 0;
+        displayNameLabel = addGridRow(infoGrid, row++, I18N.get("network.displayName"), "");
+        macLabel = addGridRow(infoGrid, row++, I18N.get("network.mac"), "");
+        speedLabel = addGridRow(infoGrid, row++, I18N.get("network.speed"), "");
+        ipv4Label = addGridRow(infoGrid, row++, I18N.get("network.ipv4"), "");
+        ipv6Label = addGridRow(infoGrid, row++, I18N.get("network.ipv6"), "");
+
+        VBox pane = new VBox(5, detailTitle, detailRates, detailTotals, rateChart, packetChart, infoGrid);
+        pane.setVisible(false);
+        pane.managedProperty().bind(pane.visibleProperty());
+        return pane;
+    }
+
+    @Override
+    protected void onActivate() {
+        // Network activity comes from the metrics source, so it also shows recordings
+        metricsSource.addListener(snapshotListener);
+    }
+
+    @Override
+    protected void onDeactivate() {
+        metricsSource.removeListener(snapshotListener);
+    }
+
+    private void applySnapshot(SystemSnapshot snapshot) {
+        lastTimestamp = snapshot.timestamp();
+        NetworkTableModel.Changes changes = tableModel.apply(snapshot.networks());
+        if (changes.added() + changes.updated() + changes.removed() > 0) {
+            sortIfOrdered(interfaceTable);
+            if (groupsToggle.isSelected()) {
+                sortIfOrdered(groupTable);
+            }
+        }
+        if (interfaceTable.getSelectionModel().isEmpty() && !filteredRows.isEmpty() && changes.added() > 0) {
+            // The busiest interface, so a host with a single network shows it right away
+            interfaceTable.getSelectionModel().selectFirst();
+        }
+        updateCount();
+        updateDetails();
+    }
+
+    private void applyFilter() {
+        filteredRows.setPredicate(NetworkTableModel.filter(filterField.getText(),
+            hideDownToggle.isSelected(), hideVirtualToggle.isSelected()));
+    }
+
+    private void updateCount() {
+        setTextIfChanged(countLabel, I18N.get("network.shownCount",
+            filteredRows.size(), tableModel.getRows().size()));
+    }
+
+    /**
+     * Show the charts and the addresses of the selected interface; only
+     * this one interface has charts, however many are listed.
+     */
+    private void showDetails(NetworkRow row) {
+        detailPane.setVisible(row != null);
+        if (row == null) {
+            return;
+        }
+        String name = row.getName();
+        setTextIfChanged(detailTitle, name);
+        for (Label label : List.of(displayNameLabel, macLabel, speedLabel, ipv4Label, ipv6Label)) {
+            label.setText(I18N.get("common.loading"));
+        }
+        loadAsync(() -> describeInterface(name), info -> {
+            NetworkRow selected = interfaceTable.getSelectionModel().getSelectedItem();
+            if (selected == null || !selected.getName().equals(name)) {
+                // Another interface was selected meanwhile
+                return;
+            }
+            displayNameLabel.setText(info == null ? "N/A" : info.displayName());
+            macLabel.setText(info == null ? "N/A" : info.mac());
+            speedLabel.setText(info == null ? "N/A" : info.speed());
+            ipv4Label.setText(info == null ? "N/A" : info.ipv4());
+            ipv6Label.setText(info == null ? "N/A" : info.ipv6());
+        });
+        updateDetails();
+    }
+
+    private void updateDetails() {
+        NetworkRow row = interfaceTable.getSelectionModel().getSelectedItem();
+        if (row == null || lastTimestamp == 0) {
+            return;
         }
+        setTextIfChanged(detailRates, formatter.clear()
+            .append(I18N.get("network.recv")).append(' ').rate(row.recvRateProperty().get())
+            .append(" (").decimal(row.packetRecvRateProperty().get(), 0).append(' ')
+            .append(I18N.get("network.packetsPerSecond"))
+            .append(")    ").append(I18N.get("network.sent")).append(' ').rate(row.sentRateProperty().get())
+            .append(" (").decimal(row.packetSentRateProperty().get(), 0).append(' ')
+            .append(I18N.get("network.packetsPerSecond"))
+            .append(')')
+            .text());
+        setTextIfChanged(detailTotals, formatter.clear()
+            .append(I18N.get("network.bytesRecv")).append(' ').bytes(row.bytesRecvProperty().get())
+            .append("    ").append(I18N.get("network.bytesSent")).append(' ').bytes(row.bytesSentProperty().get())
+            .append("    ").append(I18N.get("network.errors")).append(' ')
+            .append(String.valueOf(row.errorsProperty().get()))
+            .append("    ").append(I18N.get("network.drops")).append(' ')
+            .append(String.valueOf(row.dropsProperty().get()))
+            .text());
+        String name = row.getName();
+        updateChart(rateChart, lastTimestamp,
+            MetricsHistory.networkRecvSeries(name), MetricsHistory.networkSentSeries(name));
+        updateChart(packetChart, lastTimestamp,
+            MetricsHistory.networkPacketsRecvSeries(name), MetricsHistory.networkPacketsSentSeries(name));
+    }
+
+    /**
+     * Copy the details of an interface in the background, so the JavaFX
+     * thread never reads an OSHI object.
+     */
+    private InterfaceInfo describeInterface(String name) {
+        for (NetworkIF net : systemInfoService.getNetworkInterfaces()) {
+            if (net.getName().equals(name)) {
+                return new InterfaceInfo(net.getDisplayName(), net.getMacaddr(),
+                    net.getSpeed() <= 0 ? "N/A" : SystemInfoService.formatBytes(net.getSpeed() / 8) + "/s",
+                    String.join(", ", net.getIPv4addr()), String.join(", ", net.getIPv6addr()));
+            }
+        }
+        return null;
+    }
+
+    private static <S> TableColumn<S, Boolean> createFlagColumn(
+        String title, Function<S, ObservableValue<Boolean>> value, String trueText, String falseText) {
+        TableColumn<S, Boolean> column = new TableColumn<>(title);
+        column.setCellValueFactory(p -> value.apply(p.getValue()));
+        column.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(Boolean item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item ? trueText : falseText);
+            }
+        });
+        return column;
+    }
+
+    /**
+     * The details of an interface shown below its charts.
+     */
+    private record InterfaceInfo(String displayName, String mac, String speed, String ipv4, String ipv6) {
+    }
 
-        ScrollPane scrollPane = new ScrollPane(content);
-        scrollPane.setFitToWidth(true);
-        tab.setContent(scrollPane);
-        return tab;
+    private static String formatPacketRate(Number packetsPerSecond) {
+        return Math.round(packetsPerSecond.doubleValue()) + " " + I18N.get("network.packetsPerSecond");
     }
 }
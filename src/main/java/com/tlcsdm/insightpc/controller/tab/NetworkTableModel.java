@@ -0,0 +1,173 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import com.tlcsdm.insightpc.model.NetworkSample;
+import javafx.beans.Observable;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Rows of the network interface table, kept in sync with the interface
+ * samples by name the same way {@link ProcessTableModel} follows the process
+ * list: known interfaces are updated in place, new ones appended in a single
+ * {@code addAll} and vanished ones dropped in a single {@code removeAll}.
+ * <p>
+ * The row list reports a change of the up or virtual flag of a row as an
+ * update, so a filtered view of it re-evaluates just that row. Must be used
+ * on the JavaFX application thread once the rows are shown.
+ */
+public class NetworkTableModel {
+
+    /**
+     * Number of rows touched by applying one set of samples.
+     */
+    public record Changes(int added, int updated, int removed) {
+    }
+
+    /**
+     * Receives the rows that changed whenever samples are applied, after the
+     * row list was updated, so derived views can follow the diff instead of
+     * going over every row.
+     */
+    @FunctionalInterface
+    public interface RowListener {
+
+        /**
+         * @param added   rows of new interfaces
+         * @param updated rows whose values changed
+         * @param removed rows of interfaces that went away
+         */
+        void rowsChanged(List<NetworkRow> added, List<NetworkRow> updated, Collection<NetworkRow> removed);
+    }
+
+    private final ObservableList<NetworkRow> rows = FXCollections.observableArrayList(
+        row -> new Observable[]{row.upProperty(), row.virtualProperty()});
+    private final Map<String, NetworkRow> rowsByName = new HashMap<>();
+    private final List<RowListener> listeners = new ArrayList<>();
+
+    /**
+     * Get the rows, in the order they were first seen.
+     */
+    public ObservableList<NetworkRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the row of an interface, or {@code null} if it is not listed.
+     */
+    public NetworkRow getRow(String name) {
+        return rowsByName.get(name);
+    }
+
+    /**
+     * Register a listener for the rows changed by each set of samples.
+     */
+    public void addRowListener(RowListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Bring the rows up to date with the interfaces of a snapshot.
+     */
+    public Changes apply(List<NetworkSample> networks) {
+        Set<String> seen = new HashSet<>(networks.size() * 2);
+        List<NetworkRow> added = new ArrayList<>();
+        List<NetworkRow> updated = new ArrayList<>();
+        for (NetworkSample sample : networks) {
+            if (!seen.add(sample.name())) {
+                continue;
+            }
+            NetworkRow row = rowsByName.get(sample.name());
+            if (row == null) {
+                row = new NetworkRow(sample);
+                rowsByName.put(sample.name(), row);
+                added.add(row);
+            } else if (row.update(sample)) {
+                updated.add(row);
+            }
+        }
+
+        Set<NetworkRow> stale = new HashSet<>();
+        rowsByName.entrySet().removeIf(entry -> {
+            if (seen.contains(entry.getKey())) {
+                return false;
+            }
+            stale.add(entry.getValue());
+            return true;
+        });
+        if (!stale.isEmpty()) {
+            rows.removeAll(stale);
+        }
+        if (!added.isEmpty()) {
+            rows.addAll(added);
+        }
+        for (RowListener listener : listeners) {
+            listener.rowsChanged(added, updated, stale);
+        }
+        return new Changes(added.size(), updated.size(), stale.size());
+    }
+
+    /**
+     * Create a filter for the rows.
+     *
+     * @param pattern     a glob such as {@code eth*} or {@code veth?}, matched
+     *                    against the whole name, or plain text matched
+     *                    anywhere in the name; case-insensitive, blank for any
+     * @param hideDown    whether to leave out interfaces that are not up
+     * @param hideVirtual whether to leave out virtual interfaces
+     * @return the filter, or {@code null} if it would let every row through
+     */
+    public static Predicate<NetworkRow> filter(String pattern, boolean hideDown, boolean hideVirtual) {
+        Predicate<String> nameMatcher = nameMatcher(pattern);
+        if (nameMatcher == null && !hideDown && !hideVirtual) {
+            return null;
+        }
+        return row -> (!hideDown || row.upProperty().get())
+            && (!hideVirtual || !row.virtualProperty().get())
+            && (nameMatcher == null || nameMatcher.test(row.getName()));
+    }
+
+    /**
+     * Create a matcher for interface names, or {@code null} for a blank pattern.
+     *
+     * @see #filter(String, boolean, boolean)
+     */
+    static Predicate<String> nameMatcher(String pattern) {
+        if (pattern == null || pattern.isBlank()) {
+            return null;
+        }
+        String text = pattern.strip();
+        if (text.indexOf('*') < 0 && text.indexOf('?') < 0) {
+            String needle = text.toLowerCase(Locale.ROOT);
+            return name -> name.toLowerCase(Locale.ROOT).contains(needle);
+        }
+        StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > literalStart) {
+                    regex.append(Pattern.quote(text.substring(literalStart, i)));
+                }
+                regex.append(c == '*' ? ".*" : ".");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < text.length()) {
+            regex.append(Pattern.quote(text.substring(literalStart)));
+        }
+        Pattern compiled = Pattern.compile(regex.toString(),
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+        return name -> compiled.matcher(name).matches();
+    }
+}
@@ -1,18 +1,25 @@
 package com.tlcsdm.insightpc.controller.tab;
 
 import com.tlcsdm.insightpc.config.I18N;
+import com.tlcsdm.insightpc.controller.UiUpdatePump;
+import com.tlcsdm.insightpc.model.HardwareInventory.BaseboardInfo;
+import com.tlcsdm.insightpc.model.HardwareInventory.FirmwareInfo;
+import com.tlcsdm.insightpc.model.HardwareInventory.GraphicsCardInfo;
+import com.tlcsdm.insightpc.model.HardwareInventory.MemoryModule;
+import com.tlcsdm.insightpc.service.MetricsSource;
 import com.tlcsdm.insightpc.service.SystemInfoService;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.chart.PieChart;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
-import javafx.scene.control.Tab;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
+import org.kordamp.ikonli.Ikon;
 import org.kordamp.ikonli.materialdesign2.MaterialDesignD;
 import org.kordamp.ikonli.materialdesign2.MaterialDesignM;
 import org.kordamp.ikonli.materialdesign2.MaterialDesignH;
@@ -24,6 +31,7 @@ import oshi.hardware.*;
 
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -31,104 +39,96 @@ import java.util.stream.Collectors;
  */
 public class OverviewTabBuilder extends AbstractTabBuilder {
 
-    public OverviewTabBuilder(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
-        super(systemInfoService, scheduler);
+    public OverviewTabBuilder(SystemInfoService systemInfoService, MetricsSource metricsSource,
+                              ScheduledExecutorService scheduler, UiUpdatePump updatePump) {
+        super(systemInfoService, metricsSource, scheduler, updatePump);
     }
 
     @Override
-    public Tab build() {
-        Tab tab = new Tab(I18N.get("tab.overview"));
-        tab.setClosable(false);
-        tab.setGraphic(createTabIcon(MaterialDesignD.DESKTOP_TOWER_MONITOR));
+    protected String getTitleKey() {
+        return "tab.overview";
+    }
 
+    @Override
+    protected Ikon getIcon() {
+        return MaterialDesignD.DESKTOP_TOWER_MONITOR;
+    }
+
+    @Override
+    protected Node buildContent() {
         VBox infoBox = new VBox(8);
         infoBox.setPadding(new Insets(15));
 
-        CentralProcessor cpu = systemInfoService.getProcessor();
         GlobalMemory memory = systemInfoService.getMemory();
-        ComputerSystem cs = systemInfoService.getComputerSystem();
-        Baseboard baseboard = cs.getBaseboard();
-        Firmware firmware = cs.getFirmware();
-        List<GraphicsCard> graphicsCards = systemInfoService.getGraphicsCards();
-        List<HWDiskStore> diskStores = systemInfoService.getDiskStores();
-        List<Display> displays = systemInfoService.getDisplays();
-        List<SoundCard> soundCards = systemInfoService.getSoundCards();
-        List<PowerSource> powerSources = systemInfoService.getPowerSources();
-
-        // CPU
-        infoBox.getChildren().add(createOverviewRow(MaterialDesignD.DESKTOP_CLASSIC,
-            I18N.get("overview.cpu.label"),
-            cpu.getProcessorIdentifier().getName()));
-
-        // Memory
-        List<PhysicalMemory> physMems = memory.getPhysicalMemory();
-        String memoryInfo;
-        if (!physMems.isEmpty()) {
-            memoryInfo = SystemInfoService.formatBytes(memory.getTotal()) + " ("
-                + physMems.stream()
-                .map(pm -> SystemInfoService.formatBytes(pm.getCapacity())
-                    + " " + pm.getMemoryType()
-                    + (pm.getClockSpeed() > 0 ? " " + (pm.getClockSpeed() / 1_000_000) + "MHz" : ""))
-                .collect(Collectors.joining(" + "))
-                + ")";
-        } else {
-            memoryInfo = SystemInfoService.formatBytes(memory.getTotal());
-        }
-        infoBox.getChildren().add(createOverviewRow(MaterialDesignM.MEMORY,
-            I18N.get("overview.memory.label"), memoryInfo));
-
-        // Graphics Card
-        String gpuInfo = graphicsCards.isEmpty() ? "N/A"
-            : graphicsCards.stream()
-            .map(gc -> gc.getName()
-                + (gc.getVRam() > 0 ? " " + SystemInfoService.formatBytes(gc.getVRam()) : ""))
-            .collect(Collectors.joining(", "));
-        infoBox.getChildren().add(createOverviewRow(MaterialDesignH.HDMI_PORT,
-            I18N.get("overview.graphicsCard"), gpuInfo));
-
-        // BaseBoard
-        String baseboardInfo = baseboard.getManufacturer() + " " + baseboard.getModel()
-            + " " + baseboard.getVersion();
-        infoBox.getChildren().add(createOverviewRow(MaterialDesignD.DEVELOPER_BOARD,
-            I18N.get("overview.baseboard"), baseboardInfo.trim()));
-
-        // Disk Storage
-        String diskInfo = diskStores.isEmpty() ? "N/A"
-            : diskStores.stream()
-            .map(d -> d.getModel().trim() + " " + SystemInfoService.formatBytes(d.getSize()))
-            .collect(Collectors.joining(" + "));
-        infoBox.getChildren().add(createOverviewRow(MaterialDesignH.HARDDISK,
-            I18N.get("overview.diskStorage"), diskInfo));
-
-        // Display
-        String displayInfo = displays.isEmpty() ? "N/A"
-            : displays.size() + " " + I18N.get("overview.displaysConnected");
-        infoBox.getChildren().add(createOverviewRow(MaterialDesignM.MONITOR,
-            I18N.get("overview.display"), displayInfo));
-
-        // Sound Card
-        String soundInfo = soundCards.isEmpty() ? "N/A"
-            : soundCards.stream()
-            .map(SoundCard::getName)
-            .collect(Collectors.joining(", "));
-        infoBox.getChildren().add(createOverviewRow(MaterialDesignV.VOLUME_HIGH,
-            I18N.get("overview.soundCard"), soundInfo));
-
-        // Power Source
-        String powerInfo = powerSources.isEmpty() ? "N/A"
-            : powerSources.stream()
-            .map(ps -> ps.getName() + " " + ps.getDeviceName()
-                + " " + ps.getCurrentCapacity() + "/" + ps.getMaxCapacity()
-                + " (" + ps.getChemistry() + ")")
-            .collect(Collectors.joining(", "));
-        infoBox.getChildren().add(createOverviewRow(MaterialDesignB.BATTERY,
-            I18N.get("overview.powerSource"), powerInfo));
-
-        // Firmware
-        String firmwareInfo = firmware.getManufacturer() + " " + firmware.getName()
-            + " " + firmware.getVersion() + " " + firmware.getReleaseDate();
-        infoBox.getChildren().add(createOverviewRow(MaterialDesignS.SHIELD_CHECK,
-            I18N.get("overview.firmware"), firmwareInfo.trim()));
+
+        // Static rows come from the inventory cache; live rows are probed in the background
+        Label cpuLabel = addRow(infoBox, MaterialDesignD.DESKTOP_CLASSIC, I18N.get("overview.cpu.label"));
+        Label memoryLabel = addRow(infoBox, MaterialDesignM.MEMORY, I18N.get("overview.memory.label"));
+        Label gpuLabel = addRow(infoBox, MaterialDesignH.HDMI_PORT, I18N.get("overview.graphicsCard"));
+        Label baseboardLabel = addRow(infoBox, MaterialDesignD.DEVELOPER_BOARD, I18N.get("overview.baseboard"));
+
+        addAsyncRow(infoBox, MaterialDesignH.HARDDISK, I18N.get("overview.diskStorage"), () -> {
+            List<HWDiskStore> diskStores = systemInfoService.getDiskStores();
+            return diskStores.isEmpty() ? "N/A"
+                : diskStores.stream()
+                .map(d -> d.getModel().trim() + " " + SystemInfoService.formatBytes(d.getSize()))
+                .collect(Collectors.joining(" + "));
+        });
+
+        Label displayLabel = addRow(infoBox, MaterialDesignM.MONITOR, I18N.get("overview.display"));
+        Label soundLabel = addRow(infoBox, MaterialDesignV.VOLUME_HIGH, I18N.get("overview.soundCard"));
+
+        addAsyncRow(infoBox, MaterialDesignB.BATTERY, I18N.get("overview.powerSource"), () -> {
+            List<PowerSource> powerSources = systemInfoService.getPowerSources();
+            return powerSources.isEmpty() ? "N/A"
+                : powerSources.stream()
+                .map(ps -> ps.getName() + " " + ps.getDeviceName()
+                    + " " + ps.getCurrentCapacity() + "/" + ps.getMaxCapacity()
+                    + " (" + ps.getChemistry() + ")")
+                .collect(Collectors.joining(", "));
+        });
+
+        Label firmwareLabel = addRow(infoBox, MaterialDesignS.SHIELD_CHECK, I18N.get("overview.firmware"));
+
+        loadInventory(inventory -> {
+            cpuLabel.setText(inventory.cpuName());
+
+            List<MemoryModule> modules = inventory.memoryModules();
+            String memoryInfo = SystemInfoService.formatBytes(inventory.memoryTotal());
+            if (!modules.isEmpty()) {
+                memoryInfo += " ("
+                    + modules.stream()
+                    .map(pm -> SystemInfoService.formatBytes(pm.capacity())
+                        + " " + pm.memoryType()
+                        + (pm.clockSpeed() > 0 ? " " + (pm.clockSpeed() / 1_000_000) + "MHz" : ""))
+                    .collect(Collectors.joining(" + "))
+                    + ")";
+            }
+            memoryLabel.setText(memoryInfo);
+
+            List<GraphicsCardInfo> graphicsCards = inventory.graphicsCards();
+            gpuLabel.setText(graphicsCards.isEmpty() ? "N/A"
+                : graphicsCards.stream()
+                .map(gc -> gc.name()
+                    + (gc.vram() > 0 ? " " + SystemInfoService.formatBytes(gc.vram()) : ""))
+                .collect(Collectors.joining(", ")));
+
+            BaseboardInfo baseboard = inventory.baseboard();
+            String baseboardInfo = baseboard.manufacturer() + " " + baseboard.model()
+                + " " + baseboard.version();
+            baseboardLabel.setText(baseboardInfo.trim());
+
+            displayLabel.setText(inventory.displayCount() == 0 ? "N/A"
+                : inventory.displayCount() + " " + I18N.get("overview.displaysConnected"));
+
+            List<String> soundCards = inventory.soundCards();
+            soundLabel.setText(soundCards.isEmpty() ? "N/A" : String.join(", ", soundCards));
+
+            FirmwareInfo firmware = inventory.firmware();
+            String firmwareInfo = firmware.manufacturer() + " " + firmware.name()
+                + " " + firmware.version() + " " + firmware.releaseDate();
+            firmwareLabel.setText(firmwareInfo.trim());
+        });
 
         // Memory PieChart
         long usedMem = memory.getTotal() - memory.getAvailable();
@@ -152,7 +152,17 @@ public class OverviewTabBuilder extends AbstractTabBuilder {
 
         ScrollPane scrollPane = new ScrollPane(content);
         scrollPane.setFitToWidth(true);
-        tab.setContent(scrollPane);
-        return tab;
+        return scrollPane;
+    }
+
+    private Label addRow(VBox box, Ikon icon, String label) {
+        Label valueLabel = createLoadingLabel();
+        box.getChildren().add(createOverviewRow(icon, label, valueLabel));
+        return valueLabel;
+    }
+
+    private void addAsyncRow(VBox box, Ikon icon, String label, Supplier<String> probe) {
+        Label valueLabel = addRow(box, icon, label);
+        loadAsync(probe, valueLabel::setText);
     }
 }
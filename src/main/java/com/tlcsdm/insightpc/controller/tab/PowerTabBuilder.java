@@ -1,14 +1,17 @@
 package com.tlcsdm.insightpc.controller.tab;
 
 import com.tlcsdm.insightpc.config.I18N;
+import com.tlcsdm.insightpc.controller.UiUpdatePump;
+import com.tlcsdm.insightpc.service.MetricsSource;
 import com.tlcsdm.insightpc.service.SystemInfoService;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Separator;
-import javafx.scene.control.Tab;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
+import org.kordamp.ikonli.Ikon;
 import org.kordamp.ikonli.materialdesign2.MaterialDesignB;
 import oshi.hardware.PowerSource;
 
@@ -20,29 +23,46 @@ import java.util.concurrent.ScheduledExecutorService;
  */
 public class PowerTabBuilder extends AbstractTabBuilder {
 
-    public PowerTabBuilder(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
-        super(systemInfoService, scheduler);
+    public PowerTabBuilder(SystemInfoService systemInfoService, MetricsSource metricsSource,
+                           ScheduledExecutorService scheduler, UiUpdatePump updatePump) {
+        super(systemInfoService, metricsSource, scheduler, updatePump);
     }
 
     @Override
-    public Tab build() {
-        Tab tab = new Tab(I18N.get("tab.power"));
-        tab.setClosable(false);
-        tab.setGraphic(createTabIcon(MaterialDesignB.BATTERY));
+    protected String getTitleKey() {
+        return "tab.power";
+    }
+
+    @Override
+    protected Ikon getIcon() {
+        return MaterialDesignB.BATTERY;
+    }
 
+    @Override
+    protected Node buildContent() {
         VBox content = new VBox(10);
         content.setPadding(new Insets(15));
 
-        List<PowerSource> powerSources = systemInfoService.getPowerSources();
-
         content.getChildren().add(createSectionLabel(I18N.get("power.info")));
 
+        addAsync(content, () -> {
+            List<PowerSource> powerSources = systemInfoService.getPowerSources();
+            powerSources.forEach(PowerSource::updateAttributes);
+            return powerSources;
+        }, this::createPowerSourcesBox);
+
+        ScrollPane scrollPane = new ScrollPane(content);
+        scrollPane.setFitToWidth(true);
+        return scrollPane;
+    }
+
+    private Node createPowerSourcesBox(List<PowerSource> powerSources) {
+        VBox box = new VBox(10);
         if (powerSources.isEmpty()) {
-            content.getChildren().add(new Label(I18N.get("power.unknown")));
+            box.getChildren().add(new Label(I18N.get("power.unknown")));
         } else {
             String na = I18N.get("power.notAvailable");
             for (PowerSource ps : powerSources) {
-                ps.updateAttributes();
                 GridPane grid = createInfoGrid();
                 int row = 0;
                 addGridRow(grid, row++, I18N.get("power.name"), ps.getName());
@@ -88,14 +108,10 @@ public class PowerTabBuilder extends AbstractTabBuilder {
                 addGridRow(grid, row++, I18N.get("power.temperature"),
                     ps.getTemperature() > 0 ? String.format("%.1f °C", ps.getTemperature()) : na);
 
-                content.getChildren().add(grid);
-                content.getChildren().add(new Separator());
+                box.getChildren().add(grid);
+                box.getChildren().add(new Separator());
             }
         }
-
-        ScrollPane scrollPane = new ScrollPane(content);
-        scrollPane.setFitToWidth(true);
-        tab.setContent(scrollPane);
-        return tab;
+        return box;
     }
 }
@@ -0,0 +1,146 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Processes grouped by executable, with the total CPU load, resident memory,
+ * process count and thread count of each group.
+ * <p>
+ * The model follows the per-PID diff of a {@link ProcessTableModel}: for each
+ * row that started, changed or exited, it remembers what the row last added to
+ * its group and applies only the difference, so a refresh costs time in the
+ * number of changed rows, not in the number of processes. Processes are
+ * grouped by executable path, or by name when the path is unknown. New and
+ * emptied groups are added and removed in one change each. Must be used on
+ * the JavaFX application thread once the groups are shown.
+ */
+public class ProcessGroupModel implements ProcessTableModel.RowListener {
+
+    private final ObservableList<ProcessGroupRow> groups = FXCollections.observableArrayList();
+    private final Map<String, ProcessGroupRow> groupsByKey = new HashMap<>();
+    private final Map<ProcessRow, Member> members = new IdentityHashMap<>();
+
+    /**
+     * Create a model that follows the rows of a process table.
+     */
+    public ProcessGroupModel(ProcessTableModel tableModel) {
+        tableModel.addRowListener(this);
+        rowsChanged(tableModel.getRows(), List.of(), List.of());
+    }
+
+    /**
+     * Get the groups, in the order they were first seen.
+     */
+    public ObservableList<ProcessGroupRow> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Get the group of an executable path, or of a name when the path is unknown.
+     */
+    public ProcessGroupRow getGroup(String key) {
+        return groupsByKey.get(key);
+    }
+
+    @Override
+    public void rowsChanged(List<ProcessRow> added, List<ProcessRow> updated, Collection<ProcessRow> removed) {
+        Map<ProcessGroupRow, Boolean> touched = new IdentityHashMap<>();
+        List<ProcessGroupRow> created = new ArrayList<>();
+        for (ProcessRow row : removed) {
+            Member member = members.remove(row);
+            if (member != null) {
+                member.leave();
+                touched.put(member.group, Boolean.TRUE);
+            }
+        }
+        for (ProcessRow row : updated) {
+            Member member = members.get(row);
+            if (member == null) {
+                continue;
+            }
+            if (member.group.getKey().equals(keyOf(row))) {
+                member.update(row);
+            } else {
+                // An exec changed the executable: move to the other group
+                member.leave();
+                touched.put(member.group, Boolean.TRUE);
+                members.put(row, join(row, created));
+            }
+        }
+        for (ProcessRow row : added) {
+            members.put(row, join(row, created));
+        }
+
+        List<ProcessGroupRow> emptied = new ArrayList<>();
+        for (ProcessGroupRow group : touched.keySet()) {
+            if (group.processCountProperty().get() == 0) {
+                groupsByKey.remove(group.getKey(), group);
+                emptied.add(group);
+            }
+        }
+        // A group created and emptied in the same refresh was never listed
+        created.removeAll(emptied);
+        if (!emptied.isEmpty()) {
+            groups.removeAll(emptied);
+        }
+        if (!created.isEmpty()) {
+            groups.addAll(created);
+        }
+    }
+
+    private Member join(ProcessRow row, List<ProcessGroupRow> created) {
+        String key = keyOf(row);
+        ProcessGroupRow group = groupsByKey.get(key);
+        if (group == null) {
+            group = new ProcessGroupRow(key, row.nameProperty().get(), row.pathProperty().get());
+            groupsByKey.put(key, group);
+            created.add(group);
+        }
+        Member member = new Member(group);
+        member.update(row);
+        group.add(1, 0, 0, 0);
+        return member;
+    }
+
+    private static String keyOf(ProcessRow row) {
+        String path = row.pathProperty().get();
+        return path == null || path.isEmpty() ? row.nameProperty().get() : path;
+    }
+
+    /**
+     * What one row currently adds to its group.
+     */
+    private static final class Member {
+
+        final ProcessGroupRow group;
+        int threads;
+        long memory;
+        double cpu;
+
+        Member(ProcessGroupRow group) {
+            this.group = group;
+        }
+
+        void update(ProcessRow row) {
+            int newThreads = row.threadCountProperty().get();
+            long newMemory = row.residentMemoryProperty().get();
+            double newCpu = row.cpuLoadProperty().get();
+            group.add(0, newThreads - threads, newMemory - memory, newCpu - cpu);
+            threads = newThreads;
+            memory = newMemory;
+            cpu = newCpu;
+        }
+
+        void leave() {
+            group.add(-1, -threads, -memory, -cpu);
+        }
+    }
+}
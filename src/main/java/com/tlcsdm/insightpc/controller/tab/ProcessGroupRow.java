@@ -0,0 +1,93 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+
+/**
+ * One row of the grouped process view: all processes running the same
+ * executable, with their totals. The totals are changed by the difference
+ * each member made since the last refresh.
+ */
+public final class ProcessGroupRow {
+
+    private final String key;
+    private final String name;
+    private final String path;
+    private final IntegerProperty processCount = new SimpleIntegerProperty(this, "processCount");
+    private final IntegerProperty threadCount = new SimpleIntegerProperty(this, "threadCount");
+    private final LongProperty residentMemory = new SimpleLongProperty(this, "residentMemory");
+    private final DoubleProperty cpuLoad = new SimpleDoubleProperty(this, "cpuLoad");
+
+    // Running sums; the CPU sum can drift slightly below zero from rounding and is clamped when shown
+    private double cpuSum;
+
+    ProcessGroupRow(String key, String name, String path) {
+        this.key = key;
+        this.name = name;
+        this.path = path;
+    }
+
+    /**
+     * Change the totals by the difference of one member.
+     */
+    void add(int processes, int threads, long memory, double cpu) {
+        if (processes != 0) {
+            processCount.set(processCount.get() + processes);
+        }
+        if (threads != 0) {
+            threadCount.set(threadCount.get() + threads);
+        }
+        if (memory != 0) {
+            residentMemory.set(residentMemory.get() + memory);
+        }
+        cpuSum += cpu;
+        double shown = processCount.get() == 0 ? 0 : Math.max(0, cpuSum);
+        if (Double.compare(cpuLoad.get(), shown) != 0) {
+            cpuLoad.set(shown);
+        }
+    }
+
+    /**
+     * Get the executable path, or the name when the path is unknown, that all members share.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Get the name of the first member.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the executable path, empty if unknown.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public ReadOnlyIntegerProperty processCountProperty() {
+        return processCount;
+    }
+
+    public ReadOnlyIntegerProperty threadCountProperty() {
+        return threadCount;
+    }
+
+    public ReadOnlyLongProperty residentMemoryProperty() {
+        return residentMemory;
+    }
+
+    public ReadOnlyDoubleProperty cpuLoadProperty() {
+        return cpuLoad;
+    }
+}
@@ -0,0 +1,176 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import com.tlcsdm.insightpc.model.ProcessSample;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+import java.util.Objects;
+
+/**
+ * One row of the process table. The row lives as long as its PID and its
+ * properties are updated in place, so only cells whose value changed are
+ * redrawn and the table keeps its selection and scroll position.
+ */
+public final class ProcessRow {
+
+    private final int pid;
+    private final long startTime;
+    private final IntegerProperty parentPid = new SimpleIntegerProperty(this, "parentPid");
+    private final StringProperty name = new SimpleStringProperty(this, "name");
+    private final StringProperty path = new SimpleStringProperty(this, "path");
+    private final StringProperty commandLine = new SimpleStringProperty(this, "commandLine");
+    private final StringProperty user = new SimpleStringProperty(this, "user");
+    private final StringProperty state = new SimpleStringProperty(this, "state");
+    private final LongProperty residentMemory = new SimpleLongProperty(this, "residentMemory");
+    private final DoubleProperty cpuLoad = new SimpleDoubleProperty(this, "cpuLoad");
+    private final IntegerProperty threadCount = new SimpleIntegerProperty(this, "threadCount");
+    private final DoubleProperty readRate = new SimpleDoubleProperty(this, "readRate");
+    private final DoubleProperty writeRate = new SimpleDoubleProperty(this, "writeRate");
+    private final LongProperty totalResidentMemory = new SimpleLongProperty(this, "totalResidentMemory");
+    private final DoubleProperty totalCpuLoad = new SimpleDoubleProperty(this, "totalCpuLoad");
+
+    public ProcessRow(ProcessSample sample) {
+        this.pid = sample.pid();
+        this.startTime = sample.startTime();
+        update(sample);
+    }
+
+    /**
+     * Copy the values of a newer sample of the same process.
+     *
+     * @return whether any value changed
+     */
+    public boolean update(ProcessSample sample) {
+        boolean changed = false;
+        if (parentPid.get() != sample.parentPid()) {
+            parentPid.set(sample.parentPid());
+            changed = true;
+        }
+        // String properties notify on every new instance, so compare by value first
+        changed |= setIfChanged(name, sample.name());
+        changed |= setIfChanged(path, sample.path());
+        changed |= setIfChanged(commandLine, sample.commandLine());
+        changed |= setIfChanged(user, sample.user());
+        changed |= setIfChanged(state, sample.state());
+        if (residentMemory.get() != sample.residentMemory()) {
+            residentMemory.set(sample.residentMemory());
+            changed = true;
+        }
+        if (Double.compare(cpuLoad.get(), sample.cpuLoad()) != 0) {
+            cpuLoad.set(sample.cpuLoad());
+            changed = true;
+        }
+        if (threadCount.get() != sample.threadCount()) {
+            threadCount.set(sample.threadCount());
+            changed = true;
+        }
+        if (Double.compare(readRate.get(), sample.readRate()) != 0) {
+            readRate.set(sample.readRate());
+            changed = true;
+        }
+        if (Double.compare(writeRate.get(), sample.writeRate()) != 0) {
+            writeRate.set(sample.writeRate());
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Set the totals of the process and all its descendants, as shown in the process tree.
+     */
+    void setTotals(long residentMemory, double cpuLoad) {
+        if (totalResidentMemory.get() != residentMemory) {
+            totalResidentMemory.set(residentMemory);
+        }
+        if (Double.compare(totalCpuLoad.get(), cpuLoad) != 0) {
+            totalCpuLoad.set(cpuLoad);
+        }
+    }
+
+    public int getPid() {
+        return pid;
+    }
+
+    /**
+     * Get the start time, which tells a reused PID from the process that had it before.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public ReadOnlyIntegerProperty parentPidProperty() {
+        return parentPid;
+    }
+
+    public ReadOnlyStringProperty nameProperty() {
+        return name;
+    }
+
+    public ReadOnlyStringProperty pathProperty() {
+        return path;
+    }
+
+    public ReadOnlyStringProperty commandLineProperty() {
+        return commandLine;
+    }
+
+    public ReadOnlyStringProperty userProperty() {
+        return user;
+    }
+
+    public ReadOnlyStringProperty stateProperty() {
+        return state;
+    }
+
+    public ReadOnlyLongProperty residentMemoryProperty() {
+        return residentMemory;
+    }
+
+    public ReadOnlyDoubleProperty cpuLoadProperty() {
+        return cpuLoad;
+    }
+
+    public ReadOnlyIntegerProperty threadCountProperty() {
+        return threadCount;
+    }
+
+    /**
+     * Bytes read from disk per second since the previous refresh.
+     */
+    public ReadOnlyDoubleProperty readRateProperty() {
+        return readRate;
+    }
+
+    /**
+     * Bytes written to disk per second since the previous refresh.
+     */
+    public ReadOnlyDoubleProperty writeRateProperty() {
+        return writeRate;
+    }
+
+    public ReadOnlyLongProperty totalResidentMemoryProperty() {
+        return totalResidentMemory;
+    }
+
+    public ReadOnlyDoubleProperty totalCpuLoadProperty() {
+        return totalCpuLoad;
+    }
+
+    private static boolean setIfChanged(StringProperty property, String value) {
+        if (Objects.equals(property.get(), value)) {
+            return false;
+        }
+        property.set(value);
+        return true;
+    }
+}
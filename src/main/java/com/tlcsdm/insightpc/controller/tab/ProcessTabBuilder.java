@@ -1,111 +1,657 @@
 package com.tlcsdm.insightpc.controller.tab;
 
+import atlantafx.base.theme.Styles;
+import com.tlcsdm.insightpc.config.AppSettings;
 import com.tlcsdm.insightpc.config.I18N;
+import com.tlcsdm.insightpc.controller.UiUpdatePump;
+import com.tlcsdm.insightpc.controller.chart.TimeSeriesChart;
+import com.tlcsdm.insightpc.model.ProcessFilter;
+import com.tlcsdm.insightpc.model.ProcessSearchIndex;
+import com.tlcsdm.insightpc.model.ProcessSnapshot;
+import com.tlcsdm.insightpc.model.ThreadSnapshot;
+import com.tlcsdm.insightpc.service.MetricsSource;
+import com.tlcsdm.insightpc.service.ProcessHistory;
+import com.tlcsdm.insightpc.service.ProcessMonitor;
 import com.tlcsdm.insightpc.service.SystemInfoService;
-import javafx.beans.property.SimpleLongProperty;
-import javafx.beans.property.SimpleStringProperty;
+import com.tlcsdm.insightpc.service.ThreadMonitor;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.control.Tab;
+import javafx.scene.control.Label;
+import javafx.scene.control.MenuButton;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.SeparatorMenuItem;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.control.TreeTableCell;
+import javafx.scene.control.TreeTableColumn;
+import javafx.scene.control.TreeTableView;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
+import org.kordamp.ikonli.Ikon;
 import org.kordamp.ikonli.materialdesign2.MaterialDesignA;
-import oshi.software.os.OSProcess;
-import oshi.software.os.OperatingSystem;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
- * Builds the Processes tab showing running processes.
+ * Builds the Processes tab showing all running processes.
+ * <p>
+ * The process list is fetched in the background by the {@link ProcessMonitor}
+ * and merged into the table by PID, so refreshing keeps the selection, the
+ * scroll position and the sort order. The tree mode nests the same rows by
+ * parent PID and is only kept up to date while it is shown. The groups mode
+ * totals the processes of each executable, following the per-PID diff.
+ * <p>
+ * The filter box narrows the table while typing. It queries the search index
+ * that comes with each snapshot, which the monitor builds in the background,
+ * and is applied again to every new snapshot.
+ * <p>
+ * Selecting a process in the list shows its recent CPU load, memory, thread
+ * count and I/O rate, if the {@link ProcessHistory} tracks it: the top
+ * consumers are tracked while they rank high, and pinned processes while they
+ * run. Its threads are listed on demand: the {@link ThreadMonitor} reads them
+ * in the background only while the thread list is open.
  */
 public class ProcessTabBuilder extends AbstractTabBuilder {
 
-    public ProcessTabBuilder(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
-        super(systemInfoService, scheduler);
+    private final ProcessMonitor processMonitor;
+    private final ProcessTableModel tableModel = new ProcessTableModel();
+    private final ProcessTreeModel treeModel = new ProcessTreeModel();
+    private final ProcessGroupModel groupModel = new ProcessGroupModel(tableModel);
+    private final ProcessHistory processHistory = new ProcessHistory();
+    private final Map<ProcessHistory.Metric, TimeSeriesChart> historyCharts =
+        new EnumMap<>(ProcessHistory.Metric.class);
+    private final FilteredList<ProcessRow> filteredRows = new FilteredList<>(tableModel.getRows());
+    private final Consumer<ProcessSnapshot> snapshotListener = updatePump.conflate(this::applySnapshot);
+    private final ThreadMonitor threadMonitor;
+    private final ThreadTableModel threadTableModel = new ThreadTableModel();
+
+    private Label processCountLabel;
+    private Label threadCountLabel;
+    private ToggleButton autoRefreshToggle;
+    private final ToggleGroup viewModes = new ToggleGroup();
+    private ToggleButton listToggle;
+    private ToggleButton treeToggle;
+    private ToggleButton groupsToggle;
+    private TextField filterField;
+    private ToggleButton regexToggle;
+    private ProcessSearchIndex searchIndex = ProcessSearchIndex.EMPTY;
+    // The parsed filter, at most one of them set, and the PIDs it matched on the last refresh
+    private String filterText;
+    private Pattern filterPattern;
+    private int[] filterPids;
+    private TableView<ProcessRow> processTable;
+    private TreeTableView<ProcessRow> processTree;
+    private TableView<ProcessGroupRow> groupTable;
+    private VBox historyPane;
+    private Label historyTitle;
+    private Label historyHint;
+    private ToggleButton pinToggle;
+    private ToggleButton threadsToggle;
+    private TableView<ThreadRow> threadTable;
+    private Label threadPlaceholder;
+
+    public ProcessTabBuilder(SystemInfoService systemInfoService, MetricsSource metricsSource,
+                             ScheduledExecutorService scheduler, UiUpdatePump updatePump,
+                             ProcessMonitor processMonitor) {
+        super(systemInfoService, metricsSource, scheduler, updatePump);
+        this.processMonitor = processMonitor;
+        // Registered first, so the history already holds a snapshot when the tab shows it
+        processMonitor.addListener(processHistory);
+        this.threadMonitor = new ThreadMonitor(systemInfoService, scheduler);
+        threadMonitor.addListener(updatePump.conflate(this::applyThreads));
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public Tab build() {
-        Tab tab = new Tab(I18N.get("tab.processes"));
-        tab.setClosable(false);
-        tab.setGraphic(createTabIcon(MaterialDesignA.APPS));
+    protected String getTitleKey() {
+        return "tab.processes";
+    }
+
+    @Override
+    protected Ikon getIcon() {
+        return MaterialDesignA.APPS;
+    }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Node buildContent() {
         VBox content = new VBox(10);
         content.setPadding(new Insets(15));
 
-        OperatingSystem os = systemInfoService.getOperatingSystem();
-
         content.getChildren().add(createSectionLabel(I18N.get("process.summary")));
         GridPane summaryGrid = createInfoGrid();
-        addGridRow(summaryGrid, 0, I18N.get("process.count"),
-            String.valueOf(os.getProcessCount()));
-        addGridRow(summaryGrid, 1, I18N.get("process.threadCount"),
-            String.valueOf(os.getThreadCount()));
+        processCountLabel = addGridRow(summaryGrid, 0, I18N.get("process.count"), "");
+        threadCountLabel = addGridRow(summaryGrid, 1, I18N.get("process.threadCount"), "");
         content.getChildren().add(summaryGrid);
 
         // Process table
         content.getChildren().add(createSectionLabel(I18N.get("process.list")));
 
-        TableView<OSProcess> processTable = new TableView<>();
+        processTable = new TableView<>(filteredRows);
         processTable.setPrefHeight(400);
+        VBox.setVgrow(processTable, Priority.ALWAYS);
+        // The filtered view cannot be sorted itself: sort the rows beneath it, which it follows
+        processTable.setSortPolicy(table -> {
+            if (table.getComparator() != null) {
+                FXCollections.sort(tableModel.getRows(), table.getComparator());
+            }
+            return true;
+        });
 
-        TableColumn<OSProcess, Number> pidCol = new TableColumn<>(I18N.get("process.pid"));
-        pidCol.setCellValueFactory(p ->
-            new SimpleLongProperty(p.getValue().getProcessID()));
+        TableColumn<ProcessRow, Number> pidCol = new TableColumn<>(I18N.get("process.pid"));
+        pidCol.setCellValueFactory(p -> new ReadOnlyIntegerWrapper(p.getValue().getPid()));
         pidCol.setPrefWidth(70);
 
-        TableColumn<OSProcess, String> nameCol = new TableColumn<>(I18N.get("process.name"));
-        nameCol.setCellValueFactory(p ->
-            new SimpleStringProperty(p.getValue().getName()));
+        TableColumn<ProcessRow, String> nameCol = new TableColumn<>(I18N.get("process.name"));
+        nameCol.setCellValueFactory(p -> p.getValue().nameProperty());
         nameCol.setPrefWidth(200);
 
-        TableColumn<OSProcess, String> stateCol = new TableColumn<>(I18N.get("process.state"));
-        stateCol.setCellValueFactory(p ->
-            new SimpleStringProperty(p.getValue().getState().name()));
+        TableColumn<ProcessRow, String> userCol = new TableColumn<>(I18N.get("process.user"));
+        userCol.setCellValueFactory(p -> p.getValue().userProperty());
+        userCol.setPrefWidth(100);
+
+        TableColumn<ProcessRow, String> stateCol = new TableColumn<>(I18N.get("process.state"));
+        stateCol.setCellValueFactory(p -> p.getValue().stateProperty());
         stateCol.setPrefWidth(100);
 
-        TableColumn<OSProcess, String> memCol = new TableColumn<>(I18N.get("process.memory"));
-        memCol.setCellValueFactory(p ->
-            new SimpleStringProperty(
-                SystemInfoService.formatBytes(p.getValue().getResidentSetSize())));
+        TableColumn<ProcessRow, Number> memCol = createNumberColumn(I18N.get("process.memory"),
+            ProcessRow::residentMemoryProperty, ProcessTabBuilder::formatMemory);
         memCol.setPrefWidth(100);
 
-        TableColumn<OSProcess, String> cpuCol = new TableColumn<>(I18N.get("process.cpuPercent"));
-        cpuCol.setCellValueFactory(p ->
-            new SimpleStringProperty(
-                String.format("%.1f%%",
-                    100d * p.getValue().getProcessCpuLoadCumulative())));
+        TableColumn<ProcessRow, Number> cpuCol = createNumberColumn(I18N.get("process.cpuPercent"),
+            ProcessRow::cpuLoadProperty, ProcessTabBuilder::formatCpu);
         cpuCol.setPrefWidth(80);
 
-        processTable.getColumns().addAll(pidCol, nameCol, stateCol, memCol, cpuCol);
+        TableColumn<ProcessRow, Number> threadsCol = createNumberColumn(I18N.get("process.threads"),
+            ProcessRow::threadCountProperty, String::valueOf);
+        threadsCol.setPrefWidth(80);
+
+        TableColumn<ProcessRow, Number> readCol = createNumberColumn(I18N.get("process.readRate"),
+            ProcessRow::readRateProperty, ProcessTabBuilder::formatRate);
+        readCol.setPrefWidth(100);
 
-        // Load initial process list (top 50 by memory)
-        List<OSProcess> processes = os.getProcesses(
-            OperatingSystem.ProcessFiltering.ALL_PROCESSES,
-            OperatingSystem.ProcessSorting.RSS_DESC,
-            50);
-        processTable.getItems().addAll(processes);
+        TableColumn<ProcessRow, Number> writeCol = createNumberColumn(I18N.get("process.writeRate"),
+            ProcessRow::writeRateProperty, ProcessTabBuilder::formatRate);
+        writeCol.setPrefWidth(100);
 
+        TableColumn<ProcessRow, String> commandLineCol = new TableColumn<>(I18N.get("process.commandLine"));
+        commandLineCol.setCellValueFactory(p -> p.getValue().commandLineProperty());
+        commandLineCol.setPrefWidth(300);
+
+        processTable.getColumns().addAll(pidCol, nameCol, userCol, stateCol, memCol, cpuCol, threadsCol,
+            readCol, writeCol, commandLineCol);
+        // Busiest first, like top; sorting by another column keeps working across refreshes
+        cpuCol.setSortType(TableColumn.SortType.DESCENDING);
+        memCol.setSortType(TableColumn.SortType.DESCENDING);
+        readCol.setSortType(TableColumn.SortType.DESCENDING);
+        writeCol.setSortType(TableColumn.SortType.DESCENDING);
+        processTable.getSortOrder().add(cpuCol);
+        processTable.getSelectionModel().selectedItemProperty().addListener((obs, oldRow, row) -> updateHistory());
+
+        historyPane = createHistoryPane();
+        VBox listView = new VBox(10, processTable, historyPane);
+        VBox.setVgrow(listView, Priority.ALWAYS);
+
+        autoRefreshToggle = new ToggleButton(I18N.get("process.autoRefresh"));
+        autoRefreshToggle.setSelected(true);
+        autoRefreshToggle.selectedProperty().addListener((obs, wasSelected, selected) -> {
+            if (selected) {
+                processMonitor.start();
+            } else {
+                processMonitor.stop();
+            }
+        });
         Button refreshBtn = new Button(I18N.get("process.refresh"));
-        refreshBtn.setOnAction(e -> {
-            processTable.getItems().clear();
-            List<OSProcess> refreshedProcesses = systemInfoService.getOperatingSystem().getProcesses(
-                OperatingSystem.ProcessFiltering.ALL_PROCESSES,
-                OperatingSystem.ProcessSorting.RSS_DESC,
-                50);
-            processTable.getItems().addAll(refreshedProcesses);
+        refreshBtn.setOnAction(e -> processMonitor.refresh());
+        processTree = createProcessTree();
+        groupTable = createGroupTable();
+        listToggle = new ToggleButton(I18N.get("process.listMode"));
+        treeToggle = new ToggleButton(I18N.get("process.tree"));
+        groupsToggle = new ToggleButton(I18N.get("process.groups"));
+        viewModes.getToggles().addAll(listToggle, treeToggle, groupsToggle);
+        viewModes.selectToggle(listToggle);
+        viewModes.selectedToggleProperty().addListener((obs, oldMode, mode) -> {
+            if (mode == null) {
+                // One mode is always shown
+                viewModes.selectToggle(oldMode);
+                return;
+            }
+            Node shown = mode == treeToggle ? processTree : mode == groupsToggle ? groupTable : listView;
+            content.getChildren().set(content.getChildren().size() - 1, shown);
+            if (mode == treeToggle) {
+                updateTree();
+            } else if (mode == groupsToggle) {
+                sortIfOrdered(groupTable);
+            }
+            updateThreadMonitor();
+        });
+        HBox modeBox = new HBox(listToggle, treeToggle, groupsToggle);
+        HBox toolbar = new HBox(10, autoRefreshToggle, refreshBtn, modeBox, createFilterBox());
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+
+        content.getChildren().addAll(toolbar, listView);
+        return content;
+    }
+
+    private VBox createHistoryPane() {
+        historyTitle = createSectionLabel("");
+        pinToggle = new ToggleButton(I18N.get("process.pin"));
+        pinToggle.setOnAction(e -> {
+            ProcessRow row = processTable.getSelectionModel().getSelectedItem();
+            if (row == null) {
+                return;
+            }
+            if (!pinToggle.isSelected()) {
+                processHistory.unpin(row.getPid());
+            } else if (!processHistory.pin(row.getPid(), row.getStartTime())) {
+                // Too many pinned processes
+                pinToggle.setSelected(false);
+            }
+            updateHistory();
+        });
+        threadsToggle = new ToggleButton(I18N.get("process.threads"));
+        threadsToggle.selectedProperty().addListener((obs, wasSelected, selected) -> updateThreadMonitor());
+        historyHint = new Label(I18N.get("process.historyHint"));
+        HBox header = new HBox(10, historyTitle, pinToggle, threadsToggle, historyHint);
+        header.setAlignment(Pos.CENTER_LEFT);
+
+        HBox charts = new HBox(10,
+            createHistoryChart(ProcessHistory.Metric.CPU, "process.cpuPercent", value -> formatCpu(value)),
+            createHistoryChart(ProcessHistory.Metric.RESIDENT_MEMORY, "process.memory",
+                value -> SystemInfoService.formatBytes((long) value)),
+            createHistoryChart(ProcessHistory.Metric.THREADS, "process.threads",
+                value -> String.valueOf(Math.round(value))),
+            createHistoryChart(ProcessHistory.Metric.IO_RATE, "process.ioRate", SystemInfoService::formatRate));
+
+        threadTable = createThreadTable();
+        threadTable.visibleProperty().bind(threadsToggle.selectedProperty());
+        threadTable.managedProperty().bind(threadTable.visibleProperty());
+
+        VBox pane = new VBox(5, header, charts, threadTable);
+        pane.setVisible(false);
+        pane.managedProperty().bind(pane.visibleProperty());
+        return pane;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TableView<ThreadRow> createThreadTable() {
+        TableView<ThreadRow> table = new TableView<>(threadTableModel.getRows());
+        table.setPrefHeight(220);
+        threadPlaceholder = new Label();
+        table.setPlaceholder(threadPlaceholder);
+
+        TableColumn<ThreadRow, Number> idCol = new TableColumn<>(I18N.get("process.threadId"));
+        idCol.setCellValueFactory(p -> new ReadOnlyIntegerWrapper(p.getValue().getThreadId()));
+        idCol.setPrefWidth(80);
+
+        TableColumn<ThreadRow, String> nameCol = new TableColumn<>(I18N.get("process.name"));
+        nameCol.setCellValueFactory(p -> p.getValue().nameProperty());
+        nameCol.setPrefWidth(220);
+
+        TableColumn<ThreadRow, String> stateCol = new TableColumn<>(I18N.get("process.state"));
+        stateCol.setCellValueFactory(p -> p.getValue().stateProperty());
+        stateCol.setPrefWidth(100);
+
+        TableColumn<ThreadRow, Number> cpuCol = createNumberColumn(I18N.get("process.cpuPercent"),
+            ThreadRow::cpuLoadProperty, ProcessTabBuilder::formatCpu);
+        cpuCol.setPrefWidth(80);
+
+        TableColumn<ThreadRow, Number> cpuTimeCol = createNumberColumn(I18N.get("process.cpuTime"),
+            ThreadRow::cpuTimeProperty, value -> String.format("%.2f s", value.longValue() / 1000.0));
+        cpuTimeCol.setPrefWidth(90);
+
+        TableColumn<ThreadRow, Number> priorityCol = createNumberColumn(I18N.get("process.priority"),
+            ThreadRow::priorityProperty, String::valueOf);
+        priorityCol.setPrefWidth(70);
+
+        TableColumn<ThreadRow, Number> switchesCol = createNumberColumn(I18N.get("process.contextSwitches"),
+            ThreadRow::contextSwitchesProperty, String::valueOf);
+        switchesCol.setPrefWidth(120);
+
+        TableColumn<ThreadRow, Number> switchRateCol = createNumberColumn(I18N.get("process.contextSwitchRate"),
+            ThreadRow::contextSwitchRateProperty, value -> String.format("%.0f/s", value.doubleValue()));
+        switchRateCol.setPrefWidth(100);
+
+        table.getColumns().addAll(idCol, nameCol, stateCol, cpuCol, cpuTimeCol, priorityCol, switchesCol,
+            switchRateCol);
+        // The thread burning a core comes first
+        cpuCol.setSortType(TableColumn.SortType.DESCENDING);
+        cpuTimeCol.setSortType(TableColumn.SortType.DESCENDING);
+        switchRateCol.setSortType(TableColumn.SortType.DESCENDING);
+        table.getSortOrder().add(cpuCol);
+        return table;
+    }
+
+    private VBox createHistoryChart(ProcessHistory.Metric metric, String titleKey, DoubleFunction<String> format) {
+        TimeSeriesChart chart = new TimeSeriesChart();
+        chart.addSeries();
+        chart.setValueFormatter(format);
+        chart.setPrefHeight(90);
+        historyCharts.put(metric, chart);
+        VBox box = new VBox(2, new Label(I18N.get(titleKey)), chart);
+        HBox.setHgrow(box, Priority.ALWAYS);
+        return box;
+    }
+
+    private void updateHistory() {
+        ProcessRow row = processTable.getSelectionModel().getSelectedItem();
+        historyPane.setVisible(row != null);
+        if (row == null) {
+            return;
+        }
+        int pid = row.getPid();
+        setTextIfChanged(historyTitle,
+            I18N.get("process.history") + ": " + row.nameProperty().get() + " (" + pid + ")");
+        pinToggle.setSelected(processHistory.isPinned(pid));
+        historyHint.setVisible(!processHistory.isTracked(pid));
+
+        long now = System.currentTimeMillis();
+        long from = now - TimeSeriesChart.DEFAULT_SPAN_MILLIS;
+        historyCharts.forEach((metric, chart) -> {
+            chart.setTimeRange(from, now);
+            chart.setData(0, processHistory.read(pid, metric, from, now, ProcessHistory.CAPACITY));
         });
+        updateThreadMonitor();
+    }
+
+    /**
+     * Read the threads of the selected process while the thread list is shown, and stop otherwise.
+     */
+    private void updateThreadMonitor() {
+        ProcessRow row = processTable.getSelectionModel().getSelectedItem();
+        if (!isActive() || row == null || !listToggle.isSelected() || !threadsToggle.isSelected()) {
+            threadMonitor.stop();
+            return;
+        }
+        if (row.getPid() != threadTableModel.getPid()) {
+            // Rows of the previous process would show until the first fetch
+            threadTableModel.clear();
+            threadPlaceholder.setText(I18N.get("common.loading"));
+        }
+        threadMonitor.start(row.getPid(), processMonitor.getIntervalMillis());
+    }
+
+    private void applyThreads(ThreadSnapshot snapshot) {
+        ProcessRow row = processTable.getSelectionModel().getSelectedItem();
+        if (row == null || row.getPid() != snapshot.pid() || !threadMonitor.isRunning()) {
+            // Fetched just before another process was selected or the list was closed
+            return;
+        }
+        threadTableModel.apply(snapshot);
+        threadPlaceholder.setText(I18N.get(snapshot.running() ? "process.threadsUnavailable" : "process.exited"));
+        sortIfOrdered(threadTable);
+    }
+
+    private HBox createFilterBox() {
+        filterField = new TextField();
+        filterField.setPromptText(I18N.get("process.filterPrompt"));
+        filterField.setPrefColumnCount(24);
+        filterField.textProperty().addListener((obs, oldText, newText) -> parseFilter());
+        regexToggle = new ToggleButton(I18N.get("process.regex"));
+        regexToggle.selectedProperty().addListener((obs, wasSelected, selected) -> parseFilter());
 
-        content.getChildren().addAll(processTable, refreshBtn);
+        MenuButton savedFilters = new MenuButton(I18N.get("process.savedFilters"));
+        // Rebuilt when opened, so the menu never holds on to a stale list
+        savedFilters.setOnShowing(e -> savedFilters.getItems().setAll(createSavedFilterItems()));
+        // Placeholder: a menu without items is never opened
+        savedFilters.getItems().add(new MenuItem());
 
-        ScrollPane scrollPane = new ScrollPane(content);
-        scrollPane.setFitToWidth(true);
-        tab.setContent(scrollPane);
-        return tab;
+        HBox filterBox = new HBox(10, filterField, regexToggle, savedFilters);
+        filterBox.setAlignment(Pos.CENTER_LEFT);
+        HBox.setHgrow(filterBox, Priority.ALWAYS);
+        // The tree and the groups show every process
+        filterBox.disableProperty().bind(listToggle.selectedProperty().not());
+        return filterBox;
+    }
+
+    private List<MenuItem> createSavedFilterItems() {
+        List<ProcessFilter> saved = AppSettings.getInstance().getSavedProcessFilters();
+        List<MenuItem> items = new ArrayList<>();
+        for (ProcessFilter filter : saved) {
+            MenuItem item = new MenuItem(filter.toString());
+            item.setOnAction(e -> {
+                regexToggle.setSelected(filter.regex());
+                filterField.setText(filter.text());
+            });
+            items.add(item);
+        }
+        if (!items.isEmpty()) {
+            items.add(new SeparatorMenuItem());
+        }
+        ProcessFilter current = new ProcessFilter(filterField.getText(), regexToggle.isSelected());
+        MenuItem save = new MenuItem(I18N.get("process.saveFilter"));
+        save.setDisable(current.text().isBlank() || saved.contains(current));
+        save.setOnAction(e -> saved.add(current));
+        MenuItem delete = new MenuItem(I18N.get("process.deleteFilter"));
+        delete.setDisable(!saved.contains(current));
+        delete.setOnAction(e -> saved.remove(current));
+        items.add(save);
+        items.add(delete);
+        return items;
+    }
+
+    /**
+     * Parse the filter once when its text or mode changes, and apply it.
+     */
+    private void parseFilter() {
+        String text = filterField.getText();
+        filterField.pseudoClassStateChanged(Styles.STATE_DANGER, false);
+        if (text == null || text.isBlank()) {
+            filterText = null;
+            filterPattern = null;
+        } else if (regexToggle.isSelected()) {
+            try {
+                filterPattern = Pattern.compile(text,
+                    Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.MULTILINE);
+                filterText = null;
+            } catch (PatternSyntaxException e) {
+                // Keep the last valid result while the expression is being typed
+                filterField.pseudoClassStateChanged(Styles.STATE_DANGER, true);
+                return;
+            }
+        } else {
+            filterText = text.strip();
+            filterPattern = null;
+        }
+        filterPids = null;
+        applyFilter();
+    }
+
+    /**
+     * Match the parsed filter against the current processes. The predicate is
+     * only replaced when the matching PIDs changed, since that makes the
+     * filtered list check every row again; new rows are checked anyway.
+     */
+    private void applyFilter() {
+        if (filterText == null && filterPattern == null) {
+            if (filteredRows.getPredicate() != null) {
+                filteredRows.setPredicate(null);
+            }
+            filterPids = null;
+            return;
+        }
+        int[] pids = filterPattern != null ? searchIndex.find(filterPattern) : searchIndex.find(filterText);
+        if (Arrays.equals(pids, filterPids)) {
+            return;
+        }
+        filterPids = pids;
+        filteredRows.setPredicate(row -> Arrays.binarySearch(pids, row.getPid()) >= 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TableView<ProcessGroupRow> createGroupTable() {
+        TableView<ProcessGroupRow> table = new TableView<>(groupModel.getGroups());
+        table.setPrefHeight(400);
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        TableColumn<ProcessGroupRow, String> nameCol = new TableColumn<>(I18N.get("process.name"));
+        nameCol.setCellValueFactory(p -> new ReadOnlyStringWrapper(p.getValue().getName()));
+        nameCol.setPrefWidth(200);
+
+        TableColumn<ProcessGroupRow, Number> countCol = createNumberColumn(I18N.get("process.processes"),
+            ProcessGroupRow::processCountProperty, String::valueOf);
+        countCol.setPrefWidth(90);
+
+        TableColumn<ProcessGroupRow, Number> threadsCol = createNumberColumn(I18N.get("process.threads"),
+            ProcessGroupRow::threadCountProperty, String::valueOf);
+        threadsCol.setPrefWidth(80);
+
+        TableColumn<ProcessGroupRow, Number> cpuCol = createNumberColumn(I18N.get("process.totalCpu"),
+            ProcessGroupRow::cpuLoadProperty, ProcessTabBuilder::formatCpu);
+        cpuCol.setPrefWidth(90);
+
+        TableColumn<ProcessGroupRow, Number> memCol = createNumberColumn(I18N.get("process.totalMemory"),
+            ProcessGroupRow::residentMemoryProperty, ProcessTabBuilder::formatMemory);
+        memCol.setPrefWidth(110);
+
+        TableColumn<ProcessGroupRow, String> pathCol = new TableColumn<>(I18N.get("process.path"));
+        pathCol.setCellValueFactory(p -> new ReadOnlyStringWrapper(p.getValue().getPath()));
+        pathCol.setPrefWidth(300);
+
+        table.getColumns().addAll(nameCol, countCol, threadsCol, cpuCol, memCol, pathCol);
+        cpuCol.setSortType(TableColumn.SortType.DESCENDING);
+        memCol.setSortType(TableColumn.SortType.DESCENDING);
+        countCol.setSortType(TableColumn.SortType.DESCENDING);
+        table.getSortOrder().add(cpuCol);
+        return table;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TreeTableView<ProcessRow> createProcessTree() {
+        TreeTableView<ProcessRow> tree = new TreeTableView<>(treeModel.getRoot());
+        tree.setShowRoot(false);
+        tree.setPrefHeight(400);
+        VBox.setVgrow(tree, Priority.ALWAYS);
+
+        TreeTableColumn<ProcessRow, String> nameCol = new TreeTableColumn<>(I18N.get("process.name"));
+        nameCol.setCellValueFactory(p -> p.getValue().getValue().nameProperty());
+        nameCol.setPrefWidth(240);
+
+        TreeTableColumn<ProcessRow, Number> pidCol = new TreeTableColumn<>(I18N.get("process.pid"));
+        pidCol.setCellValueFactory(p -> new ReadOnlyIntegerWrapper(p.getValue().getValue().getPid()));
+        pidCol.setPrefWidth(70);
+
+        TreeTableColumn<ProcessRow, String> userCol = new TreeTableColumn<>(I18N.get("process.user"));
+        userCol.setCellValueFactory(p -> p.getValue().getValue().userProperty());
+        userCol.setPrefWidth(100);
+
+        TreeTableColumn<ProcessRow, Number> cpuCol = createTreeNumberColumn(I18N.get("process.cpuPercent"),
+            ProcessRow::cpuLoadProperty, ProcessTabBuilder::formatCpu);
+        cpuCol.setPrefWidth(80);
+
+        TreeTableColumn<ProcessRow, Number> totalCpuCol = createTreeNumberColumn(I18N.get("process.totalCpu"),
+            ProcessRow::totalCpuLoadProperty, ProcessTabBuilder::formatCpu);
+        totalCpuCol.setPrefWidth(90);
+
+        TreeTableColumn<ProcessRow, Number> memCol = createTreeNumberColumn(I18N.get("process.memory"),
+            ProcessRow::residentMemoryProperty, ProcessTabBuilder::formatMemory);
+        memCol.setPrefWidth(100);
+
+        TreeTableColumn<ProcessRow, Number> totalMemCol = createTreeNumberColumn(I18N.get("process.totalMemory"),
+            ProcessRow::totalResidentMemoryProperty, ProcessTabBuilder::formatMemory);
+        totalMemCol.setPrefWidth(110);
+
+        tree.getColumns().addAll(nameCol, pidCol, userCol, cpuCol, totalCpuCol, memCol, totalMemCol);
+        // Sorts the children of every node: the busiest subtree first
+        totalCpuCol.setSortType(TreeTableColumn.SortType.DESCENDING);
+        totalMemCol.setSortType(TreeTableColumn.SortType.DESCENDING);
+        tree.getSortOrder().add(totalCpuCol);
+        return tree;
+    }
+
+    @Override
+    protected void onActivate() {
+        processMonitor.addListener(snapshotListener);
+        updateThreadMonitor();
+        if (autoRefreshToggle.isSelected()) {
+            processMonitor.start();
+        } else if (processMonitor.getLatest() == null) {
+            processMonitor.refresh();
+        }
+    }
+
+    @Override
+    protected void onDeactivate() {
+        processMonitor.stop();
+        processMonitor.removeListener(snapshotListener);
+        threadMonitor.stop();
+    }
+
+    private void applySnapshot(ProcessSnapshot snapshot) {
+        tableModel.apply(snapshot);
+        searchIndex = snapshot.searchIndex();
+        applyFilter();
+        // Rows are updated in place, so the current sort order is applied again
+        sortIfOrdered(processTable);
+        if (listToggle.isSelected()) {
+            updateHistory();
+        }
+        if (treeToggle.isSelected()) {
+            updateTree();
+        } else if (groupsToggle.isSelected()) {
+            sortIfOrdered(groupTable);
+        }
+        setTextIfChanged(processCountLabel, String.valueOf(snapshot.processes().size()));
+        setTextIfChanged(threadCountLabel, String.valueOf(snapshot.threadCount()));
+    }
+
+    private void updateTree() {
+        boolean empty = treeModel.getRoot().getChildren().isEmpty();
+        treeModel.apply(tableModel.getRows());
+        if (empty) {
+            // First fill: open the top level so the init or service processes show their children
+            treeModel.getRoot().getChildren().forEach(item -> item.setExpanded(true));
+        }
+        if (!processTree.getSortOrder().isEmpty()) {
+            processTree.sort();
+        }
+    }
+
+    private static String formatCpu(Number value) {
+        return String.format("%.1f%%", 100d * value.doubleValue());
+    }
+
+    private static String formatRate(Number value) {
+        return SystemInfoService.formatRate(value.doubleValue());
+    }
+
+    private static String formatMemory(Number value) {
+        return SystemInfoService.formatBytes(value.longValue());
+    }
+
+    private static TreeTableColumn<ProcessRow, Number> createTreeNumberColumn(
+        String title, Function<ProcessRow, ObservableValue<Number>> value, Function<Number, String> format) {
+        TreeTableColumn<ProcessRow, Number> column = new TreeTableColumn<>(title);
+        column.setCellValueFactory(p -> value.apply(p.getValue().getValue()));
+        column.setCellFactory(c -> new TreeTableCell<>() {
+            @Override
+            protected void updateItem(Number item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : format.apply(item));
+            }
+        });
+        column.setStyle("-fx-alignment: CENTER-RIGHT;");
+        return column;
     }
 }
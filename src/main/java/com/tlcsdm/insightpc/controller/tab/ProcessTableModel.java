@@ -0,0 +1,120 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import com.tlcsdm.insightpc.model.ProcessSample;
+import com.tlcsdm.insightpc.model.ProcessSnapshot;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rows of the process table, kept in sync with process snapshots by PID.
+ * <p>
+ * Applying a snapshot updates the rows of known PIDs in place, appends the
+ * new ones in a single {@code addAll} and drops the exited ones in a single
+ * {@code removeAll}, so the list fires at most two changes per refresh however
+ * many processes there are. Must be used on the JavaFX application thread
+ * once the rows are shown.
+ */
+public class ProcessTableModel {
+
+    /**
+     * Number of rows touched by applying one snapshot.
+     */
+    public record Changes(int added, int updated, int removed) {
+    }
+
+    /**
+     * Receives the rows that changed whenever a snapshot is applied, after the
+     * row list was updated, so derived views can follow the diff instead of
+     * going over every row.
+     */
+    @FunctionalInterface
+    public interface RowListener {
+
+        /**
+         * @param added   rows of processes that started
+         * @param updated rows whose values changed
+         * @param removed rows of processes that exited
+         */
+        void rowsChanged(List<ProcessRow> added, List<ProcessRow> updated, Collection<ProcessRow> removed);
+    }
+
+    private final ObservableList<ProcessRow> rows = FXCollections.observableArrayList();
+    private final Map<Integer, ProcessRow> rowsByPid = new HashMap<>();
+    private final List<RowListener> listeners = new ArrayList<>();
+
+    /**
+     * Get the rows, in the order they were first seen.
+     */
+    public ObservableList<ProcessRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the row of a PID, or {@code null} if the process is not listed.
+     */
+    public ProcessRow getRow(int pid) {
+        return rowsByPid.get(pid);
+    }
+
+    /**
+     * Register a listener for the rows changed by each snapshot.
+     */
+    public void addRowListener(RowListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Bring the rows up to date with a snapshot.
+     */
+    public Changes apply(ProcessSnapshot snapshot) {
+        Set<Integer> seen = new HashSet<>(snapshot.processes().size() * 2);
+        List<ProcessRow> added = new ArrayList<>();
+        List<ProcessRow> updated = new ArrayList<>();
+        Set<ProcessRow> stale = new HashSet<>();
+        for (ProcessSample sample : snapshot.processes()) {
+            if (!seen.add(sample.pid())) {
+                continue;
+            }
+            ProcessRow row = rowsByPid.get(sample.pid());
+            if (row != null && row.getStartTime() != sample.startTime()) {
+                // The PID was reused by a new process: its old row goes away
+                stale.add(row);
+                row = null;
+            }
+            if (row == null) {
+                row = new ProcessRow(sample);
+                rowsByPid.put(sample.pid(), row);
+                added.add(row);
+            } else if (row.update(sample)) {
+                updated.add(row);
+            }
+        }
+
+        rowsByPid.entrySet().removeIf(entry -> {
+            if (seen.contains(entry.getKey())) {
+                return false;
+            }
+            stale.add(entry.getValue());
+            return true;
+        });
+        if (!stale.isEmpty()) {
+            // removeAll fires one change; removeIf would fire one per row
+            rows.removeAll(stale);
+        }
+        if (!added.isEmpty()) {
+            rows.addAll(added);
+        }
+        for (RowListener listener : listeners) {
+            listener.rowsChanged(added, updated, stale);
+        }
+        return new Changes(added.size(), updated.size(), stale.size());
+    }
+}
@@ -0,0 +1,201 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import javafx.scene.control.TreeItem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process rows nested by parent PID, for the tree mode of the process table.
+ * <p>
+ * Every row has one {@link TreeItem} for as long as the row lives. Applying
+ * the current rows only touches items whose process started, exited or got a
+ * new parent, and children are added to and removed from each parent in one
+ * batch, so the expansion state survives refreshes. A process whose parent is
+ * not listed, or whose parent PID would close a cycle, sits under the root.
+ * The CPU load and resident memory of each process are rolled up into its
+ * ancestors without recursion. Must be used on the JavaFX application thread
+ * once the tree is shown.
+ */
+public class ProcessTreeModel {
+
+    /**
+     * Number of tree items touched by applying the rows.
+     */
+    public record Changes(int added, int moved, int removed) {
+    }
+
+    private final TreeItem<ProcessRow> root = new TreeItem<>();
+    private final Map<Integer, TreeItem<ProcessRow>> itemsByPid = new HashMap<>();
+
+    public ProcessTreeModel() {
+        root.setExpanded(true);
+    }
+
+    /**
+     * Get the hidden root; its children are the processes without a listed parent.
+     */
+    public TreeItem<ProcessRow> getRoot() {
+        return root;
+    }
+
+    /**
+     * Get the tree item of a PID, or {@code null} if the process is not listed.
+     */
+    public TreeItem<ProcessRow> getItem(int pid) {
+        return itemsByPid.get(pid);
+    }
+
+    /**
+     * Bring the tree up to date with the rows of the process table.
+     */
+    public Changes apply(Collection<ProcessRow> rows) {
+        Map<TreeItem<ProcessRow>, List<TreeItem<ProcessRow>>> removals = new IdentityHashMap<>();
+        Map<TreeItem<ProcessRow>, List<TreeItem<ProcessRow>>> additions = new IdentityHashMap<>();
+
+        // Items of exited processes and of reused PIDs go away
+        Map<Integer, ProcessRow> rowsByPid = new HashMap<>(rows.size() * 2);
+        for (ProcessRow row : rows) {
+            rowsByPid.put(row.getPid(), row);
+        }
+        int removed = 0;
+        var it = itemsByPid.values().iterator();
+        while (it.hasNext()) {
+            TreeItem<ProcessRow> item = it.next();
+            if (rowsByPid.get(item.getValue().getPid()) != item.getValue()) {
+                it.remove();
+                detach(item, removals);
+                removed++;
+            }
+        }
+
+        int added = 0;
+        for (ProcessRow row : rows) {
+            if (!itemsByPid.containsKey(row.getPid())) {
+                itemsByPid.put(row.getPid(), new TreeItem<>(row));
+                added++;
+            }
+        }
+
+        // Attach new items and move those whose parent changed or went away
+        int moved = 0;
+        for (ProcessRow row : rows) {
+            TreeItem<ProcessRow> item = itemsByPid.get(row.getPid());
+            TreeItem<ProcessRow> current = item.getParent();
+            if (current != null && current == listedParent(row)) {
+                continue;
+            }
+            TreeItem<ProcessRow> parent = parentOf(item);
+            if (parent == current) {
+                // Kept under the root because its parent PID would close a cycle
+                continue;
+            }
+            if (current != null) {
+                detach(item, removals);
+                moved++;
+            }
+            additions.computeIfAbsent(parent, p -> new ArrayList<>()).add(item);
+        }
+
+        removals.forEach((parent, children) -> parent.getChildren().removeAll(children));
+        for (TreeItem<ProcessRow> parent : deepestFirst(additions)) {
+            parent.getChildren().addAll(additions.get(parent));
+        }
+        updateTotals();
+        return new Changes(added, moved, removed);
+    }
+
+    /**
+     * Get the item of the parent PID, or the root if the parent is not listed.
+     */
+    private TreeItem<ProcessRow> listedParent(ProcessRow row) {
+        int parentPid = row.parentPidProperty().get();
+        TreeItem<ProcessRow> parent = parentPid == row.getPid() ? null : itemsByPid.get(parentPid);
+        return parent == null ? root : parent;
+    }
+
+    /**
+     * Get the item an item belongs under. A parent PID can point into the
+     * item's own subtree after PID reuse, so the chain of parent PIDs is
+     * walked up first; only items that move pay for this.
+     */
+    private TreeItem<ProcessRow> parentOf(TreeItem<ProcessRow> item) {
+        TreeItem<ProcessRow> parent = listedParent(item.getValue());
+        TreeItem<ProcessRow> ancestor = parent;
+        // Bounded: a cycle further up that does not contain the item must not loop forever
+        for (int depth = 0; ancestor != root; depth++) {
+            if (ancestor == item || depth > itemsByPid.size()) {
+                return root;
+            }
+            ancestor = listedParent(ancestor.getValue());
+        }
+        return parent;
+    }
+
+    /**
+     * Order the parents that receive children so that a parent which is
+     * itself being attached comes before its own parent. New subtrees are then
+     * assembled while detached and join the tree in one change each: a child
+     * change fires an event through every ancestor, which would otherwise
+     * make filling a deep tree quadratic.
+     */
+    private static List<TreeItem<ProcessRow>> deepestFirst(
+        Map<TreeItem<ProcessRow>, List<TreeItem<ProcessRow>>> additions) {
+        Map<TreeItem<ProcessRow>, TreeItem<ProcessRow>> targets = new IdentityHashMap<>();
+        additions.forEach((parent, children) -> children.forEach(child -> targets.put(child, parent)));
+        // Depth below the first parent that stays where it is, memoized so every item is walked once
+        Map<TreeItem<ProcessRow>, Integer> depths = new IdentityHashMap<>();
+        List<TreeItem<ProcessRow>> chain = new ArrayList<>();
+        for (TreeItem<ProcessRow> parent : additions.keySet()) {
+            TreeItem<ProcessRow> item = parent;
+            while (item != null && !depths.containsKey(item)) {
+                chain.add(item);
+                item = targets.get(item);
+            }
+            int depth = item == null ? 0 : depths.get(item);
+            for (int i = chain.size() - 1; i >= 0; i--) {
+                depths.put(chain.get(i), ++depth);
+            }
+            chain.clear();
+        }
+        List<TreeItem<ProcessRow>> parents = new ArrayList<>(additions.keySet());
+        parents.sort((a, b) -> Integer.compare(depths.get(b), depths.get(a)));
+        return parents;
+    }
+
+    private static void detach(TreeItem<ProcessRow> item,
+                               Map<TreeItem<ProcessRow>, List<TreeItem<ProcessRow>>> removals) {
+        TreeItem<ProcessRow> parent = item.getParent();
+        if (parent != null) {
+            removals.computeIfAbsent(parent, p -> new ArrayList<>()).add(item);
+        }
+    }
+
+    private void updateTotals() {
+        // Pre-order with an explicit stack; walking it backwards visits every child before its parent
+        List<TreeItem<ProcessRow>> order = new ArrayList<>(itemsByPid.size());
+        Deque<TreeItem<ProcessRow>> stack = new ArrayDeque<>(root.getChildren());
+        while (!stack.isEmpty()) {
+            TreeItem<ProcessRow> item = stack.pop();
+            order.add(item);
+            stack.addAll(item.getChildren());
+        }
+        for (int i = order.size() - 1; i >= 0; i--) {
+            TreeItem<ProcessRow> item = order.get(i);
+            ProcessRow row = item.getValue();
+            long memory = row.residentMemoryProperty().get();
+            double cpu = row.cpuLoadProperty().get();
+            for (TreeItem<ProcessRow> child : item.getChildren()) {
+                memory += child.getValue().totalResidentMemoryProperty().get();
+                cpu += child.getValue().totalCpuLoadProperty().get();
+            }
+            row.setTotals(memory, cpu);
+        }
+    }
+}
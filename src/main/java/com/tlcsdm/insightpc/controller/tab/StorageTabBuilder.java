@@ -1,38 +1,102 @@
 package com.tlcsdm.insightpc.controller.tab;
 
 import com.tlcsdm.insightpc.config.I18N;
+import com.tlcsdm.insightpc.controller.UiUpdatePump;
+import com.tlcsdm.insightpc.controller.chart.TimeSeriesChart;
+import com.tlcsdm.insightpc.model.DiskSample;
+import com.tlcsdm.insightpc.model.ProcessSample;
+import com.tlcsdm.insightpc.model.ProcessSnapshot;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import com.tlcsdm.insightpc.service.MetricsHistory;
+import com.tlcsdm.insightpc.service.MetricsSource;
+import com.tlcsdm.insightpc.service.ProcessMonitor;
 import com.tlcsdm.insightpc.service.SystemInfoService;
+import com.tlcsdm.insightpc.service.ValueFormatter;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Separator;
-import javafx.scene.control.Tab;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
+import org.kordamp.ikonli.Ikon;
 import org.kordamp.ikonli.materialdesign2.MaterialDesignH;
 import oshi.hardware.HWDiskStore;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
 
 /**
- * Builds the Storage tab showing disk and file system info.
+ * Builds the Storage tab showing disk activity, disk and file system info.
+ * <p>
+ * The processes doing the most disk I/O are listed below the activity, like
+ * {@code iotop}. They come from the {@link ProcessMonitor}, which the tab
+ * runs while it is shown, so they are always live, even while a recording
+ * is replayed.
  */
 public class StorageTabBuilder extends AbstractTabBuilder {
 
-    public StorageTabBuilder(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
-        super(systemInfoService, scheduler);
+    private static final int TOP_IO_COUNT = 5;
+
+    private final Consumer<SystemSnapshot> snapshotListener = updatePump.conflate(this::applySnapshot);
+    private final ValueFormatter formatter = new ValueFormatter();
+    private final Map<String, Label> rateLabels = new HashMap<>();
+    private final Map<String, TimeSeriesChart> rateCharts = new HashMap<>();
+    private final ProcessMonitor processMonitor;
+    private final Consumer<ProcessSnapshot> processListener = updatePump.conflate(this::applyProcesses);
+    private final Label[] topIoNames = new Label[TOP_IO_COUNT];
+    private final Label[] topIoRates = new Label[TOP_IO_COUNT];
+
+    private GridPane activityGrid;
+    private Label noIoLabel;
+
+    public StorageTabBuilder(SystemInfoService systemInfoService, MetricsSource metricsSource,
+                             ScheduledExecutorService scheduler, UiUpdatePump updatePump,
+                             ProcessMonitor processMonitor) {
+        super(systemInfoService, metricsSource, scheduler, updatePump);
+        this.processMonitor = processMonitor;
     }
 
     @Override
-    public Tab build() {
-        Tab tab = new Tab(I18N.get("tab.storage"));
-        tab.setClosable(false);
-        tab.setGraphic(createTabIcon(MaterialDesignH.HARDDISK));
+    protected String getTitleKey() {
+        return "tab.storage";
+    }
+
+    @Override
+    protected Ikon getIcon() {
+        return MaterialDesignH.HARDDISK;
+    }
 
+    @Override
+    protected Node buildContent() {
         VBox content = new VBox(10);
         content.setPadding(new Insets(15));
 
+        // Disk activity comes from the metrics source, so it also shows recordings
+        content.getChildren().add(createSectionLabel(I18N.get("storage.activity")));
+        activityGrid = createInfoGrid();
+        content.getChildren().add(activityGrid);
+
+        content.getChildren().add(createSectionLabel(I18N.get("storage.topIo")));
+        GridPane topIoGrid = createInfoGrid();
+        // Fixed rows, hidden while fewer processes do I/O, so a refresh only changes texts
+        for (int i = 0; i < TOP_IO_COUNT; i++) {
+            topIoNames[i] = new Label();
+            topIoNames[i].getStyleClass().add("key-label");
+            topIoRates[i] = new Label();
+            topIoNames[i].setVisible(false);
+            topIoNames[i].managedProperty().bind(topIoNames[i].visibleProperty());
+            topIoRates[i].visibleProperty().bind(topIoNames[i].visibleProperty());
+            topIoRates[i].managedProperty().bind(topIoNames[i].visibleProperty());
+            topIoGrid.addRow(i, topIoNames[i], topIoRates[i]);
+        }
+        noIoLabel = new Label(I18N.get("common.loading"));
+        content.getChildren().addAll(topIoGrid, noIoLabel);
+
         List<HWDiskStore> diskStores = systemInfoService.getDiskStores();
 
         content.getChildren().add(createSectionLabel(I18N.get("storage.info")));
@@ -55,7 +119,7 @@ public class StorageTabBuilder extends AbstractTabBuilder {
 
         // File system info
         content.getChildren().add(createSectionLabel(I18N.get("storage.fileSystem")));
-        systemInfoService.getOperatingSystem().getFileSystem().getFileStores().forEach(fs -> {
+        systemInfoService.getFileStores().forEach(fs -> {
             GridPane fsGrid = createInfoGrid();
             int row = 0;
             addGridRow(fsGrid, row++, I18N.get("storage.mount"), fs.getMount());
@@ -81,7 +145,77 @@ public class StorageTabBuilder extends AbstractTabBuilder {
 
         ScrollPane scrollPane = new ScrollPane(content);
         scrollPane.setFitToWidth(true);
-        tab.setContent(scrollPane);
-        return tab;
+        return scrollPane;
+    }
+
+    @Override
+    protected void onActivate() {
+        metricsSource.addListener(snapshotListener);
+        processMonitor.addListener(processListener);
+        processMonitor.start();
+    }
+
+    @Override
+    protected void onDeactivate() {
+        metricsSource.removeListener(snapshotListener);
+        processMonitor.stop();
+        processMonitor.removeListener(processListener);
+    }
+
+    private void applySnapshot(SystemSnapshot snapshot) {
+        List<DiskSample> disks = snapshot.disks();
+        boolean sameDisks = disks.size() == rateLabels.size()
+            && disks.stream().allMatch(d -> rateLabels.containsKey(d.name()));
+        if (!sameDisks) {
+            activityGrid.getChildren().clear();
+            rateLabels.clear();
+            rateCharts.clear();
+        }
+        for (DiskSample disk : disks) {
+            Label label = rateLabels.computeIfAbsent(disk.name(), this::addActivityRow);
+            setTextIfChanged(label, formatter.clear()
+                .append(I18N.get("storage.read")).append(' ').rate(disk.readRate())
+                .append("    ").append(I18N.get("storage.write")).append(' ').rate(disk.writeRate())
+                .text());
+            updateChart(rateCharts.get(disk.name()), snapshot.timestamp(),
+                MetricsHistory.diskReadSeries(disk.name()), MetricsHistory.diskWriteSeries(disk.name()));
+        }
+    }
+
+    private void applyProcesses(ProcessSnapshot snapshot) {
+        List<ProcessSample> top = snapshot.topByIoRate(TOP_IO_COUNT);
+        for (int i = 0; i < TOP_IO_COUNT; i++) {
+            boolean shown = i < top.size();
+            topIoNames[i].setVisible(shown);
+            if (shown) {
+                ProcessSample process = top.get(i);
+                setTextIfChanged(topIoNames[i], formatter.clear()
+                    .append(process.name()).append(" (").append(String.valueOf(process.pid())).append("):")
+                    .text());
+                setTextIfChanged(topIoRates[i], formatter.clear()
+                    .append(I18N.get("storage.read")).append(' ').rate(process.readRate())
+                    .append("    ").append(I18N.get("storage.write")).append(' ').rate(process.writeRate())
+                    .text());
+            }
+        }
+        noIoLabel.setVisible(top.isEmpty());
+        noIoLabel.setManaged(top.isEmpty());
+        setTextIfChanged(noIoLabel, I18N.get("storage.noProcessIo"));
+    }
+
+    /**
+     * Add the rate label and rate history chart of a device below the existing rows.
+     */
+    private Label addActivityRow(String name) {
+        int row = rateLabels.size() * 2;
+        Label label = addGridRow(activityGrid, row, name, "");
+        TimeSeriesChart chart = new TimeSeriesChart();
+        chart.addSeries();
+        chart.addSeries();
+        chart.setValueFormatter(SystemInfoService::formatRate);
+        chart.setPrefHeight(140);
+        activityGrid.add(chart, 0, row + 1, 2, 1);
+        rateCharts.put(name, chart);
+        return label;
     }
 }
@@ -0,0 +1,110 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import com.tlcsdm.insightpc.model.ThreadSample;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+import java.util.Objects;
+
+/**
+ * One row of the thread table of a process. Like a {@link ProcessRow}, it
+ * lives as long as its thread and its properties are updated in place.
+ */
+public final class ThreadRow {
+
+    private final int threadId;
+    private final long startTime;
+    private final StringProperty name = new SimpleStringProperty(this, "name");
+    private final StringProperty state = new SimpleStringProperty(this, "state");
+    private final IntegerProperty priority = new SimpleIntegerProperty(this, "priority");
+    private final DoubleProperty cpuLoad = new SimpleDoubleProperty(this, "cpuLoad");
+    private final LongProperty contextSwitches = new SimpleLongProperty(this, "contextSwitches");
+    private final DoubleProperty contextSwitchRate = new SimpleDoubleProperty(this, "contextSwitchRate");
+    private final LongProperty cpuTime = new SimpleLongProperty(this, "cpuTime");
+
+    public ThreadRow(ThreadSample sample) {
+        this.threadId = sample.threadId();
+        this.startTime = sample.startTime();
+        update(sample);
+    }
+
+    /**
+     * Copy the values of a newer sample of the same thread.
+     */
+    public void update(ThreadSample sample) {
+        if (!Objects.equals(name.get(), sample.name())) {
+            name.set(sample.name());
+        }
+        if (!Objects.equals(state.get(), sample.state())) {
+            state.set(sample.state());
+        }
+        if (priority.get() != sample.priority()) {
+            priority.set(sample.priority());
+        }
+        if (Double.compare(cpuLoad.get(), sample.cpuLoad()) != 0) {
+            cpuLoad.set(sample.cpuLoad());
+        }
+        if (contextSwitches.get() != sample.contextSwitches()) {
+            contextSwitches.set(sample.contextSwitches());
+        }
+        if (Double.compare(contextSwitchRate.get(), sample.contextSwitchRate()) != 0) {
+            contextSwitchRate.set(sample.contextSwitchRate());
+        }
+        long time = sample.kernelTime() + sample.userTime();
+        if (cpuTime.get() != time) {
+            cpuTime.set(time);
+        }
+    }
+
+    public int getThreadId() {
+        return threadId;
+    }
+
+    /**
+     * Get the start time, which tells a reused thread ID from the thread that had it before.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public ReadOnlyStringProperty nameProperty() {
+        return name;
+    }
+
+    public ReadOnlyStringProperty stateProperty() {
+        return state;
+    }
+
+    public ReadOnlyIntegerProperty priorityProperty() {
+        return priority;
+    }
+
+    public ReadOnlyDoubleProperty cpuLoadProperty() {
+        return cpuLoad;
+    }
+
+    public ReadOnlyLongProperty contextSwitchesProperty() {
+        return contextSwitches;
+    }
+
+    public ReadOnlyDoubleProperty contextSwitchRateProperty() {
+        return contextSwitchRate;
+    }
+
+    /**
+     * Cumulative kernel and user CPU time in milliseconds.
+     */
+    public ReadOnlyLongProperty cpuTimeProperty() {
+        return cpuTime;
+    }
+}
@@ -0,0 +1,100 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import com.tlcsdm.insightpc.model.ThreadSample;
+import com.tlcsdm.insightpc.model.ThreadSnapshot;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rows of the thread table, kept in sync with the thread snapshots of one
+ * process by thread ID, the same way {@link ProcessTableModel} follows the
+ * process list. A snapshot of another process replaces all rows. Must be used
+ * on the JavaFX application thread once the rows are shown.
+ */
+public class ThreadTableModel {
+
+    private final ObservableList<ThreadRow> rows = FXCollections.observableArrayList();
+    private final Map<Integer, ThreadRow> rowsById = new HashMap<>();
+    private int pid = -1;
+
+    /**
+     * Get the rows, in the order they were first seen.
+     */
+    public ObservableList<ThreadRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the row of a thread ID, or {@code null} if the thread is not listed.
+     */
+    public ThreadRow getRow(int threadId) {
+        return rowsById.get(threadId);
+    }
+
+    /**
+     * Get the process whose threads are listed, or -1 if none.
+     */
+    public int getPid() {
+        return pid;
+    }
+
+    /**
+     * Remove all rows.
+     */
+    public void clear() {
+        pid = -1;
+        rowsById.clear();
+        rows.clear();
+    }
+
+    /**
+     * Bring the rows up to date with a snapshot.
+     */
+    public void apply(ThreadSnapshot snapshot) {
+        if (snapshot.pid() != pid) {
+            clear();
+            pid = snapshot.pid();
+        }
+        Set<Integer> seen = new HashSet<>(snapshot.threads().size() * 2);
+        List<ThreadRow> added = new ArrayList<>();
+        Set<ThreadRow> stale = new HashSet<>();
+        for (ThreadSample sample : snapshot.threads()) {
+            if (!seen.add(sample.threadId())) {
+                continue;
+            }
+            ThreadRow row = rowsById.get(sample.threadId());
+            if (row != null && row.getStartTime() != sample.startTime()) {
+                // The thread ID was reused by a new thread
+                stale.add(row);
+                row = null;
+            }
+            if (row == null) {
+                row = new ThreadRow(sample);
+                rowsById.put(sample.threadId(), row);
+                added.add(row);
+            } else {
+                row.update(sample);
+            }
+        }
+        rowsById.entrySet().removeIf(entry -> {
+            if (seen.contains(entry.getKey())) {
+                return false;
+            }
+            stale.add(entry.getValue());
+            return true;
+        });
+        if (!stale.isEmpty()) {
+            rows.removeAll(stale);
+        }
+        if (!added.isEmpty()) {
+            rows.addAll(added);
+        }
+    }
+}
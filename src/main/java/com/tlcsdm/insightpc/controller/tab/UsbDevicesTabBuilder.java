@@ -1,15 +1,20 @@
 package com.tlcsdm.insightpc.controller.tab;
 
 import com.tlcsdm.insightpc.config.I18N;
+import com.tlcsdm.insightpc.controller.UiUpdatePump;
+import com.tlcsdm.insightpc.model.HardwareInventory;
+import com.tlcsdm.insightpc.model.HardwareInventory.UsbDeviceInfo;
+import com.tlcsdm.insightpc.service.InventoryCache;
+import com.tlcsdm.insightpc.service.MetricsSource;
 import com.tlcsdm.insightpc.service.SystemInfoService;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.control.ScrollPane;
-import javafx.scene.control.Tab;
 import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeView;
 import javafx.scene.layout.VBox;
+import org.kordamp.ikonli.Ikon;
 import org.kordamp.ikonli.materialdesign2.MaterialDesignU;
-import oshi.hardware.UsbDevice;
 
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
@@ -19,29 +24,41 @@ import java.util.concurrent.ScheduledExecutorService;
  */
 public class UsbDevicesTabBuilder extends AbstractTabBuilder {
 
-    public UsbDevicesTabBuilder(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
-        super(systemInfoService, scheduler);
+    public UsbDevicesTabBuilder(SystemInfoService systemInfoService, MetricsSource metricsSource,
+                                ScheduledExecutorService scheduler, UiUpdatePump updatePump) {
+        super(systemInfoService, metricsSource, scheduler, updatePump);
     }
 
     @Override
-    public Tab build() {
-        Tab tab = new Tab(I18N.get("tab.usbDevices"));
-        tab.setClosable(false);
-        tab.setGraphic(createTabIcon(MaterialDesignU.USB));
+    protected String getTitleKey() {
+        return "tab.usbDevices";
+    }
 
+    @Override
+    protected Ikon getIcon() {
+        return MaterialDesignU.USB;
+    }
+
+    @Override
+    protected Node buildContent() {
         VBox content = new VBox(10);
         content.setPadding(new Insets(15));
 
         content.getChildren().add(createSectionLabel(I18N.get("usb.info")));
 
-        List<UsbDevice> usbDevices = systemInfoService.getUsbDevices();
         TreeView<String> usbTree = new TreeView<>();
         TreeItem<String> rootItem = new TreeItem<>(I18N.get("usb.info"));
         rootItem.setExpanded(true);
+        rootItem.getChildren().add(new TreeItem<>(I18N.get("common.loading")));
 
-        for (UsbDevice device : usbDevices) {
-            buildUsbTreeItem(rootItem, device);
+        // Show the cached tree right away; devices can be hot-plugged, so always
+        // re-enumerate in the background (slow on some platforms)
+        InventoryCache inventoryCache = systemInfoService.getInventoryCache();
+        HardwareInventory cached = inventoryCache.getCached();
+        if (cached != null) {
+            showUsbDevices(rootItem, cached.usbDevices());
         }
+        loadAsync(inventoryCache::probeUsbDevices, usbDevices -> showUsbDevices(rootItem, usbDevices));
 
         usbTree.setRoot(rootItem);
         usbTree.setPrefHeight(500);
@@ -49,19 +66,25 @@ public class UsbDevicesTabBuilder extends AbstractTabBuilder {
 
         ScrollPane scrollPane = new ScrollPane(content);
         scrollPane.setFitToWidth(true);
-        tab.setContent(scrollPane);
-        return tab;
+        return scrollPane;
+    }
+
+    private void showUsbDevices(TreeItem<String> rootItem, List<UsbDeviceInfo> usbDevices) {
+        rootItem.getChildren().clear();
+        for (UsbDeviceInfo device : usbDevices) {
+            buildUsbTreeItem(rootItem, device);
+        }
     }
 
-    private void buildUsbTreeItem(TreeItem<String> parent, UsbDevice device) {
-        String label = device.getName();
-        if (device.getVendor() != null && !device.getVendor().isEmpty()) {
-            label += " (" + device.getVendor() + ")";
+    private void buildUsbTreeItem(TreeItem<String> parent, UsbDeviceInfo device) {
+        String label = device.name();
+        if (device.vendor() != null && !device.vendor().isEmpty()) {
+            label += " (" + device.vendor() + ")";
         }
         TreeItem<String> item = new TreeItem<>(label);
         item.setExpanded(true);
 
-        for (UsbDevice child : device.getConnectedDevices()) {
+        for (UsbDeviceInfo child : device.children()) {
             buildUsbTreeItem(item, child);
         }
 
@@ -1,14 +1,17 @@
 package com.tlcsdm.insightpc.controller.tab;
 
 import com.tlcsdm.insightpc.config.I18N;
+import com.tlcsdm.insightpc.controller.UiUpdatePump;
+import com.tlcsdm.insightpc.service.MetricsSource;
 import com.tlcsdm.insightpc.service.SystemInfoService;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.control.ScrollPane;
-import javafx.scene.control.Tab;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.layout.VBox;
+import org.kordamp.ikonli.Ikon;
 import org.kordamp.ikonli.materialdesign2.MaterialDesignC;
 
 import java.util.Map;
@@ -20,17 +23,24 @@ import java.util.concurrent.ScheduledExecutorService;
  */
 public class VariablesTabBuilder extends AbstractTabBuilder {
 
-    public VariablesTabBuilder(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
-        super(systemInfoService, scheduler);
+    public VariablesTabBuilder(SystemInfoService systemInfoService, MetricsSource metricsSource,
+                               ScheduledExecutorService scheduler, UiUpdatePump updatePump) {
+        super(systemInfoService, metricsSource, scheduler, updatePump);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public Tab build() {
-        Tab tab = new Tab(I18N.get("tab.variables"));
-        tab.setClosable(false);
-        tab.setGraphic(createTabIcon(MaterialDesignC.CODE_BRACES));
+    protected String getTitleKey() {
+        return "tab.variables";
+    }
 
+    @Override
+    protected Ikon getIcon() {
+        return MaterialDesignC.CODE_BRACES;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Node buildContent() {
         VBox content = new VBox(10);
         content.setPadding(new Insets(15));
 
@@ -58,7 +68,6 @@ public class VariablesTabBuilder extends AbstractTabBuilder {
 
         ScrollPane scrollPane = new ScrollPane(content);
         scrollPane.setFitToWidth(true);
-        tab.setContent(scrollPane);
-        return tab;
+        return scrollPane;
     }
 }
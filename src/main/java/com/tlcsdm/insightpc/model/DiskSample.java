@@ -0,0 +1,17 @@
+package com.tlcsdm.insightpc.model;
+
+/**
+ * Immutable sample of a single disk's I/O counters taken as part of a
+ * {@link SystemSnapshot}.
+ *
+ * @param name       the disk name
+ * @param reads      cumulative number of reads
+ * @param writes     cumulative number of writes
+ * @param readBytes  cumulative bytes read
+ * @param writeBytes cumulative bytes written
+ * @param readRate   bytes read per second since the previous sample
+ * @param writeRate  bytes written per second since the previous sample
+ */
+public record DiskSample(String name, long reads, long writes, long readBytes, long writeBytes,
+                         double readRate, double writeRate) {
+}
@@ -0,0 +1,73 @@
+package com.tlcsdm.insightpc.model;
+
+import java.util.List;
+
+/**
+ * Static hardware inventory that does not change within a boot session.
+ * Persisted as JSON by the inventory cache so startup can skip slow probes.
+ *
+ * @param formatVersion  the cache format version
+ * @param bootTime       system boot time in epoch seconds when the inventory was probed
+ * @param fingerprint    cheap hardware fingerprint used to detect hardware changes
+ * @param cpuName        processor name
+ * @param memoryTotal    total physical memory in bytes
+ * @param computer       computer system information
+ * @param baseboard      baseboard information
+ * @param firmware       firmware information
+ * @param memoryModules  installed memory modules
+ * @param graphicsCards  graphics cards
+ * @param displayCount   number of connected displays
+ * @param soundCards     sound card names
+ * @param usbDevices     USB device tree
+ */
+public record HardwareInventory(int formatVersion,
+                                long bootTime,
+                                String fingerprint,
+                                String cpuName,
+                                long memoryTotal,
+                                ComputerInfo computer,
+                                BaseboardInfo baseboard,
+                                FirmwareInfo firmware,
+                                List<MemoryModule> memoryModules,
+                                List<GraphicsCardInfo> graphicsCards,
+                                int displayCount,
+                                List<String> soundCards,
+                                List<UsbDeviceInfo> usbDevices) {
+
+    /**
+     * Computer system information.
+     */
+    public record ComputerInfo(String manufacturer, String model, String serialNumber, String hardwareUuid) {
+    }
+
+    /**
+     * Baseboard information.
+     */
+    public record BaseboardInfo(String manufacturer, String model, String version, String serialNumber) {
+    }
+
+    /**
+     * Firmware information.
+     */
+    public record FirmwareInfo(String manufacturer, String name, String version, String releaseDate,
+                               String description) {
+    }
+
+    /**
+     * Installed memory module.
+     */
+    public record MemoryModule(String bankLabel, long capacity, long clockSpeed, String memoryType) {
+    }
+
+    /**
+     * Graphics card.
+     */
+    public record GraphicsCardInfo(String name, long vram) {
+    }
+
+    /**
+     * USB device with its connected child devices.
+     */
+    public record UsbDeviceInfo(String name, String vendor, List<UsbDeviceInfo> children) {
+    }
+}
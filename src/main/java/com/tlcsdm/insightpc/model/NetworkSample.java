@@ -0,0 +1,45 @@
+package com.tlcsdm.insightpc.model;
+
+/**
+ * Immutable sample of a single network interface's traffic counters taken
+ * as part of a {@link SystemSnapshot}.
+ *
+ * @param name           the interface name
+ * @param bytesRecv      cumulative bytes received
+ * @param bytesSent      cumulative bytes sent
+ * @param recvRate       bytes received per second since the previous sample
+ * @param sentRate       bytes sent per second since the previous sample
+ * @param packetsRecv    cumulative packets received
+ * @param packetsSent    cumulative packets sent
+ * @param errors         cumulative receive and send errors
+ * @param drops          cumulative incoming packets dropped
+ * @param packetRecvRate packets received per second since the previous sample
+ * @param packetSentRate packets sent per second since the previous sample
+ * @param errorRate      errors per second since the previous sample
+ * @param dropRate       drops per second since the previous sample
+ * @param up             whether the interface is operationally up
+ * @param virtual        whether the interface is a loopback, has no physical
+ *                       connector or has the MAC address of a virtual machine
+ */
+public record NetworkSample(String name, long bytesRecv, long bytesSent,
+                            double recvRate, double sentRate,
+                            long packetsRecv, long packetsSent, long errors, long drops,
+                            double packetRecvRate, double packetSentRate, double errorRate, double dropRate,
+                            boolean up, boolean virtual) {
+
+    /**
+     * Create a sample with byte counters only, such as one replayed from a
+     * recording. The interface counts as up and physical.
+     */
+    public NetworkSample(String name, long bytesRecv, long bytesSent, double recvRate, double sentRate) {
+        this(name, bytesRecv, bytesSent, recvRate, sentRate, 0, 0, 0, 0, 0, 0, 0, 0, true, false);
+    }
+
+    /**
+     * Check whether any traffic, error or drop was counted since the previous sample.
+     */
+    public boolean hasActivity() {
+        return recvRate > 0 || sentRate > 0 || packetRecvRate > 0 || packetSentRate > 0
+            || errorRate > 0 || dropRate > 0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.tlcsdm.insightpc.model;
+
+/**
+ * A filter of the process list as saved by the user.
+ *
+ * @param text  the text to look for, or the regular expression
+ * @param regex whether {@code text} is a regular expression
+ */
+public record ProcessFilter(String text, boolean regex) {
+
+    @Override
+    public String toString() {
+        return regex ? "/" + text + "/" : text;
+    }
+}
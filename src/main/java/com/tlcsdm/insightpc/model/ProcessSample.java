@@ -0,0 +1,37 @@
+package com.tlcsdm.insightpc.model;
+
+/**
+ * Immutable sample of a single process taken as part of a {@link ProcessSnapshot}.
+ *
+ * @param pid            the process ID
+ * @param parentPid      the parent process ID, or 0 if unknown
+ * @param name           the process name
+ * @param path           the executable path, empty if unknown
+ * @param commandLine    the command line with arguments separated by spaces, empty if unknown
+ * @param user           the owning user name
+ * @param state          the process state name
+ * @param residentMemory resident set size in bytes
+ * @param virtualMemory  virtual memory size in bytes
+ * @param cpuLoad        CPU usage since the previous sample, where 1.0 is one logical processor fully busy
+ * @param threadCount    number of threads
+ * @param startTime      start time in epoch milliseconds
+ * @param kernelTime     cumulative kernel CPU time in milliseconds
+ * @param userTime       cumulative user CPU time in milliseconds
+ * @param bytesRead      cumulative bytes read from disk
+ * @param bytesWritten   cumulative bytes written to disk
+ * @param readRate       bytes read per second since the previous sample, 0 without one
+ * @param writeRate      bytes written per second since the previous sample, 0 without one
+ */
+public record ProcessSample(int pid, int parentPid, String name, String path, String commandLine,
+                            String user, String state,
+                            long residentMemory, long virtualMemory, double cpuLoad, int threadCount,
+                            long startTime, long kernelTime, long userTime,
+                            long bytesRead, long bytesWritten, double readRate, double writeRate) {
+
+    /**
+     * Get the bytes read and written per second since the previous sample.
+     */
+    public double ioRate() {
+        return readRate + writeRate;
+    }
+}
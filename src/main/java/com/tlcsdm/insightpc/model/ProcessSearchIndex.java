@@ -0,0 +1,211 @@
+package com.tlcsdm.insightpc.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable search index over the PID, name, user and command line of the
+ * processes of one snapshot.
+ * <p>
+ * The searchable text of each process is lowercased once and split into
+ * trigrams, hashed into a fixed number of buckets. Each bucket lists the
+ * processes containing one of its trigrams, in a single {@code int} array. A
+ * query of three characters or more only checks the processes listed in the
+ * emptiest bucket of its trigrams, so most processes are never looked at;
+ * hash collisions only add candidates, which are verified with a plain
+ * substring test. The text and trigrams of a process are reused from the
+ * previous index while the process lives, so building on each refresh only
+ * pays for processes that started.
+ */
+public final class ProcessSearchIndex {
+
+    private static final int BUCKET_BITS = 16;
+    private static final int BUCKETS = 1 << BUCKET_BITS;
+    private static final int GRAM = 3;
+    private static final int[] NO_PIDS = new int[0];
+
+    /**
+     * Index without processes.
+     */
+    public static final ProcessSearchIndex EMPTY = new ProcessSearchIndex(new Entry[0]);
+
+    // Sorted by PID, so entry numbers and PIDs have the same order
+    private final Entry[] entries;
+    private final int[] pids;
+    // Entries listed in bucket b are postings[offsets[b]] to postings[offsets[b + 1] - 1], ascending
+    private final int[] offsets;
+    private final int[] postings;
+
+    private ProcessSearchIndex(Entry[] entries) {
+        this.entries = entries;
+        this.pids = new int[entries.length];
+        int total = 0;
+        int[] counts = new int[BUCKETS + 1];
+        for (int e = 0; e < entries.length; e++) {
+            pids[e] = entries[e].pid;
+            for (int bucket : entries[e].buckets) {
+                counts[bucket + 1]++;
+            }
+            total += entries[e].buckets.length;
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b + 1] += counts[b];
+        }
+        this.offsets = counts;
+        this.postings = new int[total];
+        int[] cursor = Arrays.copyOf(counts, BUCKETS);
+        for (int e = 0; e < entries.length; e++) {
+            for (int bucket : entries[e].buckets) {
+                postings[cursor[bucket]++] = e;
+            }
+        }
+    }
+
+    /**
+     * Index the processes of a snapshot.
+     *
+     * @param processes the processes to index
+     * @param previous  the index of the previous snapshot, whose entries are
+     *                  reused for processes that are still running, or {@code null}
+     */
+    public static ProcessSearchIndex build(List<ProcessSample> processes, ProcessSearchIndex previous) {
+        List<ProcessSample> byPid = new ArrayList<>(processes);
+        byPid.sort(Comparator.comparingInt(ProcessSample::pid));
+        List<Entry> entries = new ArrayList<>(byPid.size());
+        int lastPid = 0;
+        for (ProcessSample process : byPid) {
+            if (!entries.isEmpty() && process.pid() == lastPid) {
+                continue;
+            }
+            lastPid = process.pid();
+            Entry reused = previous == null ? null : previous.entry(process);
+            entries.add(reused != null ? reused : new Entry(process));
+        }
+        return new ProcessSearchIndex(entries.toArray(Entry[]::new));
+    }
+
+    /**
+     * Get the number of processes indexed.
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Find the processes whose PID, name, user or command line contains a
+     * text, ignoring case.
+     *
+     * @return the matching PIDs in ascending order
+     */
+    public int[] find(String text) {
+        String query = text.toLowerCase(Locale.ROOT);
+        if (query.isEmpty()) {
+            return pids.clone();
+        }
+        if (query.length() < GRAM) {
+            int[] matches = new int[entries.length];
+            int count = 0;
+            for (Entry entry : entries) {
+                if (entry.text.contains(query)) {
+                    matches[count++] = entry.pid;
+                }
+            }
+            return Arrays.copyOf(matches, count);
+        }
+        // Candidates: the processes of the emptiest bucket among the query's trigrams
+        int best = -1;
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            int bucket = bucket(query, i);
+            if (best < 0 || offsets[bucket + 1] - offsets[bucket] < offsets[best + 1] - offsets[best]) {
+                best = bucket;
+            }
+        }
+        int from = offsets[best];
+        int to = offsets[best + 1];
+        if (from == to) {
+            return NO_PIDS;
+        }
+        int[] matches = new int[to - from];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            Entry entry = entries[postings[i]];
+            if (entry.text.contains(query)) {
+                matches[count++] = entry.pid;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Find the processes whose searchable text matches a regular expression
+     * anywhere. The text holds the PID, name, user and command line on
+     * separate lines, lowercased, so patterns should be compiled with
+     * {@link Pattern#CASE_INSENSITIVE}, and with {@link Pattern#MULTILINE}
+     * for {@code ^} and {@code $} to anchor at each field. A regular
+     * expression cannot use the trigrams, so every process is checked.
+     *
+     * @return the matching PIDs in ascending order
+     */
+    public int[] find(Pattern pattern) {
+        int[] matches = new int[entries.length];
+        int count = 0;
+        for (Entry entry : entries) {
+            if (pattern.matcher(entry.text).find()) {
+                matches[count++] = entry.pid;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private Entry entry(ProcessSample process) {
+        int e = Arrays.binarySearch(pids, process.pid());
+        if (e < 0) {
+            return null;
+        }
+        Entry entry = entries[e];
+        // A reused PID or an exec changes the start time or the name
+        return entry.startTime == process.startTime() && entry.name.equals(process.name()) ? entry : null;
+    }
+
+    private static int bucket(String text, int start) {
+        int h = (text.charAt(start) * 31 + text.charAt(start + 1)) * 31 + text.charAt(start + 2);
+        return (h * 0x9E3779B1) >>> (Integer.SIZE - BUCKET_BITS);
+    }
+
+    /**
+     * Searchable text of one process and its distinct trigram buckets.
+     */
+    private static final class Entry {
+
+        final int pid;
+        final long startTime;
+        final String name;
+        final String text;
+        final int[] buckets;
+
+        Entry(ProcessSample process) {
+            this.pid = process.pid();
+            this.startTime = process.startTime();
+            this.name = process.name();
+            String commandLine = process.commandLine().isEmpty() ? process.path() : process.commandLine();
+            this.text = (process.pid() + "\n" + process.name() + "\n" + process.user() + "\n" + commandLine)
+                .toLowerCase(Locale.ROOT);
+            int[] all = new int[Math.max(0, text.length() - GRAM + 1)];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = bucket(text, i);
+            }
+            Arrays.sort(all);
+            int distinct = 0;
+            for (int i = 0; i < all.length; i++) {
+                if (i == 0 || all[i] != all[i - 1]) {
+                    all[distinct++] = all[i];
+                }
+            }
+            this.buckets = Arrays.copyOf(all, distinct);
+        }
+    }
+}
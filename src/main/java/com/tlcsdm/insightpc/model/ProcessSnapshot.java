@@ -0,0 +1,62 @@
+package com.tlcsdm.insightpc.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable list of all processes fetched in one refresh of the process monitor.
+ *
+ * @param timestamp   the fetch time in epoch milliseconds
+ * @param processes   all processes, in no particular order
+ * @param searchIndex the search index over the processes
+ */
+public record ProcessSnapshot(long timestamp, List<ProcessSample> processes, ProcessSearchIndex searchIndex) {
+
+    public ProcessSnapshot {
+        processes = List.copyOf(processes);
+    }
+
+    /**
+     * Create a snapshot with a search index built from scratch.
+     */
+    public ProcessSnapshot(long timestamp, List<ProcessSample> processes) {
+        this(timestamp, processes, ProcessSearchIndex.build(processes, null));
+    }
+
+    /**
+     * Get the total number of threads of all processes.
+     */
+    public long threadCount() {
+        long total = 0;
+        for (ProcessSample process : processes) {
+            total += process.threadCount();
+        }
+        return total;
+    }
+
+    /**
+     * Get the processes that read and wrote the most bytes per second since
+     * the previous refresh, busiest first. Processes without disk I/O are
+     * left out.
+     *
+     * @param count the maximum number of processes
+     */
+    public List<ProcessSample> topByIoRate(int count) {
+        Comparator<ProcessSample> byIoRate = Comparator.comparingDouble(ProcessSample::ioRate);
+        // Min-heap of the busiest so far: O(n log count)
+        PriorityQueue<ProcessSample> heap = new PriorityQueue<>(count + 1, byIoRate);
+        for (ProcessSample process : processes) {
+            if (process.ioRate() > 0) {
+                heap.add(process);
+                if (heap.size() > count) {
+                    heap.poll();
+                }
+            }
+        }
+        List<ProcessSample> top = new ArrayList<>(heap);
+        top.sort(byIoRate.reversed());
+        return top;
+    }
+}
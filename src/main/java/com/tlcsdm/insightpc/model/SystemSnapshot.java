@@ -0,0 +1,53 @@
+package com.tlcsdm.insightpc.model;
+
+import java.util.List;
+
+/**
+ * Immutable, timestamped view of the live system metrics taken in a single
+ * sampling cycle. Every consumer of one snapshot sees the same moment in time.
+ * <p>
+ * The {@code coreLoads} array is shared with all consumers and must not be modified.
+ *
+ * @param timestamp     sample time in epoch milliseconds
+ * @param cpuLoad       overall CPU load between this and the previous cycle (0..1)
+ * @param coreLoads     per logical processor load between this and the previous cycle (0..1)
+ * @param memoryTotal   total physical memory in bytes
+ * @param memoryAvailable available physical memory in bytes
+ * @param swapTotal     total swap in bytes
+ * @param swapUsed      used swap in bytes
+ * @param disks         disk I/O samples
+ * @param networks      network interface samples
+ * @param processCount  number of running processes
+ * @param threadCount   number of running threads
+ */
+public record SystemSnapshot(long timestamp,
+                             double cpuLoad,
+                             double[] coreLoads,
+                             long memoryTotal,
+                             long memoryAvailable,
+                             long swapTotal,
+                             long swapUsed,
+                             List<DiskSample> disks,
+                             List<NetworkSample> networks,
+                             int processCount,
+                             int threadCount) {
+
+    public SystemSnapshot {
+        disks = List.copyOf(disks);
+        networks = List.copyOf(networks);
+    }
+
+    /**
+     * Get the used physical memory in bytes.
+     */
+    public long memoryUsed() {
+        return memoryTotal - memoryAvailable;
+    }
+
+    /**
+     * Get the physical memory usage ratio (0..1).
+     */
+    public double memoryUsage() {
+        return memoryTotal > 0 ? (double) memoryUsed() / memoryTotal : 0;
+    }
+}
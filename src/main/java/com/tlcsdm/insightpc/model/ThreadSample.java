@@ -0,0 +1,20 @@
+package com.tlcsdm.insightpc.model;
+
+/**
+ * Immutable sample of a single thread taken as part of a {@link ThreadSnapshot}.
+ *
+ * @param threadId          the thread ID
+ * @param name              the thread name, empty if unknown
+ * @param state             the thread state name
+ * @param priority          the priority as reported by the operating system
+ * @param cpuLoad           CPU usage since the previous sample, where 1.0 is one logical processor fully busy
+ * @param contextSwitches   cumulative voluntary and involuntary context switches, 0 if unknown
+ * @param contextSwitchRate context switches per second since the previous sample, 0 without one
+ * @param kernelTime        cumulative kernel CPU time in milliseconds
+ * @param userTime          cumulative user CPU time in milliseconds
+ * @param startTime         start time in epoch milliseconds
+ */
+public record ThreadSample(int threadId, String name, String state, int priority,
+                           double cpuLoad, long contextSwitches, double contextSwitchRate,
+                           long kernelTime, long userTime, long startTime) {
+}
@@ -0,0 +1,19 @@
+package com.tlcsdm.insightpc.model;
+
+import java.util.List;
+
+/**
+ * Immutable list of the threads of one process, fetched in one refresh of the thread monitor.
+ *
+ * @param timestamp the fetch time in epoch milliseconds
+ * @param pid       the process ID
+ * @param running   whether the process was found; its threads can still be
+ *                  empty if they cannot be read without more privileges
+ * @param threads   the threads, in no particular order
+ */
+public record ThreadSnapshot(long timestamp, int pid, boolean running, List<ThreadSample> threads) {
+
+    public ThreadSnapshot {
+        threads = List.copyOf(threads);
+    }
+}
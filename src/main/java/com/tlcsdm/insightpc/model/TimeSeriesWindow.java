@@ -0,0 +1,38 @@
+package com.tlcsdm.insightpc.model;
+
+/**
+ * Evenly spaced values of one metric series over a time window. Timestamps
+ * are implicit: value {@code i} belongs to {@code startMillis + i * stepMillis}.
+ * Slots without a sample hold {@link Double#NaN}.
+ * <p>
+ * The {@code values} array is owned by the window and must not be modified.
+ *
+ * @param startMillis timestamp of the first value in epoch milliseconds
+ * @param stepMillis  spacing between values in milliseconds
+ * @param values      the values, oldest first
+ */
+public record TimeSeriesWindow(long startMillis, long stepMillis, double[] values) {
+
+    private static final double[] NO_VALUES = new double[0];
+
+    /**
+     * Create an empty window.
+     */
+    public static TimeSeriesWindow empty(long stepMillis) {
+        return new TimeSeriesWindow(0, stepMillis, NO_VALUES);
+    }
+
+    /**
+     * Get the number of values.
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Get the timestamp of the value at the given index.
+     */
+    public long timestampAt(int index) {
+        return startMillis + index * stepMillis;
+    }
+}
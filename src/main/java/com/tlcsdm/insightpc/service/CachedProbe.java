@@ -0,0 +1,163 @@
+package com.tlcsdm.insightpc.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes the result of an OSHI probe for a freshness period.
+ * <p>
+ * Concurrent callers that find the value expired share a single in-flight
+ * probe instead of each running their own. Hits (including callers that
+ * joined an in-flight probe) and misses are counted.
+ *
+ * @param <T> the probed value type
+ */
+public class CachedProbe<T> {
+
+    /**
+     * Freshness policy of a probed value.
+     */
+    public enum Freshness {
+        /**
+         * Never changes while the application runs.
+         */
+        STATIC(null),
+        /**
+         * Changes rarely, such as device lists.
+         */
+        SLOW(Duration.ofSeconds(60)),
+        /**
+         * Changes constantly; only deduplicates calls within one sampling cycle.
+         */
+        LIVE(Duration.ofSeconds(1));
+
+        private final Duration ttl;
+
+        Freshness(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        /**
+         * Get the time to live, or {@code null} if values never expire.
+         */
+        public Duration getTtl() {
+            return ttl;
+        }
+    }
+
+    private record Entry<T>(T value, long loadedAt) {
+    }
+
+    private final String name;
+    private final Supplier<T> loader;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile Entry<T> entry;
+    private CompletableFuture<T> inFlight;
+
+    public CachedProbe(String name, Freshness freshness, Supplier<T> loader) {
+        this(name, freshness.getTtl(), loader);
+    }
+
+    public CachedProbe(String name, Duration ttl, Supplier<T> loader) {
+        this.name = name;
+        this.loader = loader;
+        this.ttlNanos = ttl == null ? Long.MAX_VALUE : ttl.toNanos();
+    }
+
+    /**
+     * Get the cached value, probing if it is missing or expired.
+     */
+    public T get() {
+        Entry<T> current = entry;
+        if (isFresh(current)) {
+            hits.increment();
+            return current.value();
+        }
+        CompletableFuture<T> future;
+        boolean owner = false;
+        synchronized (this) {
+            current = entry;
+            if (isFresh(current)) {
+                hits.increment();
+                return current.value();
+            }
+            if (inFlight == null) {
+                inFlight = new CompletableFuture<>();
+                owner = true;
+            }
+            future = inFlight;
+        }
+        if (!owner) {
+            hits.increment();
+            return join(future);
+        }
+        misses.increment();
+        try {
+            T value = loader.get();
+            entry = new Entry<>(value, System.nanoTime());
+            future.complete(value);
+            return value;
+        } catch (Throwable t) {
+            // Errors too: JNA reports a missing native library as UnsatisfiedLinkError,
+            // and the callers waiting on the future must not hang
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            synchronized (this) {
+                inFlight = null;
+            }
+        }
+    }
+
+    /**
+     * Drop the cached value so the next call probes again.
+     */
+    public void invalidate() {
+        entry = null;
+    }
+
+    /**
+     * Get the cache name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of calls served without running the probe.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of calls that ran the probe.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private boolean isFresh(Entry<T> e) {
+        return e != null && System.nanoTime() - e.loadedAt() < ttlNanos;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
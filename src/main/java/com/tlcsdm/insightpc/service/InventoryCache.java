@@ -0,0 +1,226 @@
+package com.tlcsdm.insightpc.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.tlcsdm.insightpc.model.HardwareInventory;
+import com.tlcsdm.insightpc.model.HardwareInventory.BaseboardInfo;
+import com.tlcsdm.insightpc.model.HardwareInventory.ComputerInfo;
+import com.tlcsdm.insightpc.model.HardwareInventory.FirmwareInfo;
+import com.tlcsdm.insightpc.model.HardwareInventory.GraphicsCardInfo;
+import com.tlcsdm.insightpc.model.HardwareInventory.MemoryModule;
+import com.tlcsdm.insightpc.model.HardwareInventory.UsbDeviceInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import oshi.hardware.Baseboard;
+import oshi.hardware.CentralProcessor;
+import oshi.hardware.ComputerSystem;
+import oshi.hardware.Firmware;
+import oshi.hardware.SoundCard;
+import oshi.hardware.UsbDevice;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * On-disk cache of the static {@link HardwareInventory}.
+ * <p>
+ * The cached inventory is considered valid while the system boot time and a
+ * cheap hardware fingerprint still match, so the slow probes (WMI on Windows)
+ * only run once per boot session. Revalidation runs at most once per
+ * application session and is shared by all callers.
+ */
+public class InventoryCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InventoryCache.class);
+
+    static final int FORMAT_VERSION = 1;
+    private static final long BOOT_TIME_TOLERANCE_SECONDS = 5;
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final SystemInfoService systemInfoService;
+    private final Path file;
+
+    private HardwareInventory cached;
+    private boolean cacheRead;
+    private CompletableFuture<HardwareInventory> revalidation;
+
+    public InventoryCache(SystemInfoService systemInfoService, Path file) {
+        this.systemInfoService = systemInfoService;
+        this.file = file;
+    }
+
+    /**
+     * Get the default cache file location in the user's home directory.
+     */
+    public static Path getDefaultPath() {
+        return Path.of(System.getProperty("user.home"), ".insightpc", "inventory.json");
+    }
+
+    /**
+     * Get the inventory stored on disk without validating it.
+     *
+     * @return the cached inventory, or {@code null} if there is none
+     */
+    public synchronized HardwareInventory getCached() {
+        if (!cacheRead) {
+            cacheRead = true;
+            cached = read();
+        }
+        return cached;
+    }
+
+    /**
+     * Validate the cached inventory against the current boot session and
+     * re-probe the hardware if it is stale. The check runs once per session;
+     * later calls return the same future.
+     *
+     * @return a future completing with the current inventory
+     */
+    public synchronized CompletableFuture<HardwareInventory> revalidate() {
+        if (revalidation == null) {
+            revalidation = CompletableFuture.supplyAsync(this::loadCurrent,
+                runnable -> Thread.ofVirtual().name("insightpc-inventory").start(runnable));
+        }
+        return revalidation;
+    }
+
+    /**
+     * Check whether an inventory still describes this boot session and hardware.
+     */
+    public boolean isValid(HardwareInventory inventory) {
+        return isValid(inventory, systemInfoService.getOperatingSystem().getSystemBootTime(), fingerprint());
+    }
+
+    static boolean isValid(HardwareInventory inventory, long bootTime, String fingerprint) {
+        return inventory != null
+            && inventory.formatVersion() == FORMAT_VERSION
+            && Math.abs(inventory.bootTime() - bootTime) <= BOOT_TIME_TOLERANCE_SECONDS
+            && fingerprint.equals(inventory.fingerprint());
+    }
+
+    private HardwareInventory loadCurrent() {
+        HardwareInventory current = getCached();
+        if (isValid(current)) {
+            LOG.debug("Hardware inventory cache is valid");
+            return current;
+        }
+        LOG.info("Hardware inventory cache is missing or stale, probing hardware");
+        HardwareInventory probed = probe();
+        write(probed);
+        synchronized (this) {
+            cached = probed;
+        }
+        return probed;
+    }
+
+    /**
+     * Probe the full inventory, fanning the slow probes out on virtual threads.
+     */
+    public HardwareInventory probe() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<ComputerInfo> computer = supply(executor, this::probeComputer);
+            CompletableFuture<BaseboardInfo> baseboard = supply(executor, this::probeBaseboard);
+            CompletableFuture<FirmwareInfo> firmware = supply(executor, this::probeFirmware);
+            CompletableFuture<List<MemoryModule>> modules = supply(executor, () ->
+                systemInfoService.getMemory().getPhysicalMemory().stream()
+                    .map(pm -> new MemoryModule(pm.getBankLabel(), pm.getCapacity(),
+                        pm.getClockSpeed(), pm.getMemoryType()))
+                    .toList());
+            CompletableFuture<List<GraphicsCardInfo>> graphics = supply(executor, () ->
+                systemInfoService.getGraphicsCards().stream()
+                    .map(gc -> new GraphicsCardInfo(gc.getName(), gc.getVRam()))
+                    .toList());
+            CompletableFuture<Integer> displays = supply(executor, () -> systemInfoService.getDisplays().size());
+            CompletableFuture<List<String>> sound = supply(executor, () ->
+                systemInfoService.getSoundCards().stream().map(SoundCard::getName).toList());
+            CompletableFuture<List<UsbDeviceInfo>> usb = supply(executor, this::probeUsbDevices);
+
+            CentralProcessor cpu = systemInfoService.getProcessor();
+            return new HardwareInventory(FORMAT_VERSION,
+                systemInfoService.getOperatingSystem().getSystemBootTime(),
+                fingerprint(),
+                cpu.getProcessorIdentifier().getName(),
+                systemInfoService.getMemory().getTotal(),
+                computer.join(), baseboard.join(), firmware.join(), modules.join(),
+                graphics.join(), displays.join(), sound.join(), usb.join());
+        }
+    }
+
+    /**
+     * Probe only the USB device tree.
+     */
+    public List<UsbDeviceInfo> probeUsbDevices() {
+        return systemInfoService.getUsbDevices().stream().map(InventoryCache::toUsbInfo).toList();
+    }
+
+    private static <T> CompletableFuture<T> supply(ExecutorService executor, Supplier<T> probe) {
+        return CompletableFuture.supplyAsync(probe, executor);
+    }
+
+    private ComputerInfo probeComputer() {
+        ComputerSystem cs = systemInfoService.getComputerSystem();
+        return new ComputerInfo(cs.getManufacturer(), cs.getModel(), cs.getSerialNumber(), cs.getHardwareUUID());
+    }
+
+    private BaseboardInfo probeBaseboard() {
+        Baseboard bb = systemInfoService.getComputerSystem().getBaseboard();
+        return new BaseboardInfo(bb.getManufacturer(), bb.getModel(), bb.getVersion(), bb.getSerialNumber());
+    }
+
+    private FirmwareInfo probeFirmware() {
+        Firmware fw = systemInfoService.getComputerSystem().getFirmware();
+        return new FirmwareInfo(fw.getManufacturer(), fw.getName(), fw.getVersion(),
+            fw.getReleaseDate(), fw.getDescription());
+    }
+
+    private static UsbDeviceInfo toUsbInfo(UsbDevice device) {
+        return new UsbDeviceInfo(device.getName(), device.getVendor(),
+            device.getConnectedDevices().stream().map(InventoryCache::toUsbInfo).toList());
+    }
+
+    /**
+     * Cheap identity of the machine that does not require the slow probes.
+     */
+    private String fingerprint() {
+        CentralProcessor cpu = systemInfoService.getProcessor();
+        return cpu.getProcessorIdentifier().getProcessorID()
+            + "/" + cpu.getLogicalProcessorCount()
+            + "/" + systemInfoService.getMemory().getTotal();
+    }
+
+    private HardwareInventory read() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, HardwareInventory.class);
+        } catch (IOException | JsonParseException e) {
+            LOG.warn("Could not read hardware inventory cache {}", file, e);
+            return null;
+        }
+    }
+
+    private void write(HardwareInventory inventory) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                GSON.toJson(inventory, writer);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Could not write hardware inventory cache {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.tlcsdm.insightpc.service;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hash map from primitive {@code long} keys to objects, with open addressing
+ * and linear probing.
+ * <p>
+ * Keys are never boxed, so a lookup or insert allocates nothing once the
+ * table is large enough. {@link #clear()} keeps the table for reuse unless it
+ * is far larger than the last contents needed, so the memory stays bounded by
+ * recent use rather than by the peak. Not thread-safe.
+ *
+ * @param <V> the value type
+ */
+final class LongObjectMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    LongObjectMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Get the number of entries.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the value of a key, or {@code null} if absent.
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        for (int i = slot(key); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Set the value of a key.
+     *
+     * @param value the value, must not be {@code null}
+     * @return the previous value, or {@code null} if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value must not be null");
+        }
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        // Load factor of at most 1/2 keeps probe sequences short
+        if (++size > keys.length >> 1) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @return the removed value, or {@code null} if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        for (int i = slot(key); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                shiftBack(i);
+                size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pass every key to an action, in no particular order. The map must not
+     * be modified meanwhile.
+     */
+    void forEachKey(LongConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                action.accept(keys[i]);
+            }
+        }
+    }
+
+    /**
+     * Remove all entries. A table more than four times larger than the
+     * entries it held needed is shrunk.
+     */
+    void clear() {
+        int needed = capacityFor(size);
+        size = 0;
+        if (keys.length > needed << 2) {
+            allocate(needed);
+        } else {
+            Arrays.fill(values, null);
+        }
+    }
+
+    private int slot(long key) {
+        // Spread the bits: PIDs are small and often consecutive
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Close the gap left at {@code gap} by moving back entries of the same
+     * probe run, so lookups never stop early and no tombstones are needed.
+     */
+    private void shiftBack(int gap) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) {
+                break;
+            }
+            int home = slot(keys[i]);
+            // Move the entry if its home slot is not between the gap and its position
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j]);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = MIN_CAPACITY;
+        while (capacity >> 1 < entries) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
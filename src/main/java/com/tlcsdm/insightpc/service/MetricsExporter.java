@@ -0,0 +1,374 @@
+package com.tlcsdm.insightpc.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.tlcsdm.insightpc.model.DiskSample;
+import com.tlcsdm.insightpc.model.NetworkSample;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Local HTTP endpoint serving the latest snapshot in the Prometheus text
+ * exposition format at {@value #PATH}.
+ * <p>
+ * Requests never touch OSHI: the response is rendered from
+ * {@link MetricsSource#getLatest()} into a byte buffer that is reused for
+ * every scrape, and only re-rendered when a new snapshot was published.
+ * The endpoint binds to the loopback address unless another address is given.
+ */
+public class MetricsExporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsExporter.class);
+
+    public static final int DEFAULT_PORT = 9457;
+    public static final String PATH = "/metrics";
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final Family CPU_LOAD = new Family("insightpc_cpu_load", "gauge",
+        "Overall CPU load between the last two samples (0..1).");
+    private static final Family CORE_LOAD = new Family("insightpc_cpu_core_load", "gauge",
+        "Load per logical processor between the last two samples (0..1).");
+    private static final Family MEMORY_TOTAL = new Family("insightpc_memory_total_bytes", "gauge",
+        "Total physical memory.");
+    private static final Family MEMORY_AVAILABLE = new Family("insightpc_memory_available_bytes", "gauge",
+        "Available physical memory.");
+    private static final Family SWAP_TOTAL = new Family("insightpc_swap_total_bytes", "gauge",
+        "Total swap space.");
+    private static final Family SWAP_USED = new Family("insightpc_swap_used_bytes", "gauge",
+        "Used swap space.");
+    private static final Family DISK_READS = new Family("insightpc_disk_reads_total", "counter",
+        "Completed reads per disk.");
+    private static final Family DISK_WRITES = new Family("insightpc_disk_writes_total", "counter",
+        "Completed writes per disk.");
+    private static final Family DISK_READ_BYTES = new Family("insightpc_disk_read_bytes_total", "counter",
+        "Bytes read per disk.");
+    private static final Family DISK_WRITTEN_BYTES = new Family("insightpc_disk_written_bytes_total", "counter",
+        "Bytes written per disk.");
+    private static final Family NETWORK_RECEIVE_BYTES = new Family("insightpc_network_receive_bytes_total", "counter",
+        "Bytes received per network interface.");
+    private static final Family NETWORK_TRANSMIT_BYTES = new Family("insightpc_network_transmit_bytes_total", "counter",
+        "Bytes sent per network interface.");
+    private static final Family PROCESSES = new Family("insightpc_processes", "gauge",
+        "Number of running processes.");
+    private static final Family THREADS = new Family("insightpc_threads", "gauge",
+        "Number of running threads.");
+    private static final byte[] CORE_LABEL = ascii("core");
+    private static final byte[] DISK_LABEL = ascii("disk");
+    private static final byte[] INTERFACE_LABEL = ascii("interface");
+
+    private final MetricsSource source;
+    private final InetSocketAddress address;
+    private final ExpositionBuffer buffer = new ExpositionBuffer();
+
+    private SystemSnapshot rendered;
+    private HttpServer server;
+
+    /**
+     * Create an exporter on the loopback address.
+     *
+     * @param port the port, or 0 for an ephemeral port
+     */
+    public MetricsExporter(MetricsSource source, int port) {
+        this(source, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public MetricsExporter(MetricsSource source, InetSocketAddress address) {
+        this.source = source;
+        this.address = address;
+    }
+
+    /**
+     * Start serving. Has no effect if already started.
+     *
+     * @throws IOException if the address cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        server = HttpServer.create(address, 0);
+        server.createContext(PATH, this::handle);
+        server.start();
+        LOG.info("Serving metrics on http://{}:{}{}", address.getHostString(), getPort(), PATH);
+    }
+
+    /**
+     * Stop serving and release the port.
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    /**
+     * Get the bound port, or -1 if not started.
+     */
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            // Requests are served one at a time by the server's dispatcher, so the buffer is not contended
+            synchronized (buffer) {
+                SystemSnapshot snapshot = source.getLatest();
+                if (snapshot == null) {
+                    exchange.sendResponseHeaders(503, -1);
+                    return;
+                }
+                if (snapshot != rendered) {
+                    render(snapshot, buffer);
+                    rendered = snapshot;
+                }
+                exchange.sendResponseHeaders(200, buffer.size());
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(buffer.array(), 0, buffer.size());
+                }
+            }
+        }
+    }
+
+    /**
+     * Render a snapshot in the text exposition format, replacing the buffer contents.
+     */
+    static void render(SystemSnapshot snapshot, ExpositionBuffer out) {
+        out.reset();
+        out.header(CPU_LOAD).name(CPU_LOAD).value(snapshot.cpuLoad()).newLine();
+        out.header(CORE_LOAD);
+        double[] coreLoads = snapshot.coreLoads();
+        for (int i = 0; i < coreLoads.length; i++) {
+            out.name(CORE_LOAD).label(CORE_LABEL, i).value(coreLoads[i]).newLine();
+        }
+        out.header(MEMORY_TOTAL).name(MEMORY_TOTAL).value(snapshot.memoryTotal()).newLine();
+        out.header(MEMORY_AVAILABLE).name(MEMORY_AVAILABLE).value(snapshot.memoryAvailable()).newLine();
+        out.header(SWAP_TOTAL).name(SWAP_TOTAL).value(snapshot.swapTotal()).newLine();
+        out.header(SWAP_USED).name(SWAP_USED).value(snapshot.swapUsed()).newLine();
+
+        out.header(DISK_READS);
+        for (DiskSample disk : snapshot.disks()) {
+            out.name(DISK_READS).label(DISK_LABEL, disk.name()).value(disk.reads()).newLine();
+        }
+        out.header(DISK_WRITES);
+        for (DiskSample disk : snapshot.disks()) {
+            out.name(DISK_WRITES).label(DISK_LABEL, disk.name()).value(disk.writes()).newLine();
+        }
+        out.header(DISK_READ_BYTES);
+        for (DiskSample disk : snapshot.disks()) {
+            out.name(DISK_READ_BYTES).label(DISK_LABEL, disk.name()).value(disk.readBytes()).newLine();
+        }
+        out.header(DISK_WRITTEN_BYTES);
+        for (DiskSample disk : snapshot.disks()) {
+            out.name(DISK_WRITTEN_BYTES).label(DISK_LABEL, disk.name()).value(disk.writeBytes()).newLine();
+        }
+
+        out.header(NETWORK_RECEIVE_BYTES);
+        for (NetworkSample net : snapshot.networks()) {
+            out.name(NETWORK_RECEIVE_BYTES).label(INTERFACE_LABEL, net.name()).value(net.bytesRecv()).newLine();
+        }
+        out.header(NETWORK_TRANSMIT_BYTES);
+        for (NetworkSample net : snapshot.networks()) {
+            out.name(NETWORK_TRANSMIT_BYTES).label(INTERFACE_LABEL, net.name()).value(net.bytesSent()).newLine();
+        }
+
+        out.header(PROCESSES).name(PROCESSES).value(snapshot.processCount()).newLine();
+        out.header(THREADS).name(THREADS).value(snapshot.threadCount()).newLine();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Pre-encoded metric family: the HELP and TYPE lines and the metric name.
+     */
+    private record Family(byte[] header, byte[] name) {
+
+        Family(String name, String type, String help) {
+            this(ascii("# HELP " + name + " " + help + "\n# TYPE " + name + " " + type + "\n"), ascii(name));
+        }
+    }
+
+    /**
+     * Growable byte buffer with allocation-free number and label encoding.
+     */
+    static final class ExpositionBuffer {
+
+        private static final long FRACTION_SCALE = 1_000_000;
+        private static final int FRACTION_DIGITS = 6;
+
+        private byte[] bytes = new byte[4096];
+        private int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        byte[] array() {
+            return bytes;
+        }
+
+        int size() {
+            return size;
+        }
+
+        ExpositionBuffer append(byte[] data) {
+            ensure(data.length);
+            System.arraycopy(data, 0, bytes, size, data.length);
+            size += data.length;
+            return this;
+        }
+
+        ExpositionBuffer header(Family family) {
+            return append(family.header());
+        }
+
+        ExpositionBuffer name(Family family) {
+            return append(family.name());
+        }
+
+        ExpositionBuffer label(byte[] name, long value) {
+            put('{').append(name).put('=').put('"');
+            number(value);
+            return put('"').put('}');
+        }
+
+        ExpositionBuffer label(byte[] name, String value) {
+            put('{').append(name).put('=').put('"');
+            for (int i = 0; i < value.length(); ) {
+                int cp = value.codePointAt(i);
+                i += Character.charCount(cp);
+                switch (cp) {
+                    case '\\' -> put('\\').put('\\');
+                    case '"' -> put('\\').put('"');
+                    case '\n' -> put('\\').put('n');
+                    default -> codePoint(cp);
+                }
+            }
+            return put('"').put('}');
+        }
+
+        ExpositionBuffer value(long value) {
+            put(' ');
+            number(value);
+            return this;
+        }
+
+        ExpositionBuffer value(double value) {
+            put(' ');
+            if (Double.isNaN(value)) {
+                return put('N').put('a').put('N');
+            }
+            if (Double.isInfinite(value)) {
+                return put(value > 0 ? '+' : '-').put('I').put('n').put('f');
+            }
+            if (value < 0) {
+                put('-');
+                value = -value;
+            }
+            if (value >= Long.MAX_VALUE / FRACTION_SCALE) {
+                number(Math.round(value));
+                return this;
+            }
+            long scaled = Math.round(value * FRACTION_SCALE);
+            number(scaled / FRACTION_SCALE);
+            long fraction = scaled % FRACTION_SCALE;
+            if (fraction != 0) {
+                put('.');
+                int digits = FRACTION_DIGITS;
+                while (fraction % 10 == 0) {
+                    fraction /= 10;
+                    digits--;
+                }
+                int start = size;
+                number(fraction);
+                padLeft(start, digits);
+            }
+            return this;
+        }
+
+        ExpositionBuffer newLine() {
+            return put('\n');
+        }
+
+        private ExpositionBuffer put(char c) {
+            ensure(1);
+            bytes[size++] = (byte) c;
+            return this;
+        }
+
+        private void number(long value) {
+            if (value < 0) {
+                put('-');
+                if (value == Long.MIN_VALUE) {
+                    // Cannot be negated; only reachable with corrupt counters
+                    value = Long.MAX_VALUE;
+                } else {
+                    value = -value;
+                }
+            }
+            int start = size;
+            do {
+                put((char) ('0' + value % 10));
+                value /= 10;
+            } while (value != 0);
+            reverse(start, size - 1);
+        }
+
+        /**
+         * Left-pad the digits written since {@code start} with zeros to the given width.
+         */
+        private void padLeft(int start, int width) {
+            int missing = width - (size - start);
+            if (missing <= 0) {
+                return;
+            }
+            ensure(missing);
+            System.arraycopy(bytes, start, bytes, start + missing, size - start);
+            Arrays.fill(bytes, start, start + missing, (byte) '0');
+            size += missing;
+        }
+
+        private void codePoint(int cp) {
+            if (cp < 0x80) {
+                put((char) cp);
+            } else if (cp < 0x800) {
+                put((char) (0xC0 | (cp >> 6))).put((char) (0x80 | (cp & 0x3F)));
+            } else if (cp < 0x10000) {
+                put((char) (0xE0 | (cp >> 12))).put((char) (0x80 | ((cp >> 6) & 0x3F)))
+                    .put((char) (0x80 | (cp & 0x3F)));
+            } else {
+                put((char) (0xF0 | (cp >> 18))).put((char) (0x80 | ((cp >> 12) & 0x3F)))
+                    .put((char) (0x80 | ((cp >> 6) & 0x3F))).put((char) (0x80 | (cp & 0x3F)));
+            }
+        }
+
+        private void reverse(int from, int to) {
+            while (from < to) {
+                byte b = bytes[from];
+                bytes[from++] = bytes[to];
+                bytes[to--] = b;
+            }
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
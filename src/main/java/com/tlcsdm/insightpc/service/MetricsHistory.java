@@ -0,0 +1,321 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.DiskSample;
+import com.tlcsdm.insightpc.model.NetworkSample;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Multi-resolution history of the live metrics, keyed by series name.
+ * <p>
+ * The sampling engine records every published snapshot here. Views query a
+ * time window instead of keeping their own chart data.
+ * <p>
+ * Disk and network series are created the first time a device shows activity,
+ * so the idle virtual interfaces of a container host cost nothing. At most
+ * {@link #MAX_DEVICES} devices have series: when all are taken, a newly
+ * active device replaces the one idle the longest, if that one has been idle
+ * for {@link #IDLE_REPLACE_MILLIS}. The series of a device missing from the
+ * snapshots for longer than the history spans are dropped, so devices that
+ * come and go do not pile up. The series names of each device are built once
+ * and its series looked up once.
+ * <p>
+ * The host-wide series use the {@link TimeSeries.Layout#FULL full} layout,
+ * the per-core and per-device series the {@link TimeSeries.Layout#COMPACT
+ * compact} one, which keeps just the live chart window at 1s. The worst case
+ * is about 0.5 MB for the host-wide series, 17 KB per logical processor and
+ * 2.2 MB for the devices: about 5 MB on a host with 128 hardware threads.
+ * <p>
+ * Apart from that, every device that showed activity gets a cheap ring of
+ * its last {@link #RECENT_SPAN_MILLIS} at 1s, about 20 KB for the four
+ * series of an interface, so the live charts work for each of the hundreds
+ * of busy interfaces of a container host, not just for those with series.
+ * {@link #read} falls back to the ring for a device without series, and a
+ * ring is dropped once its device has been missing for as long as it spans.
+ */
+public class MetricsHistory {
+
+    public static final String CPU = "cpu";
+    public static final String MEMORY_USED = "memory.used";
+    public static final String MEMORY_TOTAL = "memory.total";
+    public static final String SWAP_USED = "swap.used";
+    public static final String SWAP_TOTAL = "swap.total";
+    public static final String PROCESS_COUNT = "process.count";
+    public static final String THREAD_COUNT = "thread.count";
+
+    /**
+     * Maximum number of disks and network interfaces with series.
+     */
+    static final int MAX_DEVICES = 32;
+
+    /**
+     * Time a device must have been idle before a newly active device may take over its series.
+     */
+    static final long IDLE_REPLACE_MILLIS = 10 * 60_000;
+
+    /**
+     * Time kept by the ring of recent values of every active device.
+     */
+    static final long RECENT_SPAN_MILLIS = 10 * 60_000;
+
+    private static final long SWEEP_INTERVAL_MILLIS = 60_000;
+
+    private final ConcurrentMap<String, TimeSeries> series = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TimeSeries> recent = new ConcurrentHashMap<>();
+    // Guarded by this: the devices seen recently, those with series, and the series of each core
+    private final Map<String, Device> disks = new HashMap<>();
+    private final Map<String, Device> nics = new HashMap<>();
+    private final List<Device> tracked = new ArrayList<>();
+    private TimeSeries[] cores = new TimeSeries[0];
+    private long lastSweepMillis;
+
+    /**
+     * Get the series name of a logical processor's load.
+     */
+    public static String coreSeries(int core) {
+        return "cpu.core." + core;
+    }
+
+    /**
+     * Get the series name of a disk's read rate in bytes per second.
+     */
+    public static String diskReadSeries(String disk) {
+        return "disk." + disk + ".read";
+    }
+
+    /**
+     * Get the series name of a disk's write rate in bytes per second.
+     */
+    public static String diskWriteSeries(String disk) {
+        return "disk." + disk + ".write";
+    }
+
+    /**
+     * Get the series name of a network interface's receive rate in bytes per second.
+     */
+    public static String networkRecvSeries(String nic) {
+        return "net." + nic + ".recv";
+    }
+
+    /**
+     * Get the series name of a network interface's send rate in bytes per second.
+     */
+    public static String networkSentSeries(String nic) {
+        return "net." + nic + ".sent";
+    }
+
+    /**
+     * Get the series name of a network interface's receive rate in packets per second.
+     */
+    public static String networkPacketsRecvSeries(String nic) {
+        return "net." + nic + ".packets.recv";
+    }
+
+    /**
+     * Get the series name of a network interface's send rate in packets per second.
+     */
+    public static String networkPacketsSentSeries(String nic) {
+        return "net." + nic + ".packets.sent";
+    }
+
+    /**
+     * Record all metrics of a snapshot.
+     */
+    public synchronized void record(SystemSnapshot snapshot) {
+        long ts = snapshot.timestamp();
+        add(CPU, ts, snapshot.cpuLoad());
+        double[] coreLoads = snapshot.coreLoads();
+        if (cores.length != coreLoads.length) {
+            cores = new TimeSeries[coreLoads.length];
+            for (int i = 0; i < cores.length; i++) {
+                cores[i] = series.computeIfAbsent(coreSeries(i), k -> new TimeSeries(TimeSeries.Layout.COMPACT));
+            }
+        }
+        for (int i = 0; i < coreLoads.length; i++) {
+            cores[i].add(ts, coreLoads[i]);
+        }
+        add(MEMORY_USED, ts, snapshot.memoryUsed());
+        add(MEMORY_TOTAL, ts, snapshot.memoryTotal());
+        add(SWAP_USED, ts, snapshot.swapUsed());
+        add(SWAP_TOTAL, ts, snapshot.swapTotal());
+        add(PROCESS_COUNT, ts, snapshot.processCount());
+        add(THREAD_COUNT, ts, snapshot.threadCount());
+        for (DiskSample disk : snapshot.disks()) {
+            Device device = disks.computeIfAbsent(disk.name(),
+                name -> new Device(diskReadSeries(name), diskWriteSeries(name)));
+            if (device.seen(ts, disk.readRate() > 0 || disk.writeRate() > 0)) {
+                device.add(0, ts, disk.readRate());
+                device.add(1, ts, disk.writeRate());
+            }
+        }
+        for (NetworkSample net : snapshot.networks()) {
+            Device device = nics.computeIfAbsent(net.name(),
+                name -> new Device(networkRecvSeries(name), networkSentSeries(name),
+                    networkPacketsRecvSeries(name), networkPacketsSentSeries(name)));
+            if (device.seen(ts, net.hasActivity())) {
+                device.add(0, ts, net.recvRate());
+                device.add(1, ts, net.sentRate());
+                device.add(2, ts, net.packetRecvRate());
+                device.add(3, ts, net.packetSentRate());
+            }
+        }
+        if (ts - lastSweepMillis >= SWEEP_INTERVAL_MILLIS) {
+            lastSweepMillis = ts;
+            dropMissing(disks, ts);
+            dropMissing(nics, ts);
+        }
+    }
+
+    private void dropMissing(Map<String, Device> devices, long now) {
+        devices.values().removeIf(device -> {
+            long missingMillis = now - device.lastSeenMillis;
+            if (missingMillis > RECENT_SPAN_MILLIS) {
+                device.releaseRecent();
+            }
+            if (missingMillis <= TimeSeries.SPAN_MILLIS) {
+                return false;
+            }
+            device.release();
+            return true;
+        });
+    }
+
+    /**
+     * Add a single value to a series, creating the series if needed.
+     */
+    public void add(String name, long timestampMillis, double value) {
+        series.computeIfAbsent(name, k -> new TimeSeries()).add(timestampMillis, value);
+    }
+
+    /**
+     * Read a time window of a series. A device without series of its own
+     * serves the window from its ring of recent values.
+     *
+     * @param name       the series name
+     * @param fromMillis start of the window in epoch milliseconds, inclusive
+     * @param toMillis   end of the window in epoch milliseconds, inclusive
+     * @param maxPoints  maximum number of values wanted; coarser tiers are used for long windows
+     * @return the window, empty if the series does not exist
+     * @see TimeSeries#read(long, long, int)
+     */
+    public TimeSeriesWindow read(String name, long fromMillis, long toMillis, int maxPoints) {
+        TimeSeries ts = series.get(name);
+        if (ts == null) {
+            ts = recent.get(name);
+        }
+        if (ts == null) {
+            return TimeSeriesWindow.empty(TimeSeries.FINEST_RESOLUTION_MILLIS);
+        }
+        return ts.read(fromMillis, toMillis, maxPoints);
+    }
+
+    /**
+     * Get the names of all series kept for the whole history span; the rings
+     * of recent device values are not listed.
+     */
+    public Set<String> getSeriesNames() {
+        return Set.copyOf(series.keySet());
+    }
+
+    /**
+     * A disk or network interface and, once it was active, its ring of recent
+     * values and possibly its series.
+     */
+    private final class Device {
+
+        final String[] names;
+        TimeSeries[] recent;
+        TimeSeries[] series;
+        long lastSeenMillis;
+        long lastActiveMillis;
+
+        Device(String... names) {
+            this.names = names;
+        }
+
+        /**
+         * Note that the device is in a snapshot.
+         *
+         * @return whether the device has a ring to record its values in
+         */
+        boolean seen(long now, boolean active) {
+            lastSeenMillis = now;
+            if (active) {
+                lastActiveMillis = now;
+                if (recent == null) {
+                    recent = new TimeSeries[names.length];
+                    for (int i = 0; i < names.length; i++) {
+                        recent[i] = new TimeSeries(TimeSeries.Layout.RECENT);
+                        MetricsHistory.this.recent.put(names[i], recent[i]);
+                    }
+                }
+                if (series == null) {
+                    admit(now);
+                }
+            }
+            return recent != null;
+        }
+
+        void add(int index, long now, double value) {
+            recent[index].add(now, value);
+            if (series != null) {
+                series[index].add(now, value);
+            }
+        }
+
+        private void admit(long now) {
+            if (tracked.size() >= MAX_DEVICES) {
+                Device idlest = tracked.get(0);
+                for (Device device : tracked) {
+                    if (device.lastActiveMillis < idlest.lastActiveMillis) {
+                        idlest = device;
+                    }
+                }
+                if (now - idlest.lastActiveMillis < IDLE_REPLACE_MILLIS) {
+                    return;
+                }
+                idlest.releaseSeries();
+            }
+            series = new TimeSeries[names.length];
+            for (int i = 0; i < names.length; i++) {
+                series[i] = MetricsHistory.this.series.computeIfAbsent(names[i],
+                    k -> new TimeSeries(TimeSeries.Layout.COMPACT));
+            }
+            tracked.add(this);
+        }
+
+        void release() {
+            releaseSeries();
+            releaseRecent();
+        }
+
+        void releaseSeries() {
+            if (series == null) {
+                return;
+            }
+            for (String name : names) {
+                MetricsHistory.this.series.remove(name);
+            }
+            series = null;
+            tracked.remove(this);
+        }
+
+        void releaseRecent() {
+            if (recent == null) {
+                return;
+            }
+            for (String name : names) {
+                MetricsHistory.this.recent.remove(name);
+            }
+            recent = null;
+        }
+    }
+}
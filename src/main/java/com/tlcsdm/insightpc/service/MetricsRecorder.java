@@ -0,0 +1,476 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.DiskSample;
+import com.tlcsdm.insightpc.model.NetworkSample;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Streams published snapshots into append-only, memory-mapped segment files.
+ * <p>
+ * The recorder is registered as a {@link SamplingEngine} listener. The sampling
+ * thread only copies the snapshot into a preallocated slot of a single-producer,
+ * single-consumer ring and never blocks: if the writer falls behind, the sample
+ * is dropped and counted. A writer thread appends the slots to the current
+ * {@link RecordingSegment} and rotates to a new segment when it is full.
+ * <p>
+ * A segment file grows in chunks of about {@value #CHUNK_BYTES} bytes as
+ * records are appended, so a segment cut short takes little disk space. The
+ * oldest segments are deleted once all of them together exceed the byte cap,
+ * or once their data is older than the age cap. Disks and network interfaces
+ * that come and go, like the virtual interfaces of containers, do not rotate
+ * the segment each time: a device that disappears is recorded as
+ * {@link Double#NaN}, and a new device only starts a segment with a new set
+ * of series once the current set is {@value #MIN_LAYOUT_MILLIS} ms old; until
+ * then it is not recorded. Neither side allocates while the set of series
+ * stays the same.
+ */
+public class MetricsRecorder implements Consumer<SystemSnapshot> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsRecorder.class);
+
+    public static final int DEFAULT_SEGMENT_BYTES = 8 * 1024 * 1024;
+    public static final long DEFAULT_MAX_TOTAL_BYTES = 128L * 1024 * 1024;
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(7);
+    static final long MIN_LAYOUT_MILLIS = 10 * 60_000;
+    static final int CHUNK_BYTES = 256 * 1024;
+    private static final int RING_CAPACITY = 64;
+    private static final long WRITER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxTotalBytes;
+    private final long maxAgeMillis;
+    private final Slot[] slots = new Slot[RING_CAPACITY];
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    private Layout producerLayout;
+    private SegmentWriter segment;
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    public MetricsRecorder(Path directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_MAX_TOTAL_BYTES, DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * @param directory     the recording directory
+     * @param segmentBytes  the maximum size of a segment data file
+     * @param maxTotalBytes the size of all segment files above which the oldest are deleted
+     * @param maxAge        the age of recorded data after which its segment is deleted
+     */
+    public MetricsRecorder(Path directory, int segmentBytes, long maxTotalBytes, Duration maxAge) {
+        if (segmentBytes <= 0 || maxTotalBytes <= 0 || maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("segment size and retention must be positive");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxTotalBytes = maxTotalBytes;
+        this.maxAgeMillis = maxAge.toMillis();
+        for (int i = 0; i < RING_CAPACITY; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Get the default recording directory in the user's home directory.
+     */
+    public static Path getDefaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".insightpc", "recordings");
+    }
+
+    /**
+     * Start the writer thread. Has no effect if already started.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().daemon().name("insightpc-recorder").start(this::drain);
+    }
+
+    /**
+     * Stop the writer thread after it has written all pending samples.
+     */
+    public synchronized void stop() {
+        Thread current = writer;
+        if (!running || current == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(current);
+        try {
+            current.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    /**
+     * Get the recording directory.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the number of samples dropped because the writer was behind or failing.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Get the number of samples written to disk.
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * Hand a snapshot to the writer. Called on the sampling thread; never blocks.
+     */
+    @Override
+    public void accept(SystemSnapshot snapshot) {
+        if (!running) {
+            return;
+        }
+        long seq = published.get();
+        if (seq - consumed.get() >= RING_CAPACITY) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (producerLayout == null || producerLayout.isOutdated(snapshot)) {
+            producerLayout = Layout.of(snapshot);
+        }
+        Slot slot = slots[(int) (seq % RING_CAPACITY)];
+        slot.fill(snapshot, producerLayout);
+        published.set(seq + 1);
+        LockSupport.unpark(writer);
+    }
+
+    private void drain() {
+        long next = consumed.get();
+        while (running || next < published.get()) {
+            if (next == published.get()) {
+                LockSupport.parkNanos(this, WRITER_PARK_NANOS);
+                continue;
+            }
+            write(slots[(int) (next % RING_CAPACITY)]);
+            next++;
+            consumed.set(next);
+        }
+        closeSegment();
+    }
+
+    private void write(Slot slot) {
+        try {
+            if (segment == null || segment.layout != slot.layout || segment.isFull()) {
+                rotate(slot.layout, slot.timestamp);
+            }
+            segment.append(slot.timestamp, slot.values, slot.layout.names.size());
+            written.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            dropped.incrementAndGet();
+            LOG.warn("Could not write metrics recording to {}", directory, e);
+            // Keep what was written so far; the next sample starts a new segment
+            closeSegment();
+        }
+    }
+
+    private void rotate(Layout layout, long startMillis) throws IOException {
+        closeSegment();
+        Files.createDirectories(directory);
+        segment = new SegmentWriter(RecordingSegment.dataFileFor(directory, startMillis), layout, segmentBytes);
+        LOG.debug("Recording metrics to {}", segment.file);
+        enforceRetention(startMillis);
+    }
+
+    private void closeSegment() {
+        SegmentWriter closing = segment;
+        segment = null;
+        if (closing != null) {
+            try {
+                closing.close();
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Could not finish metrics recording {}", closing.file, e);
+            }
+        }
+    }
+
+    /**
+     * Delete the oldest segments while all of them together are larger than
+     * the byte cap, and those whose data is older than the age cap. A segment
+     * ends where the next one starts; the current one is always kept.
+     */
+    private void enforceRetention(long nowMillis) {
+        try {
+            List<Path> segments = RecordingSegment.listSegments(directory);
+            long[] sizes = new long[segments.size()];
+            long total = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                Path data = segments.get(i);
+                Path index = RecordingSegment.indexFileFor(data);
+                sizes[i] = Files.size(data) + (Files.exists(index) ? Files.size(index) : 0);
+                total += sizes[i];
+            }
+            for (int i = 0; i < segments.size() - 1; i++) {
+                long endMillis = RecordingSegment.startMillisOf(segments.get(i + 1));
+                if (total <= maxTotalBytes && nowMillis - endMillis <= maxAgeMillis) {
+                    break;
+                }
+                Path data = segments.get(i);
+                Files.deleteIfExists(RecordingSegment.indexFileFor(data));
+                Files.deleteIfExists(data);
+                total -= sizes[i];
+            }
+        } catch (IOException e) {
+            // Retried on the next rotation, e.g. when a file is still mapped on Windows
+            LOG.warn("Could not delete old metrics recordings in {}", directory, e);
+        }
+    }
+
+    /**
+     * Series layout of a recording, derived from the shape of a snapshot.
+     */
+    private static final class Layout {
+
+        private final List<String> names;
+        private final long createdMillis;
+        private final int coreCount;
+        // Column of the first series of each device
+        private final Map<String, Integer> diskColumns;
+        private final Map<String, Integer> nicColumns;
+        private final int firstDeviceColumn;
+
+        private Layout(List<String> names, long createdMillis, int coreCount, Map<String, Integer> diskColumns,
+                       Map<String, Integer> nicColumns, int firstDeviceColumn) {
+            this.names = names;
+            this.createdMillis = createdMillis;
+            this.coreCount = coreCount;
+            this.diskColumns = diskColumns;
+            this.nicColumns = nicColumns;
+            this.firstDeviceColumn = firstDeviceColumn;
+        }
+
+        static Layout of(SystemSnapshot snapshot) {
+            List<String> names = new ArrayList<>();
+            names.add(MetricsHistory.CPU);
+            int cores = snapshot.coreLoads().length;
+            for (int i = 0; i < cores; i++) {
+                names.add(MetricsHistory.coreSeries(i));
+            }
+            names.add(MetricsHistory.MEMORY_USED);
+            names.add(MetricsHistory.MEMORY_TOTAL);
+            names.add(MetricsHistory.SWAP_USED);
+            names.add(MetricsHistory.SWAP_TOTAL);
+            names.add(MetricsHistory.PROCESS_COUNT);
+            names.add(MetricsHistory.THREAD_COUNT);
+            int firstDeviceColumn = names.size();
+            Map<String, Integer> diskColumns = new HashMap<>();
+            for (DiskSample disk : snapshot.disks()) {
+                if (diskColumns.putIfAbsent(disk.name(), names.size()) == null) {
+                    names.add(MetricsHistory.diskReadSeries(disk.name()));
+                    names.add(MetricsHistory.diskWriteSeries(disk.name()));
+                }
+            }
+            Map<String, Integer> nicColumns = new HashMap<>();
+            for (NetworkSample nic : snapshot.networks()) {
+                if (nicColumns.putIfAbsent(nic.name(), names.size()) == null) {
+                    names.add(MetricsHistory.networkRecvSeries(nic.name()));
+                    names.add(MetricsHistory.networkSentSeries(nic.name()));
+                }
+            }
+            return new Layout(List.copyOf(names), snapshot.timestamp(), cores, diskColumns, nicColumns,
+                firstDeviceColumn);
+        }
+
+        /**
+         * Check whether a snapshot needs a new layout: it has another number
+         * of cores, or devices that are not in this layout while the layout is
+         * old enough to be replaced.
+         */
+        boolean isOutdated(SystemSnapshot snapshot) {
+            if (snapshot.coreLoads().length != coreCount) {
+                return true;
+            }
+            if (snapshot.timestamp() - createdMillis < MIN_LAYOUT_MILLIS) {
+                return false;
+            }
+            for (DiskSample disk : snapshot.disks()) {
+                if (!diskColumns.containsKey(disk.name())) {
+                    return true;
+                }
+            }
+            for (NetworkSample nic : snapshot.networks()) {
+                if (!nicColumns.containsKey(nic.name())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Preallocated handoff slot. Only the producer writes a slot before
+     * publishing it and only the writer reads it before consuming it.
+     */
+    private static final class Slot {
+
+        private long timestamp;
+        private double[] values = new double[0];
+        private Layout layout;
+
+        void fill(SystemSnapshot snapshot, Layout layout) {
+            int size = layout.names.size();
+            if (values.length < size) {
+                values = new double[size];
+            }
+            this.layout = layout;
+            this.timestamp = snapshot.timestamp();
+            int i = 0;
+            values[i++] = snapshot.cpuLoad();
+            double[] cores = snapshot.coreLoads();
+            for (double core : cores) {
+                values[i++] = core;
+            }
+            values[i++] = snapshot.memoryUsed();
+            values[i++] = snapshot.memoryTotal();
+            values[i++] = snapshot.swapUsed();
+            values[i++] = snapshot.swapTotal();
+            values[i++] = snapshot.processCount();
+            values[i++] = snapshot.threadCount();
+            // Devices of the layout missing from the snapshot are recorded as gaps
+            Arrays.fill(values, layout.firstDeviceColumn, size, Double.NaN);
+            List<DiskSample> disks = snapshot.disks();
+            for (int d = 0; d < disks.size(); d++) {
+                Integer column = layout.diskColumns.get(disks.get(d).name());
+                if (column != null) {
+                    values[column] = disks.get(d).readRate();
+                    values[column + 1] = disks.get(d).writeRate();
+                }
+            }
+            List<NetworkSample> networks = snapshot.networks();
+            for (int n = 0; n < networks.size(); n++) {
+                Integer column = layout.nicColumns.get(networks.get(n).name());
+                if (column != null) {
+                    values[column] = networks.get(n).recvRate();
+                    values[column + 1] = networks.get(n).sentRate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends records to a mapped segment and its sparse index. The data file
+     * is mapped and grown one chunk of whole records at a time.
+     */
+    private static final class SegmentWriter {
+
+        private final Path file;
+        private final Layout layout;
+        private final FileChannel channel;
+        private final MappedByteBuffer index;
+        private final int headerBytes;
+        private final int recordBytes;
+        private final int capacity;
+        private final int chunkRecords;
+        private MappedByteBuffer chunk;
+        private int chunkStart;
+        private int count;
+
+        SegmentWriter(Path file, Layout layout, int segmentBytes) throws IOException {
+            this.file = file;
+            this.layout = layout;
+            byte[] header = RecordingSegment.encodeHeader(layout.names);
+            this.headerBytes = header.length;
+            this.recordBytes = RecordingSegment.recordBytes(layout.names.size());
+            this.capacity = (segmentBytes - header.length) / recordBytes;
+            if (capacity <= 0) {
+                throw new IOException("Segment size " + segmentBytes + " cannot hold a record");
+            }
+            this.chunkRecords = Math.min(capacity, Math.max(1, CHUNK_BYTES / recordBytes));
+            int indexBytes = ((capacity + RecordingSegment.INDEX_STRIDE - 1) / RecordingSegment.INDEX_STRIDE)
+                * RecordingSegment.INDEX_ENTRY_BYTES;
+            try (FileChannel indexChannel = open(RecordingSegment.indexFileFor(file))) {
+                this.index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexBytes);
+            }
+            this.channel = open(file);
+            try {
+                MappedByteBuffer headerBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, header.length);
+                headerBuffer.put(0, header);
+                headerBuffer.force();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        private static FileChannel open(Path file) throws IOException {
+            return FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        boolean isFull() {
+            return count == capacity;
+        }
+
+        void append(long timestamp, double[] values, int size) throws IOException {
+            if (chunk == null || count - chunkStart == chunkRecords) {
+                if (chunk != null) {
+                    chunk.force();
+                }
+                // Mapping past the end grows the file
+                chunkStart = count;
+                int records = Math.min(chunkRecords, capacity - count);
+                chunk = channel.map(FileChannel.MapMode.READ_WRITE,
+                    headerBytes + (long) count * recordBytes, (long) records * recordBytes);
+            }
+            int position = (count - chunkStart) * recordBytes;
+            chunk.putLong(position, timestamp);
+            for (int i = 0; i < size; i++) {
+                chunk.putDouble(position + Long.BYTES + i * Double.BYTES, values[i]);
+            }
+            // The index entry is written after the record so it never points past the data
+            if (count % RecordingSegment.INDEX_STRIDE == 0) {
+                int entry = count / RecordingSegment.INDEX_STRIDE;
+                index.putLong(entry * RecordingSegment.INDEX_ENTRY_BYTES, timestamp);
+            }
+            count++;
+        }
+
+        void close() throws IOException {
+            try {
+                if (chunk != null) {
+                    chunk.force();
+                }
+                index.force();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+
+import java.util.function.Consumer;
+
+/**
+ * Source of system snapshots and their history, either sampled live or
+ * played back from a recording. Views subscribe while they are visible.
+ */
+public interface MetricsSource {
+
+    /**
+     * Register a listener that receives every published snapshot.
+     * If a snapshot is already available it is delivered immediately.
+     * Listeners may be invoked on any thread.
+     */
+    void addListener(Consumer<SystemSnapshot> listener);
+
+    /**
+     * Unregister a listener.
+     */
+    void removeListener(Consumer<SystemSnapshot> listener);
+
+    /**
+     * Get the most recently published snapshot, or {@code null} if none yet.
+     */
+    SystemSnapshot getLatest();
+
+    /**
+     * Get the history of the published snapshots.
+     */
+    MetricsHistory getHistory();
+
+    /**
+     * Get the nominal interval between snapshots in milliseconds.
+     */
+    long getIntervalMillis();
+}
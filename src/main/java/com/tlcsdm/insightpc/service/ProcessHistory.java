@@ -0,0 +1,295 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.ProcessSample;
+import com.tlcsdm.insightpc.model.ProcessSnapshot;
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Recent history of the processes that use the most CPU or memory, plus the
+ * processes pinned by the user.
+ * <p>
+ * Each refresh of the {@link ProcessMonitor} picks the top consumers by CPU
+ * load and by resident memory. Those and the pinned processes get a track: a
+ * ring of the last {@link #CAPACITY} samples in one {@code long} and one
+ * {@code float} array, about 7 KB per process. A track is dropped as soon as
+ * its process exits, and {@link #EVICT_AFTER_MILLIS} after it last ranked
+ * among the top consumers. The number of tracks is capped as well, so memory
+ * stays bounded however many processes come and go. Fed on the scheduler
+ * thread and read from any thread.
+ */
+public class ProcessHistory implements Consumer<ProcessSnapshot> {
+
+    /**
+     * Metrics recorded per process.
+     */
+    public enum Metric {
+        /** CPU load since the previous sample; 1.0 is one logical processor. */
+        CPU,
+        /** Resident set size in bytes. */
+        RESIDENT_MEMORY,
+        /** Number of threads. */
+        THREADS,
+        /** Bytes read and written per second. */
+        IO_RATE
+    }
+
+    /**
+     * Number of samples kept per process: 10 minutes at the default refresh interval.
+     */
+    public static final int CAPACITY = 300;
+
+    /**
+     * Number of top consumers tracked by CPU load and, separately, by resident memory.
+     */
+    public static final int TOP_N = 10;
+
+    /**
+     * Maximum number of pinned processes.
+     */
+    public static final int MAX_PINNED = 20;
+
+    /**
+     * Time a process is still tracked after it last ranked among the top consumers.
+     */
+    public static final long EVICT_AFTER_MILLIS = 60_000;
+
+    /**
+     * Maximum number of tracks: the current top consumers, as many recent ones, and the pinned processes.
+     */
+    static final int MAX_TRACKS = 4 * TOP_N + MAX_PINNED;
+
+    private static final int METRICS = Metric.values().length;
+
+    private final LongObjectMap<Track> tracks = new LongObjectMap<>();
+    private final LongObjectMap<Boolean> pinned = new LongObjectMap<>();
+
+    @Override
+    public synchronized void accept(ProcessSnapshot snapshot) {
+        long now = snapshot.timestamp();
+        ProcessSample[] top = topConsumers(snapshot);
+        LongObjectMap<ProcessSample> byPid = new LongObjectMap<>();
+        for (ProcessSample process : snapshot.processes()) {
+            byPid.put(process.pid(), process);
+        }
+
+        // Drop the tracks of exited processes and of those that left the top a while ago
+        long[] pids = trackedPids();
+        for (long pid : pids) {
+            Track track = tracks.get(pid);
+            ProcessSample process = byPid.get(pid);
+            if (process == null || process.startTime() != track.startTime) {
+                tracks.remove(pid);
+                pinned.remove(pid);
+            } else if (pinned.get(pid) == null && now - track.lastRankedMillis > EVICT_AFTER_MILLIS) {
+                tracks.remove(pid);
+            }
+        }
+
+        for (ProcessSample process : top) {
+            Track track = tracks.get(process.pid());
+            if (track == null) {
+                track = new Track(process.startTime());
+                tracks.put(process.pid(), track);
+            }
+            track.lastRankedMillis = now;
+        }
+        for (long pid : trackedPids()) {
+            Track track = tracks.get(pid);
+            if (pinned.get(pid) != null) {
+                track.lastRankedMillis = now;
+            }
+            track.add(now, byPid.get(pid));
+        }
+        evictOverCap();
+    }
+
+    /**
+     * Pin a process so it is tracked while it runs, whether or not it ranks among the top consumers.
+     *
+     * @return {@code false} if {@link #MAX_PINNED} processes are already pinned
+     */
+    public synchronized boolean pin(int pid, long startTime) {
+        if (pinned.get(pid) != null) {
+            return true;
+        }
+        if (pinned.size() >= MAX_PINNED) {
+            return false;
+        }
+        pinned.put(pid, Boolean.TRUE);
+        Track track = tracks.get(pid);
+        if (track == null || track.startTime != startTime) {
+            tracks.put(pid, new Track(startTime));
+        }
+        return true;
+    }
+
+    /**
+     * Unpin a process. It is still tracked while it ranks among the top consumers.
+     */
+    public synchronized void unpin(int pid) {
+        pinned.remove(pid);
+    }
+
+    /**
+     * Check whether a process is pinned.
+     */
+    public synchronized boolean isPinned(int pid) {
+        return pinned.get(pid) != null;
+    }
+
+    /**
+     * Check whether a process is tracked.
+     */
+    public synchronized boolean isTracked(int pid) {
+        return tracks.get(pid) != null;
+    }
+
+    /**
+     * Get the number of tracked processes.
+     */
+    public synchronized int getTrackedCount() {
+        return tracks.size();
+    }
+
+    /**
+     * Read the history of one metric of a process as evenly spaced values.
+     * Each value is the latest sample at or before its slot. A slot is
+     * {@link Double#NaN} if there is no such sample within three refresh
+     * intervals, for example while the process list was not refreshed.
+     *
+     * @param pid        the process
+     * @param metric     the metric
+     * @param fromMillis start of the window in epoch milliseconds
+     * @param toMillis   end of the window in epoch milliseconds
+     * @param points     number of values wanted
+     * @return the window, empty if the process is not tracked
+     */
+    public synchronized TimeSeriesWindow read(int pid, Metric metric, long fromMillis, long toMillis, int points) {
+        Track track = tracks.get(pid);
+        if (track == null || track.count == 0 || points < 2 || toMillis <= fromMillis) {
+            return TimeSeriesWindow.empty(1_000);
+        }
+        long step = Math.max(1, (toMillis - fromMillis) / (points - 1));
+        double[] values = new double[points];
+        long maxGap = 3 * track.typicalSpacing();
+        int next = 0;
+        int latest = -1;
+        for (int i = 0; i < points; i++) {
+            long slot = fromMillis + i * step;
+            while (next < track.count && track.timestampAt(next) <= slot) {
+                latest = next++;
+            }
+            values[i] = latest >= 0 && slot - track.timestampAt(latest) <= maxGap
+                ? track.valueAt(latest, metric) : Double.NaN;
+        }
+        return new TimeSeriesWindow(fromMillis, step, values);
+    }
+
+    private long[] trackedPids() {
+        long[] pids = new long[tracks.size()];
+        int[] count = {0};
+        tracks.forEachKey(pid -> pids[count[0]++] = pid);
+        return pids;
+    }
+
+    private void evictOverCap() {
+        if (tracks.size() <= MAX_TRACKS) {
+            return;
+        }
+        // Unpinned tracks that ranked least recently go first
+        long[] pids = Arrays.stream(trackedPids())
+            .filter(pid -> pinned.get(pid) == null)
+            .boxed()
+            .sorted(Comparator.comparingLong(pid -> tracks.get(pid).lastRankedMillis))
+            .mapToLong(Long::longValue)
+            .toArray();
+        for (int i = 0; i < pids.length && tracks.size() > MAX_TRACKS; i++) {
+            tracks.remove(pids[i]);
+        }
+    }
+
+    private static ProcessSample[] topConsumers(ProcessSnapshot snapshot) {
+        ProcessSample[] byCpu = top(snapshot, ProcessSample::cpuLoad);
+        ProcessSample[] byMemory = top(snapshot, process -> process.residentMemory());
+        ProcessSample[] all = Arrays.copyOf(byCpu, byCpu.length + byMemory.length);
+        System.arraycopy(byMemory, 0, all, byCpu.length, byMemory.length);
+        return all;
+    }
+
+    private static ProcessSample[] top(ProcessSnapshot snapshot, ToDoubleFunction<ProcessSample> key) {
+        // Min-heap of the best TOP_N so far: O(n log TOP_N)
+        PriorityQueue<ProcessSample> heap = new PriorityQueue<>(TOP_N + 1, Comparator.comparingDouble(key));
+        for (ProcessSample process : snapshot.processes()) {
+            heap.add(process);
+            if (heap.size() > TOP_N) {
+                heap.poll();
+            }
+        }
+        return heap.toArray(ProcessSample[]::new);
+    }
+
+    /**
+     * Ring of the recent samples of one process.
+     */
+    private static final class Track {
+
+        final long startTime;
+        final long[] timestamps = new long[CAPACITY];
+        // METRICS values per sample, in Metric order
+        final float[] values = new float[CAPACITY * METRICS];
+        // Index of the oldest sample and number of samples
+        int head;
+        int count;
+        long lastRankedMillis;
+
+        Track(long startTime) {
+            this.startTime = startTime;
+        }
+
+        void add(long timestampMillis, ProcessSample process) {
+            if (count > 0 && timestampMillis <= timestampAt(count - 1)) {
+                return;
+            }
+            int slot;
+            if (count < CAPACITY) {
+                slot = (head + count++) % CAPACITY;
+            } else {
+                slot = head;
+                head = (head + 1) % CAPACITY;
+            }
+            timestamps[slot] = timestampMillis;
+            int base = slot * METRICS;
+            values[base + Metric.CPU.ordinal()] = (float) process.cpuLoad();
+            values[base + Metric.RESIDENT_MEMORY.ordinal()] = process.residentMemory();
+            values[base + Metric.THREADS.ordinal()] = process.threadCount();
+            values[base + Metric.IO_RATE.ordinal()] = (float) process.ioRate();
+        }
+
+        long timestampAt(int index) {
+            return timestamps[(head + index) % CAPACITY];
+        }
+
+        double valueAt(int index, Metric metric) {
+            return values[((head + index) % CAPACITY) * METRICS + metric.ordinal()];
+        }
+
+        long typicalSpacing() {
+            if (count < 2) {
+                return ProcessMonitor.DEFAULT_INTERVAL_MILLIS;
+            }
+            // The shorter of the last two spacings follows changes of the refresh interval,
+            // and is not thrown off by a pause that just ended
+            long spacing = timestampAt(count - 1) - timestampAt(count - 2);
+            if (count > 2) {
+                spacing = Math.min(spacing, timestampAt(count - 2) - timestampAt(count - 3));
+            }
+            return Math.max(1, spacing);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.ProcessSample;
+import com.tlcsdm.insightpc.model.ProcessSearchIndex;
+import com.tlcsdm.insightpc.model.ProcessSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OperatingSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Fetches the full process list in the background and publishes it as an
+ * immutable {@link ProcessSnapshot}.
+ * <p>
+ * Listing every process is expensive on hosts with thousands of PIDs, so it
+ * never runs on the JavaFX application thread: the monitor refreshes on the
+ * scheduler at a fixed delay while started, and {@link #refresh()} fetches
+ * once on demand. Listeners are invoked on the scheduler thread.
+ * <p>
+ * The CPU load of a process is measured between two fetches, like
+ * {@code top}, from the {@link OSProcess} of the previous fetch with the same
+ * PID, and so are the disk read and write rates, over the time actually
+ * elapsed between the two listings, so a delayed refresh does not inflate
+ * them. Only the processes of the last fetch are kept, so the map is pruned
+ * as processes exit however high the churn. The command line, which is slow
+ * to read on some platforms, is read once per process, and the search index
+ * of each snapshot is built here as well, off the JavaFX application thread.
+ */
+public class ProcessMonitor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessMonitor.class);
+
+    public static final long DEFAULT_INTERVAL_MILLIS = 2000;
+
+    private final SystemInfoService systemInfoService;
+    private final ScheduledExecutorService scheduler;
+    private final List<Consumer<ProcessSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private final Object fetchLock = new Object();
+    // Guarded by fetchLock: the processes of the previous fetch by PID, and the map the next fetch fills
+    private LongObjectMap<Tracked> previousByPid = new LongObjectMap<>();
+    private LongObjectMap<Tracked> currentByPid = new LongObjectMap<>();
+    private ProcessSearchIndex previousIndex;
+    private long previousNanos;
+
+    private volatile ProcessSnapshot latest;
+    private volatile long intervalMillis = DEFAULT_INTERVAL_MILLIS;
+    private ScheduledFuture<?> future;
+
+    public ProcessMonitor(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
+        this.systemInfoService = systemInfoService;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Start refreshing at the configured interval. The first fetch runs right away.
+     * Has no effect if already started.
+     */
+    public synchronized void start() {
+        if (future == null) {
+            schedule(0);
+        }
+    }
+
+    /**
+     * Stop refreshing. A fetch that is already running still publishes its result.
+     */
+    public synchronized void stop() {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    /**
+     * Check whether the monitor is refreshing periodically.
+     */
+    public synchronized boolean isRunning() {
+        return future != null;
+    }
+
+    /**
+     * Fetch once in the background, whether or not the monitor is started.
+     */
+    public void refresh() {
+        scheduler.execute(this::refreshSafely);
+    }
+
+    /**
+     * Get the refresh interval in milliseconds.
+     */
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * Set the refresh interval. A running monitor is rescheduled.
+     */
+    public synchronized void setIntervalMillis(long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("interval must be positive: " + intervalMillis);
+        }
+        if (intervalMillis == this.intervalMillis) {
+            return;
+        }
+        this.intervalMillis = intervalMillis;
+        if (future != null) {
+            schedule(intervalMillis);
+        }
+    }
+
+    /**
+     * Register a listener that receives every published snapshot on the scheduler thread.
+     * If a snapshot is already available it is delivered immediately.
+     */
+    public void addListener(Consumer<ProcessSnapshot> listener) {
+        listeners.add(listener);
+        ProcessSnapshot current = latest;
+        if (current != null) {
+            listener.accept(current);
+        }
+    }
+
+    /**
+     * Unregister a listener.
+     */
+    public void removeListener(Consumer<ProcessSnapshot> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Get the most recently published snapshot, or {@code null} if none yet.
+     */
+    public ProcessSnapshot getLatest() {
+        return latest;
+    }
+
+    private void schedule(long initialDelayMillis) {
+        if (future != null) {
+            future.cancel(false);
+        }
+        // Fixed delay: a slow listing on a busy host never queues up fetches
+        future = scheduler.scheduleWithFixedDelay(this::refreshSafely, initialDelayMillis, intervalMillis,
+            TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshSafely() {
+        try {
+            ProcessSnapshot snapshot;
+            synchronized (fetchLock) {
+                snapshot = fetch();
+                latest = snapshot;
+            }
+            for (Consumer<ProcessSnapshot> listener : listeners) {
+                listener.accept(snapshot);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Process refresh failed", e);
+        }
+    }
+
+    /**
+     * List all processes and measure their CPU load since the previous fetch.
+     */
+    ProcessSnapshot fetch() {
+        synchronized (fetchLock) {
+            List<OSProcess> processes = systemInfoService.getOperatingSystem().getProcesses(
+                OperatingSystem.ProcessFiltering.ALL_PROCESSES, OperatingSystem.ProcessSorting.NO_SORTING, 0);
+            long nanos = System.nanoTime();
+            double seconds = (nanos - previousNanos) / 1e9;
+            List<ProcessSample> samples = new ArrayList<>(processes.size());
+            for (OSProcess p : processes) {
+                Tracked prior = previousByPid.get(p.getProcessID());
+                if (prior != null && prior.process().getStartTime() != p.getStartTime()) {
+                    // The PID was reused: the old ticks belong to another process
+                    prior = null;
+                }
+                String commandLine = prior != null ? prior.commandLine() : p.getCommandLine();
+                currentByPid.put(p.getProcessID(), new Tracked(p, commandLine));
+                // Without a prior sample this falls back to the load since the process started
+                double cpuLoad = p.getProcessCpuLoadBetweenTicks(prior == null ? null : prior.process());
+                double readRate = 0;
+                double writeRate = 0;
+                if (prior != null && seconds > 0) {
+                    readRate = Math.max(0, p.getBytesRead() - prior.process().getBytesRead()) / seconds;
+                    writeRate = Math.max(0, p.getBytesWritten() - prior.process().getBytesWritten()) / seconds;
+                }
+                samples.add(new ProcessSample(p.getProcessID(), p.getParentProcessID(), p.getName(), p.getPath(),
+                    commandLine, p.getUser(), p.getState().name(), p.getResidentSetSize(), p.getVirtualSize(),
+                    cpuLoad, p.getThreadCount(), p.getStartTime(),
+                    p.getKernelTime(), p.getUserTime(), p.getBytesRead(), p.getBytesWritten(), readRate, writeRate));
+            }
+            // Swap: exited PIDs are dropped with the old map, which is reused for the next fetch
+            LongObjectMap<Tracked> exited = previousByPid;
+            previousByPid = currentByPid;
+            currentByPid = exited;
+            currentByPid.clear();
+            previousNanos = nanos;
+            previousIndex = ProcessSearchIndex.build(samples, previousIndex);
+            return new ProcessSnapshot(System.currentTimeMillis(), samples, previousIndex);
+        }
+    }
+
+    /**
+     * Get the number of processes kept from the previous fetch.
+     */
+    int getTrackedCount() {
+        synchronized (fetchLock) {
+            return previousByPid.size();
+        }
+    }
+
+    /**
+     * A process of the previous fetch and its command line.
+     */
+    private record Tracked(OSProcess process, String commandLine) {
+    }
+}
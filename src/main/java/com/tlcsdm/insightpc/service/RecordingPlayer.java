@@ -0,0 +1,422 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.DiskSample;
+import com.tlcsdm.insightpc.model.NetworkSample;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Plays back a directory recorded by {@link MetricsRecorder} as a {@link MetricsSource}.
+ * <p>
+ * Decoding is lazy and windowed: only the segments around the playback
+ * position are opened (at most {@value #OPEN_SEGMENT_LIMIT} at a time), and a
+ * seek only decodes the {@link #HISTORY_WINDOW_MILLIS} before the new position
+ * into a fresh {@link MetricsHistory}. Seeking therefore costs the same in a
+ * multi-day recording as in a short one.
+ */
+public class RecordingPlayer implements MetricsSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RecordingPlayer.class);
+
+    static final long HISTORY_WINDOW_MILLIS = 10 * 60 * 1000;
+    private static final long TICK_MILLIS = 100;
+    private static final int OPEN_SEGMENT_LIMIT = 4;
+
+    private final Path directory;
+    private final ScheduledExecutorService scheduler;
+    private final List<Path> segmentFiles;
+    private final long[] segmentStarts;
+    private final long startMillis;
+    private final long endMillis;
+    private final List<Consumer<SystemSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Path, OpenSegment> openSegments = new LinkedHashMap<>(OPEN_SEGMENT_LIMIT, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, OpenSegment> eldest) {
+            return size() > OPEN_SEGMENT_LIMIT;
+        }
+    };
+
+    private volatile SystemSnapshot latest;
+    private volatile MetricsHistory history = new MetricsHistory();
+    private long position;
+    private double speed = 1;
+    private ScheduledFuture<?> ticker;
+    private long lastTickNanos;
+
+    private RecordingPlayer(Path directory, ScheduledExecutorService scheduler, List<Path> segmentFiles)
+        throws IOException {
+        this.directory = directory;
+        this.scheduler = scheduler;
+        this.segmentFiles = segmentFiles;
+        this.segmentStarts = segmentFiles.stream().mapToLong(RecordingSegment::startMillisOf).toArray();
+        this.startMillis = segmentStarts[0];
+        RecordingSegment last = open(segmentFiles.size() - 1).segment;
+        this.endMillis = last.getRecordCount() > 0
+            ? last.getTimestamp(last.getRecordCount() - 1)
+            : segmentStarts[segmentStarts.length - 1];
+        this.position = startMillis;
+    }
+
+    /**
+     * Open a recording directory and position the player at its start.
+     *
+     * @param directory the directory containing the recorded segments
+     * @param scheduler the scheduler driving playback
+     * @return the player
+     * @throws IOException if the directory holds no readable recording
+     */
+    public static RecordingPlayer open(Path directory, ScheduledExecutorService scheduler) throws IOException {
+        List<Path> files = RecordingSegment.listSegments(directory);
+        if (files.isEmpty()) {
+            throw new IOException("No metrics recording in " + directory);
+        }
+        RecordingPlayer player = new RecordingPlayer(directory, scheduler, files);
+        player.seek(player.startMillis);
+        return player;
+    }
+
+    /**
+     * Get the recording directory.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the time of the first record in epoch milliseconds.
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * Get the time of the last record in epoch milliseconds.
+     */
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    /**
+     * Get the current playback position in epoch milliseconds.
+     */
+    public synchronized long getPositionMillis() {
+        return position;
+    }
+
+    /**
+     * Move the playback position and publish the last snapshot at or before it.
+     */
+    public void seek(long timestampMillis) {
+        SystemSnapshot snapshot;
+        synchronized (this) {
+            position = Math.clamp(timestampMillis, startMillis, endMillis);
+            MetricsHistory fresh = new MetricsHistory();
+            snapshot = replay(position - HISTORY_WINDOW_MILLIS, position, fresh);
+            history = fresh;
+            lastTickNanos = System.nanoTime();
+        }
+        if (snapshot != null) {
+            publish(snapshot);
+        }
+    }
+
+    /**
+     * Start playback, from the beginning if the end was reached.
+     */
+    public synchronized void play() {
+        if (ticker != null) {
+            return;
+        }
+        if (position >= endMillis) {
+            seek(startMillis);
+        }
+        lastTickNanos = System.nanoTime();
+        ticker = scheduler.scheduleAtFixedRate(this::tickSafely, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Pause playback.
+     */
+    public synchronized void pause() {
+        if (ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+        }
+    }
+
+    /**
+     * Check whether playback is running.
+     */
+    public synchronized boolean isPlaying() {
+        return ticker != null;
+    }
+
+    /**
+     * Set the playback speed as a multiple of real time.
+     */
+    public synchronized void setSpeed(double speed) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("speed must be positive");
+        }
+        this.speed = speed;
+    }
+
+    /**
+     * Get the playback speed as a multiple of real time.
+     */
+    public synchronized double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Stop playback and release the opened segments.
+     */
+    public synchronized void close() {
+        pause();
+        openSegments.clear();
+    }
+
+    @Override
+    public void addListener(Consumer<SystemSnapshot> listener) {
+        listeners.add(listener);
+        SystemSnapshot current = latest;
+        if (current != null) {
+            listener.accept(current);
+        }
+    }
+
+    @Override
+    public void removeListener(Consumer<SystemSnapshot> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public SystemSnapshot getLatest() {
+        return latest;
+    }
+
+    @Override
+    public MetricsHistory getHistory() {
+        return history;
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return SamplingEngine.DEFAULT_INTERVAL_MILLIS;
+    }
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            LOG.warn("Playback of {} failed", directory, e);
+            pause();
+        }
+    }
+
+    private void tick() {
+        SystemSnapshot snapshot = null;
+        synchronized (this) {
+            long now = System.nanoTime();
+            double elapsedMillis = (now - lastTickNanos) / 1_000_000.0;
+            lastTickNanos = now;
+            long next = Math.min(endMillis, position + (long) (elapsedMillis * speed));
+            if (next > position) {
+                snapshot = replay(position + 1, next, history);
+                position = next;
+            }
+            if (position >= endMillis) {
+                pause();
+            }
+        }
+        if (snapshot != null) {
+            publish(snapshot);
+        }
+    }
+
+    private void publish(SystemSnapshot snapshot) {
+        latest = snapshot;
+        for (Consumer<SystemSnapshot> listener : listeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (RuntimeException e) {
+                LOG.warn("Snapshot listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Add all records in the time range to the history and decode the last one.
+     *
+     * @return the last snapshot in the range, or {@code null} if there is none
+     */
+    private SystemSnapshot replay(long fromMillis, long toMillis, MetricsHistory target) {
+        OpenSegment lastSegment = null;
+        int lastRecord = -1;
+        int first = Math.max(0, segmentFor(fromMillis));
+        for (int s = first; s < segmentFiles.size() && segmentStarts[s] <= toMillis; s++) {
+            OpenSegment open = open(s);
+            RecordingSegment segment = open.segment;
+            int count = segment.getRecordCount();
+            for (int r = segment.findRecord(fromMillis); r < count && segment.getTimestamp(r) <= toMillis; r++) {
+                open.addTo(target, r);
+                lastSegment = open;
+                lastRecord = r;
+            }
+        }
+        return lastSegment != null ? lastSegment.decode(lastRecord) : null;
+    }
+
+    /**
+     * Get the index of the last segment starting at or before the given time, or -1.
+     */
+    private int segmentFor(long timestampMillis) {
+        int lo = 0;
+        int hi = segmentStarts.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (segmentStarts[mid] <= timestampMillis) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private OpenSegment open(int index) {
+        Path file = segmentFiles.get(index);
+        OpenSegment open = openSegments.get(file);
+        if (open == null) {
+            try {
+                open = new OpenSegment(RecordingSegment.open(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            openSegments.put(file, open);
+        }
+        return open;
+    }
+
+    /**
+     * An opened segment with the positions of the snapshot fields in its records.
+     */
+    private static final class OpenSegment {
+
+        private final RecordingSegment segment;
+        private final List<String> names;
+        private final int cpu;
+        private final int[] cores;
+        private final int memoryUsed;
+        private final int memoryTotal;
+        private final int swapUsed;
+        private final int swapTotal;
+        private final int processCount;
+        private final int threadCount;
+        private final List<String> disks = new ArrayList<>();
+        private final List<int[]> diskColumns = new ArrayList<>();
+        private final List<String> nics = new ArrayList<>();
+        private final List<int[]> nicColumns = new ArrayList<>();
+
+        OpenSegment(RecordingSegment segment) {
+            this.segment = segment;
+            this.names = segment.getSeriesNames();
+            cpu = names.indexOf(MetricsHistory.CPU);
+            int coreCount = 0;
+            while (names.contains(MetricsHistory.coreSeries(coreCount))) {
+                coreCount++;
+            }
+            cores = new int[coreCount];
+            for (int i = 0; i < coreCount; i++) {
+                cores[i] = names.indexOf(MetricsHistory.coreSeries(i));
+            }
+            memoryUsed = names.indexOf(MetricsHistory.MEMORY_USED);
+            memoryTotal = names.indexOf(MetricsHistory.MEMORY_TOTAL);
+            swapUsed = names.indexOf(MetricsHistory.SWAP_USED);
+            swapTotal = names.indexOf(MetricsHistory.SWAP_TOTAL);
+            processCount = names.indexOf(MetricsHistory.PROCESS_COUNT);
+            threadCount = names.indexOf(MetricsHistory.THREAD_COUNT);
+            for (String name : names) {
+                String disk = deviceName(name, "disk.", ".read");
+                if (disk != null) {
+                    disks.add(disk);
+                    diskColumns.add(new int[]{names.indexOf(name),
+                        names.indexOf(MetricsHistory.diskWriteSeries(disk))});
+                }
+                String nic = deviceName(name, "net.", ".recv");
+                if (nic != null) {
+                    nics.add(nic);
+                    nicColumns.add(new int[]{names.indexOf(name),
+                        names.indexOf(MetricsHistory.networkSentSeries(nic))});
+                }
+            }
+        }
+
+        private static String deviceName(String series, String prefix, String suffix) {
+            if (series.startsWith(prefix) && series.endsWith(suffix)
+                && series.length() > prefix.length() + suffix.length()) {
+                return series.substring(prefix.length(), series.length() - suffix.length());
+            }
+            return null;
+        }
+
+        void addTo(MetricsHistory target, int record) {
+            long ts = segment.getTimestamp(record);
+            for (int i = 0; i < names.size(); i++) {
+                target.add(names.get(i), ts, segment.getValue(record, i));
+            }
+        }
+
+        SystemSnapshot decode(int record) {
+            double[] coreLoads = new double[cores.length];
+            for (int i = 0; i < cores.length; i++) {
+                coreLoads[i] = value(record, cores[i]);
+            }
+            List<DiskSample> diskSamples = new ArrayList<>(disks.size());
+            for (int i = 0; i < disks.size(); i++) {
+                int[] columns = diskColumns.get(i);
+                if (Double.isNaN(value(record, columns[0]))) {
+                    // The disk was gone at that time
+                    continue;
+                }
+                diskSamples.add(new DiskSample(disks.get(i), 0, 0, 0, 0,
+                    value(record, columns[0]), value(record, columns[1])));
+            }
+            List<NetworkSample> networkSamples = new ArrayList<>(nics.size());
+            for (int i = 0; i < nics.size(); i++) {
+                int[] columns = nicColumns.get(i);
+                if (Double.isNaN(value(record, columns[0]))) {
+                    continue;
+                }
+                networkSamples.add(new NetworkSample(nics.get(i), 0, 0,
+                    value(record, columns[0]), value(record, columns[1])));
+            }
+            long total = (long) value(record, memoryTotal);
+            return new SystemSnapshot(segment.getTimestamp(record), value(record, cpu), coreLoads,
+                total, total - (long) value(record, memoryUsed),
+                (long) value(record, swapTotal), (long) value(record, swapUsed),
+                diskSamples, networkSamples,
+                (int) value(record, processCount), (int) value(record, threadCount));
+        }
+
+        private double value(int record, int column) {
+            return column >= 0 ? segment.getValue(record, column) : 0;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.tlcsdm.insightpc.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Read-only view of one recorded metrics segment.
+ * <p>
+ * A segment is a data file holding a header with the series names followed
+ * by fixed-size records ({@code long} timestamp plus one {@code double} per
+ * series), and a sparse index file holding the timestamp of every
+ * {@value #INDEX_STRIDE}th record. The data file grows in chunks while it is
+ * recorded. Unused space is zero, so the first record with a zero timestamp
+ * marks the end of the data. A series is {@link Double#NaN} in the records
+ * taken while its device was gone.
+ */
+public class RecordingSegment {
+
+    static final int MAGIC = 0x49504352;
+    static final int VERSION = 1;
+    static final int INDEX_STRIDE = 64;
+    static final int INDEX_ENTRY_BYTES = Long.BYTES;
+    static final String DATA_SUFFIX = ".dat";
+    static final String INDEX_SUFFIX = ".idx";
+    private static final String PREFIX = "metrics-";
+
+    private final Path file;
+    private final MappedByteBuffer data;
+    private final List<String> seriesNames;
+    private final int headerBytes;
+    private final int recordBytes;
+    private final long[] indexTimestamps;
+    private final int recordCount;
+
+    private RecordingSegment(Path file, MappedByteBuffer data, List<String> seriesNames, int headerBytes,
+                             long[] indexTimestamps) {
+        this.file = file;
+        this.data = data;
+        this.seriesNames = seriesNames;
+        this.headerBytes = headerBytes;
+        this.recordBytes = recordBytes(seriesNames.size());
+        this.indexTimestamps = verifyIndex(indexTimestamps);
+        this.recordCount = countRecords();
+    }
+
+    /**
+     * Open a segment data file for reading.
+     *
+     * @param file the {@code .dat} file
+     * @return the segment
+     * @throws IOException if the file cannot be read or is not a recording segment
+     */
+    public static RecordingSegment open(Path file) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (data.capacity() < 4 * Integer.BYTES || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a metrics recording segment: " + file);
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IOException("Unsupported recording version " + data.getInt(4) + ": " + file);
+        }
+        int headerBytes = data.getInt(8);
+        int seriesCount = data.getInt(12);
+        List<String> names = new ArrayList<>(seriesCount);
+        int pos = 16;
+        for (int i = 0; i < seriesCount; i++) {
+            int length = Short.toUnsignedInt(data.getShort(pos));
+            byte[] bytes = new byte[length];
+            data.get(pos + Short.BYTES, bytes);
+            names.add(new String(bytes, StandardCharsets.UTF_8));
+            pos += Short.BYTES + length;
+        }
+        return new RecordingSegment(file, data, Collections.unmodifiableList(names), headerBytes,
+            readIndex(indexFileFor(file)));
+    }
+
+    /**
+     * List the segment data files in a recording directory, oldest first.
+     */
+    public static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(DATA_SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    static Path dataFileFor(Path directory, long startMillis) {
+        // Zero padded so that lexical order is chronological order
+        return directory.resolve(String.format("%s%013d%s", PREFIX, startMillis, DATA_SUFFIX));
+    }
+
+    /**
+     * Get the time of the first record of a segment from its file name.
+     */
+    static long startMillisOf(Path dataFile) {
+        String name = dataFile.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - DATA_SUFFIX.length()));
+    }
+
+    static Path indexFileFor(Path dataFile) {
+        String name = dataFile.getFileName().toString();
+        return dataFile.resolveSibling(name.substring(0, name.length() - DATA_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    static int recordBytes(int seriesCount) {
+        return Long.BYTES + seriesCount * Double.BYTES;
+    }
+
+    /**
+     * Encode the header for the given series, padded to a multiple of 8 bytes.
+     */
+    static byte[] encodeHeader(List<String> seriesNames) {
+        List<byte[]> encoded = seriesNames.stream().map(n -> n.getBytes(StandardCharsets.UTF_8)).toList();
+        int length = 16 + encoded.stream().mapToInt(b -> Short.BYTES + b.length).sum();
+        int padded = (length + 7) & ~7;
+        ByteBuffer header = ByteBuffer.allocate(padded);
+        header.putInt(MAGIC).putInt(VERSION).putInt(padded).putInt(seriesNames.size());
+        for (byte[] bytes : encoded) {
+            header.putShort((short) bytes.length).put(bytes);
+        }
+        return header.array();
+    }
+
+    private static long[] readIndex(Path indexFile) throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return new long[0];
+        }
+        ByteBuffer index;
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int entries = index.capacity() / INDEX_ENTRY_BYTES;
+        int count = 0;
+        while (count < entries && index.getLong(count * INDEX_ENTRY_BYTES) != 0) {
+            count++;
+        }
+        long[] timestamps = new long[count];
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = index.getLong(i * INDEX_ENTRY_BYTES);
+        }
+        return timestamps;
+    }
+
+    /**
+     * Drop the index entries whose record did not reach the data file. The
+     * two files are mapped separately, so after a crash the index may have
+     * been written back further than the data.
+     */
+    private long[] verifyIndex(long[] index) {
+        int capacity = capacity();
+        int trusted = index.length;
+        while (trusted > 0) {
+            int record = (trusted - 1) * INDEX_STRIDE;
+            if (record < capacity && timestampAt(record) == index[trusted - 1]) {
+                break;
+            }
+            trusted--;
+        }
+        return trusted == index.length ? index : Arrays.copyOf(index, trusted);
+    }
+
+    private int countRecords() {
+        int capacity = capacity();
+        // Every record up to the last verified index entry exists, so only the tail after it is scanned
+        int count = Math.max(0, (indexTimestamps.length - 1) * INDEX_STRIDE);
+        while (count < capacity && timestampAt(count) != 0) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Get the data file of this segment.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the recorded series names; the position is the series index.
+     */
+    public List<String> getSeriesNames() {
+        return seriesNames;
+    }
+
+    /**
+     * Get the number of records in the segment.
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Get the timestamp of a record in epoch milliseconds.
+     */
+    public long getTimestamp(int record) {
+        return timestampAt(record);
+    }
+
+    /**
+     * Get one value of a record.
+     */
+    public double getValue(int record, int series) {
+        return data.getDouble(headerBytes + record * recordBytes + Long.BYTES + series * Double.BYTES);
+    }
+
+    /**
+     * Find the first record taken at or after the given time using the sparse index.
+     *
+     * @param timestampMillis the time in epoch milliseconds
+     * @return the record number, or {@link #getRecordCount()} if every record is older
+     */
+    public int findRecord(long timestampMillis) {
+        // Last index entry at or before the target, then a scan of at most one stride
+        int lo = 0;
+        int hi = indexTimestamps.length - 1;
+        int block = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (indexTimestamps[mid] <= timestampMillis) {
+                block = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        int record = Math.min(block * INDEX_STRIDE, recordCount);
+        while (record < recordCount && timestampAt(record) < timestampMillis) {
+            record++;
+        }
+        return record;
+    }
+
+    private int capacity() {
+        return (data.capacity() - headerBytes) / recordBytes;
+    }
+
+    private long timestampAt(int record) {
+        return data.getLong(headerBytes + record * recordBytes);
+    }
+}
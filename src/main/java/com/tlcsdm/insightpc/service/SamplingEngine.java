@@ -0,0 +1,399 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.DiskSample;
+import com.tlcsdm.insightpc.model.NetworkSample;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import oshi.hardware.CentralProcessor;
+import oshi.hardware.GlobalMemory;
+import oshi.hardware.HWDiskStore;
+import oshi.hardware.NetworkIF;
+import oshi.hardware.VirtualMemory;
+import oshi.software.os.OperatingSystem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Central sampling engine that probes OSHI once per cycle and publishes an
+ * immutable {@link SystemSnapshot} to all subscribers.
+ * <p>
+ * The engine enumerates its own disks and network interfaces, apart from
+ * the memoized lists the views read, every {@link #DEVICE_ENUMERATION_NANOS}
+ * to pick up hot-plugged devices, and refreshes them in place with
+ * {@code updateAttributes()} every cycle. A network interface without any
+ * traffic for {@link #NIC_IDLE_AFTER_SAMPLES} samples is only refreshed every
+ * {@link #NIC_IDLE_REFRESH_CYCLES} cycles and keeps its previous sample in
+ * between. Rates are computed over the {@link System#nanoTime()} elapsed
+ * between two refreshes of the counters, taken right after each refresh, so
+ * clock adjustments do not distort them. Listeners are invoked on the
+ * sampling thread.
+ * <p>
+ * Every published snapshot is recorded in the {@link MetricsHistory}, unless
+ * the engine was created without history, as the headless collector does.
+ * While nobody is subscribed the engine drops to the idle interval and only
+ * keeps the history up to date, so views can backfill when they become
+ * visible again.
+ */
+public class SamplingEngine implements MetricsSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SamplingEngine.class);
+
+    public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+    public static final long DEFAULT_IDLE_INTERVAL_MILLIS = 10_000;
+
+    /**
+     * Number of consecutive samples without traffic after which a network interface is refreshed less often.
+     */
+    static final int NIC_IDLE_AFTER_SAMPLES = 5;
+
+    /**
+     * An idle network interface is refreshed once per this many cycles.
+     */
+    static final int NIC_IDLE_REFRESH_CYCLES = 10;
+
+    /**
+     * Disks and network interfaces are enumerated anew once per this many nanoseconds.
+     */
+    static final long DEVICE_ENUMERATION_NANOS = CachedProbe.Freshness.SLOW.getTtl().toNanos();
+
+    private final SystemInfoService systemInfoService;
+    private final ScheduledExecutorService scheduler;
+    private final long intervalMillis;
+    private final long idleIntervalMillis;
+    private final List<Consumer<SystemSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    // Stays empty without history recording, so readers need no special case
+    private final MetricsHistory history = new MetricsHistory();
+    private final boolean recordHistory;
+    private final Object sampleLock = new Object();
+
+    private volatile SystemSnapshot latest;
+    private SystemSnapshot lastCollected;
+    private ScheduledFuture<?> future;
+    private boolean running;
+    private boolean idle;
+
+    private long[] prevTicks;
+    private long[][] prevCoreTicks;
+    private List<HWDiskStore> disks;
+    private List<NetworkIF> networkIFs;
+    private long enumeratedNanos;
+    private long disksUpdatedNanos;
+    // Per interface name: when its counters were last read and for how many samples it had no traffic
+    private final Map<String, NicState> nicStates = new HashMap<>();
+    private long cycle;
+
+    public SamplingEngine(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
+        this(systemInfoService, scheduler, DEFAULT_INTERVAL_MILLIS, DEFAULT_IDLE_INTERVAL_MILLIS);
+    }
+
+    public SamplingEngine(SystemInfoService systemInfoService, ScheduledExecutorService scheduler,
+                          long intervalMillis, long idleIntervalMillis) {
+        this(systemInfoService, scheduler, intervalMillis, idleIntervalMillis, true);
+    }
+
+    /**
+     * @param recordHistory whether to record the snapshots in the {@link #getHistory() history};
+     *                      without it the history stays empty and costs no memory
+     */
+    public SamplingEngine(SystemInfoService systemInfoService, ScheduledExecutorService scheduler,
+                          long intervalMillis, long idleIntervalMillis, boolean recordHistory) {
+        if (intervalMillis <= 0 || idleIntervalMillis <= 0) {
+            throw new IllegalArgumentException("intervals must be positive");
+        }
+        this.systemInfoService = systemInfoService;
+        this.scheduler = scheduler;
+        this.intervalMillis = intervalMillis;
+        this.idleIntervalMillis = Math.max(intervalMillis, idleIntervalMillis);
+        this.recordHistory = recordHistory;
+    }
+
+    /**
+     * Start periodic sampling. Has no effect if already started.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        idle = listeners.isEmpty();
+        schedule(0);
+    }
+
+    /**
+     * Stop periodic sampling.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    /**
+     * Register a listener that receives every published snapshot on the sampling thread.
+     * If a snapshot is already available it is delivered immediately.
+     */
+    @Override
+    public void addListener(Consumer<SystemSnapshot> listener) {
+        listeners.add(listener);
+        SystemSnapshot current = latest;
+        if (current != null) {
+            listener.accept(current);
+        }
+        updateIdleState();
+    }
+
+    /**
+     * Unregister a listener.
+     */
+    @Override
+    public void removeListener(Consumer<SystemSnapshot> listener) {
+        listeners.remove(listener);
+        updateIdleState();
+    }
+
+    /**
+     * Get the history of all published snapshots, empty if the engine records no history.
+     */
+    @Override
+    public MetricsHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Check whether the engine is currently running at the idle interval.
+     */
+    public synchronized boolean isIdle() {
+        return idle;
+    }
+
+    private synchronized void updateIdleState() {
+        boolean shouldIdle = listeners.isEmpty();
+        if (shouldIdle == idle) {
+            return;
+        }
+        idle = shouldIdle;
+        if (running) {
+            // Sample right away when a view becomes visible so it does not wait a full idle period
+            schedule(idle ? idleIntervalMillis : 0);
+        }
+    }
+
+    private void schedule(long initialDelayMillis) {
+        if (future != null) {
+            future.cancel(false);
+        }
+        long period = idle ? idleIntervalMillis : intervalMillis;
+        future = scheduler.scheduleAtFixedRate(this::sampleSafely, initialDelayMillis, period,
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the most recently published snapshot, or {@code null} if none yet.
+     */
+    @Override
+    public SystemSnapshot getLatest() {
+        return latest;
+    }
+
+    /**
+     * Get the sampling interval in milliseconds.
+     */
+    @Override
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    private void sampleSafely() {
+        try {
+            synchronized (sampleLock) {
+                if (lastCollected == null) {
+                    // First cycle only establishes the tick and counter baseline
+                    collect();
+                } else {
+                    publish(collect());
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Sampling cycle failed", e);
+        }
+    }
+
+    /**
+     * Take one snapshot, publish it to all listeners and return it.
+     * Loads and rates are computed against the previously collected snapshot
+     * and are zero on the very first call.
+     */
+    public SystemSnapshot sample() {
+        synchronized (sampleLock) {
+            return publish(collect());
+        }
+    }
+
+    private SystemSnapshot publish(SystemSnapshot snapshot) {
+        latest = snapshot;
+        if (recordHistory) {
+            history.record(snapshot);
+        }
+        for (Consumer<SystemSnapshot> listener : listeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (RuntimeException e) {
+                LOG.warn("Snapshot listener failed", e);
+            }
+        }
+        return snapshot;
+    }
+
+    private SystemSnapshot collect() {
+        SystemSnapshot previous = lastCollected;
+        // Only stamps the snapshot; rates are measured with nanoTime
+        long now = System.currentTimeMillis();
+
+        CentralProcessor cpu = systemInfoService.getProcessor();
+        double cpuLoad = 0;
+        double[] coreLoads;
+        if (prevTicks == null) {
+            coreLoads = new double[cpu.getLogicalProcessorCount()];
+        } else {
+            cpuLoad = cpu.getSystemCpuLoadBetweenTicks(prevTicks);
+            coreLoads = cpu.getProcessorCpuLoadBetweenTicks(prevCoreTicks);
+        }
+        prevTicks = cpu.getSystemCpuLoadTicks();
+        prevCoreTicks = cpu.getProcessorCpuLoadTicks();
+
+        GlobalMemory memory = systemInfoService.getMemory();
+        VirtualMemory vm = memory.getVirtualMemory();
+
+        boolean enumerated = disks == null || System.nanoTime() - enumeratedNanos >= DEVICE_ENUMERATION_NANOS;
+        if (enumerated) {
+            disks = systemInfoService.enumerateDiskStores();
+            networkIFs = systemInfoService.enumerateNetworkInterfaces();
+            enumeratedNanos = System.nanoTime();
+        }
+        cycle++;
+
+        disks.forEach(HWDiskStore::updateAttributes);
+        long diskNanos = System.nanoTime();
+        double diskSeconds = previous != null ? (diskNanos - disksUpdatedNanos) / 1e9 : 0;
+        disksUpdatedNanos = diskNanos;
+        List<DiskSample> diskSamples = sampleDisks(previous, diskSeconds);
+        List<NetworkSample> networkSamples = sampleNetworks(previous, enumerated);
+
+        OperatingSystem os = systemInfoService.getOperatingSystem();
+        SystemSnapshot snapshot = new SystemSnapshot(now, cpuLoad, coreLoads,
+            memory.getTotal(), memory.getAvailable(),
+            vm.getSwapTotal(), vm.getSwapUsed(),
+            diskSamples, networkSamples,
+            os.getProcessCount(), os.getThreadCount());
+        lastCollected = snapshot;
+        return snapshot;
+    }
+
+    private List<DiskSample> sampleDisks(SystemSnapshot previous, double elapsedSeconds) {
+        Map<String, DiskSample> prev = new HashMap<>();
+        if (previous != null) {
+            previous.disks().forEach(d -> prev.put(d.name(), d));
+        }
+        List<DiskSample> samples = new ArrayList<>(disks.size());
+        for (HWDiskStore disk : disks) {
+            DiskSample old = prev.get(disk.getName());
+            long readBytes = disk.getReadBytes();
+            long writeBytes = disk.getWriteBytes();
+            samples.add(new DiskSample(disk.getName(), disk.getReads(), disk.getWrites(),
+                readBytes, writeBytes,
+                old != null ? rate(readBytes - old.readBytes(), elapsedSeconds) : 0,
+                old != null ? rate(writeBytes - old.writeBytes(), elapsedSeconds) : 0));
+        }
+        return samples;
+    }
+
+    private List<NetworkSample> sampleNetworks(SystemSnapshot previous, boolean enumerated) {
+        Map<String, NetworkSample> prev = new HashMap<>();
+        if (previous != null) {
+            previous.networks().forEach(n -> prev.put(n.name(), n));
+        }
+        if (enumerated) {
+            // Forget interfaces that are gone
+            Set<String> names = new HashSet<>();
+            networkIFs.forEach(net -> names.add(net.getName()));
+            nicStates.keySet().retainAll(names);
+        }
+        List<NetworkSample> samples = new ArrayList<>(networkIFs.size());
+        for (NetworkIF net : networkIFs) {
+            NetworkSample old = prev.get(net.getName());
+            NicState state = nicStates.computeIfAbsent(net.getName(), name -> new NicState());
+            if (old != null && !enumerated && state.idleSamples >= NIC_IDLE_AFTER_SAMPLES
+                && cycle % NIC_IDLE_REFRESH_CYCLES != 0) {
+                // Idle: the previous sample still holds, with all rates zero
+                samples.add(old);
+                continue;
+            }
+            net.updateAttributes();
+            long updatedNanos = System.nanoTime();
+            double elapsedSeconds = old != null ? (updatedNanos - state.updatedNanos) / 1e9 : 0;
+            state.updatedNanos = updatedNanos;
+            NetworkSample sample = sampleNetwork(net, old, elapsedSeconds);
+            state.idleSamples = sample.hasActivity() ? 0 : state.idleSamples + 1;
+            samples.add(sample);
+        }
+        return samples;
+    }
+
+    private static NetworkSample sampleNetwork(NetworkIF net, NetworkSample old, double elapsedSeconds) {
+        long recv = net.getBytesRecv();
+        long sent = net.getBytesSent();
+        long packetsRecv = net.getPacketsRecv();
+        long packetsSent = net.getPacketsSent();
+        long errors = net.getInErrors() + net.getOutErrors();
+        long drops = net.getInDrops();
+        boolean up = net.getIfOperStatus() == NetworkIF.IfOperStatus.UP;
+        boolean virtual = isVirtual(net);
+        if (old == null) {
+            return new NetworkSample(net.getName(), recv, sent, 0, 0,
+                packetsRecv, packetsSent, errors, drops, 0, 0, 0, 0, up, virtual);
+        }
+        return new NetworkSample(net.getName(), recv, sent,
+            rate(recv - old.bytesRecv(), elapsedSeconds), rate(sent - old.bytesSent(), elapsedSeconds),
+            packetsRecv, packetsSent, errors, drops,
+            rate(packetsRecv - old.packetsRecv(), elapsedSeconds),
+            rate(packetsSent - old.packetsSent(), elapsedSeconds),
+            rate(errors - old.errors(), elapsedSeconds), rate(drops - old.drops(), elapsedSeconds),
+            up, virtual);
+    }
+
+    private static boolean isVirtual(NetworkIF net) {
+        // Loopback as IANA ifType (Windows, macOS) or as Linux ARPHRD type
+        int type = net.getIfType();
+        return type == 24 || type == 772 || !net.isConnectorPresent() || net.isKnownVmMacAddr();
+    }
+
+    private static double rate(long delta, double elapsedSeconds) {
+        // Counters may wrap or reset when a device is re-enumerated
+        if (delta < 0 || elapsedSeconds <= 0) {
+            return 0;
+        }
+        return delta / elapsedSeconds;
+    }
+
+    /**
+     * Refresh bookkeeping of one network interface.
+     */
+    private static final class NicState {
+
+        long updatedNanos;
+        int idleSamples;
+    }
+}
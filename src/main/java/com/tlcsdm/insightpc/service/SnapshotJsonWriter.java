@@ -0,0 +1,59 @@
+package com.tlcsdm.insightpc.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot listener that writes every snapshot as one line of JSON.
+ * <p>
+ * The field names are the {@link SystemSnapshot} record components. Each line
+ * is flushed immediately so the output can be piped into other tools.
+ */
+public class SnapshotJsonWriter implements Consumer<SystemSnapshot> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotJsonWriter.class);
+    private static final Gson GSON = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+
+    private final Writer out;
+    private final Runnable onFailure;
+    private boolean failed;
+
+    public SnapshotJsonWriter(Writer out) {
+        this(out, () -> {
+        });
+    }
+
+    /**
+     * @param out       the output, flushed after every line
+     * @param onFailure called once when writing fails, after which nothing more is written
+     */
+    public SnapshotJsonWriter(Writer out, Runnable onFailure) {
+        this.out = out;
+        this.onFailure = onFailure;
+    }
+
+    @Override
+    public synchronized void accept(SystemSnapshot snapshot) {
+        if (failed) {
+            return;
+        }
+        try {
+            GSON.toJson(snapshot, out);
+            out.write('\n');
+            out.flush();
+        } catch (IOException | JsonIOException e) {
+            // The reader went away (e.g. a closed pipe); stop writing instead of logging every cycle
+            failed = true;
+            LOG.warn("Could not write snapshot, output stopped: {}", e.getMessage());
+            onFailure.run();
+        }
+    }
+}
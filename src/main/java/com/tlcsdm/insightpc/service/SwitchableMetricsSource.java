@@ -0,0 +1,69 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Metrics source that forwards to a replaceable delegate, so views can switch
+ * between the live sampling engine and a recording without re-subscribing.
+ * Registered listeners move to the new delegate and receive its latest snapshot.
+ */
+public class SwitchableMetricsSource implements MetricsSource {
+
+    private final List<Consumer<SystemSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private volatile MetricsSource delegate;
+
+    public SwitchableMetricsSource(MetricsSource delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Get the current delegate.
+     */
+    public MetricsSource getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Replace the delegate and move all listeners to it.
+     */
+    public synchronized void setDelegate(MetricsSource newDelegate) {
+        MetricsSource old = delegate;
+        if (old == newDelegate) {
+            return;
+        }
+        listeners.forEach(old::removeListener);
+        delegate = newDelegate;
+        listeners.forEach(newDelegate::addListener);
+    }
+
+    @Override
+    public synchronized void addListener(Consumer<SystemSnapshot> listener) {
+        listeners.add(listener);
+        delegate.addListener(listener);
+    }
+
+    @Override
+    public synchronized void removeListener(Consumer<SystemSnapshot> listener) {
+        listeners.remove(listener);
+        delegate.removeListener(listener);
+    }
+
+    @Override
+    public SystemSnapshot getLatest() {
+        return delegate.getLatest();
+    }
+
+    @Override
+    public MetricsHistory getHistory() {
+        return delegate.getHistory();
+    }
+
+    @Override
+    public long getIntervalMillis() {
+        return delegate.getIntervalMillis();
+    }
+}
@@ -2,6 +2,7 @@ package com.tlcsdm.insightpc.service;
 
 import oshi.SystemInfo;
 import oshi.hardware.*;
+import oshi.software.os.OSFileStore;
 import oshi.software.os.OperatingSystem;
 
 import java.util.List;
@@ -9,17 +10,67 @@ import java.util.List;
 /**
  * Service class that wraps OSHI SystemInfo to provide system hardware
  * and operating system information.
+ * <p>
+ * Device list getters are memoized with a {@link CachedProbe.Freshness} policy
+ * so that tabs and services asking for the same list share one probe.
  */
 public class SystemInfoService {
 
     private final SystemInfo systemInfo;
     private final HardwareAbstractionLayer hardware;
     private final OperatingSystem operatingSystem;
+    private final CachedProbe<List<HWDiskStore>> diskStores;
+    private final CachedProbe<List<OSFileStore>> fileStores;
+    private final CachedProbe<List<NetworkIF>> networkInterfaces;
+    private final CachedProbe<List<PowerSource>> powerSources;
+    private final CachedProbe<List<UsbDevice>> usbDevices;
+    private final CachedProbe<List<Display>> displays;
+    private final CachedProbe<List<GraphicsCard>> graphicsCards;
+    private final CachedProbe<List<SoundCard>> soundCards;
+    private final CachedProbe<Integer> processCount;
+    private final CachedProbe<Integer> threadCount;
+    private final List<CachedProbe<?>> probes;
+    private InventoryCache inventoryCache;
 
     public SystemInfoService() {
         this.systemInfo = new SystemInfo();
         this.hardware = systemInfo.getHardware();
         this.operatingSystem = systemInfo.getOperatingSystem();
+        this.diskStores = new CachedProbe<>("diskStores", CachedProbe.Freshness.SLOW, hardware::getDiskStores);
+        this.fileStores = new CachedProbe<>("fileStores", CachedProbe.Freshness.SLOW,
+            () -> operatingSystem.getFileSystem().getFileStores());
+        this.networkInterfaces = new CachedProbe<>("networkInterfaces", CachedProbe.Freshness.SLOW,
+            hardware::getNetworkIFs);
+        this.powerSources = new CachedProbe<>("powerSources", CachedProbe.Freshness.SLOW, hardware::getPowerSources);
+        this.usbDevices = new CachedProbe<>("usbDevices", CachedProbe.Freshness.SLOW,
+            () -> hardware.getUsbDevices(true));
+        this.displays = new CachedProbe<>("displays", CachedProbe.Freshness.STATIC, hardware::getDisplays);
+        this.graphicsCards = new CachedProbe<>("graphicsCards", CachedProbe.Freshness.STATIC,
+            hardware::getGraphicsCards);
+        this.soundCards = new CachedProbe<>("soundCards", CachedProbe.Freshness.STATIC, hardware::getSoundCards);
+        this.processCount = new CachedProbe<>("processCount", CachedProbe.Freshness.LIVE,
+            operatingSystem::getProcessCount);
+        this.threadCount = new CachedProbe<>("threadCount", CachedProbe.Freshness.LIVE,
+            operatingSystem::getThreadCount);
+        this.probes = List.of(diskStores, fileStores, networkInterfaces, powerSources, usbDevices,
+            displays, graphicsCards, soundCards, processCount, threadCount);
+    }
+
+    /**
+     * Get the memoized probes, for example to report their hit and miss counters.
+     */
+    public List<CachedProbe<?>> getCachedProbes() {
+        return probes;
+    }
+
+    /**
+     * Get the persistent hardware inventory cache.
+     */
+    public synchronized InventoryCache getInventoryCache() {
+        if (inventoryCache == null) {
+            inventoryCache = new InventoryCache(this, InventoryCache.getDefaultPath());
+        }
+        return inventoryCache;
     }
 
     /**
@@ -51,16 +102,41 @@ public class SystemInfoService {
     }
 
     /**
-     * Get the list of disk stores (physical disks).
+     * Get the list of disk stores (physical disks). The list and its disks are
+     * shared with every other caller, so they must not be refreshed in place.
      */
     public List<HWDiskStore> getDiskStores() {
+        return diskStores.get();
+    }
+
+    /**
+     * Enumerate the disk stores anew, bypassing the memoized list. The disks
+     * belong to the caller alone, which may refresh them in place.
+     */
+    public List<HWDiskStore> enumerateDiskStores() {
         return hardware.getDiskStores();
     }
 
     /**
-     * Get the list of network interfaces.
+     * Get the list of mounted file stores.
+     */
+    public List<OSFileStore> getFileStores() {
+        return fileStores.get();
+    }
+
+    /**
+     * Get the list of network interfaces. The list and its interfaces are
+     * shared with every other caller, so they must not be refreshed in place.
      */
     public List<NetworkIF> getNetworkInterfaces() {
+        return networkInterfaces.get();
+    }
+
+    /**
+     * Enumerate the network interfaces anew, bypassing the memoized list. The
+     * interfaces belong to the caller alone, which may refresh them in place.
+     */
+    public List<NetworkIF> enumerateNetworkInterfaces() {
         return hardware.getNetworkIFs();
     }
 
@@ -68,14 +144,14 @@ public class SystemInfoService {
      * Get the list of power sources (batteries).
      */
     public List<PowerSource> getPowerSources() {
-        return hardware.getPowerSources();
+        return powerSources.get();
     }
 
     /**
      * Get the list of USB devices.
      */
     public List<UsbDevice> getUsbDevices() {
-        return hardware.getUsbDevices(true);
+        return usbDevices.get();
     }
 
     /**
@@ -96,21 +172,21 @@ public class SystemInfoService {
      * Get the list of displays.
      */
     public List<Display> getDisplays() {
-        return hardware.getDisplays();
+        return displays.get();
     }
 
     /**
      * Get the list of graphics cards.
      */
     public List<GraphicsCard> getGraphicsCards() {
-        return hardware.getGraphicsCards();
+        return graphicsCards.get();
     }
 
     /**
      * Get the list of sound cards.
      */
     public List<SoundCard> getSoundCards() {
-        return hardware.getSoundCards();
+        return soundCards.get();
     }
 
     /**
@@ -145,14 +221,14 @@ public class SystemInfoService {
      * Get the number of running processes.
      */
     public int getProcessCount() {
-        return operatingSystem.getProcessCount();
+        return processCount.get();
     }
 
     /**
      * Get the number of running threads.
      */
     public int getThreadCount() {
-        return operatingSystem.getThreadCount();
+        return threadCount.get();
     }
 
     /**
@@ -178,6 +254,16 @@ public class SystemInfoService {
         return String.format("%.1f %s", value, units[unitIndex]);
     }
 
+    /**
+     * Format a transfer rate to a human-readable string.
+     *
+     * @param bytesPerSecond the rate in bytes per second
+     * @return human-readable string (e.g., "1.5 MB/s")
+     */
+    public static String formatRate(double bytesPerSecond) {
+        return formatBytes((long) bytesPerSecond) + "/s";
+    }
+
     /**
      * Format uptime seconds to a human-readable string.
      *
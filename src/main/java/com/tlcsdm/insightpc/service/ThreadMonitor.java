@@ -0,0 +1,180 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.ThreadSample;
+import com.tlcsdm.insightpc.model.ThreadSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OSThread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Fetches the threads of one process in the background and publishes them as
+ * an immutable {@link ThreadSnapshot}.
+ * <p>
+ * Reading the threads of a process is only worth it while someone looks at
+ * them, so the monitor watches a single process and only while started. It
+ * refreshes on the scheduler at a fixed delay and invokes the listeners on
+ * the scheduler thread. The CPU load and the context switch rate of a thread
+ * are measured since the previous fetch, from the {@link OSThread} with the
+ * same thread ID; only the threads of the last fetch are kept, and watching
+ * another process starts over.
+ */
+public class ThreadMonitor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThreadMonitor.class);
+
+    private final SystemInfoService systemInfoService;
+    private final ScheduledExecutorService scheduler;
+    private final List<Consumer<ThreadSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private final Object fetchLock = new Object();
+    // Guarded by fetchLock: the process whose threads are kept, and its threads of the previous fetch by ID
+    private int fetchedPid = -1;
+    private long fetchedStartTime;
+    private long previousNanos;
+    private LongObjectMap<OSThread> previousById = new LongObjectMap<>();
+    private LongObjectMap<OSThread> currentById = new LongObjectMap<>();
+
+    private volatile int pid = -1;
+    private long intervalMillis;
+    private ScheduledFuture<?> future;
+
+    public ThreadMonitor(SystemInfoService systemInfoService, ScheduledExecutorService scheduler) {
+        this.systemInfoService = systemInfoService;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Start refreshing the threads of a process. The first fetch runs right
+     * away. Has no effect if that process is already watched at the same
+     * interval; another process replaces the watched one.
+     *
+     * @param pid            the process ID
+     * @param intervalMillis the refresh interval in milliseconds
+     */
+    public synchronized void start(int pid, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("interval must be positive: " + intervalMillis);
+        }
+        if (future != null && this.pid == pid && this.intervalMillis == intervalMillis) {
+            return;
+        }
+        stop();
+        this.pid = pid;
+        this.intervalMillis = intervalMillis;
+        // Fixed delay: a slow read never queues up fetches
+        future = scheduler.scheduleWithFixedDelay(this::refreshSafely, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop refreshing. A fetch that is already running still publishes its result.
+     */
+    public synchronized void stop() {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    /**
+     * Check whether the monitor is refreshing periodically.
+     */
+    public synchronized boolean isRunning() {
+        return future != null;
+    }
+
+    /**
+     * Get the watched process ID, or -1 if none was started yet.
+     */
+    public int getPid() {
+        return pid;
+    }
+
+    /**
+     * Register a listener that receives every published snapshot on the scheduler thread.
+     */
+    public void addListener(Consumer<ThreadSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregister a listener.
+     */
+    public void removeListener(Consumer<ThreadSnapshot> listener) {
+        listeners.remove(listener);
+    }
+
+    private void refreshSafely() {
+        try {
+            ThreadSnapshot snapshot = fetch(pid);
+            for (Consumer<ThreadSnapshot> listener : listeners) {
+                listener.accept(snapshot);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Thread refresh failed", e);
+        }
+    }
+
+    /**
+     * List the threads of a process and measure their CPU load since the previous fetch.
+     */
+    ThreadSnapshot fetch(int pid) {
+        synchronized (fetchLock) {
+            OSProcess process = systemInfoService.getOperatingSystem().getProcess(pid);
+            if (process == null || pid != fetchedPid || process.getStartTime() != fetchedStartTime) {
+                // Another process, or the PID was reused: the old threads say nothing about this one
+                previousById.clear();
+            }
+            fetchedPid = pid;
+            if (process == null) {
+                fetchedStartTime = 0;
+                return new ThreadSnapshot(System.currentTimeMillis(), pid, false, List.of());
+            }
+            fetchedStartTime = process.getStartTime();
+
+            List<OSThread> threads = process.getThreadDetails();
+            // Taken after the slow listing, like the counters, and immune to wall clock changes
+            long nanos = System.nanoTime();
+            double seconds = (nanos - previousNanos) / 1e9;
+            List<ThreadSample> samples = new ArrayList<>(threads.size());
+            for (OSThread t : threads) {
+                OSThread prior = previousById.get(t.getThreadId());
+                if (prior != null && prior.getStartTime() != t.getStartTime()) {
+                    // The thread ID was reused within the process
+                    prior = null;
+                }
+                currentById.put(t.getThreadId(), t);
+                // Without a prior sample this falls back to the load since the thread started
+                double cpuLoad = t.getThreadCpuLoadBetweenTicks(prior);
+                double switchRate = prior == null || seconds <= 0 ? 0
+                    : Math.max(0, t.getContextSwitches() - prior.getContextSwitches()) / seconds;
+                samples.add(new ThreadSample(t.getThreadId(), t.getName(), t.getState().name(), t.getPriority(),
+                    cpuLoad, t.getContextSwitches(), switchRate, t.getKernelTime(), t.getUserTime(),
+                    t.getStartTime()));
+            }
+            // Swap: finished threads are dropped with the old map, which is reused for the next fetch
+            LongObjectMap<OSThread> finished = previousById;
+            previousById = currentById;
+            currentById = finished;
+            currentById.clear();
+            previousNanos = nanos;
+            return new ThreadSnapshot(System.currentTimeMillis(), pid, true, samples);
+        }
+    }
+
+    /**
+     * Get the number of threads kept from the previous fetch.
+     */
+    int getTrackedCount() {
+        synchronized (fetchLock) {
+            return previousById.size();
+        }
+    }
+}
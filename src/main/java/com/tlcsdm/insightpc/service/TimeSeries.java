@@ -0,0 +1,201 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+
+/**
+ * History of a single metric kept in primitive {@code double} ring buffers at
+ * several resolutions.
+ * <p>
+ * Each tier stores one value per time bucket, so timestamps are implicit in the
+ * slot position and never stored. Every sample updates the running average of
+ * its bucket in all tiers, which rolls the 1s values up into the coarser tiers
+ * without a separate compaction pass. Buckets without samples hold
+ * {@link Double#NaN}. All {@link Layout layouts} but the recent one cover
+ * 24 hours.
+ */
+public class TimeSeries {
+
+    /**
+     * Resolutions and capacities of the tiers of a series.
+     */
+    public enum Layout {
+        /**
+         * 1 hour at 1s, 6 hours at 10s, 24 hours at 1m and 10m: about 57 KB.
+         */
+        FULL(new long[]{1_000, 10_000, 60_000, 600_000}, new int[]{3_600, 2_160, 1_440, 144}),
+        /**
+         * 10 minutes at 1s, enough for the live charts, then 24 hours at 1m
+         * and 10m: about 17 KB. For the many series of cores and devices.
+         */
+        COMPACT(new long[]{1_000, 60_000, 600_000}, new int[]{600, 1_440, 144}),
+        /**
+         * Only the last 10 minutes at 1s: about 5 KB. Does not cover 24 hours.
+         */
+        RECENT(new long[]{1_000}, new int[]{600});
+
+        private final long[] resolutions;
+        private final int[] capacities;
+
+        Layout(long[] resolutions, int[] capacities) {
+            this.resolutions = resolutions;
+            this.capacities = capacities;
+        }
+
+        /**
+         * Get the size of the value buffers in bytes.
+         */
+        public long getBytes() {
+            long values = 0;
+            for (int capacity : capacities) {
+                values += capacity;
+            }
+            return values * Double.BYTES;
+        }
+    }
+
+    /**
+     * Bucket width of the finest tier of every layout in milliseconds.
+     */
+    static final long FINEST_RESOLUTION_MILLIS = 1_000;
+
+    /**
+     * Time covered by the coarsest tier of a 24 hour layout; older values are gone from every tier.
+     */
+    static final long SPAN_MILLIS = 600_000L * 144;
+
+    private final Tier[] tiers;
+
+    public TimeSeries() {
+        this(Layout.FULL);
+    }
+
+    public TimeSeries(Layout layout) {
+        tiers = new Tier[layout.resolutions.length];
+        for (int i = 0; i < tiers.length; i++) {
+            tiers[i] = new Tier(layout.resolutions[i], layout.capacities[i]);
+        }
+    }
+
+    /**
+     * Add a sample. Samples older than the current bucket of a tier are ignored by that tier.
+     *
+     * @param timestampMillis sample time in epoch milliseconds
+     * @param value           the sample value
+     */
+    public synchronized void add(long timestampMillis, double value) {
+        for (Tier tier : tiers) {
+            tier.add(timestampMillis, value);
+        }
+    }
+
+    /**
+     * Read the values between two timestamps from the finest tier that has not
+     * dropped data after the start of the window and yields at most
+     * {@code maxPoints} values. If no tier qualifies, the coarsest tier is used.
+     *
+     * @param fromMillis start of the window in epoch milliseconds, inclusive
+     * @param toMillis   end of the window in epoch milliseconds, inclusive
+     * @param maxPoints  maximum number of values wanted
+     * @return the window, possibly empty
+     */
+    public synchronized TimeSeriesWindow read(long fromMillis, long toMillis, int maxPoints) {
+        Tier chosen = tiers[tiers.length - 1];
+        for (Tier tier : tiers) {
+            long points = (toMillis - fromMillis) / tier.resolution + 1;
+            if (points <= maxPoints && tier.covers(fromMillis)) {
+                chosen = tier;
+                break;
+            }
+        }
+        return chosen.read(fromMillis, toMillis);
+    }
+
+    /**
+     * Get the most recent value, or {@link Double#NaN} if nothing was recorded.
+     */
+    public synchronized double getLatest() {
+        return tiers[0].latest();
+    }
+
+    /**
+     * One resolution of the series: a ring of bucket averages plus the
+     * accumulator of the newest bucket.
+     */
+    private static final class Tier {
+
+        private final long resolution;
+        private final double[] values;
+        private long headSlot;
+        private int size;
+        private double bucketSum;
+        private int bucketCount;
+
+        Tier(long resolution, int capacity) {
+            this.resolution = resolution;
+            this.values = new double[capacity];
+        }
+
+        void add(long timestampMillis, double value) {
+            long slot = Math.floorDiv(timestampMillis, resolution);
+            if (size > 0 && slot < headSlot) {
+                return;
+            }
+            if (size == 0 || slot > headSlot) {
+                advanceTo(slot);
+                bucketSum = 0;
+                bucketCount = 0;
+            }
+            bucketSum += value;
+            bucketCount++;
+            values[index(slot)] = bucketSum / bucketCount;
+        }
+
+        private void advanceTo(long slot) {
+            if (size == 0) {
+                size = 1;
+            } else {
+                // Mark skipped buckets as missing; a gap longer than the ring clears it entirely
+                long skipped = Math.min(slot - headSlot - 1, values.length);
+                for (long s = slot - skipped; s < slot; s++) {
+                    values[index(s)] = Double.NaN;
+                }
+                size = (int) Math.min(values.length, size + (slot - headSlot));
+            }
+            headSlot = slot;
+        }
+
+        boolean covers(long timestampMillis) {
+            // A ring that has not wrapped yet still holds everything that was recorded
+            return size < values.length || Math.floorDiv(timestampMillis, resolution) >= oldestSlot();
+        }
+
+        TimeSeriesWindow read(long fromMillis, long toMillis) {
+            if (size == 0) {
+                return TimeSeriesWindow.empty(resolution);
+            }
+            long first = Math.max(Math.floorDiv(fromMillis, resolution), oldestSlot());
+            long last = Math.min(Math.floorDiv(toMillis, resolution), headSlot);
+            if (first > last) {
+                return TimeSeriesWindow.empty(resolution);
+            }
+            double[] result = new double[(int) (last - first + 1)];
+            int start = index(first);
+            int firstRun = Math.min(result.length, values.length - start);
+            System.arraycopy(values, start, result, 0, firstRun);
+            System.arraycopy(values, 0, result, firstRun, result.length - firstRun);
+            return new TimeSeriesWindow(first * resolution, resolution, result);
+        }
+
+        double latest() {
+            return size > 0 ? values[index(headSlot)] : Double.NaN;
+        }
+
+        private long oldestSlot() {
+            return headSlot - size + 1;
+        }
+
+        private int index(long slot) {
+            return (int) Math.floorMod(slot, (long) values.length);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.tlcsdm.insightpc.service;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Formats live values for labels that are updated every sampling cycle.
+ * <p>
+ * Unlike {@code String.format} no {@code Formatter} or intermediate strings
+ * are created: values are appended to a reusable buffer and {@link #text()}
+ * returns that buffer, so formatting allocates nothing once the buffer has
+ * grown to size. The text is only valid until the formatter is used again.
+ * <p>
+ * The output matches {@link SystemInfoService#formatBytes(long)} and the
+ * {@code %.Nf} patterns of {@code String.format} for the same locale, down to
+ * the sign of values that round to zero. Those use the default format locale,
+ * as does a formatter created without one, so live labels and static ones
+ * agree. Values are rounded half up. Instances are not thread-safe; views use
+ * one on the FX application thread.
+ */
+public final class ValueFormatter {
+
+    private static final String[] UNITS = {"B", "KB", "MB", "GB", "TB"};
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final StringBuilder buffer = new StringBuilder(64);
+    private final char decimalSeparator;
+
+    /**
+     * Create a formatter for the default format locale, the one {@code String.format} uses.
+     */
+    public ValueFormatter() {
+        this(Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    public ValueFormatter(Locale locale) {
+        this.decimalSeparator = DecimalFormatSymbols.getInstance(locale).getDecimalSeparator();
+    }
+
+    /**
+     * Clear the buffer to start a new text.
+     */
+    public ValueFormatter clear() {
+        buffer.setLength(0);
+        return this;
+    }
+
+    /**
+     * Get the formatted text. The returned buffer is reused by the next call.
+     */
+    public CharSequence text() {
+        return buffer;
+    }
+
+    public ValueFormatter append(CharSequence text) {
+        buffer.append(text);
+        return this;
+    }
+
+    public ValueFormatter append(char c) {
+        buffer.append(c);
+        return this;
+    }
+
+    /**
+     * Append a number with a fixed number of decimals, like {@code %.Nf}.
+     *
+     * @param decimals number of decimals, 0 to 6
+     */
+    public ValueFormatter decimal(double value, int decimals) {
+        if (decimals < 0 || decimals >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("decimals must be between 0 and " + (POWERS_OF_TEN.length - 1));
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            buffer.append(value);
+            return this;
+        }
+        long scale = POWERS_OF_TEN[decimals];
+        double abs = Math.abs(value);
+        if (abs >= (double) Long.MAX_VALUE / scale) {
+            // Too large for the scaled long; never reached by byte counts or percentages
+            buffer.append(value);
+            return this;
+        }
+        long scaled = (long) (abs * scale + 0.5);
+        // Like %f, keeps the sign of negative values that round to zero and of -0.0
+        if (Double.compare(value, 0.0) < 0) {
+            buffer.append('-');
+        }
+        buffer.append(scaled / scale);
+        if (decimals > 0) {
+            buffer.append(decimalSeparator);
+            long fraction = scaled % scale;
+            for (long digit = scale / 10; digit > 0; digit /= 10) {
+                buffer.append((char) ('0' + fraction / digit % 10));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Append a ratio as a percentage, e.g. {@code 0.123} with one decimal as {@code 12.3%}.
+     */
+    public ValueFormatter percent(double ratio, int decimals) {
+        return decimal(ratio * 100, decimals).append('%');
+    }
+
+    /**
+     * Append a byte count the way {@link SystemInfoService#formatBytes(long)} does.
+     */
+    public ValueFormatter bytes(long bytes) {
+        if (bytes < 0) {
+            buffer.append("N/A");
+            return this;
+        }
+        if (bytes < 1024) {
+            buffer.append(bytes).append(" B");
+            return this;
+        }
+        double value = bytes;
+        int unitIndex = 0;
+        while (value >= 1024 && unitIndex < UNITS.length - 1) {
+            value /= 1024;
+            unitIndex++;
+        }
+        decimal(value, 1);
+        buffer.append(' ').append(UNITS[unitIndex]);
+        return this;
+    }
+
+    /**
+     * Append a transfer rate the way {@link SystemInfoService#formatRate(double)} does.
+     */
+    public ValueFormatter rate(double bytesPerSecond) {
+        bytes((long) bytesPerSecond);
+        buffer.append("/s");
+        return this;
+    }
+}
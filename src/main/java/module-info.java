@@ -3,6 +3,7 @@ module com.tlcsdm.insightpc {
     requires javafx.fxml;
     requires javafx.graphics;
     requires java.prefs;
+    requires jdk.httpserver;
 
     requires org.controlsfx.controls;
     requires com.dlsc.preferencesfx;
@@ -27,6 +28,7 @@ module com.tlcsdm.insightpc {
     exports com.tlcsdm.insightpc;
     exports com.tlcsdm.insightpc.config;
     exports com.tlcsdm.insightpc.controller;
+    exports com.tlcsdm.insightpc.controller.chart;
     exports com.tlcsdm.insightpc.controller.tab;
     exports com.tlcsdm.insightpc.model;
     exports com.tlcsdm.insightpc.service;
@@ -0,0 +1,44 @@
+package com.tlcsdm.insightpc;
+
+import com.tlcsdm.insightpc.service.MetricsRecorder;
+import com.tlcsdm.insightpc.service.SamplingEngine;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the HeadlessCollector class.
+ */
+class HeadlessCollectorTest {
+
+    @Test
+    void testDefaults() {
+        HeadlessCollector collector = HeadlessCollector.parse(new String[]{"--headless"});
+        assertEquals(SamplingEngine.DEFAULT_INTERVAL_MILLIS, collector.getIntervalMillis());
+        assertNull(collector.getRecordDirectory(), "JSON lines to stdout by default");
+        assertEquals(-1, collector.getMetricsPort());
+    }
+
+    @Test
+    void testOptions() {
+        HeadlessCollector collector = HeadlessCollector.parse(
+            new String[]{"--headless", "--interval=250", "--record=/tmp/metrics", "--metrics-port=9100"});
+        assertEquals(250, collector.getIntervalMillis());
+        assertEquals(Path.of("/tmp/metrics"), collector.getRecordDirectory());
+        assertEquals(9100, collector.getMetricsPort());
+
+        assertEquals(MetricsRecorder.getDefaultDirectory(),
+            HeadlessCollector.parse(new String[]{"--headless", "--record"}).getRecordDirectory());
+    }
+
+    @Test
+    void testInvalidOptionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> HeadlessCollector.parse(new String[]{"--interval=0"}));
+        assertThrows(IllegalArgumentException.class, () -> HeadlessCollector.parse(new String[]{"--interval=x"}));
+        assertThrows(IllegalArgumentException.class, () -> HeadlessCollector.parse(new String[]{"--verbose"}));
+        assertThrows(IllegalArgumentException.class,
+            () -> HeadlessCollector.parse(new String[]{"--metrics-port=70000"}));
+    }
+}
@@ -0,0 +1,86 @@
+package com.tlcsdm.insightpc.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the UiUpdatePump class.
+ */
+class UiUpdatePumpTest {
+
+    @Test
+    void testAppliesOnlyLatestValue() {
+        AtomicInteger pulses = new AtomicInteger();
+        UiUpdatePump pump = new UiUpdatePump(pulses::incrementAndGet);
+        List<Integer> applied = new ArrayList<>();
+        Consumer<Integer> slot = pump.conflate(applied::add);
+
+        slot.accept(1);
+        slot.accept(2);
+        slot.accept(3);
+        assertEquals(1, pump.getQueueDepth());
+        assertEquals(2, pump.getDroppedCount());
+        assertEquals(1, pulses.get());
+
+        pump.drain();
+        assertEquals(List.of(3), applied);
+        assertEquals(0, pump.getQueueDepth());
+        assertEquals(1, pump.getAppliedCount());
+    }
+
+    @Test
+    void testEverySlotAppliedOncePerPulse() {
+        AtomicInteger pulses = new AtomicInteger();
+        UiUpdatePump pump = new UiUpdatePump(pulses::incrementAndGet);
+        List<String> applied = new ArrayList<>();
+        Consumer<String> first = pump.conflate(applied::add);
+        Consumer<String> second = pump.conflate(applied::add);
+
+        first.accept("a");
+        second.accept("b");
+        assertEquals(2, pump.getQueueDepth());
+        assertEquals(1, pulses.get());
+
+        pump.drain();
+        assertEquals(List.of("a", "b"), applied);
+        pump.drain();
+        assertEquals(2, applied.size());
+    }
+
+    @Test
+    void testPostAfterDrainRequestsAnotherPulse() {
+        AtomicInteger pulses = new AtomicInteger();
+        UiUpdatePump pump = new UiUpdatePump(pulses::incrementAndGet);
+        Consumer<Integer> slot = pump.conflate(value -> {
+        });
+
+        slot.accept(1);
+        pump.drain();
+        slot.accept(2);
+        assertEquals(2, pulses.get());
+        assertEquals(1, pump.getQueueDepth());
+    }
+
+    @Test
+    void testFailingViewDoesNotBlockOthers() {
+        UiUpdatePump pump = new UiUpdatePump(() -> {
+        });
+        List<Integer> applied = new ArrayList<>();
+        Consumer<Integer> failing = pump.conflate(value -> {
+            throw new IllegalStateException("boom");
+        });
+        Consumer<Integer> working = pump.conflate(applied::add);
+
+        failing.accept(1);
+        working.accept(2);
+        pump.drain();
+        assertEquals(List.of(2), applied);
+        assertEquals(0, pump.getQueueDepth());
+    }
+}
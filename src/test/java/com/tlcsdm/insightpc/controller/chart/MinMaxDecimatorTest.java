@@ -0,0 +1,79 @@
+package com.tlcsdm.insightpc.controller.chart;
+
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the MinMaxDecimator class.
+ */
+class MinMaxDecimatorTest {
+
+    private static final long BASE = 1_700_000_000_000L;
+
+    @Test
+    void testKeepsMinimumAndMaximumPerColumn() {
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 10;
+        }
+        values[505] = 100;
+        MinMaxDecimator decimator = new MinMaxDecimator();
+        decimator.decimate(new TimeSeriesWindow(BASE, 1000, values), BASE, BASE + 1_000_000, 10);
+
+        assertEquals(10, decimator.getColumns());
+        for (int c = 0; c < 10; c++) {
+            assertEquals(0, decimator.getMin(c));
+            assertEquals(c == 5 ? 100 : 9, decimator.getMax(c));
+            assertFalse(decimator.isGap(c));
+        }
+        assertEquals(100, decimator.getMaxValue());
+    }
+
+    @Test
+    void testSparseValuesLeaveEmptyColumns() {
+        MinMaxDecimator decimator = new MinMaxDecimator();
+        decimator.decimate(new TimeSeriesWindow(BASE, 10_000, new double[]{1, 2, 3}), BASE, BASE + 20_000, 100);
+
+        assertEquals(1, decimator.getMax(0));
+        assertEquals(2, decimator.getMax(50));
+        assertEquals(3, decimator.getMax(99));
+        assertTrue(Double.isNaN(decimator.getMax(1)));
+        assertFalse(decimator.isGap(1));
+    }
+
+    @Test
+    void testMissingValuesAreGaps() {
+        MinMaxDecimator decimator = new MinMaxDecimator();
+        double[] values = {1, Double.NaN, Double.NaN, 4};
+        decimator.decimate(new TimeSeriesWindow(BASE, 1000, values), BASE, BASE + 4000, 4);
+
+        assertFalse(decimator.isGap(0));
+        assertTrue(decimator.isGap(1));
+        assertTrue(decimator.isGap(2));
+        assertFalse(decimator.isGap(3));
+        assertEquals(4, decimator.getMaxValue());
+    }
+
+    @Test
+    void testValuesOutsideRangeAreIgnored() {
+        MinMaxDecimator decimator = new MinMaxDecimator();
+        double[] values = {50, 1, 2, 50};
+        decimator.decimate(new TimeSeriesWindow(BASE, 1000, values), BASE + 1000, BASE + 2000, 2);
+
+        assertEquals(1, decimator.getMax(0));
+        assertEquals(2, decimator.getMax(1));
+        assertEquals(2, decimator.getMaxValue());
+    }
+
+    @Test
+    void testReuseClearsPreviousColumns() {
+        MinMaxDecimator decimator = new MinMaxDecimator();
+        decimator.decimate(new TimeSeriesWindow(BASE, 1000, new double[]{5, 5}), BASE, BASE + 2000, 2);
+        decimator.decimate(TimeSeriesWindow.empty(1000), BASE, BASE + 2000, 2);
+
+        assertTrue(Double.isNaN(decimator.getMax(0)));
+        assertTrue(Double.isNaN(decimator.getMaxValue()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import com.tlcsdm.insightpc.model.NetworkSample;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the NetworkGroupModel class.
+ */
+class NetworkGroupModelTest {
+
+    private final NetworkTableModel tableModel = new NetworkTableModel();
+    private final NetworkGroupModel groupModel = new NetworkGroupModel(tableModel);
+
+    private static NetworkSample sample(String name, long bytesRecv, double recvRate, boolean up) {
+        return new NetworkSample(name, bytesRecv, 0, recvRate, 0, 0, 0, 1, 2, 0, 0, 0, 0, up, false);
+    }
+
+    @Test
+    void testPrefixIsLeadingLetters() {
+        assertEquals("veth", NetworkGroupModel.prefixOf("veth3a1f"));
+        assertEquals("cali", NetworkGroupModel.prefixOf("cali12ab34"));
+        assertEquals("br", NetworkGroupModel.prefixOf("br-5c0e"));
+        assertEquals("lo", NetworkGroupModel.prefixOf("lo"));
+        assertEquals("0abc", NetworkGroupModel.prefixOf("0abc"));
+    }
+
+    @Test
+    void testAggregatesByPrefix() {
+        tableModel.apply(List.of(sample("veth1", 100, 10, true), sample("veth2", 200, 20, false),
+            sample("eth0", 1_000, 5, true)));
+        assertEquals(2, groupModel.getGroups().size());
+
+        NetworkGroupRow veth = groupModel.getGroup("veth");
+        assertEquals(2, veth.interfaceCountProperty().get());
+        assertEquals(1, veth.upCountProperty().get());
+        assertEquals(300, veth.bytesRecvProperty().get());
+        assertEquals(30, veth.recvRateProperty().get(), 1e-9);
+        assertEquals(2, veth.errorsProperty().get());
+        assertEquals(4, veth.dropsProperty().get());
+    }
+
+    @Test
+    void testFollowsUpdatesAndRemovals() {
+        tableModel.apply(List.of(sample("veth1", 100, 10, true), sample("veth2", 200, 20, true)));
+        NetworkGroupRow veth = groupModel.getGroup("veth");
+
+        tableModel.apply(List.of(sample("veth1", 150, 5, false)));
+        assertSame(veth, groupModel.getGroup("veth"), "The group row lives on");
+        assertEquals(1, veth.interfaceCountProperty().get());
+        assertEquals(0, veth.upCountProperty().get());
+        assertEquals(150, veth.bytesRecvProperty().get());
+        assertEquals(5, veth.recvRateProperty().get(), 1e-9);
+
+        tableModel.apply(List.of(sample("cali1", 0, 0, true)));
+        assertNull(groupModel.getGroup("veth"));
+        assertEquals(List.of(groupModel.getGroup("cali")), groupModel.getGroups());
+    }
+}
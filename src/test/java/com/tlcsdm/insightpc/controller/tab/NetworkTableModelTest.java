@@ -0,0 +1,85 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import com.tlcsdm.insightpc.model.NetworkSample;
+import javafx.collections.ListChangeListener;
+import javafx.collections.transformation.FilteredList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the NetworkTableModel class.
+ */
+class NetworkTableModelTest {
+
+    private static NetworkSample sample(String name, double recvRate, boolean up, boolean virtual) {
+        return new NetworkSample(name, 1_000, 500, recvRate, 0, 10, 5, 0, 0, 0, 0, 0, 0, up, virtual);
+    }
+
+    private static List<NetworkSample> interfaces(int count, double recvRate) {
+        List<NetworkSample> samples = new ArrayList<>();
+        samples.add(sample("eth0", recvRate, true, false));
+        for (int i = 1; i < count; i++) {
+            samples.add(sample("veth" + Integer.toHexString(0x1000 + i), 0, true, true));
+        }
+        return samples;
+    }
+
+    @Test
+    void testAppliesChangesIncrementally() {
+        NetworkTableModel model = new NetworkTableModel();
+        assertEquals(new NetworkTableModel.Changes(1_000, 0, 0), model.apply(interfaces(1_000, 0)));
+        NetworkRow eth0 = model.getRow("eth0");
+
+        List<ListChangeListener.Change<? extends NetworkRow>> changes = new ArrayList<>();
+        model.getRows().addListener((ListChangeListener<NetworkRow>) changes::add);
+        List<NetworkSample> next = interfaces(900, 2_048);
+        next.add(sample("cali0", 0, true, true));
+        assertEquals(new NetworkTableModel.Changes(1, 1, 100), model.apply(next));
+
+        assertSame(eth0, model.getRow("eth0"), "Rows of known interfaces are updated in place");
+        assertEquals(2_048, eth0.recvRateProperty().get());
+        assertEquals(901, model.getRows().size());
+        assertEquals(2, changes.size(), "One removal and one addition, however many interfaces changed");
+    }
+
+    @Test
+    void testNameMatcherTakesGlobsOrText() {
+        Predicate<String> glob = NetworkTableModel.nameMatcher("VETH*");
+        assertTrue(glob.test("veth1a2b"));
+        assertFalse(glob.test("myveth0"), "A glob matches the whole name");
+        Predicate<String> single = NetworkTableModel.nameMatcher("eth?");
+        assertTrue(single.test("eth0"));
+        assertFalse(single.test("eth10"));
+        assertTrue(NetworkTableModel.nameMatcher("br-5c.?").test("br-5c.1"), "Other characters are literal");
+        Predicate<String> text = NetworkTableModel.nameMatcher(" Eth ");
+        assertTrue(text.test("veth0"), "Plain text matches anywhere");
+        assertFalse(text.test("wlan0"));
+        assertNull(NetworkTableModel.nameMatcher("  "));
+    }
+
+    @Test
+    void testFilterHidesDownAndVirtualInterfacesAndFollowsStateChanges() {
+        NetworkTableModel model = new NetworkTableModel();
+        model.apply(List.of(sample("eth0", 0, true, false), sample("eth1", 0, false, false),
+            sample("veth1", 0, true, true)));
+        assertNull(NetworkTableModel.filter("", false, false), "No filter lets every row through");
+
+        FilteredList<NetworkRow> shown = new FilteredList<>(model.getRows(),
+            NetworkTableModel.filter(null, true, true));
+        assertEquals(List.of(model.getRow("eth0")), shown);
+
+        model.apply(List.of(sample("eth0", 0, true, false), sample("eth1", 0, true, false),
+            sample("veth1", 0, true, true)));
+        assertEquals(2, shown.size(), "An interface that came up is shown without filtering again");
+
+        shown.setPredicate(NetworkTableModel.filter("eth*", false, false));
+        assertEquals(2, shown.size());
+        shown.setPredicate(NetworkTableModel.filter("eth", false, true));
+        assertEquals(2, shown.size());
+    }
+}
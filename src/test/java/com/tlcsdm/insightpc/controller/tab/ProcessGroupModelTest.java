@@ -0,0 +1,99 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import com.tlcsdm.insightpc.model.ProcessSample;
+import com.tlcsdm.insightpc.model.ProcessSnapshot;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ProcessGroupModel class.
+ */
+class ProcessGroupModelTest {
+
+    private final ProcessTableModel tableModel = new ProcessTableModel();
+    private final ProcessGroupModel groupModel = new ProcessGroupModel(tableModel);
+
+    private static ProcessSample sample(int pid, String name, String path, long rss, double cpu, int threads) {
+        return new ProcessSample(pid, 1, name, path, "", "user", "RUNNING",
+            rss, rss, cpu, threads, 1000, 0, 0, 0, 0, 0, 0);
+    }
+
+    private void apply(ProcessSample... samples) {
+        tableModel.apply(new ProcessSnapshot(System.currentTimeMillis(), List.of(samples)));
+    }
+
+    @Test
+    void testAggregatesByPathThenName() {
+        apply(sample(1, "chrome", "/opt/chrome", 100, 0.1, 10),
+            sample(2, "chrome", "/opt/chrome", 200, 0.2, 20),
+            sample(3, "kworker", "", 0, 0.05, 1),
+            sample(4, "kworker", "", 0, 0.05, 1));
+        assertEquals(2, groupModel.getGroups().size());
+
+        ProcessGroupRow chrome = groupModel.getGroup("/opt/chrome");
+        assertEquals(2, chrome.processCountProperty().get());
+        assertEquals(30, chrome.threadCountProperty().get());
+        assertEquals(300, chrome.residentMemoryProperty().get());
+        assertEquals(0.3, chrome.cpuLoadProperty().get(), 1e-9);
+        assertEquals(2, groupModel.getGroup("kworker").processCountProperty().get());
+    }
+
+    @Test
+    void testFollowsUpdatesAndExits() {
+        apply(sample(1, "java", "/usr/bin/java", 100, 0.5, 10),
+            sample(2, "java", "/usr/bin/java", 200, 0.5, 20));
+        ProcessGroupRow java = groupModel.getGroup("/usr/bin/java");
+
+        apply(sample(1, "java", "/usr/bin/java", 150, 0.25, 12));
+        assertSame(java, groupModel.getGroup("/usr/bin/java"), "The group row lives on");
+        assertEquals(1, java.processCountProperty().get());
+        assertEquals(12, java.threadCountProperty().get());
+        assertEquals(150, java.residentMemoryProperty().get());
+        assertEquals(0.25, java.cpuLoadProperty().get(), 1e-9);
+
+        apply();
+        assertNull(groupModel.getGroup("/usr/bin/java"));
+        assertTrue(groupModel.getGroups().isEmpty());
+    }
+
+    @Test
+    void testExecMovesToOtherGroup() {
+        apply(sample(1, "sh", "/bin/sh", 10, 0, 1));
+        apply(sample(1, "python", "/usr/bin/python", 30, 0, 2));
+        assertNull(groupModel.getGroup("/bin/sh"));
+        assertEquals(30, groupModel.getGroup("/usr/bin/python").residentMemoryProperty().get());
+        assertEquals(1, groupModel.getGroups().size());
+    }
+
+    @Test
+    void testGroupsAddedAndRemovedInOneChangeEach() {
+        List<ProcessSample> first = new ArrayList<>();
+        for (int pid = 1; pid <= 1000; pid++) {
+            first.add(sample(pid, "worker" + pid % 50, "/bin/worker" + pid % 50, 1, 0, 1));
+        }
+        apply(first.toArray(ProcessSample[]::new));
+        assertEquals(50, groupModel.getGroups().size());
+
+        int[] changes = new int[1];
+        groupModel.getGroups().addListener((ListChangeListener<ProcessGroupRow>) change -> changes[0]++);
+        List<ProcessSample> second = new ArrayList<>();
+        for (int pid = 1001; pid <= 2000; pid++) {
+            second.add(sample(pid, "task" + pid % 50, "/bin/task" + pid % 50, 1, 0, 1));
+        }
+        apply(second.toArray(ProcessSample[]::new));
+        assertEquals(50, groupModel.getGroups().size());
+        assertEquals(2, changes[0]);
+    }
+
+    @Test
+    void testStartsFromExistingRows() {
+        apply(sample(1, "a", "/bin/a", 5, 0, 1));
+        ProcessGroupModel late = new ProcessGroupModel(tableModel);
+        assertEquals(1, late.getGroup("/bin/a").processCountProperty().get());
+    }
+}
@@ -0,0 +1,89 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import com.tlcsdm.insightpc.model.ProcessSample;
+import com.tlcsdm.insightpc.model.ProcessSnapshot;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ProcessTableModel class.
+ */
+class ProcessTableModelTest {
+
+    private static ProcessSample sample(int pid, long rss) {
+        return sample(pid, rss, 1000);
+    }
+
+    private static ProcessSample sample(int pid, long rss, long startTime) {
+        return new ProcessSample(pid, 1, "proc" + pid, "/bin/proc" + pid, "/bin/proc" + pid, "user", "RUNNING",
+            rss, rss * 2, 0.1, 1, startTime, 0, 0, 0, 0, 0, 0);
+    }
+
+    private static ProcessSnapshot snapshot(ProcessSample... samples) {
+        return new ProcessSnapshot(System.currentTimeMillis(), List.of(samples));
+    }
+
+    @Test
+    void testFirstSnapshotAddsAllRows() {
+        ProcessTableModel model = new ProcessTableModel();
+        ProcessTableModel.Changes changes = model.apply(snapshot(sample(1, 10), sample(2, 20)));
+        assertEquals(new ProcessTableModel.Changes(2, 0, 0), changes);
+        assertEquals(2, model.getRows().size());
+        assertEquals(20, model.getRow(2).residentMemoryProperty().get());
+    }
+
+    @Test
+    void testRowsAreUpdatedInPlace() {
+        ProcessTableModel model = new ProcessTableModel();
+        model.apply(snapshot(sample(1, 10), sample(2, 20)));
+        ProcessRow row = model.getRow(1);
+
+        ProcessTableModel.Changes changes = model.apply(snapshot(sample(1, 15), sample(2, 20)));
+        assertEquals(new ProcessTableModel.Changes(0, 1, 0), changes);
+        assertSame(row, model.getRow(1));
+        assertEquals(15, row.residentMemoryProperty().get());
+    }
+
+    @Test
+    void testAddedAndRemovedInOneChangeEach() {
+        ProcessTableModel model = new ProcessTableModel();
+        model.apply(snapshot(sample(1, 10), sample(2, 20), sample(3, 30)));
+        List<ListChangeListener.Change<? extends ProcessRow>> events = new ArrayList<>();
+        model.getRows().addListener((ListChangeListener<ProcessRow>) events::add);
+
+        ProcessTableModel.Changes changes = model.apply(snapshot(sample(2, 20), sample(4, 40), sample(5, 50)));
+        assertEquals(new ProcessTableModel.Changes(2, 0, 2), changes);
+        assertEquals(2, events.size(), "One removal and one addition event");
+        assertNull(model.getRow(1));
+        assertEquals(List.of(2, 4, 5), model.getRows().stream().map(ProcessRow::getPid).toList());
+    }
+
+    @Test
+    void testReusedPidGetsNewRow() {
+        ProcessTableModel model = new ProcessTableModel();
+        model.apply(snapshot(sample(7, 10, 1000)));
+        ProcessRow old = model.getRow(7);
+
+        ProcessTableModel.Changes changes = model.apply(snapshot(sample(7, 10, 2000)));
+        assertEquals(new ProcessTableModel.Changes(1, 0, 1), changes);
+        assertNotSame(old, model.getRow(7));
+        assertEquals(1, model.getRows().size());
+    }
+
+    @Test
+    void testManyProcesses() {
+        ProcessTableModel model = new ProcessTableModel();
+        ProcessSample[] samples = IntStream.range(1, 6001).mapToObj(pid -> sample(pid, pid)).toArray(ProcessSample[]::new);
+        model.apply(snapshot(samples));
+        assertEquals(6000, model.getRows().size());
+
+        ProcessTableModel.Changes unchanged = model.apply(snapshot(samples));
+        assertEquals(new ProcessTableModel.Changes(0, 0, 0), unchanged);
+    }
+}
@@ -0,0 +1,116 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import com.tlcsdm.insightpc.model.ProcessSample;
+import com.tlcsdm.insightpc.model.ProcessSnapshot;
+import javafx.scene.control.TreeItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ProcessTreeModel class.
+ */
+class ProcessTreeModelTest {
+
+    private final ProcessTableModel tableModel = new ProcessTableModel();
+    private final ProcessTreeModel treeModel = new ProcessTreeModel();
+
+    private static ProcessSample sample(int pid, int parentPid, long rss, double cpu) {
+        return sample(pid, parentPid, rss, cpu, 1000);
+    }
+
+    private static ProcessSample sample(int pid, int parentPid, long rss, double cpu, long startTime) {
+        return new ProcessSample(pid, parentPid, "proc" + pid, "", "", "user", "RUNNING",
+            rss, rss, cpu, 1, startTime, 0, 0, 0, 0, 0, 0);
+    }
+
+    private ProcessTreeModel.Changes apply(ProcessSample... samples) {
+        tableModel.apply(new ProcessSnapshot(System.currentTimeMillis(), List.of(samples)));
+        return treeModel.apply(tableModel.getRows());
+    }
+
+    private int parentPid(int pid) {
+        TreeItem<ProcessRow> parent = treeModel.getItem(pid).getParent();
+        return parent == treeModel.getRoot() ? -1 : parent.getValue().getPid();
+    }
+
+    @Test
+    void testNestsByParentAndRollsUp() {
+        ProcessTreeModel.Changes changes = apply(sample(1, 0, 100, 0.1), sample(2, 1, 200, 0.2),
+            sample(3, 2, 300, 0.3), sample(4, 1, 400, 0.4));
+        assertEquals(new ProcessTreeModel.Changes(4, 0, 0), changes);
+        assertEquals(-1, parentPid(1), "Parent 0 is not listed");
+        assertEquals(1, parentPid(2));
+        assertEquals(2, parentPid(3));
+        assertEquals(1, parentPid(4));
+
+        ProcessRow init = tableModel.getRow(1);
+        assertEquals(1000, init.totalResidentMemoryProperty().get());
+        assertEquals(1.0, init.totalCpuLoadProperty().get(), 1e-9);
+        assertEquals(500, tableModel.getRow(2).totalResidentMemoryProperty().get());
+        assertEquals(300, tableModel.getRow(3).totalResidentMemoryProperty().get());
+    }
+
+    @Test
+    void testKeepsItemsAndReparentsOrphans() {
+        apply(sample(1, 0, 100, 0), sample(2, 1, 200, 0), sample(3, 2, 300, 0));
+        TreeItem<ProcessRow> init = treeModel.getItem(1);
+        init.setExpanded(true);
+
+        // 2 exits: its child goes to the root, like an orphan before it is adopted
+        ProcessTreeModel.Changes changes = apply(sample(1, 0, 150, 0), sample(3, 2, 300, 0));
+        assertEquals(new ProcessTreeModel.Changes(0, 1, 1), changes);
+        assertSame(init, treeModel.getItem(1));
+        assertTrue(init.isExpanded(), "Expansion state should survive a refresh");
+        assertNull(treeModel.getItem(2));
+        assertEquals(-1, parentPid(3));
+        assertEquals(150, tableModel.getRow(1).totalResidentMemoryProperty().get());
+
+        // Adopted by init
+        changes = apply(sample(1, 0, 150, 0), sample(3, 1, 300, 0));
+        assertEquals(new ProcessTreeModel.Changes(0, 1, 0), changes);
+        assertEquals(1, parentPid(3));
+        assertEquals(450, tableModel.getRow(1).totalResidentMemoryProperty().get());
+    }
+
+    @Test
+    void testUnchangedTreeTouchesNothing() {
+        apply(sample(1, 0, 100, 0), sample(2, 1, 200, 0));
+        assertEquals(new ProcessTreeModel.Changes(0, 0, 0), apply(sample(1, 0, 100, 0), sample(2, 1, 200, 0)));
+    }
+
+    @Test
+    void testCycleGoesToRoot() {
+        apply(sample(5, 6, 10, 0), sample(6, 5, 20, 0));
+        assertEquals(-1, parentPid(5));
+        assertEquals(-1, parentPid(6));
+        assertEquals(10, tableModel.getRow(5).totalResidentMemoryProperty().get());
+        assertEquals(new ProcessTreeModel.Changes(0, 0, 0), apply(sample(5, 6, 10, 0), sample(6, 5, 20, 0)));
+    }
+
+    @Test
+    void testDeepAndWideTree() {
+        // A 500 deep chain of build steps, each with 20 workers
+        List<ProcessSample> samples = new ArrayList<>();
+        for (int pid = 1; pid <= 500; pid++) {
+            samples.add(sample(pid, pid - 1, 1, 0));
+        }
+        for (int pid = 501; pid <= 10_500; pid++) {
+            samples.add(sample(pid, (pid - 501) / 20 + 1, 1, 0));
+        }
+        apply(samples.toArray(ProcessSample[]::new));
+        assertEquals(10_500, tableModel.getRow(1).totalResidentMemoryProperty().get());
+        assertEquals(499, parentPid(500));
+        assertEquals(500, parentPid(10_500));
+
+        // The deepest step exits: its workers move to the root in one batch
+        samples.remove(499);
+        ProcessTreeModel.Changes changes = apply(samples.toArray(ProcessSample[]::new));
+        assertEquals(new ProcessTreeModel.Changes(0, 20, 1), changes);
+        assertEquals(-1, parentPid(10_500));
+        assertEquals(10_479, tableModel.getRow(1).totalResidentMemoryProperty().get());
+    }
+}
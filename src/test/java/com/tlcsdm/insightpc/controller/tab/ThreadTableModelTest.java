@@ -0,0 +1,62 @@
+package com.tlcsdm.insightpc.controller.tab;
+
+import com.tlcsdm.insightpc.model.ThreadSample;
+import com.tlcsdm.insightpc.model.ThreadSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ThreadTableModel class.
+ */
+class ThreadTableModelTest {
+
+    private static ThreadSample sample(int threadId, double cpuLoad, long startTime) {
+        return new ThreadSample(threadId, "worker-" + threadId, "RUNNING", 20, cpuLoad, 100, 5, 10, 20, startTime);
+    }
+
+    private static ThreadSnapshot snapshot(int pid, ThreadSample... samples) {
+        return new ThreadSnapshot(System.currentTimeMillis(), pid, true, List.of(samples));
+    }
+
+    @Test
+    void testRowsAreUpdatedInPlaceAndFinishedThreadsRemoved() {
+        ThreadTableModel model = new ThreadTableModel();
+        model.apply(snapshot(7, sample(1, 0.1, 1000), sample(2, 0.2, 1000)));
+        ThreadRow row = model.getRow(1);
+        assertEquals(7, model.getPid());
+        assertEquals(2, model.getRows().size());
+        assertEquals(30, row.cpuTimeProperty().get());
+
+        model.apply(snapshot(7, sample(1, 0.9, 1000), sample(3, 0, 2000)));
+        assertSame(row, model.getRow(1));
+        assertEquals(0.9, row.cpuLoadProperty().get());
+        assertNull(model.getRow(2), "Finished thread should be removed");
+        assertEquals(2, model.getRows().size());
+    }
+
+    @Test
+    void testReusedThreadIdGetsNewRow() {
+        ThreadTableModel model = new ThreadTableModel();
+        model.apply(snapshot(7, sample(1, 0.1, 1000)));
+        ThreadRow old = model.getRow(1);
+
+        model.apply(snapshot(7, sample(1, 0.1, 5000)));
+        assertNotSame(old, model.getRow(1));
+        assertEquals(List.of(model.getRow(1)), model.getRows());
+    }
+
+    @Test
+    void testOtherProcessReplacesAllRows() {
+        ThreadTableModel model = new ThreadTableModel();
+        model.apply(snapshot(7, sample(1, 0.1, 1000), sample(2, 0.2, 1000)));
+        ThreadRow old = model.getRow(1);
+
+        model.apply(snapshot(8, sample(1, 0.1, 1000)));
+        assertEquals(8, model.getPid());
+        assertNotSame(old, model.getRow(1), "Rows of another process should not be reused");
+        assertEquals(1, model.getRows().size());
+    }
+}
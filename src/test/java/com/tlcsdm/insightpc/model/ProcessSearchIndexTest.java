@@ -0,0 +1,75 @@
+package com.tlcsdm.insightpc.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ProcessSearchIndex class.
+ */
+class ProcessSearchIndexTest {
+
+    private static ProcessSample sample(int pid, String name, String user, String commandLine) {
+        return new ProcessSample(pid, 1, name, "/usr/bin/" + name, commandLine, user, "RUNNING",
+            0, 0, 0, 1, 1000, 0, 0, 0, 0, 0, 0);
+    }
+
+    private static final List<ProcessSample> PROCESSES = List.of(
+        sample(812, "java", "build", "/usr/bin/java -jar Gradle-Daemon.jar"),
+        sample(42, "sshd", "root", "sshd: /usr/sbin/sshd -D"),
+        sample(1234, "postgres", "postgres", ""),
+        sample(7, "bash", "alice", "-bash"));
+
+    @Test
+    void testFindsByNameUserCommandLineAndPid() {
+        ProcessSearchIndex index = ProcessSearchIndex.build(PROCESSES, null);
+        assertEquals(4, index.size());
+        assertArrayEquals(new int[]{812}, index.find("gradle-daemon"), "Command line, ignoring case");
+        assertArrayEquals(new int[]{7}, index.find("ALICE"), "User");
+        assertArrayEquals(new int[]{1234}, index.find("/usr/bin/postgres"), "Path when the command line is empty");
+        assertArrayEquals(new int[]{42, 1234}, index.find("4"), "Short queries scan every process");
+        assertArrayEquals(new int[]{7, 42, 812, 1234}, index.find(""));
+        assertArrayEquals(new int[0], index.find("nginx"));
+    }
+
+    @Test
+    void testQueryDoesNotSpanFields() {
+        ProcessSearchIndex index = ProcessSearchIndex.build(PROCESSES, null);
+        assertArrayEquals(new int[0], index.find("bashalice"));
+    }
+
+    @Test
+    void testRegex() {
+        ProcessSearchIndex index = ProcessSearchIndex.build(PROCESSES, null);
+        Pattern pattern = Pattern.compile("^(sshd|bash)$", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+        assertArrayEquals(new int[]{7, 42}, index.find(pattern));
+    }
+
+    @Test
+    void testReusesEntriesOfRunningProcesses() {
+        ProcessSearchIndex first = ProcessSearchIndex.build(PROCESSES, null);
+        List<ProcessSample> next = new ArrayList<>(PROCESSES.subList(1, 4));
+        // Same PID, new process
+        next.add(new ProcessSample(812, 1, "nginx", "/usr/sbin/nginx", "nginx: master", "www", "RUNNING",
+            0, 0, 0, 1, 2000, 0, 0, 0, 0, 0, 0));
+        ProcessSearchIndex second = ProcessSearchIndex.build(next, first);
+        assertArrayEquals(new int[]{812}, second.find("nginx"));
+        assertArrayEquals(new int[0], second.find("gradle"));
+        assertArrayEquals(new int[]{42}, second.find("sshd"));
+    }
+
+    @Test
+    void testManyProcesses() {
+        List<ProcessSample> processes = new ArrayList<>();
+        for (int pid = 1; pid <= 10_000; pid++) {
+            processes.add(sample(pid, "worker-" + pid, "svc", "/opt/app/bin/worker --shard=" + pid));
+        }
+        ProcessSearchIndex index = ProcessSearchIndex.build(processes, null);
+        assertArrayEquals(new int[]{4711}, index.find("shard=4711"));
+        assertEquals(10_000, index.find("worker").length);
+    }
+}
@@ -0,0 +1,44 @@
+package com.tlcsdm.insightpc.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ProcessSnapshot class.
+ */
+class ProcessSnapshotTest {
+
+    private static ProcessSample process(int pid, double readRate, double writeRate) {
+        return new ProcessSample(pid, 1, "p" + pid, "", "", "user", "RUNNING", 0, 0, 0, 3, 1000, 0, 0, 0, 0,
+            readRate, writeRate);
+    }
+
+    @Test
+    void testTopByIoRateIsBusiestFirstWithoutIdleProcesses() {
+        List<ProcessSample> processes = new ArrayList<>();
+        for (int pid = 1; pid <= 20; pid++) {
+            processes.add(process(pid, pid % 2 == 0 ? pid * 100 : 0, pid % 3 == 0 ? 1_000 : 0));
+        }
+        ProcessSnapshot snapshot = new ProcessSnapshot(0, processes);
+
+        List<ProcessSample> top = snapshot.topByIoRate(3);
+        assertEquals(List.of(18, 12, 20), top.stream().map(ProcessSample::pid).toList(),
+            "Reads and writes should be added");
+        assertEquals(2_800, top.get(0).ioRate());
+
+        List<ProcessSample> all = snapshot.topByIoRate(100);
+        assertTrue(all.stream().allMatch(p -> p.ioRate() > 0), "Idle processes should be left out");
+        assertEquals(13, all.size());
+    }
+
+    @Test
+    void testThreadCount() {
+        ProcessSnapshot snapshot = new ProcessSnapshot(0, List.of(process(1, 0, 0), process(2, 0, 0)));
+        assertEquals(6, snapshot.threadCount());
+        assertTrue(snapshot.topByIoRate(5).isEmpty());
+    }
+}
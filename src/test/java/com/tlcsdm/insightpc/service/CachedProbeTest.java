@@ -0,0 +1,127 @@
+package com.tlcsdm.insightpc.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CachedProbe class.
+ */
+class CachedProbeTest {
+
+    @Test
+    void testStaticValueIsProbedOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedProbe<Integer> probe = new CachedProbe<>("static", CachedProbe.Freshness.STATIC,
+            calls::incrementAndGet);
+        assertEquals(1, probe.get());
+        assertEquals(1, probe.get());
+        assertEquals(1, calls.get(), "Static value should only be probed once");
+        assertEquals(1, probe.getMisses());
+        assertEquals(1, probe.getHits());
+    }
+
+    @Test
+    void testExpiredValueIsProbedAgain() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedProbe<Integer> probe = new CachedProbe<>("expiring", Duration.ZERO, calls::incrementAndGet);
+        assertEquals(1, probe.get());
+        assertEquals(2, probe.get());
+        assertEquals(2, probe.getMisses());
+        assertEquals(0, probe.getHits());
+    }
+
+    @Test
+    void testInvalidate() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedProbe<Integer> probe = new CachedProbe<>("slow", CachedProbe.Freshness.SLOW,
+            calls::incrementAndGet);
+        probe.get();
+        probe.invalidate();
+        assertEquals(2, probe.get(), "Invalidated value should be probed again");
+    }
+
+    @Test
+    void testConcurrentCallersShareOneProbe() throws Exception {
+        int callers = 8;
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CachedProbe<Integer> probe = new CachedProbe<>("shared", CachedProbe.Freshness.STATIC, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return calls.incrementAndGet();
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(probe::get));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(1, result.get());
+            }
+        }
+        assertEquals(1, calls.get(), "Concurrent callers should share one probe");
+        assertEquals(1, probe.getMisses());
+        assertEquals(callers - 1, probe.getHits());
+    }
+
+    @Test
+    void testFailureIsNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        CachedProbe<Integer> probe = new CachedProbe<>("failing", CachedProbe.Freshness.STATIC, () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("probe failed");
+            }
+            return calls.get();
+        });
+        assertThrows(IllegalStateException.class, probe::get);
+        assertEquals(2, probe.get(), "Failed probe should be retried");
+    }
+
+    @Test
+    void testErrorIsPassedToWaitingCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CachedProbe<Integer> probe = new CachedProbe<>("broken", CachedProbe.Freshness.STATIC, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new UnsatisfiedLinkError("no native library");
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> owner = executor.submit(probe::get);
+            while (probe.getMisses() == 0) {
+                Thread.sleep(1);
+            }
+            Future<Integer> waiter = executor.submit(probe::get);
+            // The waiter counts as a hit once it joined the probe in flight
+            while (probe.getHits() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<Integer> result : List.of(owner, waiter)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(UnsatisfiedLinkError.class, e.getCause());
+            }
+        }
+    }
+}
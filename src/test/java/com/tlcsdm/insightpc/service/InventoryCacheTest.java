@@ -0,0 +1,65 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.HardwareInventory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the InventoryCache class.
+ */
+class InventoryCacheTest {
+
+    private static SystemInfoService service;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void setUp() {
+        service = new SystemInfoService();
+    }
+
+    @Test
+    void testGetCachedWithoutFile() {
+        InventoryCache cache = new InventoryCache(service, tempDir.resolve("inventory.json"));
+        assertNull(cache.getCached(), "Missing cache file should yield no inventory");
+    }
+
+    @Test
+    void testRevalidateWritesCacheAndReloads() {
+        Path file = tempDir.resolve("inventory.json");
+        HardwareInventory probed = new InventoryCache(service, file).revalidate().join();
+        assertNotNull(probed, "Revalidation should produce an inventory");
+        assertTrue(Files.isRegularFile(file), "Revalidation should persist the inventory");
+
+        InventoryCache reopened = new InventoryCache(service, file);
+        HardwareInventory cached = reopened.getCached();
+        assertEquals(probed, cached, "Persisted inventory should round-trip");
+        assertTrue(reopened.isValid(cached), "Inventory should be valid within the same boot session");
+        assertSame(cached, reopened.revalidate().join(), "A valid cache should be reused without probing");
+    }
+
+    @Test
+    void testCorruptCacheIsIgnored() throws Exception {
+        Path file = tempDir.resolve("inventory.json");
+        Files.writeString(file, "{not json");
+        assertNull(new InventoryCache(service, file).getCached(), "Corrupt cache should be ignored");
+    }
+
+    @Test
+    void testIsValidChecksBootTimeAndFingerprint() {
+        HardwareInventory inventory = new HardwareInventory(InventoryCache.FORMAT_VERSION, 1000, "fp",
+            "cpu", 1, null, null, null, List.of(), List.of(), 0, List.of(), List.of());
+        assertTrue(InventoryCache.isValid(inventory, 1002, "fp"), "Small boot time jitter should be tolerated");
+        assertFalse(InventoryCache.isValid(inventory, 5000, "fp"), "A reboot should invalidate the cache");
+        assertFalse(InventoryCache.isValid(inventory, 1000, "other"), "Changed hardware should invalidate the cache");
+        assertFalse(InventoryCache.isValid(null, 1000, "fp"), "No inventory is never valid");
+    }
+}
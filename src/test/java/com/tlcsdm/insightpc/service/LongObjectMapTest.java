@@ -0,0 +1,70 @@
+package com.tlcsdm.insightpc.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the LongObjectMap class.
+ */
+class LongObjectMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertNull(map.put(42, "a"));
+        assertEquals("a", map.put(42, "b"));
+        assertEquals("b", map.get(42));
+        assertNull(map.get(43));
+        assertEquals(1, map.size());
+
+        assertEquals("b", map.remove(42));
+        assertNull(map.remove(42));
+        assertNull(map.get(42));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void testGrowsAndMatchesHashMap() {
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key), "remove " + key);
+            } else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i), "put " + key);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.get(key), map.get(key), "get " + key);
+        }
+    }
+
+    @Test
+    void testClearRemovesEverything() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        for (int pid = 1; pid <= 10_000; pid++) {
+            map.put(pid, "p");
+        }
+        map.clear();
+        assertEquals(0, map.size());
+        assertNull(map.get(5));
+        // Cleared twice: the second clear shrinks the table, which must still work
+        map.clear();
+        map.put(5, "q");
+        assertEquals("q", map.get(5));
+    }
+
+    @Test
+    void testRejectsNullValue() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+    }
+}
@@ -0,0 +1,145 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.DiskSample;
+import com.tlcsdm.insightpc.model.NetworkSample;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the MetricsExporter class.
+ */
+class MetricsExporterTest {
+
+    private final FixedSource source = new FixedSource();
+    private MetricsExporter exporter;
+
+    @AfterEach
+    void tearDown() {
+        if (exporter != null) {
+            exporter.stop();
+        }
+    }
+
+    private static SystemSnapshot snapshot(double cpu, String disk) {
+        return new SystemSnapshot(1000, cpu, new double[]{0.5, 0.125},
+            8_000_000_000L, 3_000_000_000L, 1024, 0,
+            List.of(new DiskSample(disk, 10, 20, 4096, 8192, 0, 0)),
+            List.of(new NetworkSample("eth0", 100, 200, 0, 0)),
+            42, 420);
+    }
+
+    private static String render(SystemSnapshot snapshot) {
+        MetricsExporter.ExpositionBuffer buffer = new MetricsExporter.ExpositionBuffer();
+        MetricsExporter.render(snapshot, buffer);
+        return new String(buffer.array(), 0, buffer.size(), StandardCharsets.UTF_8);
+    }
+
+    private HttpURLConnection get(String path) throws IOException {
+        return (HttpURLConnection) URI.create("http://127.0.0.1:" + exporter.getPort() + path).toURL()
+            .openConnection();
+    }
+
+    @Test
+    void testRender() {
+        String text = render(snapshot(0.25, "sda"));
+        assertTrue(text.contains("# TYPE insightpc_cpu_load gauge\ninsightpc_cpu_load 0.25\n"));
+        assertTrue(text.contains("insightpc_cpu_core_load{core=\"0\"} 0.5\n"));
+        assertTrue(text.contains("insightpc_cpu_core_load{core=\"1\"} 0.125\n"));
+        assertTrue(text.contains("insightpc_memory_total_bytes 8000000000\n"));
+        assertTrue(text.contains("insightpc_swap_used_bytes 0\n"));
+        assertTrue(text.contains("insightpc_disk_written_bytes_total{disk=\"sda\"} 8192\n"));
+        assertTrue(text.contains("# TYPE insightpc_network_transmit_bytes_total counter\n"));
+        assertTrue(text.contains("insightpc_network_transmit_bytes_total{interface=\"eth0\"} 200\n"));
+        assertTrue(text.contains("insightpc_threads 420\n"));
+        assertTrue(text.endsWith("\n"));
+    }
+
+    @Test
+    void testRenderNumbersAndLabels() {
+        assertTrue(render(snapshot(0.0000015, "sda")).contains("insightpc_cpu_load 0.000002\n"));
+        assertTrue(render(snapshot(1, "sda")).contains("insightpc_cpu_load 1\n"));
+        assertTrue(render(snapshot(Double.NaN, "sda")).contains("insightpc_cpu_load NaN\n"));
+        assertTrue(render(snapshot(0, "C:\\ \"Disk\"\n\u00e9"))
+            .contains("{disk=\"C:\\\\ \\\"Disk\\\"\\n\u00e9\"}"));
+    }
+
+    @Test
+    void testScrapeOverHttp() throws IOException {
+        source.latest = snapshot(0.75, "sda");
+        exporter = new MetricsExporter(source, 0);
+        exporter.start();
+        assertTrue(exporter.getPort() > 0);
+
+        HttpURLConnection connection = get(MetricsExporter.PATH);
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(MetricsExporter.CONTENT_TYPE, connection.getContentType());
+        String body;
+        try (InputStream in = connection.getInputStream()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertTrue(body.contains("insightpc_cpu_load 0.75\n"));
+
+        // A new snapshot is picked up by the next scrape
+        source.latest = snapshot(0.5, "sdb");
+        try (InputStream in = get(MetricsExporter.PATH).getInputStream()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertTrue(body.contains("insightpc_cpu_load 0.5\n"));
+        assertTrue(body.contains("{disk=\"sdb\"}"));
+        assertFalse(body.contains("{disk=\"sda\"}"));
+    }
+
+    @Test
+    void testNoSnapshotYet() throws IOException {
+        exporter = new MetricsExporter(source, 0);
+        exporter.start();
+        assertEquals(503, get(MetricsExporter.PATH).getResponseCode());
+    }
+
+    @Test
+    void testStopReleasesPort() throws IOException {
+        exporter = new MetricsExporter(source, 0);
+        exporter.start();
+        exporter.stop();
+        assertEquals(-1, exporter.getPort());
+    }
+
+    private static class FixedSource implements MetricsSource {
+
+        volatile SystemSnapshot latest;
+
+        @Override
+        public void addListener(Consumer<SystemSnapshot> listener) {
+        }
+
+        @Override
+        public void removeListener(Consumer<SystemSnapshot> listener) {
+        }
+
+        @Override
+        public SystemSnapshot getLatest() {
+            return latest;
+        }
+
+        @Override
+        public MetricsHistory getHistory() {
+            return new MetricsHistory();
+        }
+
+        @Override
+        public long getIntervalMillis() {
+            return SamplingEngine.DEFAULT_INTERVAL_MILLIS;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.NetworkSample;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the MetricsHistory class.
+ */
+class MetricsHistoryTest {
+
+    private static final long BASE = 1_700_000_000_000L;
+
+    private static SystemSnapshot snapshot(long timestamp, List<NetworkSample> networks) {
+        return new SystemSnapshot(timestamp, 0.5, new double[]{0.5, 0.25},
+            1000, 400, 100, 10, List.of(), networks, 42, 420);
+    }
+
+    private static NetworkSample nic(String name, double recvRate) {
+        return new NetworkSample(name, 0, 0, recvRate, 0);
+    }
+
+    private static long nicSeriesCount(MetricsHistory history) {
+        return history.getSeriesNames().stream().filter(name -> name.startsWith("net.")).count();
+    }
+
+    @Test
+    void testDisappearedInterfaceIsDropped() {
+        MetricsHistory history = new MetricsHistory();
+        history.record(snapshot(BASE, List.of(nic("eth0", 100), nic("veth1", 50))));
+        assertTrue(history.getSeriesNames().contains(MetricsHistory.networkRecvSeries("veth1")));
+        assertEquals(8, nicSeriesCount(history));
+
+        // veth1 went away with its pod
+        for (long t = BASE + 60_000; t <= BASE + TimeSeries.SPAN_MILLIS; t += 60_000) {
+            history.record(snapshot(t, List.of(nic("eth0", 100))));
+        }
+        assertTrue(history.getSeriesNames().contains(MetricsHistory.networkRecvSeries("veth1")),
+            "Series should be kept while they still hold recorded values");
+        history.record(snapshot(BASE + TimeSeries.SPAN_MILLIS + 60_000, List.of(nic("eth0", 100))));
+
+        Set<String> names = history.getSeriesNames();
+        assertFalse(names.contains(MetricsHistory.networkRecvSeries("veth1")));
+        assertFalse(names.contains(MetricsHistory.networkPacketsSentSeries("veth1")));
+        assertTrue(names.contains(MetricsHistory.networkRecvSeries("eth0")));
+        assertTrue(names.contains(MetricsHistory.coreSeries(1)));
+        assertEquals(4, nicSeriesCount(history));
+    }
+
+    @Test
+    void testIdleInterfaceGetsSeriesOnceActive() {
+        MetricsHistory history = new MetricsHistory();
+        history.record(snapshot(BASE, List.of(nic("cali0", 0))));
+        assertEquals(0, nicSeriesCount(history), "An idle interface should cost no series");
+
+        history.record(snapshot(BASE + 1_000, List.of(nic("cali0", 10))));
+        history.record(snapshot(BASE + 2_000, List.of(nic("cali0", 0))));
+        assertEquals(4, nicSeriesCount(history));
+        assertEquals(0, history.read(MetricsHistory.networkRecvSeries("cali0"), BASE + 2_000, BASE + 2_000, 10)
+            .values()[0], "Values are recorded while idle once the interface has series");
+    }
+
+    @Test
+    void testDeviceCountIsCapped() {
+        MetricsHistory history = new MetricsHistory();
+        List<NetworkSample> busy = new ArrayList<>();
+        for (int i = 0; i < MetricsHistory.MAX_DEVICES + 20; i++) {
+            busy.add(nic("veth" + i, 10));
+        }
+        history.record(snapshot(BASE, busy));
+        assertEquals(4L * MetricsHistory.MAX_DEVICES, nicSeriesCount(history));
+
+        // Long after the first interfaces went quiet, a newly busy one takes over the series of an idle one
+        List<NetworkSample> later = new ArrayList<>();
+        for (int i = 0; i < MetricsHistory.MAX_DEVICES; i++) {
+            later.add(nic("veth" + i, i == 0 ? 0 : 10));
+        }
+        later.add(nic("eth0", 10));
+        history.record(snapshot(BASE + MetricsHistory.IDLE_REPLACE_MILLIS, later));
+        assertEquals(4L * MetricsHistory.MAX_DEVICES, nicSeriesCount(history));
+        assertTrue(history.getSeriesNames().contains(MetricsHistory.networkRecvSeries("eth0")));
+        assertFalse(history.getSeriesNames().contains(MetricsHistory.networkRecvSeries("veth0")));
+    }
+
+    @Test
+    void testInterfaceBeyondCapKeepsRecentValues() {
+        MetricsHistory history = new MetricsHistory();
+        String extra = "veth" + MetricsHistory.MAX_DEVICES;
+        for (long t = BASE; t < BASE + 5_000; t += 1_000) {
+            List<NetworkSample> busy = new ArrayList<>();
+            for (int i = 0; i <= MetricsHistory.MAX_DEVICES; i++) {
+                busy.add(nic("veth" + i, 10));
+            }
+            history.record(snapshot(t, busy));
+        }
+        assertFalse(history.getSeriesNames().contains(MetricsHistory.networkRecvSeries(extra)));
+        TimeSeriesWindow window = history.read(MetricsHistory.networkRecvSeries(extra), BASE, BASE + 4_000, 3_600);
+        assertEquals(1000, window.stepMillis());
+        assertEquals(5, window.size(), "The chart window should come from the ring of recent values");
+        assertEquals(10, window.values()[4]);
+
+        // Gone for longer than the ring spans
+        history.record(snapshot(BASE + MetricsHistory.RECENT_SPAN_MILLIS + 60_000, List.of(nic("eth0", 0))));
+        assertEquals(0, history.read(MetricsHistory.networkRecvSeries(extra), BASE, BASE + 4_000, 3_600).size());
+        assertEquals(5, history.read(MetricsHistory.networkRecvSeries("veth0"), BASE, BASE + 4_000, 3_600).size(),
+            "Series should outlive the ring");
+    }
+}
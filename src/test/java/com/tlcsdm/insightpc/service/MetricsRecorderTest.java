@@ -0,0 +1,196 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.DiskSample;
+import com.tlcsdm.insightpc.model.NetworkSample;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the MetricsRecorder class.
+ */
+class MetricsRecorderTest {
+
+    private static final long BASE = 1_700_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    private static SystemSnapshot snapshot(long timestamp, double cpu, String... disks) {
+        List<DiskSample> diskSamples = new ArrayList<>();
+        for (String disk : disks) {
+            diskSamples.add(new DiskSample(disk, 0, 0, 0, 0, 5, 6));
+        }
+        return new SystemSnapshot(timestamp, cpu, new double[]{cpu, cpu / 2},
+            1000, 400, 100, 10, diskSamples,
+            List.of(new NetworkSample("eth0", 0, 0, 7, 8)),
+            42, 420);
+    }
+
+    private void record(MetricsRecorder recorder, int count, String disk) {
+        for (int i = 0; i < count; i++) {
+            recorder.accept(snapshot(BASE + i * 1000L, i / 1000.0, disk));
+            // Give the writer a chance so the bounded handoff does not drop samples
+            if (i % 32 == 31) {
+                awaitWritten(recorder, i + 1);
+            }
+        }
+    }
+
+    private static void awaitWritten(MetricsRecorder recorder, long count) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (recorder.getWrittenCount() + recorder.getDroppedCount() < count
+            && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    void testRecordAndReadBack() throws Exception {
+        MetricsRecorder recorder = new MetricsRecorder(dir);
+        recorder.start();
+        record(recorder, 200, "sda");
+        recorder.stop();
+
+        assertEquals(200, recorder.getWrittenCount());
+        assertEquals(0, recorder.getDroppedCount());
+        List<Path> segments = RecordingSegment.listSegments(dir);
+        assertEquals(1, segments.size());
+
+        RecordingSegment segment = RecordingSegment.open(segments.get(0));
+        assertEquals(200, segment.getRecordCount());
+        List<String> names = segment.getSeriesNames();
+        assertEquals(MetricsHistory.CPU, names.get(0));
+        assertTrue(names.contains(MetricsHistory.diskReadSeries("sda")));
+        assertTrue(names.contains(MetricsHistory.networkSentSeries("eth0")));
+
+        assertEquals(BASE + 150_000, segment.getTimestamp(150));
+        assertEquals(0.15, segment.getValue(150, 0), 1e-9);
+        assertEquals(600, segment.getValue(150, names.indexOf(MetricsHistory.MEMORY_USED)));
+        assertEquals(8, segment.getValue(150, names.indexOf(MetricsHistory.networkSentSeries("eth0"))));
+        assertTrue(Files.size(segments.get(0)) < MetricsRecorder.DEFAULT_SEGMENT_BYTES,
+            "A segment file should only grow as far as its records need");
+    }
+
+    @Test
+    void testFindRecordUsesIndex() throws Exception {
+        MetricsRecorder recorder = new MetricsRecorder(dir);
+        recorder.start();
+        record(recorder, 300, "sda");
+        recorder.stop();
+
+        RecordingSegment segment = RecordingSegment.open(RecordingSegment.listSegments(dir).get(0));
+        assertEquals(0, segment.findRecord(0));
+        assertEquals(130, segment.findRecord(BASE + 130_000));
+        assertEquals(131, segment.findRecord(BASE + 130_500));
+        assertEquals(300, segment.findRecord(BASE + 1_000_000));
+    }
+
+    @Test
+    void testIndexAheadOfDataIsNotTrusted() throws Exception {
+        MetricsRecorder recorder = new MetricsRecorder(dir);
+        recorder.start();
+        record(recorder, 300, "sda");
+        recorder.stop();
+
+        // A crash after the index was written back, but only the first 100 records of the data
+        Path file = RecordingSegment.listSegments(dir).get(0);
+        List<String> names = RecordingSegment.open(file).getSeriesNames();
+        long tornAt = RecordingSegment.encodeHeader(names).length + 100L * RecordingSegment.recordBytes(names.size());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate((int) (channel.size() - tornAt)), tornAt);
+        }
+
+        RecordingSegment segment = RecordingSegment.open(file);
+        assertEquals(100, segment.getRecordCount());
+        assertEquals(BASE + 99_000, segment.getTimestamp(segment.getRecordCount() - 1));
+        assertEquals(100, segment.findRecord(BASE + 250_000));
+    }
+
+    @Test
+    void testRotationAndRetentionBySize() throws Exception {
+        // Room for about a dozen records per segment, about 3 full segments kept
+        int recordBytes = RecordingSegment.recordBytes(10);
+        int segmentBytes = 512 + 10 * recordBytes;
+        long maxTotalBytes = 3L * (segmentBytes + RecordingSegment.INDEX_ENTRY_BYTES);
+        MetricsRecorder recorder = new MetricsRecorder(dir, segmentBytes, maxTotalBytes, Duration.ofDays(365));
+        recorder.start();
+        record(recorder, 100, "sda");
+        recorder.stop();
+
+        // Checked when a segment starts: the full ones fit the cap beside the new one
+        List<Path> segments = RecordingSegment.listSegments(dir);
+        assertEquals(4, segments.size(), "Old segments should be deleted");
+        long fullBytes = 0;
+        for (Path p : segments.subList(0, 3)) {
+            fullBytes += Files.size(p) + Files.size(RecordingSegment.indexFileFor(p));
+        }
+        assertTrue(fullBytes <= maxTotalBytes, "Segments should fit the byte cap: " + fullBytes);
+        RecordingSegment last = RecordingSegment.open(segments.get(3));
+        assertEquals(BASE + 99_000, last.getTimestamp(last.getRecordCount() - 1));
+    }
+
+    @Test
+    void testRetentionByAge() throws Exception {
+        int segmentBytes = 512 + 10 * RecordingSegment.recordBytes(10);
+        MetricsRecorder recorder = new MetricsRecorder(dir, segmentBytes, Long.MAX_VALUE, Duration.ofSeconds(30));
+        recorder.start();
+        record(recorder, 100, "sda");
+        recorder.stop();
+
+        List<Path> segments = RecordingSegment.listSegments(dir);
+        long newestStart = RecordingSegment.startMillisOf(segments.get(segments.size() - 1));
+        assertTrue(RecordingSegment.startMillisOf(segments.get(1)) >= newestStart - 30_000,
+            "Segments whose data ended more than 30 s before the newest one should be deleted");
+        assertTrue(RecordingSegment.startMillisOf(segments.get(0)) < newestStart - 30_000,
+            "A segment whose data reaches into the last 30 s should be kept");
+    }
+
+    @Test
+    void testDeviceChurnDoesNotRotateEverySample() throws Exception {
+        MetricsRecorder recorder = new MetricsRecorder(dir);
+        recorder.start();
+        recorder.accept(snapshot(BASE, 0.1, "sda"));
+        recorder.accept(snapshot(BASE + 1000, 0.2, "sda", "sdb"));
+        recorder.accept(snapshot(BASE + 2000, 0.3));
+        recorder.accept(snapshot(BASE + 3000, 0.4, "sda"));
+        awaitWritten(recorder, 4);
+
+        List<Path> segments = RecordingSegment.listSegments(dir);
+        assertEquals(1, segments.size(), "Devices coming and going should not start new segments");
+        recorder.accept(snapshot(BASE + MetricsRecorder.MIN_LAYOUT_MILLIS, 0.5, "sda", "sdb"));
+        recorder.stop();
+
+        RecordingSegment first = RecordingSegment.open(segments.get(0));
+        assertEquals(4, first.getRecordCount());
+        List<String> names = first.getSeriesNames();
+        assertFalse(names.contains(MetricsHistory.diskReadSeries("sdb")));
+        int sda = names.indexOf(MetricsHistory.diskReadSeries("sda"));
+        assertEquals(5, first.getValue(1, sda));
+        assertTrue(Double.isNaN(first.getValue(2, sda)), "A missing device should be recorded as a gap");
+
+        segments = RecordingSegment.listSegments(dir);
+        assertEquals(2, segments.size(), "A new device should start a new segment once the layout is old enough");
+        assertTrue(RecordingSegment.open(segments.get(1)).getSeriesNames()
+            .contains(MetricsHistory.diskReadSeries("sdb")));
+    }
+
+    @Test
+    void testNotStartedRecorderIgnoresSamples() throws Exception {
+        MetricsRecorder recorder = new MetricsRecorder(dir);
+        recorder.accept(snapshot(BASE, 0.1, "sda"));
+        assertEquals(0, recorder.getWrittenCount());
+        assertTrue(RecordingSegment.listSegments(dir).isEmpty());
+    }
+}
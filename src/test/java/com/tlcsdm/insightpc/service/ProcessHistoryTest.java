@@ -0,0 +1,156 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.ProcessSample;
+import com.tlcsdm.insightpc.model.ProcessSnapshot;
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ProcessHistory class.
+ */
+class ProcessHistoryTest {
+
+    private static ProcessSample process(int pid, double cpuLoad, long residentMemory) {
+        return process(pid, cpuLoad, residentMemory, 0);
+    }
+
+    private static ProcessSample process(int pid, double cpuLoad, long residentMemory, double readRate) {
+        return new ProcessSample(pid, 1, "p" + pid, "", "", "user", "RUNNING", residentMemory, 0, cpuLoad, 4,
+            1_000L + pid, 0, 0, 0, 0, readRate, readRate / 2);
+    }
+
+    private static ProcessSnapshot snapshot(long timestamp, List<ProcessSample> processes) {
+        return new ProcessSnapshot(timestamp, processes);
+    }
+
+    @Test
+    void testTracksTopConsumersByCpuAndByMemory() {
+        List<ProcessSample> processes = new ArrayList<>();
+        for (int pid = 1; pid <= 50; pid++) {
+            // High PIDs use the most CPU, low PIDs the most memory
+            processes.add(process(pid, pid / 100.0, (51 - pid) * 1_000L));
+        }
+        ProcessHistory history = new ProcessHistory();
+        history.accept(snapshot(10_000, processes));
+
+        assertEquals(2 * ProcessHistory.TOP_N, history.getTrackedCount());
+        assertTrue(history.isTracked(50), "Busiest process should be tracked");
+        assertTrue(history.isTracked(1), "Largest process should be tracked");
+        assertFalse(history.isTracked(25), "Process in neither top should not be tracked");
+        assertEquals(0, history.read(25, ProcessHistory.Metric.CPU, 0, 10_000, 10).size(),
+            "Untracked process should have no history");
+    }
+
+    @Test
+    void testDropsExitedAndStaleProcesses() {
+        ProcessHistory history = new ProcessHistory();
+        history.accept(snapshot(0, List.of(process(7, 0.9, 1_000), process(8, 0.1, 100))));
+        assertTrue(history.isTracked(7));
+
+        // PID 7 now ranks below twenty busier and larger processes
+        List<ProcessSample> busier = new ArrayList<>();
+        for (int pid = 100; pid < 100 + 2 * ProcessHistory.TOP_N; pid++) {
+            busier.add(process(pid, pid < 110 ? 1.0 : 0, pid < 110 ? 0 : 1_000_000));
+        }
+        List<ProcessSample> running = new ArrayList<>(busier);
+        running.add(process(7, 0, 0));
+        history.accept(snapshot(30_000, running));
+        assertTrue(history.isTracked(7), "Process should stay tracked for a while after leaving the top");
+        history.accept(snapshot(30_000 + ProcessHistory.EVICT_AFTER_MILLIS + 1, running));
+        assertFalse(history.isTracked(7), "Process should be dropped a while after leaving the top");
+
+        history.accept(snapshot(100_000, busier));
+        assertFalse(history.isTracked(8), "Exited process should be dropped");
+    }
+
+    @Test
+    void testPinnedProcessTrackedUntilExit() {
+        List<ProcessSample> processes = new ArrayList<>();
+        for (int pid = 1; pid <= 30; pid++) {
+            processes.add(process(pid, pid / 100.0, pid * 1_000L));
+        }
+        ProcessHistory history = new ProcessHistory();
+        history.accept(snapshot(0, processes));
+        assertFalse(history.isTracked(3));
+        assertTrue(history.pin(3, 1_003));
+        assertTrue(history.isPinned(3));
+
+        for (long t = 2_000; t <= 300_000; t += 2_000) {
+            history.accept(snapshot(t, processes));
+        }
+        assertTrue(history.isTracked(3), "Pinned process should stay tracked");
+        TimeSeriesWindow window = history.read(3, ProcessHistory.Metric.RESIDENT_MEMORY, 200_000, 300_000, 11);
+        for (double value : window.values()) {
+            assertEquals(3_000, value);
+        }
+
+        processes.remove(2);
+        history.accept(snapshot(302_000, processes));
+        assertFalse(history.isTracked(3), "Exited process should be dropped");
+        assertFalse(history.isPinned(3), "Exited process should be unpinned");
+    }
+
+    @Test
+    void testPinLimitAndTrackCountBoundedUnderChurn() {
+        ProcessHistory history = new ProcessHistory();
+        for (int pid = 1; pid <= ProcessHistory.MAX_PINNED; pid++) {
+            assertTrue(history.pin(pid, 1_000L + pid));
+        }
+        assertFalse(history.pin(1_000, 2_000), "Pinning should stop at the limit");
+
+        // Every refresh brings new top consumers while the old ones keep running
+        List<ProcessSample> processes = new ArrayList<>();
+        for (int pid = 1; pid <= ProcessHistory.MAX_PINNED; pid++) {
+            processes.add(process(pid, 0, 0));
+        }
+        int nextPid = 10_000;
+        for (int refresh = 0; refresh < 40; refresh++) {
+            for (int i = 0; i < processes.size(); i++) {
+                ProcessSample old = processes.get(i);
+                processes.set(i, process(old.pid(), 0, 0));
+            }
+            for (int i = 0; i < ProcessHistory.TOP_N; i++) {
+                processes.add(process(nextPid++, 1.0, 0));
+                processes.add(process(nextPid++, 0, 1_000_000));
+            }
+            history.accept(snapshot(refresh * 1_000L, processes));
+            assertTrue(history.getTrackedCount() <= ProcessHistory.MAX_TRACKS,
+                "Track count should stay bounded: " + history.getTrackedCount());
+        }
+        for (int pid = 1; pid <= ProcessHistory.MAX_PINNED; pid++) {
+            assertTrue(history.isTracked(pid), "Pinned processes should never be evicted");
+        }
+        assertTrue(history.isTracked(nextPid - 1), "Latest top consumer should be tracked");
+    }
+
+    @Test
+    void testReadMarksGapsAndRecordsIoRate() {
+        ProcessHistory history = new ProcessHistory();
+        long[] times = {0, 2_000, 4_000, 20_000};
+        for (int i = 0; i < times.length; i++) {
+            history.accept(snapshot(times[i], List.of(process(5, 0.5, 1_000, i * 1_000.0))));
+        }
+
+        TimeSeriesWindow cpu = history.read(5, ProcessHistory.Metric.CPU, 0, 20_000, 11);
+        assertEquals(0, cpu.startMillis());
+        assertEquals(2_000, cpu.stepMillis());
+        double[] values = cpu.values();
+        for (int i = 0; i <= 5; i++) {
+            assertEquals(0.5, values[i], "Slot " + i + " is within three refreshes of a sample");
+        }
+        for (int i = 6; i <= 9; i++) {
+            assertTrue(Double.isNaN(values[i]), "Slot " + i + " falls in the pause");
+        }
+        assertEquals(0.5, values[10]);
+
+        double[] io = history.read(5, ProcessHistory.Metric.IO_RATE, 0, 4_000, 3).values();
+        assertEquals(0, io[0]);
+        assertEquals(1_500, io[1], 0.001, "Read and write rates should be added");
+        assertEquals(3_000, io[2], 0.001);
+    }
+}
@@ -0,0 +1,90 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.ProcessSnapshot;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ProcessMonitor class.
+ */
+class ProcessMonitorTest {
+
+    private static ScheduledExecutorService scheduler;
+    private static ProcessMonitor monitor;
+
+    @BeforeAll
+    static void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        monitor = new ProcessMonitor(new SystemInfoService(), scheduler);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        monitor.stop();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testFetchListsAllProcessesIncludingThisOne() {
+        ProcessSnapshot snapshot = monitor.fetch();
+        assertTrue(snapshot.timestamp() > 0, "Timestamp should be set");
+        assertFalse(snapshot.processes().isEmpty(), "Should list processes");
+        long self = ProcessHandle.current().pid();
+        assertTrue(snapshot.processes().stream().anyMatch(p -> p.pid() == self),
+            "Should contain the current process");
+        assertTrue(snapshot.threadCount() >= snapshot.processes().size(),
+            "Every process has at least one thread");
+    }
+
+    @Test
+    void testCpuLoadBetweenFetchesAndPruning() {
+        monitor.fetch();
+        ProcessSnapshot snapshot = monitor.fetch();
+        assertTrue(snapshot.processes().stream().allMatch(p -> p.cpuLoad() >= 0),
+            "CPU load should never be negative");
+        assertTrue(snapshot.processes().stream().allMatch(p -> p.readRate() >= 0 && p.writeRate() >= 0),
+            "I/O rates should never be negative");
+        assertEquals(snapshot.processes().size(), monitor.getTrackedCount(),
+            "Only processes of the last fetch should be kept");
+    }
+
+    @Test
+    void testRefreshPublishesInBackground() throws Exception {
+        Thread testThread = Thread.currentThread();
+        CompletableFuture<ProcessSnapshot> received = new CompletableFuture<>();
+        // Skip the snapshot an earlier test may have left, delivered on this thread
+        Consumer<ProcessSnapshot> listener = snapshot -> {
+            if (Thread.currentThread() != testThread) {
+                received.complete(snapshot);
+            }
+        };
+        monitor.addListener(listener);
+        monitor.refresh();
+        ProcessSnapshot snapshot = received.get(30, TimeUnit.SECONDS);
+        monitor.removeListener(listener);
+
+        assertFalse(snapshot.processes().isEmpty());
+        assertNotNull(monitor.getLatest());
+    }
+
+    @Test
+    void testStartAndStop() {
+        monitor.start();
+        assertTrue(monitor.isRunning());
+        monitor.setIntervalMillis(5000);
+        assertTrue(monitor.isRunning(), "Changing the interval keeps the monitor running");
+        assertEquals(5000, monitor.getIntervalMillis());
+        monitor.stop();
+        assertFalse(monitor.isRunning());
+        assertThrows(IllegalArgumentException.class, () -> monitor.setIntervalMillis(0));
+    }
+}
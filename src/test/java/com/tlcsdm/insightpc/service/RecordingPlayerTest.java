@@ -0,0 +1,134 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.DiskSample;
+import com.tlcsdm.insightpc.model.NetworkSample;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the RecordingPlayer class.
+ */
+class RecordingPlayerTest {
+
+    private static final long BASE = 1_700_000_000_000L;
+    private static final int SAMPLES = 2_000;
+
+    @TempDir
+    static Path dir;
+
+    private static ScheduledExecutorService scheduler;
+
+    @BeforeAll
+    static void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        // Small segments so the recording spans several files
+        MetricsRecorder recorder = new MetricsRecorder(dir, 64 * 1024, Long.MAX_VALUE, Duration.ofDays(365));
+        recorder.start();
+        for (int i = 0; i < SAMPLES; i++) {
+            recorder.accept(new SystemSnapshot(BASE + i * 1000L, (i % 100) / 100.0, new double[]{0.5, 0.25},
+                8000, 8000 - i, 100, 10,
+                List.of(new DiskSample("sda", 0, 0, 0, 0, i, 2.0 * i)),
+                List.of(new NetworkSample("eth0", 0, 0, 3, 4)),
+                100, 1000));
+            if (i % 32 == 31) {
+                long expected = i + 1;
+                while (recorder.getWrittenCount() < expected) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+        recorder.stop();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testOpenReportsTimeRange() throws IOException {
+        assertTrue(RecordingSegment.listSegments(dir).size() > 1, "Recording should span several segments");
+        RecordingPlayer player = RecordingPlayer.open(dir, scheduler);
+        assertEquals(BASE, player.getStartMillis());
+        assertEquals(BASE + (SAMPLES - 1) * 1000L, player.getEndMillis());
+        assertEquals(BASE, player.getPositionMillis());
+        assertEquals(BASE, player.getLatest().timestamp());
+    }
+
+    @Test
+    void testSeekDecodesSnapshotAndWindow() throws IOException {
+        RecordingPlayer player = RecordingPlayer.open(dir, scheduler);
+        List<SystemSnapshot> received = new CopyOnWriteArrayList<>();
+        player.addListener(received::add);
+
+        long target = BASE + 1_500_500;
+        player.seek(target);
+        SystemSnapshot snapshot = player.getLatest();
+        assertEquals(BASE + 1_500_000, snapshot.timestamp(), "Seek should land on the last record at or before");
+        assertSame(snapshot, received.get(received.size() - 1));
+        assertEquals(0.0, snapshot.cpuLoad(), 1e-9);
+        assertArrayEquals(new double[]{0.5, 0.25}, snapshot.coreLoads());
+        assertEquals(8000, snapshot.memoryTotal());
+        assertEquals(1500, snapshot.memoryUsed());
+        assertEquals("sda", snapshot.disks().get(0).name());
+        assertEquals(3000, snapshot.disks().get(0).writeRate());
+        assertEquals(4, snapshot.networks().get(0).sentRate());
+
+        // Only the window before the position is decoded into the history
+        MetricsHistory history = player.getHistory();
+        TimeSeriesWindow window = history.read(MetricsHistory.CPU, BASE, target, 10_000);
+        // The first record inside the window is the one after target - window
+        assertEquals(BASE + 1_501_000 - RecordingPlayer.HISTORY_WINDOW_MILLIS, window.startMillis());
+        assertEquals(BASE + 1_500_000, window.timestampAt(window.size() - 1));
+    }
+
+    @Test
+    void testPlaybackAdvances() throws Exception {
+        RecordingPlayer player = RecordingPlayer.open(dir, scheduler);
+        player.setSpeed(100);
+        player.play();
+        assertTrue(player.isPlaying());
+        Thread.sleep(500);
+        player.pause();
+        assertFalse(player.isPlaying());
+        long position = player.getPositionMillis();
+        assertTrue(position > BASE + 10_000, "Position should advance at 100x, was " + (position - BASE));
+        assertTrue(player.getLatest().timestamp() > BASE);
+        player.close();
+    }
+
+    @Test
+    void testSwitchableSourceMovesListeners() throws IOException {
+        SamplingEngine engine = new SamplingEngine(new SystemInfoService(), scheduler);
+        SwitchableMetricsSource source = new SwitchableMetricsSource(engine);
+        List<SystemSnapshot> received = new CopyOnWriteArrayList<>();
+        source.addListener(received::add);
+
+        RecordingPlayer player = RecordingPlayer.open(dir, scheduler);
+        source.setDelegate(player);
+        assertSame(player.getHistory(), source.getHistory());
+        assertSame(player.getLatest(), received.get(received.size() - 1),
+            "Moved listeners should receive the new source's latest snapshot");
+        player.seek(BASE + 5_000);
+        assertEquals(BASE + 5_000, received.get(received.size() - 1).timestamp());
+    }
+
+    @Test
+    void testEmptyDirectoryFails(@TempDir Path empty) {
+        assertThrows(IOException.class, () -> RecordingPlayer.open(empty, scheduler));
+    }
+}
@@ -0,0 +1,178 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.NetworkSample;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import oshi.hardware.NetworkIF;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SamplingEngine class.
+ */
+class SamplingEngineTest {
+
+    private static ScheduledExecutorService scheduler;
+    private static SamplingEngine engine;
+
+    @BeforeAll
+    static void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        engine = new SamplingEngine(new SystemInfoService(), scheduler);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testSampleProducesConsistentSnapshot() {
+        SystemSnapshot snapshot = engine.sample();
+        assertNotNull(snapshot, "Snapshot should not be null");
+        assertTrue(snapshot.timestamp() > 0, "Timestamp should be set");
+        assertTrue(snapshot.memoryTotal() > 0, "Total memory should be positive");
+        assertTrue(snapshot.coreLoads().length > 0, "Should have per-core loads");
+        assertNotNull(snapshot.disks(), "Disks should not be null");
+        assertNotNull(snapshot.networks(), "Networks should not be null");
+        assertSame(snapshot, engine.getLatest(), "Latest should be the last published snapshot");
+    }
+
+    @Test
+    void testListenersReceiveSameSnapshot() {
+        List<SystemSnapshot> first = new ArrayList<>();
+        List<SystemSnapshot> second = new ArrayList<>();
+        Consumer<SystemSnapshot> firstListener = first::add;
+        Consumer<SystemSnapshot> secondListener = second::add;
+        engine.addListener(firstListener);
+        engine.addListener(secondListener);
+        SystemSnapshot published = engine.sample();
+        engine.removeListener(firstListener);
+        engine.removeListener(secondListener);
+
+        assertSame(published, first.get(first.size() - 1));
+        assertSame(published, second.get(second.size() - 1));
+    }
+
+    @Test
+    void testInvalidIntervalThrows() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new SamplingEngine(new SystemInfoService(), scheduler, 0, 1000));
+    }
+
+    @Test
+    void testHistoryRecordsPublishedSnapshots() {
+        SystemSnapshot published = engine.sample();
+        TimeSeriesWindow window = engine.getHistory().read(MetricsHistory.CPU,
+            published.timestamp(), published.timestamp(), 10);
+        assertEquals(1, window.size(), "History should contain the published snapshot");
+        assertTrue(engine.getHistory().getSeriesNames().contains(MetricsHistory.coreSeries(0)),
+            "History should contain per-core series");
+    }
+
+    @Test
+    void testEngineWithoutHistoryKeepsItEmpty() {
+        SamplingEngine local = new SamplingEngine(new SystemInfoService(), scheduler, 1000, 1000, false);
+        local.sample();
+        SystemSnapshot snapshot = local.sample();
+        assertSame(snapshot, local.getLatest());
+        assertTrue(local.getHistory().getSeriesNames().isEmpty(), "Nothing should be recorded");
+    }
+
+    @Test
+    void testIdleFollowsSubscribers() {
+        SamplingEngine local = new SamplingEngine(new SystemInfoService(), scheduler);
+        local.start();
+        try {
+            assertTrue(local.isIdle(), "Engine without listeners should be idle");
+            Consumer<SystemSnapshot> listener = s -> { };
+            local.addListener(listener);
+            assertFalse(local.isIdle(), "Engine with listeners should not be idle");
+            local.removeListener(listener);
+            assertTrue(local.isIdle(), "Engine should return to idle when the last listener leaves");
+        } finally {
+            local.stop();
+        }
+    }
+
+    @Test
+    void testIdleNetworkInterfaceIsRefreshedLessOften() {
+        AtomicInteger busyUpdates = new AtomicInteger();
+        AtomicInteger idleUpdates = new AtomicInteger();
+        // The busy interface receives 1000 bytes and 10 packets between refreshes
+        NetworkIF busy = fakeNetworkIF("busy", busyUpdates, 1_000);
+        NetworkIF idle = fakeNetworkIF("idle", idleUpdates, 0);
+        AtomicInteger sharedUpdates = new AtomicInteger();
+        NetworkIF shared = fakeNetworkIF("busy", sharedUpdates, 1_000);
+        SystemInfoService service = new SystemInfoService() {
+            private final List<NetworkIF> networkIFs = List.of(busy, idle);
+
+            @Override
+            public List<NetworkIF> getNetworkInterfaces() {
+                return List.of(shared);
+            }
+
+            @Override
+            public List<NetworkIF> enumerateNetworkInterfaces() {
+                return networkIFs;
+            }
+        };
+        SamplingEngine local = new SamplingEngine(service, scheduler);
+
+        int cycles = 4 * SamplingEngine.NIC_IDLE_REFRESH_CYCLES;
+        SystemSnapshot last = null;
+        for (int i = 0; i < cycles; i++) {
+            last = local.sample();
+            assertEquals(10L * busyUpdates.get(), last.networks().get(0).packetsRecv(),
+                "Busy interface should show its latest counters");
+        }
+
+        assertEquals(cycles, busyUpdates.get(), "Busy interface should be refreshed every cycle");
+        assertEquals(0, sharedUpdates.get(), "The list shared with the views should not be touched");
+        assertTrue(idleUpdates.get() <= SamplingEngine.NIC_IDLE_AFTER_SAMPLES + 4,
+            "Idle interface should be refreshed less often: " + idleUpdates.get());
+        NetworkSample idleSample = last.networks().get(1);
+        assertFalse(idleSample.hasActivity());
+        assertEquals(0, idleSample.recvRate());
+    }
+
+    /**
+     * Create a network interface whose counters grow by a fixed amount on each refresh.
+     */
+    private static NetworkIF fakeNetworkIF(String name, AtomicInteger updates, long bytesPerUpdate) {
+        return (NetworkIF) Proxy.newProxyInstance(NetworkIF.class.getClassLoader(), new Class<?>[]{NetworkIF.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getName" -> name;
+                case "updateAttributes" -> {
+                    updates.incrementAndGet();
+                    yield true;
+                }
+                case "getBytesRecv", "getBytesSent" -> updates.get() * bytesPerUpdate;
+                case "getPacketsRecv", "getPacketsSent" -> updates.get() * bytesPerUpdate / 100;
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> defaultValue(method.getReturnType());
+            });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        return type == boolean.class ? Boolean.FALSE : null;
+    }
+}
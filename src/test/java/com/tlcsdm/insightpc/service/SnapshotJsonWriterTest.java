@@ -0,0 +1,79 @@
+package com.tlcsdm.insightpc.service;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.tlcsdm.insightpc.model.DiskSample;
+import com.tlcsdm.insightpc.model.NetworkSample;
+import com.tlcsdm.insightpc.model.SystemSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SnapshotJsonWriter class.
+ */
+class SnapshotJsonWriterTest {
+
+    private static SystemSnapshot snapshot(long timestamp, double cpu) {
+        return new SystemSnapshot(timestamp, cpu, new double[]{cpu, 0.5},
+            1000, 400, 100, 10,
+            List.of(new DiskSample("sda", 1, 2, 3, 4, 5, 6)),
+            List.of(new NetworkSample("eth0", 1, 2, 7, 8)),
+            42, 420);
+    }
+
+    @Test
+    void testWritesOneObjectPerLine() {
+        StringWriter out = new StringWriter();
+        SnapshotJsonWriter writer = new SnapshotJsonWriter(out);
+        writer.accept(snapshot(1000, 0.25));
+        writer.accept(snapshot(2000, 0.75));
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        JsonObject first = JsonParser.parseString(lines[0]).getAsJsonObject();
+        assertEquals(1000, first.get("timestamp").getAsLong());
+        assertEquals(0.25, first.get("cpuLoad").getAsDouble());
+        assertEquals(2, first.getAsJsonArray("coreLoads").size());
+        assertEquals(42, first.get("processCount").getAsInt());
+        assertEquals("sda", first.getAsJsonArray("disks").get(0).getAsJsonObject().get("name").getAsString());
+        assertEquals(8, first.getAsJsonArray("networks").get(0).getAsJsonObject().get("sentRate").getAsDouble());
+        assertEquals(2000, JsonParser.parseString(lines[1]).getAsJsonObject().get("timestamp").getAsLong());
+    }
+
+    @Test
+    void testNaNIsWritten() {
+        StringWriter out = new StringWriter();
+        new SnapshotJsonWriter(out).accept(snapshot(1000, Double.NaN));
+        assertTrue(out.toString().contains("\"cpuLoad\":NaN"));
+    }
+
+    @Test
+    void testFailureStopsOutputOnce() {
+        AtomicInteger failures = new AtomicInteger();
+        Writer broken = new Writer() {
+            @Override
+            public void write(char[] buf, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        SnapshotJsonWriter writer = new SnapshotJsonWriter(broken, failures::incrementAndGet);
+        writer.accept(snapshot(1000, 0.1));
+        writer.accept(snapshot(2000, 0.2));
+        assertEquals(1, failures.get());
+    }
+}
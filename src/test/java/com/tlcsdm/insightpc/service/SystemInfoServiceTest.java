@@ -113,6 +113,12 @@ class SystemInfoServiceTest {
         assertEquals("1.0 TB", SystemInfoService.formatBytes(1024L * 1024 * 1024 * 1024));
     }
 
+    @Test
+    void testFormatRate() {
+        assertEquals("512 B/s", SystemInfoService.formatRate(512.7));
+        assertEquals("1.0 MB/s", SystemInfoService.formatRate(1024 * 1024));
+    }
+
     @Test
     void testFormatUptime() {
         assertEquals("0m 0s", SystemInfoService.formatUptime(0));
@@ -0,0 +1,81 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.ThreadSnapshot;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ThreadMonitor class.
+ */
+class ThreadMonitorTest {
+
+    private static final int SELF = (int) ProcessHandle.current().pid();
+
+    private static ScheduledExecutorService scheduler;
+    private static ThreadMonitor monitor;
+
+    @BeforeAll
+    static void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        monitor = new ThreadMonitor(new SystemInfoService(), scheduler);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        monitor.stop();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testFetchListsThreadsOfThisProcess() {
+        monitor.fetch(SELF);
+        ThreadSnapshot snapshot = monitor.fetch(SELF);
+        assertEquals(SELF, snapshot.pid());
+        assertTrue(snapshot.running(), "This process should be found");
+        assertFalse(snapshot.threads().isEmpty(), "A JVM has several threads");
+        assertTrue(snapshot.threads().stream().allMatch(t -> t.cpuLoad() >= 0 && t.contextSwitchRate() >= 0),
+            "Loads and rates should never be negative");
+        assertEquals(snapshot.threads().size(), monitor.getTrackedCount(),
+            "Only threads of the last fetch should be kept");
+    }
+
+    @Test
+    void testFetchOfMissingProcess() {
+        ThreadSnapshot snapshot = monitor.fetch(Integer.MAX_VALUE);
+        assertFalse(snapshot.running());
+        assertTrue(snapshot.threads().isEmpty());
+        assertEquals(0, monitor.getTrackedCount(), "Threads of another process should be dropped");
+    }
+
+    @Test
+    void testStartPublishesInBackgroundUntilStopped() throws Exception {
+        Thread testThread = Thread.currentThread();
+        CompletableFuture<ThreadSnapshot> published = new CompletableFuture<>();
+        Consumer<ThreadSnapshot> listener = snapshot -> {
+            if (Thread.currentThread() == testThread) {
+                published.completeExceptionally(new AssertionError("Published on the caller thread"));
+            }
+            published.complete(snapshot);
+        };
+        monitor.addListener(listener);
+        try {
+            monitor.start(SELF, 60_000);
+            assertTrue(monitor.isRunning());
+            assertEquals(SELF, monitor.getPid());
+            assertEquals(SELF, published.get(30, TimeUnit.SECONDS).pid());
+        } finally {
+            monitor.stop();
+            monitor.removeListener(listener);
+        }
+        assertFalse(monitor.isRunning());
+    }
+}
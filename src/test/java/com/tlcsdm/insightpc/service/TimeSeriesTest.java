@@ -0,0 +1,120 @@
+package com.tlcsdm.insightpc.service;
+
+import com.tlcsdm.insightpc.model.TimeSeriesWindow;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the TimeSeries class.
+ */
+class TimeSeriesTest {
+
+    private static final long BASE = 1_700_000_000_000L;
+
+    @Test
+    void testEmptySeries() {
+        TimeSeries series = new TimeSeries();
+        assertTrue(Double.isNaN(series.getLatest()));
+        assertEquals(0, series.read(BASE, BASE + 10_000, 100).size());
+    }
+
+    @Test
+    void testReadFinestTier() {
+        TimeSeries series = new TimeSeries();
+        for (int i = 0; i < 10; i++) {
+            series.add(BASE + i * 1000L, i);
+        }
+        TimeSeriesWindow window = series.read(BASE, BASE + 9_000, 100);
+        assertEquals(1000, window.stepMillis());
+        assertEquals(10, window.size());
+        assertEquals(BASE, window.startMillis());
+        assertEquals(BASE + 9_000, window.timestampAt(9));
+        assertEquals(9, window.values()[9]);
+        assertEquals(9, series.getLatest());
+    }
+
+    @Test
+    void testRollupAveragesBuckets() {
+        TimeSeries series = new TimeSeries();
+        for (int i = 0; i < 20; i++) {
+            series.add(BASE + i * 1000L, i);
+        }
+        // 20 seconds do not fit in 2 points at 1s resolution, so the 10s tier is used
+        TimeSeriesWindow window = series.read(BASE, BASE + 19_000, 2);
+        assertEquals(10_000, window.stepMillis());
+        assertEquals(2, window.size());
+        assertEquals(4.5, window.values()[0], 1e-9);
+        assertEquals(14.5, window.values()[1], 1e-9);
+    }
+
+    @Test
+    void testGapsAreNaN() {
+        TimeSeries series = new TimeSeries();
+        series.add(BASE, 1);
+        series.add(BASE + 3_000, 4);
+        double[] values = series.read(BASE, BASE + 3_000, 100).values();
+        assertEquals(4, values.length);
+        assertEquals(1, values[0]);
+        assertTrue(Double.isNaN(values[1]));
+        assertTrue(Double.isNaN(values[2]));
+        assertEquals(4, values[3]);
+    }
+
+    @Test
+    void testRingWrapsAndFallsBackToCoarserTier() {
+        TimeSeries series = new TimeSeries();
+        // Two hours of samples overflow the one hour 1s tier
+        int samples = 7_200;
+        for (int i = 0; i < samples; i++) {
+            series.add(BASE + i * 1000L, i);
+        }
+        long last = BASE + (samples - 1) * 1000L;
+        TimeSeriesWindow recent = series.read(last - 59_000, last, 60);
+        assertEquals(1000, recent.stepMillis());
+        assertEquals(samples - 1, recent.values()[59]);
+        assertEquals(samples - 60, recent.values()[0]);
+
+        TimeSeriesWindow old = series.read(BASE, last, 10_000);
+        assertEquals(10_000, old.stepMillis(), "The start is only covered by the 10s tier");
+        assertEquals(4.5, old.values()[0], 1e-9);
+    }
+
+    @Test
+    void testCompactLayoutKeepsChartWindowAtFinestTier() {
+        TimeSeries series = new TimeSeries(TimeSeries.Layout.COMPACT);
+        int samples = 1_200;
+        for (int i = 0; i < samples; i++) {
+            series.add(BASE + i * 1000L, i);
+        }
+        long last = BASE + (samples - 1) * 1000L;
+        TimeSeriesWindow chart = series.read(last - 599_000, last, 3_600);
+        assertEquals(1000, chart.stepMillis(), "Ten minutes fit the 1s tier");
+        assertEquals(600, chart.size());
+
+        TimeSeriesWindow older = series.read(BASE, last, 3_600);
+        assertEquals(60_000, older.stepMillis(), "Twenty minutes are only covered by the 1m tier");
+        assertEquals(19.5, older.values()[0], 1e-9, "BASE is 20s into its minute");
+        assertTrue(TimeSeries.Layout.COMPACT.getBytes() * 3 < TimeSeries.Layout.FULL.getBytes());
+    }
+
+    @Test
+    void testWindowBeforeFirstSampleUsesFinestTier() {
+        TimeSeries series = new TimeSeries();
+        for (int i = 0; i < 10; i++) {
+            series.add(BASE + i * 1000L, i);
+        }
+        TimeSeriesWindow window = series.read(BASE - 60_000, BASE + 9_000, 100);
+        assertEquals(1000, window.stepMillis(), "Nothing older was dropped, so the 1s tier is used");
+        assertEquals(BASE, window.startMillis());
+    }
+
+    @Test
+    void testOutOfOrderSampleIsIgnored() {
+        TimeSeries series = new TimeSeries();
+        series.add(BASE + 5_000, 5);
+        series.add(BASE, 1);
+        assertEquals(5, series.getLatest());
+        assertEquals(1, series.read(BASE, BASE + 5_000, 100).size());
+    }
+}
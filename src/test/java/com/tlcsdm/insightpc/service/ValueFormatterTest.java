@@ -0,0 +1,78 @@
+package com.tlcsdm.insightpc.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ValueFormatter class.
+ */
+class ValueFormatterTest {
+
+    private final ValueFormatter formatter = new ValueFormatter(Locale.US);
+
+    private String format(double value, int decimals) {
+        return formatter.clear().decimal(value, decimals).text().toString();
+    }
+
+    @Test
+    void testDecimalMatchesStringFormat() {
+        double[] values = {0, -0.0, -0.01, 0.04, 0.06, 1, 12.34, 12.36, 99.96, 123456.789, -3.21, 1e9 + 0.7};
+        for (double value : values) {
+            for (int decimals = 0; decimals <= 3; decimals++) {
+                assertEquals(String.format(Locale.US, "%." + decimals + "f", value), format(value, decimals),
+                    value + " with " + decimals + " decimals");
+            }
+        }
+    }
+
+    @Test
+    void testNegativeZeroAndSpecialValues() {
+        assertEquals("-0.0", format(-0.01, 1));
+        assertEquals("NaN", format(Double.NaN, 1));
+        assertEquals("Infinity", format(Double.POSITIVE_INFINITY, 0));
+        assertThrows(IllegalArgumentException.class, () -> formatter.decimal(1, 7));
+    }
+
+    @Test
+    void testPercent() {
+        assertEquals("12.3%", formatter.clear().percent(0.1234, 1).text().toString());
+        assertEquals("100%", formatter.clear().percent(1, 0).text().toString());
+    }
+
+    @Test
+    void testBytesMatchesSystemInfoService() {
+        long[] values = {-1, 0, 512, 1023, 1024, 1536, 1024 * 1024, 8L * 1024 * 1024 * 1024 + 123456789L,
+            5L * 1024 * 1024 * 1024 * 1024 * 1024};
+        ValueFormatter defaultFormatter = new ValueFormatter();
+        for (long value : values) {
+            assertEquals(SystemInfoService.formatBytes(value),
+                defaultFormatter.clear().bytes(value).text().toString(), String.valueOf(value));
+        }
+        assertEquals("1.0 MB/s", formatter.clear().rate(1024 * 1024).text().toString());
+    }
+
+    @Test
+    void testLocaleDecimalSeparator() {
+        ValueFormatter german = new ValueFormatter(Locale.GERMANY);
+        assertEquals("12,5%", german.clear().percent(0.125, 1).text().toString());
+        assertEquals("1,5 KB", german.clear().bytes(1536).text().toString());
+    }
+
+    @Test
+    void testComposedText() {
+        assertEquals("50.0% (4.0 GB / 8.0 GB)", formatter.clear()
+            .percent(0.5, 1).append(" (").bytes(4L << 30).append(" / ").bytes(8L << 30).append(')')
+            .text().toString());
+    }
+
+    @Test
+    void testBufferIsReused() {
+        CharSequence first = formatter.clear().bytes(1).text();
+        CharSequence second = formatter.clear().bytes(2).text();
+        assertSame(first, second);
+        assertEquals("2 B", second.toString());
+    }
+}